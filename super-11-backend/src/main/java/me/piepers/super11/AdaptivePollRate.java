@@ -0,0 +1,60 @@
+package me.piepers.super11;
+
+/**
+ * Determines the interval between two polls of the standings during a match window. While consecutive polls show
+ * changes (goals, cards, substitutions) the interval is halved, while the standings stay the same it is doubled. The
+ * interval never gets shorter than the floor or longer than the ceiling.
+ * <p>
+ * Not thread safe: to be used from the event loop of the verticle that owns it.
+ *
+ * @author Bas Piepers
+ */
+public class AdaptivePollRate {
+    private final long floorMillis;
+    private final long ceilingMillis;
+    private final long initialMillis;
+
+    private long intervalMillis;
+
+    /**
+     * @param floorMillis,   the shortest interval.
+     * @param ceilingMillis, the longest interval.
+     * @param initialMillis, the interval to start with, is kept between the floor and the ceiling.
+     */
+    public AdaptivePollRate(long floorMillis, long ceilingMillis, long initialMillis) {
+        if (floorMillis < 1 || ceilingMillis < floorMillis) {
+            throw new IllegalArgumentException("The floor must be positive and the ceiling can not be lower than the floor, but was: " + floorMillis + " and " + ceilingMillis);
+        }
+        this.floorMillis = floorMillis;
+        this.ceilingMillis = ceilingMillis;
+        this.initialMillis = Math.min(ceilingMillis, Math.max(floorMillis, initialMillis));
+        this.intervalMillis = this.initialMillis;
+    }
+
+    /**
+     * Starts over with the initial interval, to be called when a match window opens.
+     *
+     * @return the initial interval.
+     */
+    public long reset() {
+        this.intervalMillis = this.initialMillis;
+        return this.intervalMillis;
+    }
+
+    /**
+     * @param changed, whether the last poll changed the standings.
+     * @return the interval until the next poll.
+     */
+    public long next(boolean changed) {
+        if (changed) {
+            this.intervalMillis = Math.max(this.floorMillis, this.intervalMillis / 2);
+        } else {
+            this.intervalMillis = Math.min(this.ceilingMillis, this.intervalMillis * 2);
+        }
+        return this.intervalMillis;
+    }
+
+    public long current() {
+        return intervalMillis;
+    }
+}
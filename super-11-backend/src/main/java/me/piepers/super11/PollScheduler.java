@@ -0,0 +1,204 @@
+package me.piepers.super11;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import me.piepers.super11.domain.MatchWindow;
+import me.piepers.super11.domain.Season;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Plans when the standings need to be polled fast, based on the match windows of the {@link Season}. Instead of
+ * checking every so often whether a match is active, a one-shot timer is armed at the start of the next match window
+ * and another one at its end. When a window ends, the next one is planned. A while before a window opens, it is
+ * announced as approaching so that whatever the polling depends on can be prepared.
+ * <p>
+ * Not thread safe: to be used from the event loop of the verticle that owns it.
+ *
+ * @author Bas Piepers
+ */
+public class PollScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PollScheduler.class);
+    // How far ahead the planned timeline is shown.
+    private static final Duration TIMELINE_HORIZON = Duration.ofDays(14);
+
+    private final Vertx vertx;
+    private final Clock clock;
+    private final Duration approachLead;
+    private final Handler<MatchWindow> windowApproachingHandler;
+    private final Handler<MatchWindow> windowOpenedHandler;
+    private final Handler<MatchWindow> windowClosedHandler;
+
+    private Season season;
+    // The window that the armed timer is for and whether it is currently open.
+    private MatchWindow plannedWindow;
+    private boolean windowOpen = false;
+    private Long transitionTimerId;
+    private Instant transitionAt;
+    // The last window that was announced as approaching, so that re-planning doesn't announce it again.
+    private MatchWindow approachedWindow;
+    private Long approachTimerId;
+
+    /**
+     * @param vertx,                    the Vert.x instance to arm the timers with.
+     * @param approachLead,             how long before a match window opens it is announced as approaching.
+     * @param windowApproachingHandler, called the approach lead before a match window opens (or when planning, if the
+     *                                  window opens within the approach lead).
+     * @param windowOpenedHandler,      called when a match window opens (or is already open when planning).
+     * @param windowClosedHandler,      called when a match window that was opened is closed.
+     */
+    public PollScheduler(Vertx vertx, Duration approachLead, Handler<MatchWindow> windowApproachingHandler, Handler<MatchWindow> windowOpenedHandler, Handler<MatchWindow> windowClosedHandler) {
+        this(vertx, Clock.systemUTC(), approachLead, windowApproachingHandler, windowOpenedHandler, windowClosedHandler);
+    }
+
+    // With the clock that tells what time it is when planning, for a season of which the windows don't move along.
+    PollScheduler(Vertx vertx, Clock clock, Duration approachLead, Handler<MatchWindow> windowApproachingHandler, Handler<MatchWindow> windowOpenedHandler, Handler<MatchWindow> windowClosedHandler) {
+        this.vertx = vertx;
+        this.clock = clock;
+        this.approachLead = approachLead;
+        this.windowApproachingHandler = windowApproachingHandler;
+        this.windowOpenedHandler = windowOpenedHandler;
+        this.windowClosedHandler = windowClosedHandler;
+    }
+
+    /**
+     * (Re)plans the timers for the given season. If a window is open and it is still open according to the given
+     * season, it stays open. If it isn't, it is closed first.
+     *
+     * @param season, the season with the fixtures to plan for.
+     */
+    public void plan(Season season) {
+        this.season = season;
+        this.cancelTransition();
+        this.cancelApproach();
+
+        Instant now = this.clock.instant();
+        Optional<MatchWindow> window = season.matchWindowAt(now);
+        if (this.windowOpen && !(window.isPresent() && window.get().isActiveAt(now))) {
+            this.close();
+        }
+        if (window.isEmpty()) {
+            LOGGER.debug("There are no more match windows in this season, nothing is planned.");
+            this.plannedWindow = null;
+            return;
+        }
+
+        this.plannedWindow = window.get();
+        if (this.plannedWindow.isActiveAt(now)) {
+            if (!this.windowOpen) {
+                this.open();
+            }
+            this.armTransition(this.plannedWindow.getEnd(), now, this::close);
+        } else {
+            this.armApproach(this.plannedWindow, now);
+            this.armTransition(this.plannedWindow.getStart(), now, this::open);
+        }
+    }
+
+    public boolean isWindowOpen() {
+        return windowOpen;
+    }
+
+    /**
+     * Cancels the armed timer. Doesn't call the closed handler of an open window.
+     */
+    public void cancel() {
+        this.cancelTransition();
+        this.cancelApproach();
+        this.plannedWindow = null;
+    }
+
+    /**
+     * @return the planned transition and the match windows of the near future, to see when the standings will be
+     * polled fast.
+     */
+    public JsonObject timeline() {
+        Instant now = this.clock.instant();
+        JsonArray windows = new JsonArray();
+        if (Objects.nonNull(this.season)) {
+            this.season
+                    .matchWindowsBetween(now, now.plus(TIMELINE_HORIZON))
+                    .forEach(window -> windows.add(window.toJson()));
+        }
+        JsonObject timeline = new JsonObject()
+                .put("now", now)
+                .put("windowOpen", this.windowOpen)
+                .put("windows", windows);
+        if (Objects.nonNull(this.transitionAt)) {
+            timeline.put("nextTransition", new JsonObject()
+                    .put("at", this.transitionAt)
+                    .put("opensWindow", !this.windowOpen));
+        }
+        return timeline;
+    }
+
+    private void open() {
+        LOGGER.debug("Match window {} opened.", this.plannedWindow);
+        this.windowOpen = true;
+        this.windowOpenedHandler.handle(this.plannedWindow);
+    }
+
+    private void close() {
+        LOGGER.debug("Match window {} closed.", this.plannedWindow);
+        this.windowOpen = false;
+        this.windowClosedHandler.handle(this.plannedWindow);
+    }
+
+    private void armTransition(Instant at, Instant now, Runnable transition) {
+        // A timer needs at least a millisecond. Since a window is open strictly after its start, add one to be sure.
+        long delay = Math.max(1L, Duration.between(now, at).toMillis() + 1);
+        LOGGER.debug("Arming a timer at {} (in {} ms) to {} the match window.", at, delay, this.windowOpen ? "close" : "open");
+        this.transitionAt = at;
+        this.transitionTimerId = this.vertx.setTimer(delay, timerId -> {
+            this.transitionTimerId = null;
+            this.transitionAt = null;
+            transition.run();
+            // Plan what comes after this transition.
+            this.plan(this.season);
+        });
+    }
+
+    private void armApproach(MatchWindow window, Instant now) {
+        if (window.equals(this.approachedWindow)) {
+            return;
+        }
+        long delay = Duration.between(now, window.getStart().minus(this.approachLead)).toMillis();
+        if (delay <= 0) {
+            this.approach(window);
+        } else {
+            this.approachTimerId = this.vertx.setTimer(delay, timerId -> {
+                this.approachTimerId = null;
+                this.approach(window);
+            });
+        }
+    }
+
+    private void approach(MatchWindow window) {
+        LOGGER.debug("Match window {} is approaching.", window);
+        this.approachedWindow = window;
+        this.windowApproachingHandler.handle(window);
+    }
+
+    private void cancelApproach() {
+        if (Objects.nonNull(this.approachTimerId)) {
+            this.vertx.cancelTimer(this.approachTimerId);
+            this.approachTimerId = null;
+        }
+    }
+
+    private void cancelTransition() {
+        if (Objects.nonNull(this.transitionTimerId)) {
+            this.vertx.cancelTimer(this.transitionTimerId);
+            this.transitionTimerId = null;
+            this.transitionAt = null;
+        }
+    }
+}
@@ -1,26 +1,43 @@
 package me.piepers.super11;
 
 import io.reactivex.Completable;
+import io.reactivex.Maybe;
 import io.reactivex.Single;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
-import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.client.WebClientOptions;
 import io.vertx.reactivex.core.AbstractVerticle;
-import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.ext.web.client.HttpRequest;
 import io.vertx.reactivex.ext.web.client.WebClient;
+import io.vertx.reactivex.ext.web.codec.BodyCodec;
+import me.piepers.super11.application.HttpServerVerticle;
+import me.piepers.super11.application.Metrics;
+import me.piepers.super11.application.StandingsSnapshotHolder;
+import me.piepers.super11.application.StartupReport;
+import me.piepers.super11.application.model.StandingsSnapshot;
 import me.piepers.super11.domain.Competition;
+import me.piepers.super11.domain.MatchWindow;
+import me.piepers.super11.domain.Round;
 import me.piepers.super11.domain.Season;
-import me.piepers.super11.infrastructure.model.EredivisieSeason;
+import me.piepers.super11.infrastructure.CircuitBreaker;
+import me.piepers.super11.infrastructure.CompetitionStore;
+import me.piepers.super11.infrastructure.EredivisieSeasonParser;
+import me.piepers.super11.infrastructure.SeasonStore;
+import me.piepers.super11.infrastructure.StandingsHistoryLog;
 import me.piepers.super11.reactivex.domain.CompetitionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * A prototype that holds a cache with the standings of our competition. Takes care of caching lookup data and schedules
@@ -33,75 +50,145 @@ public class Super11UdenStandingsVerticle extends AbstractVerticle {
 
     private static final String DEFAULT_STORAGE_PATH = "/var/super-11/";
     private static final String DEFAULT_SEASON_STORAGE_FILE_NAME = "season.json";
+    private static final String DEFAULT_SEASON_STORE_FILE_NAME = "season.bin";
+    private static final String DEFAULT_COMPETITION_STORE_FILE_NAME = "competition.json";
+    private static final String DEFAULT_STANDINGS_HISTORY_FILE_NAME = "standings-history.log";
     private static final Integer THREE_MINUTES = 1000 * 180;
-    private static final Integer FIFTEEN_MINUTES = 1000 * 900;
-    private static final Integer TWENTY_FOUR_HOURS = 1000 * 3600 * 24;
+    private static final Integer ONE_MINUTE = 1000 * 60;
+    private static final Integer TEN_MINUTES = 1000 * 600;
+    // The season is downloaded once a day, unless it comes with validators: then it is asked for with a conditional
+    // request, which is cheap when nothing changed, and more often.
+    private static final long DEFAULT_SEASON_REFRESH_MINUTES = 24 * 60L;
+    private static final long DEFAULT_SEASON_CONDITIONAL_REFRESH_MINUTES = 60L;
     private static final Integer TWO_HOURS = 1000 * 3600 * 2;
+    private static final long SEASON_REQUEST_TIMEOUT = 1000 * 30L;
+    private static final String SEASON_HOST = "eredivisie.nl";
 
     // The cached "competition" which is the standings of our league. Is updated by a timer so reads may be "dirty".
     private Competition competition;
-    // The cached season which is retrieved from a file and updated daily.
+    // The cached season which is retrieved from a file and replaced when its schedule changes.
     private Season season;
+    // The validators of the last season that was fetched, to ask for the season only if it was modified since.
+    private String seasonEtag;
+    private String seasonLastModified;
+    // When the season was downloaded or found unmodified last, which is the start of the application if it is loaded.
+    private Instant seasonCheckedAt;
+    private Duration seasonRefreshInterval;
 
     private io.vertx.reactivex.core.Vertx rxVertx;
     private CompetitionService competitionService;
+    // Where the standings are published so that the http server instances can read them directly.
+    private StandingsSnapshotHolder standingsSnapshotHolder;
+    private Metrics metrics;
+    private StartupReport startupReport;
+    // The fingerprint of the standings that were published last, to be able to suppress polls that didn't change them.
+    private Long publishedFingerprint = null;
 
     private String storagePath = DEFAULT_STORAGE_PATH;
     private String seasonFile = DEFAULT_SEASON_STORAGE_FILE_NAME;
+    private String seasonStoreFile = DEFAULT_SEASON_STORE_FILE_NAME;
+    // Whether the season is also written as JSON (to the season file) next to the binary store.
+    private boolean exportSeasonJson = false;
+    private SeasonStore seasonStore;
+    private String competitionStoreFile = DEFAULT_COMPETITION_STORE_FILE_NAME;
+    // Keeps the last competition so that the standings can be served right after a restart.
+    private CompetitionStore competitionStore;
+    private String standingsHistoryFile = DEFAULT_STANDINGS_HISTORY_FILE_NAME;
+    // Every change of the standings, to show how they were at a moment.
+    private StandingsHistoryLog standingsHistory;
 
+    // The timer of the next fast poll (or the poll that is being handled) while a match window is open.
     private Long competitionPollTimerId = null;
+    // The interval of the fast poller, adapts to how often the standings change.
+    private AdaptivePollRate pollRate;
+    // Starts and stops the fast poller at the start and end of the match windows of the season.
+    private PollScheduler pollScheduler;
+    private CircuitBreaker seasonCircuitBreaker;
 
     @Override
     public void init(Vertx vertx, Context context) {
         super.init(vertx, context);
         this.rxVertx = new io.vertx.reactivex.core.Vertx(vertx);
         this.competitionService = CompetitionService.createProxy(rxVertx);
+        this.standingsSnapshotHolder = StandingsSnapshotHolder.create(vertx);
+        this.metrics = Metrics.create(vertx);
+        this.startupReport = StartupReport.create(vertx);
         JsonObject standingsConfig = context.config().getJsonObject("standings");
         if (Objects.nonNull(standingsConfig)) {
             String storagePath = standingsConfig.getString("local_storage_path", DEFAULT_STORAGE_PATH);
             String seasonFile = standingsConfig.getString("season_file_name", DEFAULT_SEASON_STORAGE_FILE_NAME);
             this.storagePath = storagePath;
             this.seasonFile = seasonFile;
+            this.seasonStoreFile = standingsConfig.getString("season_store_file_name", DEFAULT_SEASON_STORE_FILE_NAME);
+            this.exportSeasonJson = standingsConfig.getBoolean("export_season_json", false);
+            this.competitionStoreFile = standingsConfig.getString("competition_store_file_name", DEFAULT_COMPETITION_STORE_FILE_NAME);
+            this.standingsHistoryFile = standingsConfig.getString("standings_history_file_name", DEFAULT_STANDINGS_HISTORY_FILE_NAME);
         }
+        JsonObject pollConfig = Objects.nonNull(standingsConfig) ? standingsConfig : new JsonObject();
+        this.pollRate = new AdaptivePollRate(
+                pollConfig.getLong("poll_interval_floor_seconds", ONE_MINUTE / 1000L) * 1000,
+                pollConfig.getLong("poll_interval_ceiling_seconds", TEN_MINUTES / 1000L) * 1000,
+                THREE_MINUTES);
         this.storagePath = this.storagePath.endsWith(File.separator) ? this.storagePath : this.storagePath + File.separator;
         this.seasonFile = this.seasonFile.startsWith(File.separator) ? this.seasonFile.substring(1, this.seasonFile.length() - 1) : this.seasonFile;
 
-        LOGGER.debug("Using storage path/file: {}{}", this.storagePath, this.seasonFile);
+        LOGGER.debug("Using storage path/file: {}{}", this.storagePath, this.seasonStoreFile);
+        this.seasonStore = new SeasonStore(rxVertx, Paths.get(this.storagePath, this.seasonStoreFile));
+        this.competitionStore = new CompetitionStore(rxVertx, Paths.get(this.storagePath, this.competitionStoreFile));
+        this.standingsHistory = new StandingsHistoryLog(rxVertx, Paths.get(this.storagePath, this.standingsHistoryFile));
 
-        rxVertx.setPeriodic(FIFTEEN_MINUTES, this::handleFifteenMinutesTimer);
-        rxVertx.setPeriodic(TWENTY_FOUR_HOURS, this::handleDailyLookups);
+        Duration accessKeyPrewarmLead = Duration.ofMinutes(pollConfig.getLong("access_key_prewarm_minutes", TEN_MINUTES / ONE_MINUTE.longValue()));
+        this.seasonCircuitBreaker = CircuitBreaker.create(rxVertx, SEASON_HOST, context.config().getJsonObject("upstream"));
+        this.pollScheduler = new PollScheduler(vertx, accessKeyPrewarmLead, this::prepareAccessKey, window -> this.startCompetitionPolling(), window -> this.stopCompetitionPolling());
+        this.seasonRefreshInterval = Duration.ofMinutes(pollConfig.getLong("season_refresh_minutes", DEFAULT_SEASON_REFRESH_MINUTES));
+        Duration seasonConditionalRefreshInterval = Duration.ofMinutes(pollConfig.getLong("season_conditional_refresh_minutes", DEFAULT_SEASON_CONDITIONAL_REFRESH_MINUTES));
+        this.seasonCheckedAt = Instant.now();
+        rxVertx.setPeriodic(Math.min(this.seasonRefreshInterval.toMillis(), seasonConditionalRefreshInterval.toMillis()), this::handleSeasonRefresh);
         rxVertx.setPeriodic(TWO_HOURS, this::handleTwoHoursLookups);
     }
 
     @Override
     public void start(Future<Void> future) {
-        // Cache a competition to begin with and cache/update the season contents.
-        competitionService
-                .rxFetchLatestCompetitionStandings()
-                .doOnSuccess(competition -> LOGGER.debug("Fetched latest competition."))
-                .doOnSuccess(competition -> this.competition = competition)
+        // The steps of the startup that don't depend on each other run at the same time: the latest competition is
+        // fetched right away, while the competition we had before the restart (if any) is restored and the season is
+        // loaded. The deployment only waits for the season, the standings are served as soon as they are there.
+        Single<Competition> latestCompetition = this.startupReport
+                .time("standings.fetch_competition", competitionService.rxFetchLatestCompetitionStandings())
+                .cache();
+        // Start fetching right away, it is handled once the competition from before the restart (if any) is published.
+        latestCompetition.subscribe(competition -> LOGGER.debug("Fetched latest competition."), throwable -> {
+        });
+        Completable storagePathCreated = this.startupReport
+                .time("standings.create_storage_path", rxVertx.fileSystem()
+                        .rxExists(storagePath)
+                        .flatMapCompletable(exists -> {
+                            if (exists) {
+                                return Completable.complete();
+                            } else {
+                                return rxVertx.fileSystem().rxMkdirs(storagePath);
+                            }
+                        }))
+                .cache();
+
+        // The competition that was restored must be published before the latest one, not after.
+        storagePathCreated
+                .andThen(this.startupReport.time("standings.restore_competition", this.competitionStore.rxLoad()))
+                .doOnSuccess(storedCompetition -> this.restoreStandings(storedCompetition))
                 .ignoreElement()
-                .andThen(rxVertx.fileSystem().rxExists(storagePath))
-                .flatMapCompletable(exists -> {
-                    if (exists) {
-                        return Completable.complete();
-                    } else {
-                        return rxVertx.fileSystem().rxMkdirs(storagePath);
-                    }
-                })
-                .andThen(rxVertx.fileSystem().rxExists(storagePath + seasonFile))
-                .flatMap(exists -> {
-                    if (exists) {
-                        return this.readSeasonFromFile();
-                    } else {
-                        return this.fetchSeasonFromApi()
-                                .map(eredivisieSeason -> Season.from(eredivisieSeason))
-                                .doOnSuccess(season -> this.writeSeasonToFile(season));
-                    }
-                })
+                .onErrorComplete()
+                .andThen(this.handlePolledCompetition(latestCompetition))
+                .subscribe();
+
+        // The stored season, or the season in JSON as stored by an earlier version, or a season from the api.
+        storagePathCreated
+                .andThen(this.startupReport.time("standings.load_season", this.seasonStore.rxLoad()))
+                .doOnSuccess(season -> LOGGER.debug("Successfully read season contents from the store."))
+                .switchIfEmpty(this.startupReport.time("standings.import_season", this.importSeasonFromJsonFile()))
+                .switchIfEmpty(Single.defer(() -> this.startupReport.time("standings.fetch_season", this.fetchSeasonFromApi())
+                        .doOnSuccess(season -> this.storeSeason(season))))
                 .doOnSuccess(season -> this.season = season)
-                .doOnSuccess(season -> LOGGER.debug("Season read and updated. Check if we need to poll..."))
-                .doOnSuccess(season -> this.checkAndStartCompetitionPolling())
+                .doOnSuccess(season -> LOGGER.debug("Season read and updated. Planning when we need to poll..."))
+                .doOnSuccess(season -> this.pollScheduler.plan(season))
                 .subscribe(season -> future.complete(),
                         throwable -> future.fail(throwable));
 
@@ -111,75 +198,169 @@ public class Super11UdenStandingsVerticle extends AbstractVerticle {
                     if (Objects.isNull(this.competition)) {
                         message.fail(500, "No competition was cached yet.");
                     } else {
-                        message.reply(this.competition.toJson());
+                        // Sent with the codec of the competition, so local receivers get this instance.
+                        message.reply(this.competition);
                     }
                 });
 
+        vertx
+                .eventBus()
+                .<JsonObject>consumer("get.poll.schedule", message -> message.reply(this.pollScheduler.timeline()));
+
+        vertx
+                .eventBus()
+                .<JsonObject>consumer("get.standings.history", message -> this.standingsHistory(message.body())
+                        .subscribe(message::reply, throwable -> message.fail(throwable instanceof IllegalArgumentException ? 400 : 500, throwable.getMessage())));
+
+    }
+
+    /**
+     * Stores the competition we have, so that it is served right away when the application is started again.
+     *
+     * @param future, completes when the competition is stored.
+     */
+    @Override
+    public void stop(Future<Void> future) {
+        Completable historyClosed = this.standingsHistory
+                .rxClose()
+                .doOnError(throwable -> LOGGER.error("Unable to close the standings history", throwable))
+                .onErrorComplete();
+        if (Objects.isNull(this.competition)) {
+            historyClosed.subscribe(() -> future.complete());
+            return;
+        }
+        historyClosed
+                .andThen(this.competitionStore.save(this.competition))
+                .subscribe(() -> {
+                    LOGGER.debug("Stored the competition before stopping.");
+                    future.complete();
+                }, throwable -> future.fail(throwable));
+    }
+
+    // Publishes the competition we had before a restart, marked as stale until the latest one is fetched.
+    private void restoreStandings(CompetitionStore.StoredCompetition storedCompetition) {
+        LOGGER.debug("Restoring the competition that was stored at {}.", storedCompetition.getStoredAt());
+        this.metrics.increment("standings.restored");
+        this.standingsSnapshotHolder.markStale(storedCompetition.getStoredAt());
+        Competition competition = storedCompetition.getCompetition();
+        this.publish(competition, competition.getData().standingsFingerprint());
     }
 
     // TODO: handle error situations better.
-    private void writeSeasonToFile(Season season) {
-        LOGGER.debug("Writing season to file {}, overwriting existing file.", storagePath + seasonFile);
-        vertx
-                .fileSystem()
-                .rxWriteFile(storagePath + seasonFile, Buffer.buffer(season.toJson().encode()))
-                .subscribe(() -> LOGGER.debug("Season file was written successfully."),
-                        throwable -> LOGGER.error("Error occurred when writing season file", throwable));
+    private void storeSeason(Season season) {
+        LOGGER.debug("Storing season in {}{}.", storagePath, seasonStoreFile);
+        this.seasonStore
+                .save(season)
+                .subscribe(() -> LOGGER.debug("Season was stored successfully."),
+                        throwable -> LOGGER.error("Error occurred when storing the season", throwable));
+        if (this.exportSeasonJson) {
+            this.seasonStore
+                    .rxExportJson(season, Paths.get(storagePath, seasonFile))
+                    .subscribe(() -> LOGGER.debug("Season was exported to {}{}.", storagePath, seasonFile),
+                            throwable -> LOGGER.error("Error occurred when exporting the season", throwable));
+        }
+    }
+
+    // Imports the season that was stored in JSON by an earlier version (if any) into the store.
+    private Maybe<Season> importSeasonFromJsonFile() {
+        return this.seasonStore
+                .rxImportJson(Paths.get(storagePath, seasonFile))
+                .doOnSuccess(season -> LOGGER.debug("Imported season contents from {}{}.", storagePath, seasonFile))
+                .doOnSuccess(season -> this.seasonStore.save(season).subscribe(() -> {
+                }, throwable -> LOGGER.error("Error occurred when storing the imported season", throwable)))
+                .doOnError(throwable -> LOGGER.error("Unable to import the season from {}{}, ignoring it.", storagePath, seasonFile, throwable))
+                .onErrorComplete();
+    }
 
+    private Single<Season> fetchSeasonFromApi() {
+        return this.requestSeasonFromApi(false).toSingle();
     }
 
-    private Single<Season> readSeasonFromFile() {
-        return
-                vertx
-                        .fileSystem()
-                        .rxReadFile(storagePath + seasonFile)
-                        .doOnSuccess(buffer -> LOGGER.debug("Successfully read season contents from file."))
-                        .flatMap(buffer -> Single
-                                .just(new Season(buffer
-                                        .toJsonObject())));
+    // Empty if the season wasn't modified since it was fetched last.
+    private Maybe<Season> fetchModifiedSeasonFromApi() {
+        return this.requestSeasonFromApi(true);
     }
 
-    private Single<EredivisieSeason> fetchSeasonFromApi() {
-        return WebClient
+    // The rounds are parsed into a season while they are received, see the EredivisieSeasonParser.
+    private Maybe<Season> requestSeasonFromApi(boolean conditional) {
+        HttpRequest<Season> request = WebClient
                 .create(vertx, new WebClientOptions())
                 // TODO: make the urls etc configurable.
-                .get(443, "eredivisie.nl", "/nl-nl/DesktopModules/DotControl/DCEredivisieLive/API/Match/GetAllRounds")
+                .get(443, SEASON_HOST, "/nl-nl/DesktopModules/DotControl/DCEredivisieLive/API/Match/GetAllRounds")
                 .addQueryParam("moduleId", "416")
                 .addQueryParam("tabId", "95")
                 .addQueryParam("showNext", "false")
                 .putHeader("Accept", "application/json")
                 .ssl(true)
-                .rxSend()
-                .flatMap(response -> {
-                    if (response.statusCode() == 200) {
-                        JsonArray jsonArray = new JsonArray(response.bodyAsString());
-                        JsonObject jsonObject = new JsonObject()
-                                .put("lastChecked", Instant.now())
-                                .put("rounds", jsonArray);
-                        EredivisieSeason season = new EredivisieSeason(jsonObject);
-                        return Single.just(season);
+                .timeout(SEASON_REQUEST_TIMEOUT)
+                .as(BodyCodec.<Season>newInstance(EredivisieSeasonParser.bodyCodec()));
+        if (conditional && Objects.nonNull(this.seasonEtag)) {
+            request.putHeader("If-None-Match", this.seasonEtag);
+        }
+        if (conditional && Objects.nonNull(this.seasonLastModified)) {
+            request.putHeader("If-Modified-Since", this.seasonLastModified);
+        }
+        return this.seasonCircuitBreaker.execute(request.rxSend(), response -> response.statusCode() >= 500 || response.statusCode() == 429, true)
+                .flatMapMaybe(response -> {
+                    if (response.statusCode() == 304) {
+                        this.seasonCheckedAt = Instant.now();
+                        this.metrics.increment("season.not_modified");
+                        return Maybe.empty();
+                    } else if (response.statusCode() == 200 && Objects.nonNull(response.body())) {
+                        this.seasonCheckedAt = Instant.now();
+                        this.seasonEtag = response.getHeader("ETag");
+                        this.seasonLastModified = response.getHeader("Last-Modified");
+                        if (!this.hasSeasonValidators()) {
+                            LOGGER.debug("The season came without an ETag or Last-Modified, it is downloaded again in {}.", this.seasonRefreshInterval);
+                        }
+                        return Maybe.just(response.body());
                     } else {
-                        return Single.error(new Exception("Something went wrong while requesting new season information from the api. Site code: " + response.statusCode()));
+                        return Maybe.error(new Exception("Something went wrong while requesting new season information from the api. Site code: " + response.statusCode()));
                     }
                 });
+    }
 
+    // Makes sure the access key is valid for the whole match window, so that the first poll in it doesn't wait for oauth.
+    private void prepareAccessKey(MatchWindow window) {
+        long validForMillis = Math.max(0L, Duration.between(Instant.now(), window.getEnd()).toMillis());
+        this.competitionService
+                .rxPrepareAccessKey(validForMillis)
+                .subscribe(() -> LOGGER.debug("The access key is prepared for match window {}.", window),
+                        throwable -> LOGGER.warn("Unable to prepare the access key for match window {}.", window, throwable));
     }
 
-    // TODO: would be nice if we could use a cron-tab style kind of timing so that it occurs once every night or something.
-    private void handleDailyLookups(Long timerId) {
-        LOGGER.debug("Handling daily lookups with timer id: {}", timerId);
-        this.fetchSeasonFromApi()
-                .map(eredivisieSeason -> Season.from(eredivisieSeason))
-                .doOnSuccess(season -> this.writeSeasonToFile(season))
-                .doOnError(throwable -> throwable.printStackTrace())
-                .subscribe(season -> this.season = season,
-                        throwable -> LOGGER.error("Unable to update the season contents", throwable));
+    private void handleSeasonRefresh(Long timerId) {
+        if (!this.hasSeasonValidators() && Instant.now().isBefore(this.seasonCheckedAt.plus(this.seasonRefreshInterval))) {
+            // Without validators every refresh downloads the whole season, which is only done once per refresh interval.
+            return;
+        }
+        LOGGER.debug("Refreshing the season with timer id: {}", timerId);
+        this.fetchModifiedSeasonFromApi()
+                .subscribe(this::updateSeason,
+                        throwable -> LOGGER.error("Unable to update the season contents", throwable),
+                        () -> LOGGER.debug("The season was not modified since it was fetched last."));
+    }
 
+    private boolean hasSeasonValidators() {
+        return Objects.nonNull(this.seasonEtag) || Objects.nonNull(this.seasonLastModified);
     }
 
-    private void handleFifteenMinutesTimer(Long timerId) {
-        LOGGER.debug("Timer triggered with id {}", timerId);
-        this.checkAndStartCompetitionPolling();
+    // Replaces the season, stores it and plans again, but only if rounds were rescheduled.
+    private void updateSeason(Season fetched) {
+        if (Objects.nonNull(this.season)) {
+            List<Integer> changedRounds = this.season.roundsChangedIn(fetched);
+            if (changedRounds.isEmpty()) {
+                this.metrics.increment("season.unchanged");
+                LOGGER.debug("The schedule of the season didn't change.");
+                return;
+            }
+            LOGGER.info("Round(s) {} of the season were rescheduled.", changedRounds);
+        }
+        this.metrics.increment("season.rescheduled");
+        this.season = fetched;
+        this.storeSeason(fetched);
+        // Kickoffs have moved, so plan again right away.
+        this.pollScheduler.plan(fetched);
     }
 
     /**
@@ -198,39 +379,153 @@ public class Super11UdenStandingsVerticle extends AbstractVerticle {
         }
     }
 
-    private void checkAndStartCompetitionPolling() {
-        // Determine whether we need to poll for competition standings.
-        boolean matchActive = this.season.isMatchActiveNow();
-        if (matchActive) {
-            if (Objects.isNull(this.competitionPollTimerId)) {
-                LOGGER.debug("A match is active but no poller is active yet. Start a poller with an interval of {}", THREE_MINUTES);
-                this.competitionPollTimerId = rxVertx.setPeriodic(THREE_MINUTES, this::handleCompetitionLookupTimer);
-            } else {
-                LOGGER.debug("A match is active and there is already a poller active. Not starting a new one.");
-            }
+    private void startCompetitionPolling() {
+        if (Objects.isNull(this.competitionPollTimerId)) {
+            long interval = this.pollRate.reset();
+            LOGGER.debug("A match window opened. Start polling, the first poll is in {} ms.", interval);
+            this.competitionPollTimerId = rxVertx.setTimer(interval, this::handleFastPollTimer);
         } else {
-            // If we were polling, stop that timer.
-            LOGGER.debug("There is currently no competition active. We have a poller active: {}", Objects.nonNull(this.competitionPollTimerId) ? "yes (" + this.competitionPollTimerId + ")." : "no.");
-            if (Objects.nonNull(this.competitionPollTimerId)) {
-                boolean result = rxVertx.cancelTimer(this.competitionPollTimerId);
-                LOGGER.debug("Timer stopped successfully: {}", result ? "yes" : "NO!");
-                if (result) {
-                    this.competitionPollTimerId = null;
-                }
-            }
+            LOGGER.debug("A match window opened and there is already a poller active. Not starting a new one.");
         }
     }
 
+    private void stopCompetitionPolling() {
+        LOGGER.debug("The match window closed. We have a poller active: {}", Objects.nonNull(this.competitionPollTimerId) ? "yes (" + this.competitionPollTimerId + ")." : "no.");
+        if (Objects.nonNull(this.competitionPollTimerId)) {
+            rxVertx.cancelTimer(this.competitionPollTimerId);
+            this.competitionPollTimerId = null;
+            // Poll once more so that the final results of the window are shown right away.
+            this.handleCompetitionLookupTimer(-1L);
+        }
+    }
+
+    // Polls and plans the next poll based on whether this one changed the standings, unless polling was stopped.
+    private void handleFastPollTimer(Long timerId) {
+        this.pollCompetition(timerId)
+                .subscribe(changed -> {
+                    if (Objects.equals(this.competitionPollTimerId, timerId)) {
+                        long interval = this.pollRate.next(changed);
+                        LOGGER.debug("The standings {}, next poll in {} ms.", changed ? "changed" : "did not change", interval);
+                        this.competitionPollTimerId = rxVertx.setTimer(interval, this::handleFastPollTimer);
+                    }
+                });
+    }
+
     private void handleCompetitionLookupTimer(Long timerId) {
+        this.pollCompetition(timerId).subscribe();
+    }
+
+    // Populate/update the competition object with the contents from the api. Emits whether the standings changed.
+    private Single<Boolean> pollCompetition(Long timerId) {
         LOGGER.debug("Polling for latest competition standings (id: {})", timerId);
+        return this.handlePolledCompetition(competitionService.rxFetchLatestCompetitionStandings());
+    }
+
+    private Single<Boolean> handlePolledCompetition(Single<Competition> polledCompetition) {
+        return polledCompetition
+                .doOnSuccess(competition -> LOGGER.debug("Fetched competition, publishing it if the standings changed..."))
+                .doOnSuccess(competition -> this.standingsSnapshotHolder.markFresh())
+                .map(competition -> this.publishStandings(competition))
+                .doOnError(throwable -> LOGGER.error("Unable to fetch competition data: {}", throwable.getMessage()))
+                // Keep serving what we have, but let the clients know it may be outdated.
+                .doOnError(throwable -> this.standingsSnapshotHolder.markStale(Instant.now()))
+                .onErrorReturnItem(false);
+    }
 
-        // Populate/update the competition object with the contents from the api.
-        competitionService
-                .rxFetchLatestCompetitionStandings()
-                .doOnSuccess(competition -> LOGGER.debug("Publishing updated competition to the event bus..."))
-                .doOnSuccess(competition -> vertx.eventBus().publish("competition.update", competition.toJson()))
-                .doOnError(throwable -> throwable.printStackTrace())
-                .subscribe(competition -> this.competition = competition,
-                        throwable -> LOGGER.error("Unable to fetch competition data.", throwable));
+    /**
+     * Caches the competition and publishes the standings as a new snapshot in the shared data if they changed. Polls
+     * that didn't change the standings are dropped based on a fingerprint, before anything is mapped or encoded. Only
+     * then the http server instances are notified and the update (usually a delta against the previous version) is
+     * pushed to the stomp destination (once, no matter how many http server instances are deployed). Changed
+     * standings are stored as well, to be served right away after a restart.
+     *
+     * @param competition, the competition that was fetched from the api.
+     * @return whether the standings changed.
+     */
+    private boolean publishStandings(Competition competition) {
+        this.metrics.increment("standings.polls");
+        long fingerprint = competition.getData().standingsFingerprint();
+        if (Objects.equals(this.publishedFingerprint, fingerprint)) {
+            long suppressed = this.metrics.increment("standings.suppressed");
+            LOGGER.debug("Standings did not change since the last poll, not publishing them ({} suppressed so far).", suppressed);
+            return false;
+        }
+        this.publish(competition, fingerprint);
+        this.competitionStore
+                .save(competition)
+                .subscribe(() -> LOGGER.debug("Competition was stored successfully."),
+                        throwable -> LOGGER.error("Error occurred when storing the competition", throwable));
+        this.standingsHistory
+                .record(Instant.now(), competition)
+                .subscribe(() -> {
+                }, throwable -> LOGGER.error("Error occurred when appending the standings to the history", throwable));
+        return true;
+    }
+
+    /**
+     * Answers a query on the history of the standings. Either the history of a draft in a period (with "draft" and
+     * optionally "from" and "to"), or the standings at the end of a round (with "round") or at a moment (with "at").
+     *
+     * @param query, the parameters of the query, the moments as ISO-8601 instants.
+     * @return the result of the query, fails with an IllegalArgumentException if the query is not valid or there were
+     * no standings at the moment asked for.
+     */
+    private Single<JsonObject> standingsHistory(JsonObject query) {
+        try {
+            if (Objects.nonNull(query.getString("draft"))) {
+                String draft = query.getString("draft");
+                Instant from = Objects.nonNull(query.getString("from")) ? Instant.parse(query.getString("from")) : Instant.EPOCH;
+                Instant to = Objects.nonNull(query.getString("to")) ? Instant.parse(query.getString("to")) : Instant.now();
+                return this.standingsHistory
+                        .rxHistoryOf(draft, from, to)
+                        .map(history -> new JsonObject()
+                                .put("draft", draft)
+                                .put("from", from)
+                                .put("to", to)
+                                .put("history", history.stream().map(StandingsHistoryLog.DraftStanding::toJson).collect(Collectors.toList())));
+            }
+            Instant at;
+            JsonObject result = new JsonObject();
+            if (Objects.nonNull(query.getString("round"))) {
+                int roundNumber = Integer.parseInt(query.getString("round"));
+                Round round = Objects.isNull(this.season) ? null : this.season
+                        .getRounds()
+                        .stream()
+                        .filter(r -> r.getRound() == roundNumber)
+                        .findFirst()
+                        .orElse(null);
+                if (Objects.isNull(round)) {
+                    return Single.error(new IllegalArgumentException("The season has no round " + roundNumber + "."));
+                }
+                at = round.getScheduledEndTime();
+                result.put("round", roundNumber);
+            } else if (Objects.nonNull(query.getString("at"))) {
+                at = Instant.parse(query.getString("at"));
+            } else {
+                return Single.error(new IllegalArgumentException("Either a draft, a round or a moment (at) is required."));
+            }
+            return this.standingsHistory
+                    .rxStandingsAt(at)
+                    .switchIfEmpty(Single.error(new IllegalArgumentException("There were no standings at " + at + ".")))
+                    .map(standings -> result
+                            .put("at", at)
+                            .put("recordedAt", standings.getRecordedAt())
+                            .put("standings", standings.getStandings().stream().map(StandingsHistoryLog.DraftStanding::toJson).collect(Collectors.toList())));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return Single.error(new IllegalArgumentException("Invalid query on the standings history: " + e.getMessage()));
+        }
+    }
+
+    private void publish(Competition competition, long fingerprint) {
+        this.publishedFingerprint = fingerprint;
+        this.competition = competition;
+        StandingsSnapshot previous = this.standingsSnapshotHolder.current();
+        StandingsSnapshot snapshot = StandingsSnapshot.from(competition, previous);
+        if (snapshot != previous && this.standingsSnapshotHolder.publish(snapshot)) {
+            this.metrics.increment("standings.published");
+            LOGGER.debug("Published standings snapshot with version {}", snapshot.getVersion());
+            vertx.eventBus().publish("competition.update", new JsonObject().put("version", snapshot.getVersion()));
+            vertx.eventBus().publish(HttpServerVerticle.UPDATE_STOMP_DESTINATION, snapshot.getUpdate());
+        }
     }
 }
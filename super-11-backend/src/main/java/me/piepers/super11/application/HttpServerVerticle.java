@@ -1,38 +1,86 @@
 package me.piepers.super11.application;
 
+import io.reactivex.Completable;
 import io.reactivex.Single;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerOptions;
-import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.bridge.PermittedOptions;
 import io.vertx.ext.stomp.BridgeOptions;
+import io.vertx.ext.stomp.Frame;
 import io.vertx.ext.stomp.StompServerOptions;
 import io.vertx.reactivex.core.AbstractVerticle;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.core.http.HttpServerRequest;
+import io.vertx.reactivex.core.http.HttpServerResponse;
+import io.vertx.reactivex.core.http.ServerWebSocket;
+import io.vertx.reactivex.ext.stomp.ServerFrame;
 import io.vertx.reactivex.ext.stomp.StompServer;
 import io.vertx.reactivex.ext.stomp.StompServerHandler;
 import io.vertx.reactivex.ext.web.Router;
 import io.vertx.reactivex.ext.web.RoutingContext;
-import me.piepers.super11.application.model.StandingsDto;
-import me.piepers.super11.domain.Competition;
+import io.vertx.serviceproxy.ServiceException;
+import me.piepers.super11.application.model.StandingsSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 public class HttpServerVerticle extends AbstractVerticle {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpServerVerticle.class);
     private static final int DEFAULT_HTTP_PORT = 8080;
+    private static final String DEFAULT_WEB_ROOT = "/opt/super-11-backend/standings";
+    private static final String DEFAULT_ASSET_CACHE_PATH = "/var/super-11/assets";
+    private static final long DEFAULT_SSE_HEARTBEAT_SECONDS = 15L;
+    private static final int DEFAULT_WS_WRITE_QUEUE_HIGH_WATERMARK = 64 * 1024;
+    private static final long DEFAULT_WS_MAX_BEHIND_SECONDS = 60L;
+    private static final long DEFAULT_LONG_POLL_WAIT_SECONDS = 30L;
+    private static final long DEFAULT_LONG_POLL_MAX_WAIT_SECONDS = 60L;
+    public static final String STANDINGS_WEBSOCKET_PATH = "/api/standings/ws";
     private int port;
+    // Where the standings board is (see StaticAssets) and where its assets are prepared.
+    private String webRoot = DEFAULT_WEB_ROOT;
+    private String assetCachePath = DEFAULT_ASSET_CACHE_PATH;
+    private StaticAssets staticAssets = StaticAssets.none();
+    // The origin (other than that of the standings board) that may use the api, none if null.
+    private String corsAllowedOrigin;
+    // The clients of the server-sent events stream of this instance.
+    private StandingsEventStream standingsEventStream;
+    private long sseHeartbeatSeconds = DEFAULT_SSE_HEARTBEAT_SECONDS;
+    // The web socket clients of this instance (other than those of stomp).
+    private StandingsBroadcastHub standingsBroadcastHub;
+    private int wsWriteQueueHighWatermark = DEFAULT_WS_WRITE_QUEUE_HIGH_WATERMARK;
+    private long wsMaxBehindSeconds = DEFAULT_WS_MAX_BEHIND_SECONDS;
+    // The requests for the standings that wait for a newer version.
+    private StandingsLongPoll standingsLongPoll;
+    private long longPollMaxWaitSeconds = DEFAULT_LONG_POLL_MAX_WAIT_SECONDS;
     private io.vertx.reactivex.core.Vertx rxVertx;
     public static final String UPDATE_STOMP_DESTINATION = "update-standings";
+    public static final String STALE_SINCE_HEADER = "X-Standings-Stale-Since";
+
+    // The standings, pre-encoded, as they are published by the standings verticle.
+    private StandingsSnapshotHolder standingsSnapshotHolder;
+    private Metrics metrics;
+    private StartupReport startupReport;
+    // Whether this instance served the standings already, to measure how long after a (re)start they are served.
+    private boolean standingsServed = false;
 
     @Override
     public void init(Vertx vertx, Context context) {
@@ -42,15 +90,21 @@ public class HttpServerVerticle extends AbstractVerticle {
         int port = Objects.nonNull(httpServerConfig) ? httpServerConfig.getInteger("port", DEFAULT_HTTP_PORT) : DEFAULT_HTTP_PORT;
         LOGGER.debug("Working with port number: {}. Configuration contained: {}", Objects.nonNull(httpServerConfig) ? httpServerConfig.getInteger("port", 0) : "Nothing", httpServerConfig.encodePrettily());
         this.port = port;
-
-        // Start a consumer that publishes the competition standings on the stomp address when it is updated by the standingsverticle.
-        rxVertx
-                .eventBus()
-                .<JsonObject>consumer("competition.update", message -> {
-                    JsonObject body = message.body();
-                    Competition competition = new Competition(body);
-                    this.handleCompetitionUpdate(competition);
-                });
+        if (Objects.nonNull(httpServerConfig)) {
+            this.webRoot = httpServerConfig.getString("web_root", DEFAULT_WEB_ROOT);
+            this.assetCachePath = httpServerConfig.getString("asset_cache_path", DEFAULT_ASSET_CACHE_PATH);
+            this.corsAllowedOrigin = httpServerConfig.getString("cors_allowed_origin");
+            this.sseHeartbeatSeconds = httpServerConfig.getLong("sse_heartbeat_seconds", DEFAULT_SSE_HEARTBEAT_SECONDS);
+            this.wsWriteQueueHighWatermark = httpServerConfig.getInteger("ws_write_queue_high_watermark_bytes", DEFAULT_WS_WRITE_QUEUE_HIGH_WATERMARK);
+            this.wsMaxBehindSeconds = httpServerConfig.getLong("ws_max_behind_seconds", DEFAULT_WS_MAX_BEHIND_SECONDS);
+            this.longPollMaxWaitSeconds = httpServerConfig.getLong("long_poll_max_wait_seconds", DEFAULT_LONG_POLL_MAX_WAIT_SECONDS);
+        }
+        this.standingsSnapshotHolder = StandingsSnapshotHolder.create(vertx);
+        this.metrics = Metrics.create(vertx);
+        this.startupReport = StartupReport.create(vertx);
+        this.standingsEventStream = new StandingsEventStream(this.metrics);
+        this.standingsBroadcastHub = new StandingsBroadcastHub(this.metrics, this.wsWriteQueueHighWatermark, TimeUnit.SECONDS.toMillis(this.wsMaxBehindSeconds));
+        this.standingsLongPoll = new StandingsLongPoll(this.metrics, this::writeStandings);
     }
 
     @Override
@@ -65,48 +119,270 @@ public class HttpServerVerticle extends AbstractVerticle {
 
         StompServer stompServer = StompServer
                 .create(vertx, stompServerOptions)
-                .handler(StompServerHandler.create(vertx).bridge(bridgeOptions));
+                .handler(StompServerHandler
+                        .create(vertx)
+                        .bridge(bridgeOptions)
+                        .receivedFrameHandler(this::snapshotOnSubscribe));
 
         Router router = Router.router(vertx);
         Router subRouter = Router.router(vertx);
         subRouter.route(HttpMethod.GET, "/standings").handler(this::competitionHandler);
+        subRouter.route(HttpMethod.GET, "/standings/history").handler(this::standingsHistoryHandler);
+        subRouter.route(HttpMethod.GET, "/standings/stream").handler(this::standingsStreamHandler);
+        subRouter.route(HttpMethod.GET, "/metrics").handler(this::metricsHandler);
+        subRouter.route(HttpMethod.GET, "/schedule").handler(this::scheduleHandler);
+        subRouter.route(HttpMethod.GET, "/ready").handler(this::readyHandler);
+        subRouter.route(HttpMethod.GET, "/startup").handler(this::startupHandler);
         router.mountSubRouter("/api", subRouter);
+        router.route(HttpMethod.GET, "/*").handler(this::staticAssetHandler);
 
-        this.vertx
-                .createHttpServer(new HttpServerOptions().setWebsocketSubProtocols("v10.stomp, v11.stomp, v12.stomp"))
-                .websocketHandler(stompServer.webSocketHandler())
-                .requestHandler(router)
-                .rxListen(this.port)
+        // The standings verticle tells every instance that it published a snapshot, the stream writes it once per instance.
+        vertx
+                .eventBus()
+                .<JsonObject>consumer("competition.update", message -> {
+                    StandingsSnapshot snapshot = this.standingsSnapshotHolder.current();
+                    this.standingsEventStream.publish(snapshot);
+                    this.standingsBroadcastHub.publish(snapshot);
+                    this.standingsLongPoll.publish(snapshot);
+                });
+        this.rxVertx.setPeriodic(TimeUnit.SECONDS.toMillis(1), timerId -> this.standingsLongPoll.expire());
+        this.rxVertx.setPeriodic(TimeUnit.SECONDS.toMillis(this.sseHeartbeatSeconds), timerId -> {
+            this.standingsEventStream.heartbeat();
+            this.standingsBroadcastHub.closeStalledClients();
+        });
+        Handler<ServerWebSocket> stompWebSocketHandler = stompServer.webSocketHandler();
+
+        // Compression is not enabled on the server: it would compress the static assets again and they couldn't be sent
+        // zero-copy. The assets and the standings are compressed once instead and sent in the encoding the client asks for.
+        this.loadStaticAssets()
+                .andThen(this.vertx
+                        .createHttpServer(new HttpServerOptions().setWebsocketSubProtocols("v10.stomp, v11.stomp, v12.stomp"))
+                        .websocketHandler(socket -> {
+                            if (STANDINGS_WEBSOCKET_PATH.equals(socket.path())) {
+                                this.standingsBroadcastHub.connect(socket, this.standingsSnapshotHolder.current());
+                            } else {
+                                stompWebSocketHandler.handle(socket);
+                            }
+                        })
+                        .requestHandler(router)
+                        .rxListen(this.port))
                 .doOnSuccess(result -> LOGGER.debug("Http Server has been started on port {}", this.port))
                 .subscribe(result ->
                                 future.complete(),
                         throwable -> future.fail(throwable));
     }
 
-    private void handleCompetitionUpdate(Competition competition) {
-        LOGGER.debug("Received a new update from the standings verticle. Publishing that to the event bus.");
-        // Map it to something we can publish to the UI.
-        List<JsonObject> result = competition
-                .getData()
-                .getDrafts()
-                .stream()
-                .map(draft -> StandingsDto.from(draft))
-                .map(standingsDto -> standingsDto.toJson())
-                .collect(Collectors.toList());
-        rxVertx
-                .eventBus()
-                .publish(UPDATE_STOMP_DESTINATION, new JsonObject().put("drafts", new JsonArray(result)));
-    }
-
+    // With a sinceVersion the request is a long poll: it waits (see StandingsLongPoll) until there's a newer version.
     private void competitionHandler(RoutingContext routingContext) {
+        HttpServerRequest request = routingContext.request();
+        if (Objects.nonNull(request.getParam("sinceVersion"))) {
+            long sinceVersion;
+            long waitMillis;
+            try {
+                sinceVersion = Long.parseLong(request.getParam("sinceVersion"));
+                waitMillis = Objects.nonNull(request.getParam("wait"))
+                        ? StandingsLongPoll.parseWait(request.getParam("wait"))
+                        : TimeUnit.SECONDS.toMillis(DEFAULT_LONG_POLL_WAIT_SECONDS);
+            } catch (IllegalArgumentException e) {
+                routingContext
+                        .response()
+                        .setStatusCode(400)
+                        .putHeader("Content-Type", "application/json; charset=UTF-8")
+                        .end(new JsonObject().put("Error", "The sinceVersion and wait are not valid: " + e.getMessage()).encode(), StandardCharsets.UTF_8.name());
+                return;
+            }
+            this.allowOrigin(routingContext);
+            this.standingsLongPoll.poll(routingContext, sinceVersion, Math.min(waitMillis, TimeUnit.SECONDS.toMillis(this.longPollMaxWaitSeconds)),
+                    this.standingsSnapshotHolder.current());
+            return;
+        }
         this.getLatestStandings()
-                .subscribe(result -> routingContext
+                .subscribe(snapshot -> this.writeStandings(routingContext, snapshot),
+                        throwable -> routingContext
+                                .response()
+                                .setStatusCode(throwable instanceof ServiceException ? ((ServiceException) throwable).failureCode() : 500)
+                                .putHeader("Content-Type", "application/json; charset=UTF-8")
+                                .end(new JsonObject().put("Error", throwable
+                                        .getMessage())
+                                        .encode(), StandardCharsets.UTF_8.name()));
+    }
+
+    private void writeStandings(RoutingContext routingContext, StandingsSnapshot snapshot) {
+        HttpServerRequest request = routingContext.request();
+        String encoding = StaticAssets.negotiate(request.getHeader("Accept-Encoding"), snapshot.getEncodings());
+        HttpServerResponse response = routingContext
+                .response()
+                .putHeader("ETag", snapshot.getEtag(encoding))
+                .putHeader("Last-Modified", snapshot.getLastModifiedHttpDate())
+                .putHeader("Cache-Control", "no-cache")
+                .putHeader("Vary", "Accept-Encoding")
+                .putHeader(StandingsLongPoll.VERSION_HEADER, Long.toString(snapshot.getVersion()));
+        this.allowOrigin(routingContext);
+        // The standings can't be fetched at the moment, so tell the client since when they may be outdated.
+        this.standingsSnapshotHolder
+                .staleSince()
+                .ifPresent(staleSince -> response
+                        .putHeader("Warning", "110 - \"Response is Stale\"")
+                        .putHeader(STALE_SINCE_HEADER, StandingsSnapshot.toHttpDate(staleSince)));
+        if (snapshot.isNotModified(request.getHeader("If-None-Match"), request.getHeader("If-Modified-Since"))) {
+            response
+                    .setStatusCode(304)
+                    .end();
+        } else {
+            if (Objects.nonNull(encoding)) {
+                response.putHeader("Content-Encoding", encoding);
+            }
+            response
+                    .setStatusCode(200)
+                    .putHeader("Content-Type", "application/json; charset=UTF-8")
+                    .end(new Buffer(snapshot.getBody(encoding)));
+            this.recordFirstStandingsServed();
+        }
+    }
+
+    // EventSource sends the id of the last event it got when it reconnects, polyfills may only be able to pass it as a parameter.
+    private void standingsStreamHandler(RoutingContext routingContext) {
+        HttpServerRequest request = routingContext.request();
+        String lastEventId = Objects.nonNull(request.getHeader("Last-Event-ID")) ? request.getHeader("Last-Event-ID") : request.getParam("lastEventId");
+        this.allowOrigin(routingContext);
+        this.standingsEventStream.connect(routingContext.response(), lastEventId, this.standingsSnapshotHolder.current());
+    }
+
+    // A client that subscribes to the updates gets the current standings right away, like it would from the api, instead
+    // of after the next poll. The frame is written before the subscription is made, so it precedes every update.
+    private void snapshotOnSubscribe(ServerFrame serverFrame) {
+        Frame frame = serverFrame.frame();
+        StandingsSnapshot snapshot = this.standingsSnapshotHolder.current();
+        if (frame.getCommand() != Frame.Command.SUBSCRIBE || !UPDATE_STOMP_DESTINATION.equals(frame.getDestination()) || Objects.isNull(snapshot)) {
+            return;
+        }
+        // A subscription without an id is refused (and the connection closed) by the subscribe handler, there is nothing
+        // to send the snapshot to.
+        if (Objects.isNull(frame.getId())) {
+            return;
+        }
+        Map<String, String> headers = new HashMap<>();
+        headers.put(Frame.SUBSCRIPTION, frame.getId());
+        headers.put(Frame.MESSAGE_ID, UUID.randomUUID().toString());
+        headers.put(Frame.DESTINATION, UPDATE_STOMP_DESTINATION);
+        headers.put(Frame.CONTENT_LENGTH, Integer.toString(snapshot.getBody().length()));
+        serverFrame
+                .connection()
+                .write(new Frame(Frame.Command.MESSAGE, headers, snapshot.getBody()));
+        this.metrics.increment("stomp.snapshots");
+    }
+
+    // The files are sent as they are (zero-copy), in the encoding the client asks for.
+    private void staticAssetHandler(RoutingContext routingContext) {
+        StaticAssets.Asset asset = this.staticAssets.find(routingContext.normalisedPath());
+        if (Objects.isNull(asset)) {
+            routingContext.next();
+            return;
+        }
+        HttpServerRequest request = routingContext.request();
+        String encoding = StaticAssets.negotiate(request.getHeader("Accept-Encoding"), asset.getEncodings());
+        HttpServerResponse response = routingContext
+                .response()
+                .putHeader("Content-Type", asset.getContentType())
+                .putHeader("ETag", asset.getEtag(encoding))
+                .putHeader("Cache-Control", asset.getCacheControl());
+        if (!asset.getEncodings().isEmpty()) {
+            response.putHeader("Vary", "Accept-Encoding");
+        }
+        if (asset.isNotModified(request.getHeader("If-None-Match"))) {
+            response
+                    .setStatusCode(304)
+                    .end();
+            return;
+        }
+        if (Objects.nonNull(encoding)) {
+            response.putHeader("Content-Encoding", encoding);
+        }
+        response.sendFile(asset.getFile(encoding).toString());
+    }
+
+    // Without a web root (like when developing the api only) there's nothing to serve but the api.
+    private Completable loadStaticAssets() {
+        Path webRoot = Paths.get(this.webRoot);
+        if (!Files.isDirectory(webRoot)) {
+            LOGGER.warn("There is no web root at {}, the standings board is not served.", webRoot);
+            return Completable.complete();
+        }
+        return this.rxVertx
+                .<StaticAssets>rxExecuteBlocking(future -> {
+                    try {
+                        future.complete(StaticAssets.load(webRoot, Paths.get(this.assetCachePath)));
+                    } catch (IOException e) {
+                        future.fail(e);
+                    }
+                }, false)
+                .doOnSuccess(staticAssets -> this.staticAssets = staticAssets)
+                .doOnError(throwable -> LOGGER.error("Unable to load the standings board from {}, it is not served.", webRoot, throwable))
+                .ignoreElement()
+                .onErrorComplete();
+    }
+
+    // The standings board is served by us, other origins (like the ui) may only use the api if they are configured.
+    private void allowOrigin(RoutingContext routingContext) {
+        String origin = routingContext.request().getHeader("Origin");
+        if (Objects.nonNull(origin) && Objects.nonNull(this.corsAllowedOrigin) && ("*".equals(this.corsAllowedOrigin) || this.corsAllowedOrigin.equals(origin))) {
+            routingContext
+                    .response()
+                    .putHeader("Access-Control-Allow-Origin", this.corsAllowedOrigin)
+                    .putHeader("Vary", "Accept-Encoding, Origin");
+        }
+    }
+
+    // Records how long after the start of the jvm the standings were served for the first time.
+    private void recordFirstStandingsServed() {
+        if (!this.standingsServed) {
+            this.standingsServed = true;
+            long millis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+            if (this.metrics.recordOnce("startup.first_standings_200_millis", millis)) {
+                LOGGER.info("The standings were served for the first time {} ms after the start.", millis);
+            }
+        }
+    }
+
+    private void metricsHandler(RoutingContext routingContext) {
+        routingContext
+                .response()
+                .setStatusCode(200)
+                .putHeader("Content-Type", "application/json; charset=UTF-8")
+                .putHeader("Cache-Control", "no-store")
+                .end(this.metrics.toJson().encode(), StandardCharsets.UTF_8.name());
+    }
+
+    // The server listens before the rest of the application is deployed, this tells whether it is.
+    private void readyHandler(RoutingContext routingContext) {
+        boolean ready = this.startupReport.isReady();
+        routingContext
+                .response()
+                .setStatusCode(ready ? 200 : 503)
+                .putHeader("Content-Type", "application/json; charset=UTF-8")
+                .putHeader("Cache-Control", "no-store")
+                .end(new JsonObject().put("ready", ready).encode(), StandardCharsets.UTF_8.name());
+    }
+
+    private void startupHandler(RoutingContext routingContext) {
+        routingContext
+                .response()
+                .setStatusCode(200)
+                .putHeader("Content-Type", "application/json; charset=UTF-8")
+                .putHeader("Cache-Control", "no-store")
+                .end(this.startupReport.toJson().encode(), StandardCharsets.UTF_8.name());
+    }
+
+    private void scheduleHandler(RoutingContext routingContext) {
+        vertx
+                .eventBus()
+                .<JsonObject>rxSend("get.poll.schedule", new JsonObject())
+                .subscribe(message -> routingContext
                                 .response()
                                 .setStatusCode(200)
                                 .putHeader("Content-Type", "application/json; charset=UTF-8")
-                                // FIXME: make more restrict in production.
-                                .putHeader("Access-Control-Allow-Origin", "*")
-                                .end(result.encode()),
+                                .putHeader("Cache-Control", "no-store")
+                                .end(message.body().encode(), StandardCharsets.UTF_8.name()),
                         throwable -> routingContext
                                 .response()
                                 .setStatusCode(500)
@@ -116,12 +392,36 @@ public class HttpServerVerticle extends AbstractVerticle {
                                         .encode(), StandardCharsets.UTF_8.name()));
     }
 
-    private Single<JsonObject> getLatestStandings() {
-        return vertx
+    // The query parameters are passed on as they are, the standings verticle answers with a 400 if they are not valid.
+    private void standingsHistoryHandler(RoutingContext routingContext) {
+        JsonObject query = new JsonObject();
+        routingContext
+                .queryParams()
+                .names()
+                .forEach(name -> query.put(name, routingContext.queryParams().get(name)));
+        vertx
                 .eventBus()
-                .<JsonObject>rxSend("get.competition", new JsonObject())
-                .map(result -> new Competition(result.body()))
-                .map(competition -> competition.getData().getDrafts().stream().map(draft -> StandingsDto.from(draft)).collect(Collectors.toList()))
-                .map(list -> new JsonObject().put("drafts", new JsonArray(list)));
+                .<JsonObject>rxSend("get.standings.history", query)
+                .subscribe(message -> routingContext
+                                .response()
+                                .setStatusCode(200)
+                                .putHeader("Content-Type", "application/json; charset=UTF-8")
+                                .putHeader("Cache-Control", "no-cache")
+                                .end(message.body().encode(), StandardCharsets.UTF_8.name()),
+                        throwable -> routingContext
+                                .response()
+                                .setStatusCode(throwable instanceof ReplyException && ((ReplyException) throwable).failureType() == ReplyFailure.RECIPIENT_FAILURE ? ((ReplyException) throwable).failureCode() : 500)
+                                .putHeader("Content-Type", "application/json; charset=UTF-8")
+                                .end(new JsonObject().put("Error", throwable
+                                        .getMessage())
+                                        .encode(), StandardCharsets.UTF_8.name()));
+    }
+
+    private Single<StandingsSnapshot> getLatestStandings() {
+        StandingsSnapshot snapshot = this.standingsSnapshotHolder.current();
+        if (Objects.isNull(snapshot)) {
+            return Single.error(new ServiceException(503, "No standings were cached yet."));
+        }
+        return Single.just(snapshot);
     }
 }
@@ -0,0 +1,59 @@
+package me.piepers.super11.application;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Simple counters that are kept in the local shared data of Vert.x so that any verticle can count something and the
+ * {@link HttpServerVerticle} can expose all of them. Incrementing is atomic and doesn't block.
+ *
+ * @author Bas Piepers
+ */
+public class Metrics {
+    private static final String SHARED_MAP_NAME = "super11.metrics";
+
+    private final LocalMap<String, Long> counters;
+
+    private Metrics(LocalMap<String, Long> counters) {
+        this.counters = counters;
+    }
+
+    public static Metrics create(Vertx vertx) {
+        return new Metrics(vertx.sharedData().getLocalMap(SHARED_MAP_NAME));
+    }
+
+    public long increment(String name) {
+        return this.add(name, 1L);
+    }
+
+    public long add(String name, long value) {
+        return counters.merge(name, value, Long::sum);
+    }
+
+    /**
+     * Records the given value unless a value was recorded with the given name already, to measure something that
+     * happens once (per start of the application).
+     *
+     * @return whether the value was recorded.
+     */
+    public boolean recordOnce(String name, long value) {
+        return Objects.isNull(counters.putIfAbsent(name, value));
+    }
+
+    public long get(String name) {
+        return counters.getOrDefault(name, 0L);
+    }
+
+    /**
+     * @return all counters, sorted by name.
+     */
+    public JsonObject toJson() {
+        JsonObject jsonObject = new JsonObject();
+        new TreeMap<>(counters).forEach(jsonObject::put);
+        return jsonObject;
+    }
+}
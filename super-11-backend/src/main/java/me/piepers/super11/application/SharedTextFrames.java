@@ -0,0 +1,30 @@
+package me.piepers.super11.application;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.impl.FrameType;
+import io.vertx.core.http.impl.ws.WebSocketFrameImpl;
+import io.vertx.reactivex.core.http.WebSocketFrame;
+
+/**
+ * Makes web socket text frames out of already encoded buffers, so that an update that is broadcast to many clients is
+ * encoded once. The public API of Vert.x only makes a text frame out of a String, which would decode and encode the
+ * update again for every client, so this is the one place that depends on the internals of Vert.x (3.7):
+ * {@link WebSocketFrameImpl} and {@link FrameType}. Check it when Vert.x is upgraded.
+ *
+ * @author Bas Piepers
+ */
+final class SharedTextFrames {
+    private SharedTextFrames() {
+    }
+
+    /**
+     * A frame is released when it is written, so every write needs a frame of its own. The frame shares the bytes of
+     * the given buffer: its byte buffer is a duplicate of the unreleasable one of the buffer.
+     *
+     * @param text, the encoded text, UTF-8.
+     * @return a final text frame with the given text.
+     */
+    static WebSocketFrame of(Buffer text) {
+        return new WebSocketFrame(new WebSocketFrameImpl(FrameType.TEXT, text.getByteBuf(), true));
+    }
+}
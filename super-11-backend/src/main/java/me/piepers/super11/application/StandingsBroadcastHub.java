@@ -0,0 +1,173 @@
+package me.piepers.super11.application;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.reactivex.core.http.ServerWebSocket;
+import me.piepers.super11.application.model.StandingsSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Broadcasts the updates of the standings to the web socket clients of an instance of the {@link HttpServerVerticle}.
+ * Every update is encoded once in a text frame and the same bytes are written to every client (the frames that are
+ * written only share them). A new client gets the full standings right away.
+ * <p>
+ * A client can't make us buffer without limit. Its write queue has a high watermark and once that is reached the
+ * client is behind: it gets nothing until its queue is drained (to half the watermark) and then only the full
+ * standings of the latest version, all the updates in between are conflated into that one. A client that is behind
+ * for longer than the given time (a stalled phone on bad Wi-Fi) is closed.
+ * <p>
+ * Not thread safe, it is used on the event loop of its verticle only.
+ *
+ * @author Bas Piepers
+ */
+public class StandingsBroadcastHub {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StandingsBroadcastHub.class);
+
+    private final Metrics metrics;
+    private final int writeQueueHighWatermark;
+    private final long maxBehindMillis;
+    // The clients by the time since which they are behind, or null if they are not.
+    private final Map<ServerWebSocket, Long> clients = new HashMap<>();
+    private int behind = 0;
+    private StandingsSnapshot snapshot;
+    private Buffer updateFrame;
+    private Buffer fullFrame;
+
+    /**
+     * @param metrics,                 where the connections, frames and slow clients are counted.
+     * @param writeQueueHighWatermark, the size of the write queue (in bytes) at which a client is behind.
+     * @param maxBehindMillis,         how long a client may be behind before it is closed.
+     */
+    public StandingsBroadcastHub(Metrics metrics, int writeQueueHighWatermark, long maxBehindMillis) {
+        this.metrics = metrics;
+        this.writeQueueHighWatermark = writeQueueHighWatermark;
+        this.maxBehindMillis = maxBehindMillis;
+    }
+
+    /**
+     * Adds a client and writes the full standings to it, so it doesn't have to wait for the next update or fetch them.
+     *
+     * @param socket,  a client that connected. What it sends is ignored.
+     * @param current, the latest snapshot, may be null if no standings were published yet.
+     */
+    public void connect(ServerWebSocket socket, StandingsSnapshot current) {
+        this.publish(current);
+        socket.setWriteQueueMaxSize(this.writeQueueHighWatermark);
+        socket.frameHandler(frame -> {
+        });
+        if (Objects.nonNull(this.fullFrame)) {
+            socket.writeFrame(SharedTextFrames.of(this.fullFrame));
+        }
+        this.clients.put(socket, null);
+        this.metrics.add("ws.connections", 1L);
+        socket.closeHandler(v -> this.disconnect(socket));
+        socket.exceptionHandler(throwable -> this.disconnect(socket));
+    }
+
+    /**
+     * Writes the update of the given snapshot to every client that isn't behind, if it is newer than the one that was
+     * published last. If a version was skipped (the snapshot was replaced again before this instance got to it) the
+     * full standings are written instead.
+     *
+     * @param current, the latest snapshot, may be null.
+     */
+    public void publish(StandingsSnapshot current) {
+        if (Objects.isNull(current) || (Objects.nonNull(this.snapshot) && current.getVersion() <= this.snapshot.getVersion())) {
+            return;
+        }
+        boolean consecutive = Objects.nonNull(this.snapshot) && current.getVersion() == this.snapshot.getVersion() + 1;
+        this.snapshot = current;
+        this.fullFrame = current.getBody();
+        this.updateFrame = current.getUpdate();
+        Buffer frame = consecutive ? this.updateFrame : this.fullFrame;
+        long written = 0;
+        long conflated = 0;
+        long now = System.currentTimeMillis();
+        for (Map.Entry<ServerWebSocket, Long> client : this.clients.entrySet()) {
+            ServerWebSocket socket = client.getKey();
+            if (Objects.nonNull(client.getValue())) {
+                conflated++;
+            } else if (socket.writeQueueFull()) {
+                conflated++;
+                client.setValue(now);
+                this.behind++;
+                this.metrics.add("ws.behind", 1L);
+                socket.drainHandler(v -> this.caughtUp(socket));
+            } else {
+                socket.writeFrame(SharedTextFrames.of(frame));
+                written++;
+            }
+        }
+        this.metrics.add("ws.frames", written);
+        this.metrics.add("ws.conflated", conflated);
+        LOGGER.debug("Broadcast version {} to {} web socket clients, {} are behind.", current.getVersion(), written, this.behind);
+    }
+
+    /**
+     * Closes the clients that have been behind for too long.
+     */
+    public void closeStalledClients() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<ServerWebSocket, Long>> iterator = this.clients.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<ServerWebSocket, Long> client = iterator.next();
+            if (Objects.nonNull(client.getValue()) && now - client.getValue() > this.maxBehindMillis) {
+                iterator.remove();
+                this.behind--;
+                this.metrics.add("ws.behind", -1L);
+                this.metrics.add("ws.connections", -1L);
+                this.metrics.increment("ws.closed_stalled");
+                disarm(client.getKey());
+                client.getKey().close((short) 1008, "Too slow");
+            }
+        }
+    }
+
+    int size() {
+        return this.clients.size();
+    }
+
+    int behind() {
+        return this.behind;
+    }
+
+    // The client gets the latest full standings, the updates it missed are conflated into them.
+    private void caughtUp(ServerWebSocket socket) {
+        // A client that is gone, which may be closed already, or that isn't behind is left alone.
+        if (Objects.isNull(this.clients.get(socket))) {
+            return;
+        }
+        socket.drainHandler(null);
+        this.clients.put(socket, null);
+        this.behind--;
+        this.metrics.add("ws.behind", -1L);
+        socket.writeFrame(SharedTextFrames.of(this.fullFrame));
+    }
+
+    private void disconnect(ServerWebSocket socket) {
+        if (!this.clients.containsKey(socket)) {
+            return;
+        }
+        if (Objects.nonNull(this.clients.remove(socket))) {
+            this.behind--;
+            this.metrics.add("ws.behind", -1L);
+            disarm(socket);
+        }
+        this.metrics.add("ws.connections", -1L);
+    }
+
+    // Removes the drain handler of a client that was behind. A socket that is closed already can't drain anymore and
+    // doesn't let its handlers be changed.
+    private static void disarm(ServerWebSocket socket) {
+        try {
+            socket.drainHandler(null);
+        } catch (IllegalStateException e) {
+            LOGGER.trace("The web socket is closed already, it won't drain.");
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package me.piepers.super11.application;
+
+import io.netty.buffer.Unpooled;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.core.http.HttpServerResponse;
+import me.piepers.super11.application.model.StandingsSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The connections of the server-sent events stream of the standings of an instance of the {@link HttpServerVerticle}.
+ * Every update is framed as an event once and the same buffer is written to every connection. The id of an event is
+ * the version of the snapshot, so a client that reconnects (with a Last-Event-ID) only gets what it missed: nothing,
+ * the update of the next version or, if it missed more than that, the full standings. A new client gets the full
+ * standings right away.
+ * <p>
+ * A connection that can't keep up (its write queue is full) is skipped until it is drained, and then gets the full
+ * standings of the latest version instead of all the updates it missed.
+ * <p>
+ * Not thread safe, it is used on the event loop of its verticle only.
+ *
+ * @author Bas Piepers
+ */
+public class StandingsEventStream {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StandingsEventStream.class);
+    private static final String EVENT_NAME = "standings";
+    // A comment, which is ignored by the clients but keeps proxies from closing the connection.
+    private static final Buffer HEARTBEAT = Buffer.buffer(": heartbeat\n\n");
+    // How long a client waits before it reconnects.
+    private static final Buffer RETRY = Buffer.buffer("retry: 5000\n\n");
+
+    private final Metrics metrics;
+    private final Set<HttpServerResponse> connections = new HashSet<>();
+    // The connections that are skipped until their write queue is drained.
+    private final Set<HttpServerResponse> behind = new HashSet<>();
+    // The snapshot that was published last, with its update and full standings as events.
+    private StandingsSnapshot snapshot;
+    private Buffer updateEvent;
+    private Buffer fullEvent;
+
+    public StandingsEventStream(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Starts the stream on the given response and sends what the client missed.
+     *
+     * @param response,    the response of the request for the stream, of which the headers are not sent yet.
+     * @param lastEventId, the id of the last event the client got before it reconnected, may be null.
+     * @param current,     the latest snapshot, may be null if no standings were published yet.
+     */
+    public void connect(HttpServerResponse response, String lastEventId, StandingsSnapshot current) {
+        this.publish(current);
+        response
+                .setChunked(true)
+                .putHeader("Content-Type", "text/event-stream; charset=UTF-8")
+                .putHeader("Cache-Control", "no-cache")
+                // Tells nginx not to buffer the stream.
+                .putHeader("X-Accel-Buffering", "no")
+                .write(RETRY);
+        if (Objects.nonNull(this.snapshot)) {
+            Long version = parseVersion(lastEventId);
+            if (Objects.isNull(version) || version < this.snapshot.getVersion() - 1 || version > this.snapshot.getVersion()) {
+                response.write(this.fullEvent);
+            } else if (version == this.snapshot.getVersion() - 1) {
+                response.write(this.updateEvent);
+            }
+        }
+        this.connections.add(response);
+        this.metrics.add("sse.connections", 1L);
+        response.closeHandler(v -> this.disconnect(response));
+        response.exceptionHandler(throwable -> this.disconnect(response));
+    }
+
+    /**
+     * Writes the update of the given snapshot to every connection, if it is newer than the one that was published last.
+     * If a version was skipped (the snapshot was replaced again before this instance got to it) the full standings are
+     * written instead.
+     *
+     * @param current, the latest snapshot, may be null.
+     */
+    public void publish(StandingsSnapshot current) {
+        if (Objects.isNull(current) || (Objects.nonNull(this.snapshot) && current.getVersion() <= this.snapshot.getVersion())) {
+            return;
+        }
+        boolean consecutive = Objects.nonNull(this.snapshot) && current.getVersion() == this.snapshot.getVersion() + 1;
+        this.snapshot = current;
+        this.fullEvent = event(current.getVersion(), current.getBody());
+        this.updateEvent = current.getUpdate() == current.getBody() ? this.fullEvent : event(current.getVersion(), current.getUpdate());
+        Buffer event = consecutive ? this.updateEvent : this.fullEvent;
+        for (HttpServerResponse response : this.connections) {
+            this.write(response, event);
+        }
+        this.metrics.add("sse.events", this.connections.size());
+    }
+
+    /**
+     * Writes a heartbeat to every connection that isn't behind.
+     */
+    public void heartbeat() {
+        for (HttpServerResponse response : this.connections) {
+            if (!this.behind.contains(response) && !response.writeQueueFull()) {
+                response.write(HEARTBEAT);
+            }
+        }
+    }
+
+    int size() {
+        return this.connections.size();
+    }
+
+    private void write(HttpServerResponse response, Buffer event) {
+        if (this.behind.contains(response)) {
+            return;
+        }
+        if (response.writeQueueFull()) {
+            LOGGER.debug("A client of the standings stream is behind, it gets the latest standings when it caught up.");
+            this.metrics.increment("sse.behind");
+            this.behind.add(response);
+            response.drainHandler(v -> {
+                response.drainHandler(null);
+                if (this.behind.remove(response) && this.connections.contains(response)) {
+                    response.write(this.fullEvent);
+                }
+            });
+            return;
+        }
+        response.write(event);
+    }
+
+    private void disconnect(HttpServerResponse response) {
+        this.behind.remove(response);
+        if (this.connections.remove(response)) {
+            this.metrics.add("sse.connections", -1L);
+        }
+    }
+
+    private static Long parseVersion(String lastEventId) {
+        if (Objects.isNull(lastEventId)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // The json is encoded on one line, so it fits in one data field.
+    private static Buffer event(long version, io.vertx.core.buffer.Buffer data) {
+        byte[] header = ("id: " + version + "\nevent: " + EVENT_NAME + "\ndata: ").getBytes(StandardCharsets.UTF_8);
+        return new Buffer(io.vertx.core.buffer.Buffer.buffer(Unpooled
+                .directBuffer(header.length + data.length() + 2)
+                .writeBytes(header)
+                .writeBytes(data.getByteBuf())
+                .writeByte('\n')
+                .writeByte('\n')));
+    }
+}
@@ -0,0 +1,199 @@
+package me.piepers.super11.application;
+
+import io.vertx.reactivex.core.http.HttpServerResponse;
+import io.vertx.reactivex.ext.web.RoutingContext;
+import me.piepers.super11.application.model.StandingsSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The long polls of the standings of an instance of the {@link HttpServerVerticle}, for the clients that can't keep a
+ * web socket or an event stream open. A client asks for the standings since the version it has and the request is
+ * parked until there is a newer version or the wait expires. The parked requests hold nothing but their routing
+ * context: they are released in one batch when a snapshot is published and the expired ones are swept every second
+ * (so a wait may take up to a second longer), instead of a timer per request.
+ * <p>
+ * A request is answered right away if there's a newer version already or if it asks for a version newer than the
+ * current one (which happens after a restart of the backend, the versions start over). An expired request is answered
+ * with a 204 and the current version.
+ * <p>
+ * Not thread safe, it is used on the event loop of its verticle only.
+ *
+ * @author Bas Piepers
+ */
+public class StandingsLongPoll {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StandingsLongPoll.class);
+    private static final Pattern WAIT = Pattern.compile("(\\d+)(ms|s|m)?");
+    public static final String VERSION_HEADER = "X-Standings-Version";
+
+    private final Metrics metrics;
+    // Writes the standings of the given snapshot as the response to the given request.
+    private final BiConsumer<RoutingContext, StandingsSnapshot> respond;
+    // The requests in the order they expire.
+    private final PriorityQueue<Parked> parked = new PriorityQueue<>(Comparator.comparingLong(Parked::getDeadline));
+    private StandingsSnapshot snapshot;
+
+    /**
+     * @param metrics, where the parked, released and expired requests are counted.
+     * @param respond, writes the standings of a snapshot as the response to a request.
+     */
+    public StandingsLongPoll(Metrics metrics, BiConsumer<RoutingContext, StandingsSnapshot> respond) {
+        this.metrics = metrics;
+        this.respond = respond;
+    }
+
+    /**
+     * Answers the request with the current standings if the client doesn't have them, parks it otherwise.
+     *
+     * @param routingContext, the request of which nothing is sent yet.
+     * @param sinceVersion,   the version of the standings the client has.
+     * @param waitMillis,     how long the request may be parked.
+     * @param current,        the latest snapshot, may be null if no standings were published yet.
+     */
+    public void poll(RoutingContext routingContext, long sinceVersion, long waitMillis, StandingsSnapshot current) {
+        this.publish(current);
+        if (Objects.nonNull(this.snapshot) && this.snapshot.getVersion() != sinceVersion) {
+            this.respond.accept(routingContext, this.snapshot);
+            return;
+        }
+        if (waitMillis <= 0) {
+            this.notModified(routingContext);
+            return;
+        }
+        Parked request = new Parked(routingContext, System.currentTimeMillis() + waitMillis);
+        this.parked.add(request);
+        this.metrics.add("longpoll.parked", 1L);
+        routingContext.response().closeHandler(v -> this.disconnect(request));
+    }
+
+    /**
+     * Releases the parked requests, in one batch, if the given snapshot is newer than the one that was published last.
+     *
+     * @param current, the latest snapshot, may be null.
+     */
+    public void publish(StandingsSnapshot current) {
+        if (Objects.isNull(current) || (Objects.nonNull(this.snapshot) && current.getVersion() <= this.snapshot.getVersion())) {
+            return;
+        }
+        this.snapshot = current;
+        if (this.parked.isEmpty()) {
+            return;
+        }
+        // Only requests for the previous version can be parked, so all of them are released.
+        List<Parked> released = new ArrayList<>(this.parked);
+        this.parked.clear();
+        long answered = 0;
+        for (Parked request : released) {
+            if (!request.isDone()) {
+                request.done();
+                this.respond.accept(request.getRoutingContext(), current);
+                answered++;
+            }
+        }
+        this.metrics.add("longpoll.parked", -answered);
+        this.metrics.add("longpoll.released", answered);
+        LOGGER.debug("Released {} long polls with version {}.", answered, current.getVersion());
+    }
+
+    /**
+     * Answers the requests of which the wait expired with a 204.
+     */
+    public void expire() {
+        long now = System.currentTimeMillis();
+        while (!this.parked.isEmpty() && this.parked.peek().getDeadline() <= now) {
+            Parked request = this.parked.poll();
+            if (!request.isDone()) {
+                request.done();
+                this.metrics.add("longpoll.parked", -1L);
+                this.metrics.increment("longpoll.expired");
+                this.notModified(request.getRoutingContext());
+            }
+        }
+    }
+
+    int size() {
+        return (int) this.parked
+                .stream()
+                .filter(request -> !request.isDone())
+                .count();
+    }
+
+    /**
+     * @param wait, how long to wait, like 30s, 500ms or 1m. A number only is in seconds.
+     * @return the wait in milliseconds.
+     * @throws IllegalArgumentException if the wait isn't valid.
+     */
+    static long parseWait(String wait) {
+        Matcher matcher = WAIT.matcher(wait.trim());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("The wait " + wait + " is not valid, use seconds like 30s.");
+        }
+        long amount = Long.parseLong(matcher.group(1));
+        String unit = Objects.nonNull(matcher.group(2)) ? matcher.group(2) : "s";
+        switch (unit) {
+            case "ms":
+                return amount;
+            case "m":
+                return TimeUnit.MINUTES.toMillis(amount);
+            default:
+                return TimeUnit.SECONDS.toMillis(amount);
+        }
+    }
+
+    private void notModified(RoutingContext routingContext) {
+        HttpServerResponse response = routingContext
+                .response()
+                .setStatusCode(204)
+                .putHeader("Cache-Control", "no-cache");
+        if (Objects.nonNull(this.snapshot)) {
+            response.putHeader(VERSION_HEADER, Long.toString(this.snapshot.getVersion()));
+        }
+        response.end();
+    }
+
+    // The request stays in the queue until it expires or is released, it is skipped then.
+    private void disconnect(Parked request) {
+        if (!request.isDone()) {
+            request.done();
+            this.metrics.add("longpoll.parked", -1L);
+        }
+    }
+
+    private static class Parked {
+        private final RoutingContext routingContext;
+        private final long deadline;
+        // Whether the request was answered or the client went away.
+        private boolean done = false;
+
+        private Parked(RoutingContext routingContext, long deadline) {
+            this.routingContext = routingContext;
+            this.deadline = deadline;
+        }
+
+        RoutingContext getRoutingContext() {
+            return routingContext;
+        }
+
+        long getDeadline() {
+            return deadline;
+        }
+
+        boolean isDone() {
+            return done;
+        }
+
+        void done() {
+            this.done = true;
+        }
+    }
+}
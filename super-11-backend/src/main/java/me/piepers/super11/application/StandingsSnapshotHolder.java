@@ -0,0 +1,91 @@
+package me.piepers.super11.application;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.LocalMap;
+import me.piepers.super11.application.model.StandingsSnapshot;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Holds the latest {@link StandingsSnapshot} in the local shared data of Vert.x so that every instance of the
+ * {@link HttpServerVerticle} can read it directly, without a request/reply over the event bus. The snapshot is replaced
+ * with a compare-and-set, so readers never block and an older snapshot never overwrites a newer one.
+ * <p>
+ * When the standings can't be fetched, the snapshot is marked as stale so that it can still be served, but with the
+ * moment since when it could be outdated.
+ *
+ * @author Bas Piepers
+ */
+public class StandingsSnapshotHolder {
+    private static final String SHARED_MAP_NAME = "super11.standings";
+    private static final String SNAPSHOT_KEY = "snapshot";
+    private static final String STATUS_MAP_NAME = "super11.standings.status";
+    private static final String STALE_SINCE_KEY = "staleSince";
+
+    private final LocalMap<String, StandingsSnapshot> sharedMap;
+    private final LocalMap<String, Long> statusMap;
+
+    private StandingsSnapshotHolder(LocalMap<String, StandingsSnapshot> sharedMap, LocalMap<String, Long> statusMap) {
+        this.sharedMap = sharedMap;
+        this.statusMap = statusMap;
+    }
+
+    public static StandingsSnapshotHolder create(Vertx vertx) {
+        return new StandingsSnapshotHolder(vertx.sharedData().getLocalMap(SHARED_MAP_NAME), vertx.sharedData().getLocalMap(STATUS_MAP_NAME));
+    }
+
+    /**
+     * @return the latest snapshot or null if no standings were published yet.
+     */
+    public StandingsSnapshot current() {
+        return sharedMap.get(SNAPSHOT_KEY);
+    }
+
+    /**
+     * Publishes the given snapshot if its version is newer than that of the current snapshot.
+     *
+     * @param snapshot, the snapshot to publish.
+     * @return true if the snapshot was published, false if a snapshot with the same or a newer version is already
+     * present.
+     */
+    public boolean publish(StandingsSnapshot snapshot) {
+        while (true) {
+            StandingsSnapshot current = sharedMap.get(SNAPSHOT_KEY);
+            if (Objects.isNull(current)) {
+                if (Objects.isNull(sharedMap.putIfAbsent(SNAPSHOT_KEY, snapshot))) {
+                    return true;
+                }
+            } else if (current.getVersion() >= snapshot.getVersion()) {
+                return false;
+            } else if (sharedMap.replaceIfPresent(SNAPSHOT_KEY, current, snapshot)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Marks the current snapshot as stale because the standings could not be fetched. If it was already marked as
+     * stale, the earlier moment is kept.
+     *
+     * @param since, the moment since when the standings could not be fetched.
+     */
+    public void markStale(Instant since) {
+        statusMap.putIfAbsent(STALE_SINCE_KEY, since.toEpochMilli());
+    }
+
+    /**
+     * Marks the current snapshot as up to date, since the standings were fetched (whether they changed or not).
+     */
+    public void markFresh() {
+        statusMap.remove(STALE_SINCE_KEY);
+    }
+
+    /**
+     * @return the moment since when the standings could not be fetched, if that is the case.
+     */
+    public Optional<Instant> staleSince() {
+        return Optional.ofNullable(statusMap.get(STALE_SINCE_KEY)).map(Instant::ofEpochMilli);
+    }
+}
@@ -0,0 +1,118 @@
+package me.piepers.super11.application;
+
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps track of how long the phases of the startup of the application took and of whether the application is ready,
+ * in the local shared data of Vert.x so that any verticle can time its phases and the {@link HttpServerVerticle} can
+ * expose them. The http server starts listening before the rest of the application is ready, so clients (and load
+ * balancers) can check the readiness flag.
+ *
+ * @author Bas Piepers
+ */
+public class StartupReport {
+    private static final String SHARED_MAP_NAME = "super11.startup";
+    private static final String READY_KEY = "ready";
+    private static final String PHASE_KEY_PREFIX = "phase.";
+    // Only used to order the phases, it is not reported.
+    private static final String STARTED_AT_NANOS_KEY = "startedAtNanos";
+
+    private final LocalMap<String, Object> entries;
+
+    private StartupReport(LocalMap<String, Object> entries) {
+        this.entries = entries;
+    }
+
+    public static StartupReport create(Vertx vertx) {
+        return new StartupReport(vertx.sharedData().getLocalMap(SHARED_MAP_NAME));
+    }
+
+    /**
+     * @param phase,       the name of the phase.
+     * @param completable, the phase, which is timed from its subscription until it terminates.
+     * @return the given phase, timed.
+     */
+    public Completable time(String phase, Completable completable) {
+        return Completable.defer(() -> {
+            long startedAtMillis = millisSinceStart();
+            long startNanos = System.nanoTime();
+            return completable.doOnEvent(throwable -> this.record(phase, startedAtMillis, startNanos, throwable));
+        });
+    }
+
+    public <T> Single<T> time(String phase, Single<T> single) {
+        return Single.defer(() -> {
+            long startedAtMillis = millisSinceStart();
+            long startNanos = System.nanoTime();
+            return single.doOnEvent((value, throwable) -> this.record(phase, startedAtMillis, startNanos, throwable));
+        });
+    }
+
+    public <T> Maybe<T> time(String phase, Maybe<T> maybe) {
+        return Maybe.defer(() -> {
+            long startedAtMillis = millisSinceStart();
+            long startNanos = System.nanoTime();
+            return maybe.doOnEvent((value, throwable) -> this.record(phase, startedAtMillis, startNanos, throwable));
+        });
+    }
+
+    /**
+     * Marks the application as ready, once.
+     */
+    public void markReady() {
+        this.entries.putIfAbsent(READY_KEY, millisSinceStart());
+    }
+
+    public boolean isReady() {
+        return this.entries.containsKey(READY_KEY);
+    }
+
+    /**
+     * @return whether the application is ready (and how long after the start of the jvm it was) and the phases that
+     * were timed, in the order in which they started. All times are in milliseconds since the start of the jvm.
+     */
+    public JsonObject toJson() {
+        JsonArray phases = new JsonArray();
+        this.entries
+                .entrySet()
+                .stream()
+                .filter(entry -> entry.getKey().startsWith(PHASE_KEY_PREFIX))
+                .map(entry -> (JsonObject) entry.getValue())
+                // Phases often start in the same millisecond, the nano time tells which one started first.
+                .sorted(Comparator.comparing(phase -> phase.getLong(STARTED_AT_NANOS_KEY)))
+                .map(phase -> {
+                    JsonObject reported = phase.copy();
+                    reported.remove(STARTED_AT_NANOS_KEY);
+                    return reported;
+                })
+                .forEach(phases::add);
+        return new JsonObject()
+                .put("ready", this.isReady())
+                .put("readyAtMillis", (Long) this.entries.get(READY_KEY))
+                .put("phases", phases);
+    }
+
+    private void record(String phase, long startedAtMillis, long startNanos, Throwable throwable) {
+        this.entries.put(PHASE_KEY_PREFIX + phase, new JsonObject()
+                .put("phase", phase)
+                .put("startedAtMillis", startedAtMillis)
+                .put(STARTED_AT_NANOS_KEY, startNanos)
+                .put("durationMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos))
+                .put("succeeded", Objects.isNull(throwable)));
+    }
+
+    private static long millisSinceStart() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+}
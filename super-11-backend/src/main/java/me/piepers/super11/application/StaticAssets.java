@@ -0,0 +1,497 @@
+package me.piepers.super11.application;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The static assets of the standings board (the super-11-standings module), as they are served by the
+ * {@link HttpServerVerticle}. Everything is prepared once when the assets are loaded, so that serving an asset is only
+ * choosing a file and sending it as it is (zero-copy):
+ * <ul>
+ * <li>Every asset is also served with a hash of its content in its name (style.css as style.1a2b3c4d5e6f7a8b.css)
+ * which may be cached forever. The pages and stylesheets refer to the other assets by those names, so a page (which
+ * is revalidated) always gets the assets it was made with.</li>
+ * <li>An asset that is worth compressing has a gzip (and if it was packaged with one, a brotli) variant next to it.
+ * Variants that were made when the module was packaged (style.css.gz and style.css.br) are used as they are, the gzip
+ * variant is made when the assets are loaded if there is none.</li>
+ * </ul>
+ * The module is packaged with its pages and stylesheets {@link #prepare(Path) prepared} already, so that their
+ * packaged variants are of what is served. Pages and stylesheets that still refer to other assets by their own names
+ * are written to the cache directory with the new names, as are the variants that were made (their packaged variants
+ * are of the old content and not used).
+ *
+ * @author Bas Piepers
+ */
+public class StaticAssets {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StaticAssets.class);
+    static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    static final String REVALIDATE = "no-cache";
+    // The encodings we serve, in the order of preference.
+    public static final String BROTLI = "br";
+    public static final String GZIP = "gzip";
+    // A variant that saves less than this (a tenth) is not worth decompressing.
+    private static final double MINIMUM_SAVING = 0.1;
+    private static final Set<String> NOT_SERVED = Set.of("pom.xml", "README.md");
+    private static final Pattern HTML_REFERENCE = Pattern.compile("(href|src)=\"([^\"]+)\"");
+    private static final Pattern CSS_REFERENCE = Pattern.compile("url\\(\\s*(['\"]?)([^'\")]+)\\1\\s*\\)");
+    // The same content in another encoding is another representation, its ETag has the suffix of the encoding.
+    private static final Map<String, String> ETAG_SUFFIXES = Map.of(BROTLI, "-br", GZIP, "-gz");
+    // The content types of what the board is made of (and a bit more), by extension.
+    private static final Map<String, String> CONTENT_TYPES = Map.ofEntries(
+            Map.entry("html", "text/html"),
+            Map.entry("css", "text/css"),
+            Map.entry("js", "application/javascript"),
+            Map.entry("mjs", "application/javascript"),
+            Map.entry("json", "application/json"),
+            Map.entry("map", "application/json"),
+            Map.entry("webmanifest", "application/manifest+json"),
+            Map.entry("xml", "application/xml"),
+            Map.entry("txt", "text/plain"),
+            Map.entry("svg", "image/svg+xml"),
+            Map.entry("ico", "image/x-icon"),
+            Map.entry("png", "image/png"),
+            Map.entry("jpg", "image/jpeg"),
+            Map.entry("jpeg", "image/jpeg"),
+            Map.entry("gif", "image/gif"),
+            Map.entry("webp", "image/webp"),
+            Map.entry("woff", "font/woff"),
+            Map.entry("woff2", "font/woff2"),
+            Map.entry("ttf", "font/ttf"));
+
+    private final Map<String, Asset> assets;
+
+    private StaticAssets(Map<String, Asset> assets) {
+        this.assets = assets;
+    }
+
+    /**
+     * @return no assets, for when there is no web root.
+     */
+    public static StaticAssets none() {
+        return new StaticAssets(Collections.emptyMap());
+    }
+
+    /**
+     * Loads the assets in the given web root. Blocks, so should be called on a worker thread.
+     *
+     * @param webRoot,        the directory with the assets.
+     * @param cacheDirectory, where the rewritten pages and stylesheets and the variants that are made are written.
+     * @return the assets.
+     * @throws IOException if the assets can't be read or written to the cache directory.
+     */
+    public static StaticAssets load(Path webRoot, Path cacheDirectory) throws IOException {
+        List<Path> files = files(webRoot);
+        Files.createDirectories(cacheDirectory);
+        Map<String, String> hashedNames = new HashMap<>();
+        Map<String, Asset> assets = new HashMap<>();
+        for (Path file : files) {
+            String name = name(webRoot, file);
+            byte[] content = Files.readAllBytes(file);
+            byte[] rewritten = rewrite(name, content, hashedNames);
+            String hash = contentHash(rewritten);
+            String hashedName = hashedName(name, hash);
+            Path served = file;
+            Map<String, Path> variants = new LinkedHashMap<>();
+            if (rewritten != content) {
+                served = write(cacheDirectory.resolve(hashedName), rewritten);
+            } else {
+                packagedVariant(file, BROTLI, ".br").ifPresent(variant -> variants.put(BROTLI, variant));
+                packagedVariant(file, GZIP, ".gz").ifPresent(variant -> variants.put(GZIP, variant));
+            }
+            String contentType = contentType(name);
+            if (!variants.containsKey(GZIP) && isCompressible(contentType)) {
+                Path gzipped = cacheDirectory.resolve(hashedName + ".gz");
+                if (!Files.exists(gzipped)) {
+                    write(gzipped, gzip(rewritten));
+                }
+                if (Files.size(gzipped) < rewritten.length * (1 - MINIMUM_SAVING)) {
+                    variants.put(GZIP, gzipped);
+                }
+            }
+            Asset asset = new Asset(served, contentType, "\"" + hash + "\"", REVALIDATE, variants);
+            assets.put("/" + name, asset);
+            if (isPage(name)) {
+                if (name.endsWith("index.html")) {
+                    assets.put("/" + name.substring(0, name.length() - "index.html".length()), asset);
+                }
+            } else {
+                assets.put("/" + hashedName, asset.withCacheControl(IMMUTABLE));
+                hashedNames.put(name, hashedName);
+            }
+        }
+        LOGGER.debug("Loaded {} static assets from {}.", files.size(), webRoot);
+        return new StaticAssets(Collections.unmodifiableMap(assets));
+    }
+
+    /**
+     * Rewrites the pages and stylesheets in the given web root in place, to refer to the other assets by their hashed
+     * names as they are served. Run when the standings board is packaged, before its variants are made, so that the
+     * variants of the pages and stylesheets can be served as they are. Preparing assets that are prepared already
+     * changes nothing.
+     *
+     * @param webRoot, the directory with the assets.
+     * @throws IOException if the assets can't be read or written.
+     */
+    public static void prepare(Path webRoot) throws IOException {
+        Map<String, String> hashedNames = new HashMap<>();
+        for (Path file : files(webRoot)) {
+            String name = name(webRoot, file);
+            byte[] content = Files.readAllBytes(file);
+            byte[] rewritten = rewrite(name, content, hashedNames);
+            if (rewritten != content) {
+                write(file, rewritten);
+            }
+            if (!isPage(name)) {
+                hashedNames.put(name, hashedName(name, contentHash(rewritten)));
+            }
+        }
+        LOGGER.debug("Prepared the static assets in {}.", webRoot);
+    }
+
+    /**
+     * Prepares the static assets in the web root that is given as the only argument, see {@link #prepare(Path)}.
+     *
+     * @param args, the web root.
+     * @throws IOException if the assets can't be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Expected the web root as the only argument.");
+        }
+        prepare(Paths.get(args[0]));
+    }
+
+    /**
+     * @param path, the normalised path of the request.
+     * @return the asset that is served at the given path, or null if there is none.
+     */
+    public Asset find(String path) {
+        return this.assets.get(path);
+    }
+
+    int size() {
+        return this.assets.size();
+    }
+
+    /**
+     * Chooses the encoding of a response from the encodings that are acceptable to the client, by their quality value.
+     * When the client accepts more than one equally, the first of the available ones is chosen.
+     *
+     * @param acceptEncoding, the value of the Accept-Encoding header of the request, may be null.
+     * @param available,      the encodings in which the response is available, in the order of preference.
+     * @return the encoding or null if the response should not be encoded.
+     */
+    public static String negotiate(String acceptEncoding, Collection<String> available) {
+        if (Objects.isNull(acceptEncoding) || available.isEmpty()) {
+            return null;
+        }
+        Map<String, Double> qualities = new HashMap<>();
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().split(";");
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0.0;
+                    }
+                }
+            }
+            qualities.put(parts[0].trim().toLowerCase(), quality);
+        }
+        String chosen = null;
+        double chosenQuality = 0.0;
+        for (String encoding : available) {
+            double quality = qualities.getOrDefault(encoding, qualities.getOrDefault("*", 0.0));
+            if (quality > chosenQuality) {
+                chosen = encoding;
+                chosenQuality = quality;
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * @param etag,     the (strong) ETag of the content.
+     * @param encoding, the encoding of the response, or null for none.
+     * @return the ETag of the content in the given encoding, like "1a2b3c4d-gz" for gzip.
+     */
+    public static String etag(String etag, String encoding) {
+        String suffix = Objects.isNull(encoding) ? null : ETAG_SUFFIXES.get(encoding);
+        if (Objects.isNull(suffix)) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + suffix + "\"";
+    }
+
+    /**
+     * Compares the ETags of a conditional request with the given one like If-None-Match asks for (weakly) and in any
+     * encoding: the client has the content, whatever the encoding is it stored it in.
+     *
+     * @param ifNoneMatch, the value of the If-None-Match header, may be null.
+     * @param etag,        the (strong) ETag of the content, without the suffix of an encoding.
+     * @return true if one of the ETags is that of the content.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (Objects.isNull(ifNoneMatch)) {
+            return false;
+        }
+        for (String token : ifNoneMatch.split(",")) {
+            String tag = token.trim();
+            if ("*".equals(tag)) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            for (String suffix : ETAG_SUFFIXES.values()) {
+                if (tag.endsWith(suffix + "\"")) {
+                    tag = tag.substring(0, tag.length() - suffix.length() - 1) + "\"";
+                    break;
+                }
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param content, the content to compress.
+     * @return the content compressed with gzip.
+     */
+    public static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 2 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed) {
+            {
+                this.def.setLevel(9);
+            }
+        }) {
+            gzip.write(content);
+        } catch (IOException e) {
+            // Doesn't happen, it's written in memory.
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    // The assets that are referred to first, then the stylesheets and then the pages that refer to them.
+    private static List<Path> files(Path webRoot) throws IOException {
+        try (Stream<Path> walk = Files.walk(webRoot)) {
+            return walk
+                    .filter(Files::isRegularFile)
+                    .filter(file -> !NOT_SERVED.contains(file.getFileName().toString()))
+                    .filter(file -> !isVariant(file))
+                    .sorted(Comparator.comparingInt(StaticAssets::referenceOrder).thenComparing(Path::toString))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    // css/style.css
+    private static String name(Path webRoot, Path file) {
+        return webRoot.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+    }
+
+    // The references of pages and stylesheets to other assets are replaced by their hashed names.
+    private static byte[] rewrite(String name, byte[] content, Map<String, String> hashedNames) {
+        Pattern pattern = isPage(name) ? HTML_REFERENCE : name.endsWith(".css") ? CSS_REFERENCE : null;
+        if (Objects.isNull(pattern)) {
+            return content;
+        }
+        Path directory = Paths.get(name).getParent();
+        String text = new String(content, StandardCharsets.UTF_8);
+        Matcher matcher = pattern.matcher(text);
+        StringBuilder rewritten = new StringBuilder(text.length() + 64);
+        boolean changed = false;
+        while (matcher.find()) {
+            String reference = matcher.group(2);
+            String hashedName = hashedNames.get(resolve(directory, reference));
+            String replacement = matcher.group();
+            if (Objects.nonNull(hashedName)) {
+                String hashedReference = reference.substring(0, reference.lastIndexOf('/') + 1) + hashedName.substring(hashedName.lastIndexOf('/') + 1);
+                replacement = replacement.replace(reference, hashedReference);
+                changed = true;
+            }
+            matcher.appendReplacement(rewritten, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(rewritten);
+        return changed ? rewritten.toString().getBytes(StandardCharsets.UTF_8) : content;
+    }
+
+    // The name of the asset the given reference is to, or null if it is not to an asset.
+    private static String resolve(Path directory, String reference) {
+        if (reference.contains(":") || reference.startsWith("//") || reference.contains("?") || reference.contains("#")) {
+            return null;
+        }
+        Path resolved = reference.startsWith("/") ? Paths.get(reference.substring(1)) : Objects.isNull(directory) ? Paths.get(reference) : directory.resolve(reference);
+        String name = resolved.normalize().toString().replace(resolved.getFileSystem().getSeparator(), "/");
+        return name.startsWith("..") ? null : name;
+    }
+
+    // style.css as style.1a2b3c4d5e6f7a8b.css
+    static String hashedName(String name, String hash) {
+        int extension = name.lastIndexOf('.');
+        if (extension <= name.lastIndexOf('/')) {
+            return name + "." + hash;
+        }
+        return name.substring(0, extension) + "." + hash + name.substring(extension);
+    }
+
+    private static Optional<Path> packagedVariant(Path file, String encoding, String extension) throws IOException {
+        Path variant = file.resolveSibling(file.getFileName() + extension);
+        if (Files.exists(variant) && Files.getLastModifiedTime(variant).compareTo(Files.getLastModifiedTime(file)) >= 0) {
+            return Optional.of(variant);
+        }
+        if (Files.exists(variant)) {
+            LOGGER.warn("Not serving {} variant {}, it is older than {}.", encoding, variant, file);
+        }
+        return Optional.empty();
+    }
+
+    // Written to a temporary file first, more than one instance of the http server may load the assets at the same time.
+    private static Path write(Path file, byte[] content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temporary = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        Files.write(temporary, content);
+        return Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String contentHash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder stringBuilder = new StringBuilder(16);
+            for (int i = 0; i < 8; i++) {
+                stringBuilder.append(Character.forDigit((digest[i] >> 4) & 0xF, 16)).append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+            return stringBuilder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String contentType(String name) {
+        int extension = name.lastIndexOf('.');
+        String contentType = extension > name.lastIndexOf('/') ? CONTENT_TYPES.get(name.substring(extension + 1).toLowerCase()) : null;
+        if (Objects.isNull(contentType)) {
+            return "application/octet-stream";
+        }
+        return contentType.startsWith("text/") || contentType.endsWith("javascript") || contentType.endsWith("json") ? contentType + "; charset=UTF-8" : contentType;
+    }
+
+    // Images (other than icons and svg) are compressed already.
+    private static boolean isCompressible(String contentType) {
+        return !contentType.startsWith("image/") || contentType.startsWith("image/svg") || contentType.startsWith("image/x-icon");
+    }
+
+    private static boolean isPage(String name) {
+        return name.endsWith(".html");
+    }
+
+    private static boolean isVariant(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(".gz") || name.endsWith(".br");
+    }
+
+    private static int referenceOrder(Path file) {
+        String name = file.getFileName().toString();
+        return isPage(name) ? 2 : name.endsWith(".css") ? 1 : 0;
+    }
+
+    /**
+     * An asset with the files that are sent for it, by encoding.
+     */
+    public static class Asset {
+        private final Path file;
+        private final String contentType;
+        private final String etag;
+        private final String cacheControl;
+        private final Map<String, Path> variants;
+
+        private Asset(Path file, String contentType, String etag, String cacheControl, Map<String, Path> variants) {
+            this.file = file;
+            this.contentType = contentType;
+            this.etag = etag;
+            this.cacheControl = cacheControl;
+            this.variants = Collections.unmodifiableMap(variants);
+        }
+
+        private Asset withCacheControl(String cacheControl) {
+            return new Asset(this.file, this.contentType, this.etag, cacheControl, this.variants);
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * @param encoding, one of the encodings of the asset, or null for none.
+         * @return the ETag of the file that is sent in the given encoding.
+         */
+        public String getEtag(String encoding) {
+            return etag(etag, encoding);
+        }
+
+        public String getCacheControl() {
+            return cacheControl;
+        }
+
+        /**
+         * @return the encodings the asset is available in (other than none), in the order of preference.
+         */
+        public Collection<String> getEncodings() {
+            return variants.keySet();
+        }
+
+        /**
+         * @param encoding, one of the encodings of the asset, or null for none.
+         * @return the file to send.
+         */
+        public Path getFile(String encoding) {
+            return Objects.isNull(encoding) ? file : variants.get(encoding);
+        }
+
+        public boolean isNotModified(String ifNoneMatch) {
+            return matches(ifNoneMatch, etag);
+        }
+
+        @Override
+        public String toString() {
+            return "Asset{" +
+                    "file=" + file +
+                    ", contentType='" + contentType + '\'' +
+                    ", cacheControl='" + cacheControl + '\'' +
+                    ", encodings=" + variants.keySet() +
+                    '}';
+        }
+    }
+}
@@ -8,14 +8,16 @@ import io.vertx.core.Future;
 import io.vertx.core.json.JsonObject;
 import io.vertx.reactivex.config.ConfigRetriever;
 import io.vertx.reactivex.core.AbstractVerticle;
-import io.vertx.serviceproxy.ServiceBinder;
 import me.piepers.super11.Super11UdenStandingsVerticle;
 import me.piepers.super11.domain.CompetitionService;
+import me.piepers.super11.infrastructure.CompetitionServiceProxyHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class Super11Application extends AbstractVerticle {
     private static final Logger LOGGER = LoggerFactory.getLogger(Super11Application.class);
+    // Zero (or less) means one instance per available core.
+    private static final int DEFAULT_HTTP_SERVER_INSTANCES = 0;
 
     @Override
     public void start(Future<Void> startFuture) {
@@ -34,26 +36,45 @@ public class Super11Application extends AbstractVerticle {
                 .addStore(nonPublicConfigStore);
 
         final ConfigRetriever configRetriever = ConfigRetriever.create(this.vertx, options);
+        final StartupReport startupReport = StartupReport.create(this.vertx.getDelegate());
 
-        configRetriever
-                .rxGetConfig()
+        startupReport
+                .time("config", configRetriever.rxGetConfig())
                 .flatMapCompletable(configuration -> {
 
 
-                    new ServiceBinder(this.vertx.getDelegate())
-                            .setAddress(CompetitionService.EVENT_BUS_ADDRESS)
-                            .register(CompetitionService.class, CompetitionService.create(this.vertx.getDelegate(), configuration));
+                    // Creating the service starts reading the access key file, so it is read before the first fetch.
+                    // The handler replies with the competition itself instead of its json (see DomainObjectMessageCodec).
+                    new CompetitionServiceProxyHandler(this.vertx.getDelegate(), CompetitionService.create(this.vertx.getDelegate(), configuration))
+                            .register(this.vertx.getDelegate().eventBus(), CompetitionService.EVENT_BUS_ADDRESS);
 
+                    // The http server instances share the standings via the local shared data, so we can run one per core.
+                    int httpServerInstances = configuration
+                            .getJsonObject("http_server", new JsonObject())
+                            .getInteger("instances", DEFAULT_HTTP_SERVER_INSTANCES);
+                    if (httpServerInstances < 1) {
+                        httpServerInstances = Runtime.getRuntime().availableProcessors();
+                    }
+                    LOGGER.debug("Deploying {} instance(s) of the http server.", httpServerInstances);
+
+                    // The http server doesn't depend on the standings verticle (it serves whatever was published, and
+                    // tells whether the application is ready), so both are deployed at the same time.
                     return Completable
                             .fromAction(() -> LOGGER.debug("Deploying Super 11 Application backend."))
-                            .andThen(this.vertx
-                                    .rxDeployVerticle(HttpServerVerticle.class.getName(), new DeploymentOptions().setConfig(configuration)))
-                            .ignoreElement()
-                            .andThen(this.vertx.rxDeployVerticle(Super11UdenStandingsVerticle.class.getName(), new DeploymentOptions().setConfig(configuration)))
-                            .ignoreElement();
+                            .andThen(Completable.mergeArray(
+                                    startupReport.time("deploy.http_server", this.vertx
+                                            .rxDeployVerticle(HttpServerVerticle.class.getName(), new DeploymentOptions()
+                                                    .setConfig(configuration)
+                                                    .setInstances(httpServerInstances))
+                                            .ignoreElement()),
+                                    startupReport.time("deploy.standings", this.vertx
+                                            .rxDeployVerticle(Super11UdenStandingsVerticle.class.getName(), new DeploymentOptions().setConfig(configuration))
+                                            .ignoreElement())));
                 })
                 .subscribe(() -> {
+                    startupReport.markReady();
                     LOGGER.debug("Application deployed successfully.");
+                    LOGGER.info("Startup report: {}", startupReport.toJson().encode());
                     startFuture.complete();
                 }, throwable -> {
                     LOGGER.debug("Application has not been deployed successfully due to:", throwable);
@@ -0,0 +1,89 @@
+package me.piepers.super11.application.model;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The difference between two consecutive versions of the standings, as it is pushed to the UI. Only the drafts of
+ * which the rank or points changed are part of the delta and of those drafts only the fields that changed (and the id).
+ * Drafts that are new contain all fields, drafts that disappeared are listed by id.
+ * <p>
+ * A delta frame contains the version it results in and the version it must be applied to. A client that doesn't have
+ * that base version has missed an update and must resync with the full standings.
+ *
+ * @author Bas Piepers
+ */
+public class StandingsDelta {
+    public static final String TYPE = "delta";
+
+    private StandingsDelta() {
+        // Only static helpers.
+    }
+
+    /**
+     * Determines the delta between the previous and the current standings.
+     *
+     * @param previous,        the standings of the previous version.
+     * @param previousVersion, the version of the previous standings.
+     * @param current,         the current standings.
+     * @param version,         the version of the current standings.
+     * @return the delta frame or an empty optional if the delta would not be smaller than just sending the full
+     * standings.
+     */
+    public static Optional<JsonObject> between(List<StandingsDto> previous, long previousVersion, List<StandingsDto> current, long version) {
+        Map<String, StandingsDto> previousById = new HashMap<>(previous.size() * 2);
+        previous.forEach(standingsDto -> previousById.put(standingsDto.getId(), standingsDto));
+
+        JsonArray changes = new JsonArray();
+        for (StandingsDto standingsDto : current) {
+            StandingsDto before = previousById.remove(standingsDto.getId());
+            if (Objects.isNull(before)) {
+                changes.add(standingsDto.toJson());
+            } else {
+                JsonObject change = changeOf(before, standingsDto);
+                if (Objects.nonNull(change)) {
+                    changes.add(change);
+                }
+            }
+        }
+        JsonArray removed = new JsonArray();
+        previousById.keySet().forEach(removed::add);
+
+        // Past this point the delta isn't worth it: the full standings are hardly any bigger.
+        if (changes.size() + removed.size() > current.size() / 2) {
+            return Optional.empty();
+        }
+        JsonObject delta = new JsonObject()
+                .put("type", TYPE)
+                .put("version", version)
+                .put("baseVersion", previousVersion)
+                .put("changes", changes);
+        if (!removed.isEmpty()) {
+            delta.put("removed", removed);
+        }
+        return Optional.of(delta);
+    }
+
+    private static JsonObject changeOf(StandingsDto before, StandingsDto after) {
+        JsonObject change = new JsonObject();
+        if (!Objects.equals(before.getRank(), after.getRank())) {
+            change.put("rank", after.getRank());
+        }
+        if (!Objects.equals(before.getPoints(), after.getPoints())) {
+            change.put("points", after.getPoints());
+        }
+        if (!Objects.equals(before.getTotalPoints(), after.getTotalPoints())) {
+            change.put("totalPoints", after.getTotalPoints());
+        }
+        if (!Objects.equals(before.getDraftName(), after.getDraftName())) {
+            change.put("draftName", after.getDraftName());
+        }
+        return change.isEmpty() ? null : change.put("id", after.getId());
+    }
+}
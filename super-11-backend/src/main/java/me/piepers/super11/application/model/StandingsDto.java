@@ -10,21 +10,24 @@ import me.piepers.super11.domain.Draft;
  *
  * @author Bas Piepers
  */
-@DataObject
+@DataObject(generateConverter = true)
 public class StandingsDto {
+    private final String id;
     private final Integer rank;
     private final String draftName;
     private final Integer points;
     private final Long totalPoints;
 
     public StandingsDto(JsonObject jsonObject) {
+        this.id = jsonObject.getString("id");
         this.rank = jsonObject.getInteger("rank");
         this.draftName = jsonObject.getString("draftName");
         this.points = jsonObject.getInteger("points");
         this.totalPoints = jsonObject.getLong("totalPoints");
     }
 
-    private StandingsDto(Integer rank, String draftName, Integer points, Long totalPoints) {
+    private StandingsDto(String id, Integer rank, String draftName, Integer points, Long totalPoints) {
+        this.id = id;
         this.rank = rank;
         this.draftName = draftName;
         this.points = points;
@@ -32,7 +35,11 @@ public class StandingsDto {
     }
 
     public static StandingsDto from(Draft draft) {
-        return new StandingsDto(draft.getRank(), draft.getDraftName(), draft.getPoints(), draft.getTotalPoints());
+        return new StandingsDto(draft.getId(), draft.getRank(), draft.getDraftName(), draft.getPoints(), draft.getTotalPoints());
+    }
+
+    public String getId() {
+        return id;
     }
 
     public Integer getRank() {
@@ -52,13 +59,16 @@ public class StandingsDto {
     }
 
     public JsonObject toJson() {
-        return JsonObject.mapFrom(this);
+        JsonObject json = new JsonObject();
+        StandingsDtoConverter.toJson(this, json);
+        return json;
     }
 
     @Override
     public String toString() {
         return "StandingsDto{" +
-                "rank=" + rank +
+                "id='" + id + '\'' +
+                ", rank=" + rank +
                 ", draftName='" + draftName + '\'' +
                 ", points=" + points +
                 ", totalPoints=" + totalPoints +
@@ -72,6 +82,7 @@ public class StandingsDto {
 
         StandingsDto that = (StandingsDto) o;
 
+        if (!id.equals(that.id)) return false;
         if (!rank.equals(that.rank)) return false;
         if (!draftName.equals(that.draftName)) return false;
         if (!points.equals(that.points)) return false;
@@ -80,7 +91,8 @@ public class StandingsDto {
 
     @Override
     public int hashCode() {
-        int result = rank.hashCode();
+        int result = id.hashCode();
+        result = 31 * result + rank.hashCode();
         result = 31 * result + draftName.hashCode();
         result = 31 * result + points.hashCode();
         result = 31 * result + totalPoints.hashCode();
@@ -0,0 +1,218 @@
+package me.piepers.super11.application.model;
+
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.Shareable;
+import me.piepers.super11.application.StaticAssets;
+import me.piepers.super11.domain.Competition;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * The standings as they are served to the UI, encoded once per update of the competition. The encoded body is kept in
+ * an off-heap buffer so that every request (or push) only has to write the same bytes instead of mapping and encoding
+ * the competition again. The body is compressed once as well, for the clients that accept gzip. The ETag is derived
+ * from the content so that clients can revalidate with a conditional request, the gzipped body has an ETag of its own.
+ * <p>
+ * Snapshots are immutable and carry a version that is incremented every time the content changes, which is why they
+ * can be shared between verticles (and event loops) as they are, see {@link me.piepers.super11.application.StandingsSnapshotHolder}.
+ *
+ * @author Bas Piepers
+ */
+public class StandingsSnapshot implements Shareable {
+    private static final DateTimeFormatter HTTP_DATE_FORMAT = DateTimeFormatter
+            .ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.ENGLISH)
+            .withZone(ZoneOffset.UTC);
+    // Every so many versions the full standings are pushed instead of a delta, so that clients that missed a delta
+    // recover without having to ask for them.
+    private static final long FULL_UPDATE_INTERVAL = 10;
+
+    private final long version;
+    private final List<StandingsDto> standings;
+    private final Buffer body;
+    // Null if compressing doesn't make the body smaller.
+    private final Buffer gzippedBody;
+    private final Buffer update;
+    private final String etag;
+    private final Instant lastModified;
+
+    private StandingsSnapshot(long version, List<StandingsDto> standings, Buffer body, Buffer gzippedBody, Buffer update, String etag, Instant lastModified) {
+        this.version = version;
+        this.standings = standings;
+        this.body = body;
+        this.gzippedBody = gzippedBody;
+        this.update = update;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Maps and encodes the drafts of the given competition. If the encoded content turns out to be the same as that of
+     * the previous snapshot, the previous snapshot is returned so that the version and Last-Modified date are preserved.
+     *
+     * @param competition, the competition that was fetched by the standings verticle.
+     * @param previous,    the snapshot that is currently published, may be null.
+     * @return a snapshot with the encoded standings of the competition.
+     */
+    public static StandingsSnapshot from(Competition competition, StandingsSnapshot previous) {
+        List<StandingsDto> standings = competition
+                .getData()
+                .getDrafts()
+                .stream()
+                .map(draft -> StandingsDto.from(draft))
+                .collect(Collectors.toUnmodifiableList());
+        JsonArray drafts = new JsonArray(standings
+                .stream()
+                .map(standingsDto -> standingsDto.toJson())
+                .collect(Collectors.toList()));
+        // The ETag covers the drafts only; the version is bumped when it changes.
+        String etag = contentHash(drafts.encode().getBytes(StandardCharsets.UTF_8));
+
+        if (Objects.nonNull(previous) && previous.etag.equals(etag)) {
+            return previous;
+        }
+        long version = Objects.nonNull(previous) ? previous.version + 1 : 1L;
+        byte[] encoded = new JsonObject()
+                .put("version", version)
+                .put("drafts", drafts)
+                .encode()
+                .getBytes(StandardCharsets.UTF_8);
+        Buffer body = directBuffer(encoded);
+        byte[] gzipped = StaticAssets.gzip(encoded);
+        Buffer gzippedBody = gzipped.length < encoded.length ? directBuffer(gzipped) : null;
+        Buffer update = body;
+        if (Objects.nonNull(previous) && version % FULL_UPDATE_INTERVAL != 0) {
+            update = StandingsDelta
+                    .between(previous.standings, previous.version, standings, version)
+                    .map(delta -> directBuffer(delta.encode().getBytes(StandardCharsets.UTF_8)))
+                    .orElse(body);
+        }
+        return new StandingsSnapshot(version, standings, body, gzippedBody, update, etag, Instant.now());
+    }
+
+    private static Buffer directBuffer(byte[] encoded) {
+        return Buffer.buffer(Unpooled.directBuffer(encoded.length).writeBytes(encoded));
+    }
+
+    private static String contentHash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(content);
+            StringBuilder stringBuilder = new StringBuilder(digest.length * 2 + 2).append('"');
+            for (byte b : digest) {
+                stringBuilder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return stringBuilder.append('"').toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to support SHA-1.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Determines whether a client that sent the given conditional headers already has the content of this snapshot.
+     * If-None-Match takes precedence over If-Modified-Since.
+     *
+     * @param ifNoneMatch,     the value of the If-None-Match header, may be null.
+     * @param ifModifiedSince, the value of the If-Modified-Since header, may be null.
+     * @return true if the client's copy is still current.
+     */
+    public boolean isNotModified(String ifNoneMatch, String ifModifiedSince) {
+        if (Objects.nonNull(ifNoneMatch)) {
+            return StaticAssets.matches(ifNoneMatch, this.etag);
+        }
+        if (Objects.nonNull(ifModifiedSince)) {
+            try {
+                Instant since = Instant.from(HTTP_DATE_FORMAT.parse(ifModifiedSince));
+                return !this.lastModified.truncatedTo(ChronoUnit.SECONDS).isAfter(since);
+            } catch (DateTimeException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<StandingsDto> getStandings() {
+        return standings;
+    }
+
+    public Buffer getBody() {
+        return body;
+    }
+
+    /**
+     * @param encoding, gzip or null.
+     * @return the body in the given encoding.
+     */
+    public Buffer getBody(String encoding) {
+        return Objects.isNull(encoding) ? body : gzippedBody;
+    }
+
+    /**
+     * @return the encodings the body is available in (other than none).
+     */
+    public List<String> getEncodings() {
+        return Objects.isNull(gzippedBody) ? List.of() : List.of(StaticAssets.GZIP);
+    }
+
+    /**
+     * @return what is pushed to the UI for this version: a {@link StandingsDelta} against the previous version or,
+     * every so often or when a delta isn't worth it, the full standings (the same as {@link #getBody()}).
+     */
+    public Buffer getUpdate() {
+        return update;
+    }
+
+    /**
+     * @return the ETag of the content, which is that of the body that isn't encoded.
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * @param encoding, gzip or null.
+     * @return the ETag of the body in the given encoding.
+     */
+    public String getEtag(String encoding) {
+        return StaticAssets.etag(etag, encoding);
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public String getLastModifiedHttpDate() {
+        return toHttpDate(lastModified);
+    }
+
+    public static String toHttpDate(Instant instant) {
+        return HTTP_DATE_FORMAT.format(instant);
+    }
+
+    @Override
+    public String toString() {
+        return "StandingsSnapshot{" +
+                "version=" + version +
+                ", etag='" + etag + '\'' +
+                ", lastModified=" + lastModified +
+                ", drafts=" + standings.size() +
+                '}';
+    }
+}
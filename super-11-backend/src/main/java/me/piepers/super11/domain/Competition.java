@@ -11,13 +11,13 @@ import java.util.Objects;
  *
  * @author Bas Piepers
  */
-@DataObject
+@DataObject(generateConverter = true)
 public class Competition implements JsonDomainObject {
     private final String version;
     private final Boolean error;
     private final String message;
     private final String status;
-    private CompetitionData data;
+    private final CompetitionData data;
 
     public Competition(JsonObject jsonObject) {
         this.version = jsonObject.getString("version");
@@ -47,6 +47,13 @@ public class Competition implements JsonDomainObject {
         return data;
     }
 
+    @Override
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        CompetitionConverter.toJson(this, json);
+        return json;
+    }
+
     @Override
     public String toString() {
         return "Competition{" +
@@ -4,7 +4,9 @@ import io.vertx.codegen.annotations.DataObject;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -12,15 +14,21 @@ import java.util.stream.Collectors;
  *
  * @author Bas Piepers
  */
-@DataObject
+@DataObject(generateConverter = true)
 public class CompetitionData implements JsonDomainObject {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    // In front of every field, so that a null differs from every value.
+    private static final byte NULL_MARKER = 0;
+    private static final byte VALUE_MARKER = 1;
+
     private final String id;
     private final String name;
-    private String token;
-    private List<FieldValue> periods;
-    private List<FieldValue> keys;
-    private List<Draft> drafts;
-    private MetaData draftsMetadata;
+    private final String token;
+    private final List<FieldValue> periods;
+    private final List<FieldValue> keys;
+    private final List<Draft> drafts;
+    private final MetaData draftsMetadata;
 
     public CompetitionData(JsonObject jsonObject) {
         this.id = jsonObject.getString("id");
@@ -28,18 +36,16 @@ public class CompetitionData implements JsonDomainObject {
         this.token = jsonObject.getString("token");
         this.periods = jsonObject.getJsonArray("periods", new JsonArray())
                 .stream()
-                .map(o -> (FieldValue.of(((JsonObject) o).getString("field"),
-                        ((JsonObject) o).getString("value"))))
-                .collect(Collectors.toList());
+                .map(o -> new FieldValue((JsonObject) o))
+                .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
         this.keys = jsonObject.getJsonArray("keys", new JsonArray())
                 .stream()
-                .map(o -> (FieldValue.of(((JsonObject) o).getString("field"),
-                        ((JsonObject) o).getString("value"))))
-                .collect(Collectors.toList());
+                .map(o -> new FieldValue((JsonObject) o))
+                .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
         this.drafts = jsonObject.getJsonArray("drafts", new JsonArray())
                 .stream()
                 .map(o -> new Draft((JsonObject) o))
-                .collect(Collectors.toList());
+                .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
         this.draftsMetadata = new MetaData(jsonObject.getJsonObject("draftsMetadata"));
     }
 
@@ -71,6 +77,65 @@ public class CompetitionData implements JsonDomainObject {
         return draftsMetadata;
     }
 
+    /**
+     * A cheap fingerprint of what is shown in the standings: the id, rank, name, points and total points of every draft,
+     * in the order of the drafts, hashed with 64-bit FNV-1a. Every bit of every field is mixed in, so changes of two
+     * fields don't cancel each other out the way they could in a sum of hash codes. If two polls produce the same
+     * fingerprint, the standings didn't change (barring a hash collision, which only means that one update is shown at
+     * the next change).
+     *
+     * @return the fingerprint of the standings.
+     */
+    public long standingsFingerprint() {
+        long fingerprint = FNV_OFFSET_BASIS;
+        for (Draft draft : drafts) {
+            fingerprint = fnv1a(fingerprint, draft.getId());
+            fingerprint = fnv1a(fingerprint, draft.getRank());
+            fingerprint = fnv1a(fingerprint, draft.getDraftName());
+            fingerprint = fnv1a(fingerprint, draft.getPoints());
+            fingerprint = fnv1a(fingerprint, draft.getTotalPoints());
+        }
+        return fingerprint;
+    }
+
+    // A string is hashed with its length in front of it, so that "ab", "c" and "a", "bc" differ.
+    private static long fnv1a(long hash, String value) {
+        if (Objects.isNull(value)) {
+            return fnv1aByte(hash, NULL_MARKER);
+        }
+        hash = fnv1aLong(fnv1aByte(hash, VALUE_MARKER), value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = fnv1aByte(fnv1aByte(hash, (byte) c), (byte) (c >>> 8));
+        }
+        return hash;
+    }
+
+    private static long fnv1a(long hash, Number value) {
+        if (Objects.isNull(value)) {
+            return fnv1aByte(hash, NULL_MARKER);
+        }
+        return fnv1aLong(fnv1aByte(hash, VALUE_MARKER), value.longValue());
+    }
+
+    private static long fnv1aLong(long hash, long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = fnv1aByte(hash, (byte) (value >>> (i * 8)));
+        }
+        return hash;
+    }
+
+    private static long fnv1aByte(long hash, byte value) {
+        return (hash ^ (value & 0xFF)) * FNV_PRIME;
+    }
+
+    @Override
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        CompetitionDataConverter.toJson(this, json);
+        return json;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -7,6 +7,7 @@ import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
 import me.piepers.super11.infrastructure.CompetitionServiceImpl;
+import me.piepers.super11.infrastructure.CompetitionServiceProxy;
 
 /**
  * Gets the standings of the competition. Also retrieves a new access token if the current token is expired.
@@ -23,7 +24,7 @@ public interface CompetitionService {
     }
 
     static CompetitionService createProxy(Vertx vertx) {
-        return new CompetitionServiceVertxEBProxy(vertx, EVENT_BUS_ADDRESS);
+        return new CompetitionServiceProxy(vertx, EVENT_BUS_ADDRESS);
     }
 
 
@@ -32,4 +33,14 @@ public interface CompetitionService {
      * @param result, the ayns-result of the update
      */
     void fetchLatestCompetitionStandings(Handler<AsyncResult<Competition>> result);
+
+    /**
+     * Makes sure that there is an access key that stays valid for at least the given time, requesting a new one if
+     * that isn't known. Meant to be called shortly before the standings will be needed often, so that those requests
+     * don't have to wait for the oauth flow.
+     *
+     * @param validForMillis, how long the access key needs to stay valid.
+     * @param result,         completes when there is such an access key.
+     */
+    void prepareAccessKey(long validForMillis, Handler<AsyncResult<Void>> result);
 }
@@ -9,8 +9,8 @@ import io.vertx.core.json.JsonObject;
  *
  * @author Bas Piepers
  */
-@DataObject
-public class Draft {
+@DataObject(generateConverter = true)
+public class Draft implements JsonDomainObject {
     private final String id;
     private final String draftName;
     private final Long totalPoints;
@@ -28,13 +28,14 @@ public class Draft {
         this.id = jsonObject.getString("id");
         this.draftName = jsonObject.getString("draftName");
         this.totalPoints = jsonObject.getLong("totalPoints");
-        this.isUser = jsonObject.getBoolean("isUser");
+        // The api calls them isUser and isEmpty, toJson (through their getters) user and empty.
+        this.isUser = jsonObject.getBoolean("isUser", jsonObject.getBoolean("user"));
         this.rank = jsonObject.getInteger("rank");
         this.movement = jsonObject.getInteger("movement");
         this.points = jsonObject.getInteger("points");
         this.previousPoints = jsonObject.getInteger("previousPoints");
         this.previousRank = jsonObject.getInteger("previousRank");
-        this.isEmpty = jsonObject.getBoolean("isEmpty");
+        this.isEmpty = jsonObject.getBoolean("isEmpty", jsonObject.getBoolean("empty"));
         this.avatarUrl = jsonObject.getString("avatarUrl");
         this.highLight = jsonObject.getBoolean("highLight");
     }
@@ -87,6 +88,13 @@ public class Draft {
         return highLight;
     }
 
+    @Override
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        DraftConverter.toJson(this, json);
+        return json;
+    }
+
     @Override
     public String toString() {
         return "Draft{" +
@@ -1,12 +1,16 @@
 package me.piepers.super11.domain;
 
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
 /**
  * A simple object that contains a field and a value.
  *
  * @author Bas Piepers
  *
  */
-public class FieldValue {
+@DataObject(generateConverter = true)
+public class FieldValue implements JsonDomainObject {
     private final String field;
     private final String value;
 
@@ -15,6 +19,11 @@ public class FieldValue {
         this.value = value;
     }
 
+    public FieldValue(JsonObject jsonObject) {
+        this.field = jsonObject.getString("field");
+        this.value = jsonObject.getString("value");
+    }
+
     public static FieldValue of(String field, String value) {
         return new FieldValue(field, value);
     }
@@ -26,4 +35,11 @@ public class FieldValue {
     public String getValue() {
         return value;
     }
+
+    @Override
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        FieldValueConverter.toJson(this, json);
+        return json;
+    }
 }
@@ -1,11 +1,14 @@
 package me.piepers.super11.domain;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
 import io.vertx.core.json.JsonObject;
 
-@JsonInclude(JsonInclude.Include.NON_EMPTY)
+/**
+ * A domain object that can be turned into JSON. The domain objects are annotated with
+ * {@code @DataObject(generateConverter = true)}, their toJson uses the converter that Vert.x codegen generates from
+ * their getters so that it doesn't go through (reflective) Jackson databind.
+ *
+ * @author Bas Piepers
+ */
 public interface JsonDomainObject {
-    default JsonObject toJson() {
-        return JsonObject.mapFrom(this);
-    }
+    JsonObject toJson();
 }
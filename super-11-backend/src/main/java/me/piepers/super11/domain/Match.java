@@ -12,7 +12,7 @@ import java.time.Instant;
  *
  * @author Bas Piepers
  */
-@DataObject
+@DataObject(generateConverter = true)
 public class Match implements JsonDomainObject {
     private final Team home;
     private final Team away;
@@ -46,6 +46,13 @@ public class Match implements JsonDomainObject {
         return scheduledStartTime;
     }
 
+    @Override
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        MatchConverter.toJson(this, json);
+        return json;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,77 @@
+package me.piepers.super11.domain;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+
+import java.time.Instant;
+
+/**
+ * A period in which at least one match of a season is being played, from the first kickoff until the last of those
+ * matches is assumed to be finished. During such a window the standings can change at any moment.
+ *
+ * @author Bas Piepers
+ */
+@DataObject(generateConverter = true)
+public class MatchWindow implements JsonDomainObject {
+    private final Instant start;
+    private final Instant end;
+
+    private MatchWindow(Instant start, Instant end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public MatchWindow(JsonObject jsonObject) {
+        this.start = jsonObject.getInstant("start");
+        this.end = jsonObject.getInstant("end");
+    }
+
+    public static MatchWindow of(Instant start, Instant end) {
+        return new MatchWindow(start, end);
+    }
+
+    public Instant getStart() {
+        return start;
+    }
+
+    public Instant getEnd() {
+        return end;
+    }
+
+    public boolean isActiveAt(Instant at) {
+        return at.isAfter(start) && at.isBefore(end);
+    }
+
+    @Override
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        MatchWindowConverter.toJson(this, json);
+        return json;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        MatchWindow that = (MatchWindow) o;
+
+        if (!start.equals(that.start)) return false;
+        return end.equals(that.end);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = start.hashCode();
+        result = 31 * result + end.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "MatchWindow{" +
+                "start=" + start +
+                ", end=" + end +
+                '}';
+    }
+}
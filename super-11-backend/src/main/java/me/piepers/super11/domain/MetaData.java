@@ -8,8 +8,8 @@ import io.vertx.core.json.JsonObject;
  * contains, the pagesize etc. The competition drafts we use to show the standing in our league contains it, for
  * example, in the form of the draftsMeta
  */
-@DataObject
-public class MetaData {
+@DataObject(generateConverter = true)
+public class MetaData implements JsonDomainObject {
     private final Integer pageIndex;
     private final Integer pageSize;
     private final Integer totalCount;
@@ -50,6 +50,13 @@ public class MetaData {
         return hasNextPage;
     }
 
+    @Override
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        MetaDataConverter.toJson(this, json);
+        return json;
+    }
+
     @Override
     public String toString() {
         return "MetaData{" +
@@ -11,6 +11,7 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,7 +20,7 @@ import java.util.stream.Collectors;
  *
  * @author Bas Piepers
  */
-@DataObject
+@DataObject(generateConverter = true)
 public class Round implements JsonDomainObject {
     private static final Logger LOGGER = LoggerFactory.getLogger(Round.class);
     private final int round;
@@ -46,6 +47,10 @@ public class Round implements JsonDomainObject {
                 .collect(Collectors.toList());
     }
 
+    public static Round of(int round, Instant scheduledStartTime, Instant scheduledEndTime, List<Match> matches) {
+        return new Round(round, scheduledStartTime, scheduledEndTime, matches);
+    }
+
     /**
      * Maps a round from the Eredivisie to an instance of this class. The start date of the round is derived from the
      * matches of this round because the round itself doesn't have a proper start date stored with it (only a human
@@ -57,27 +62,6 @@ public class Round implements JsonDomainObject {
      * @return an instance of this round.
      */
     public static Round from(EredivisieRound eredivisieRound) {
-        String firstMatchDateTime =
-                eredivisieRound
-                        .getMatches()
-                        .stream()
-                        .map(em -> em.getDate())
-                        .sorted()
-                        .collect(Collectors.toList())
-                        .get(0);
-
-        Instant scheduledStartTime = convertEredivisieDateTimeToInstant(firstMatchDateTime);
-        // End date is also a date time in GMT with DST (but without timezone information).
-        Instant scheduledEndTime = convertEredivisieDateTimeToInstant(eredivisieRound.getEnddate());
-        // We are going to assume that the round ends at midnight on the date/time of what's in the Eredivisie's round in the Dutch timezone.
-        scheduledEndTime = scheduledEndTime
-                .atZone(ZoneId.of("Europe/Amsterdam"))
-                .plus(1, ChronoUnit.DAYS)
-                .truncatedTo(ChronoUnit.DAYS)
-                .toInstant();
-
-        LOGGER.trace("Truncated end time to: {}", scheduledEndTime.toString());
-
         int round = Integer.parseInt(eredivisieRound.getRound());
         // Parse the matches one-by-one and grab what's interesting to have.
         List<Match> matches = eredivisieRound
@@ -88,6 +72,34 @@ public class Round implements JsonDomainObject {
                                 Team.of(eredivisieMatch.getTeam2ID(), eredivisieMatch.getTeam2Name()),
                                 convertEredivisieDateTimeToInstant(eredivisieMatch.getDate())))
                 .collect(Collectors.toList());
+        return from(round, eredivisieRound.getEnddate(), matches);
+    }
+
+    /**
+     * Maps the parts of a round from the Eredivisie that we use to an instance of this class, the same way as
+     * {@link #from(EredivisieRound)} does.
+     *
+     * @param round,   the number of the round.
+     * @param enddate, the end date of the round as it is in the eredivisie API.
+     * @param matches, the matches of the round.
+     * @return an instance of this round.
+     */
+    public static Round from(int round, String enddate, List<Match> matches) {
+        Instant scheduledStartTime = matches
+                .stream()
+                .map(match -> match.getScheduledStartTime())
+                .min(Comparator.naturalOrder())
+                .orElseThrow(() -> new IllegalArgumentException("Round " + round + " doesn't have any matches."));
+        // End date is also a date time in GMT with DST (but without timezone information).
+        Instant scheduledEndTime = convertEredivisieDateTimeToInstant(enddate);
+        // We are going to assume that the round ends at midnight on the date/time of what's in the Eredivisie's round in the Dutch timezone.
+        scheduledEndTime = scheduledEndTime
+                .atZone(ZoneId.of("Europe/Amsterdam"))
+                .plus(1, ChronoUnit.DAYS)
+                .truncatedTo(ChronoUnit.DAYS)
+                .toInstant();
+
+        LOGGER.trace("Truncated end time to: {}", scheduledEndTime.toString());
         return new Round(round, scheduledStartTime, scheduledEndTime, matches);
     }
 
@@ -100,7 +112,7 @@ public class Round implements JsonDomainObject {
      * @param dateTime, the datetime that is expected to have a format of yyyy-MM-ddTHH:mm:ss.
      * @return the same date/time but converted to an instant.
      */
-    private static Instant convertEredivisieDateTimeToInstant(String dateTime) {
+    public static Instant convertEredivisieDateTimeToInstant(String dateTime) {
         ZonedDateTime zdt = ZonedDateTime.parse(dateTime, dtf);
         return zdt.toInstant();
     }
@@ -121,6 +133,13 @@ public class Round implements JsonDomainObject {
         return matches;
     }
 
+    @Override
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        RoundConverter.toJson(this, json);
+        return json;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -1,7 +1,7 @@
 package me.piepers.super11.domain;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.vertx.codegen.annotations.DataObject;
+import io.vertx.codegen.annotations.GenIgnore;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import me.piepers.super11.infrastructure.model.EredivisieSeason;
@@ -9,41 +9,51 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
  * Season with the rounds, matches and teams. Is cached and stored to disk
+ * <p>
+ * The rounds and matches are kept in {@link SeasonColumns}, the rounds, matches and teams that are returned are views
+ * of those.
  *
  * @author Bas Piepers
  */
-@DataObject
+@DataObject(generateConverter = true)
 public class Season implements JsonDomainObject {
     private static final Logger LOGGER = LoggerFactory.getLogger(Season.class);
     private final String name;
     private final String country;
     // The instant when this object was last updated with the latest content
     private final Instant lastUpdated;
-    private final List<Round> rounds;
+    private final SeasonColumns columns;
+    // Built once, used to determine which matches are active without going through all rounds and matches.
+    private final SeasonIndex index;
 
     public Season(JsonObject jsonObject) {
         this.name = jsonObject.getString("name");
         this.country = jsonObject.getString("country");
         this.lastUpdated = jsonObject.getInstant("lastUpdated", Instant.now());
-        this.rounds = jsonObject.getJsonArray("rounds", new JsonArray())
+        this.columns = SeasonColumns.of(jsonObject.getJsonArray("rounds", new JsonArray())
                 .stream()
                 .map(o -> new Round((JsonObject) o))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+        this.index = SeasonIndex.of(this.columns);
     }
 
     private Season(String name, String country, Instant lastUpdated, List<Round> rounds) {
         this.name = name;
         this.country = country;
         this.lastUpdated = lastUpdated;
-        this.rounds = rounds;
+        this.columns = SeasonColumns.of(rounds);
+        this.index = SeasonIndex.of(this.columns);
+    }
+
+    public static Season of(String name, String country, Instant lastUpdated, List<Round> rounds) {
+        return new Season(name, country, lastUpdated, rounds);
     }
 
     /**
@@ -53,15 +63,20 @@ public class Season implements JsonDomainObject {
      * @return an instance of this season.
      */
     public static final Season from(EredivisieSeason eredivisieSeason) {
-        String name = "Eredivisie";
-        String country = "NL";
-        Instant updated = Instant.now();
         List<Round> rounds = eredivisieSeason
                 .getRounds()
                 .stream()
                 .map(eredivisieRound -> Round.from(eredivisieRound))
                 .collect(Collectors.toList());
-        return new Season(name, country, updated, rounds);
+        return eredivisie(rounds);
+    }
+
+    /**
+     * @param rounds, the rounds that were mapped from the Eredivisie.nl site.
+     * @return an instance of this season with the given rounds, updated now.
+     */
+    public static Season eredivisie(List<Round> rounds) {
+        return new Season("Eredivisie", "NL", Instant.now(), rounds);
     }
 
     public String getName() {
@@ -76,32 +91,34 @@ public class Season implements JsonDomainObject {
         return lastUpdated;
     }
 
+    /**
+     * @return the rounds of this season, in the order of the season. The rounds (and their matches) are made when they
+     * are asked for, so get them once when going through them more than once.
+     */
     public List<Round> getRounds() {
-        return rounds;
+        return columns.rounds();
     }
 
-    @JsonIgnore
+    /**
+     * Determines which rounds were rescheduled in the given season, for instance because a match was moved to another
+     * day. The name, country and moment of the update are not compared.
+     *
+     * @param fetched, the season that was fetched to compare this season with.
+     * @return the numbers of the rounds that differ (including rounds that were added or removed), ordered. Empty if
+     * the schedule is the same.
+     */
+    public List<Integer> roundsChangedIn(Season fetched) {
+        return SeasonColumns.changedRounds(this.columns, fetched.columns);
+    }
+
+    @GenIgnore
     public boolean isMatchActiveNow() {
         return this.isMatchActiveAt(Instant.now());
     }
 
-    @JsonIgnore
+    @GenIgnore
     public boolean isMatchActiveAt(Instant at) {
-        Optional<Round> round = this.rounds
-                .stream()
-                .filter(r -> at.isAfter(r.getScheduledStartTime()) && at.isBefore(r.getScheduledEndTime()))// Filter on round that is active
-                .findFirst();
-        if (round.isPresent()) {
-            return round.get()
-                    .getMatches()
-                    .stream()
-                    .filter(match -> at.isAfter(match.getScheduledStartTime()) && at.isBefore(match.getScheduledStartTime().plus(110, ChronoUnit.MINUTES)))
-                    .peek(match -> LOGGER.debug("Found match of {} - {} with a start time of {} at time {}", match.getHome().getName(), match.getAway().getName(), match.getScheduledStartTime(), at))
-                    .findFirst()
-                    .isPresent();
-        } else {
-            return false;
-        }
+        return this.index.isMatchActiveAt(at);
     }
 
     public List<Match> whichMatchesAreActiveNow() {
@@ -109,19 +126,50 @@ public class Season implements JsonDomainObject {
     }
 
     public List<Match> whichMatchesAreActiveAt(Instant at) {
-        LOGGER.debug("Which matches are active at {}?", at.toString());
-        return this.rounds
-                .stream()
-                .filter(round -> at.isAfter(round.getScheduledStartTime()) && at.isBefore(round.getScheduledEndTime()))// Filter on round that is active and expect only one.
-                .findFirst()
-                .map(round -> round
-                        .getMatches()
-                        .stream()
-                        .filter(match -> at.isAfter(match.getScheduledStartTime()) && at.isBefore(match.getScheduledStartTime().plus(110, ChronoUnit.MINUTES)))// Assumption: a match is probably ended after 110 minutes.
-                        .peek(match -> LOGGER.debug("Found active match {} - {} because it started at {} and assumed end time of: {}", match.getHome().getName(), match.getAway().getName(), match.getScheduledStartTime().toString(), match.getScheduledStartTime().plus(110, ChronoUnit.MINUTES)))
-                        .collect(Collectors.toList()))
-                .orElse(Collections.emptyList());
+        LOGGER.debug("Which matches are active at {}?", at);
+        return this.index.whichMatchesAreActiveAt(at);
+    }
+
+    /**
+     * @param at, the instant after which the kickoff must be.
+     * @return the first kickoff of any match in this season that is strictly after the given instant, if any.
+     */
+    public Optional<Instant> nextKickoffAfter(Instant at) {
+        long next = this.index.nextKickoffAfter(at);
+        return next == SeasonIndex.NONE ? Optional.empty() : Optional.of(Instant.ofEpochSecond(next));
+    }
+
+    /**
+     * @param at, the instant to look from.
+     * @return the match window that is active at the given instant or, if there is none, the first one after it.
+     */
+    public Optional<MatchWindow> matchWindowAt(Instant at) {
+        int window = this.index.matchWindowAt(at);
+        return window < this.index.matchWindowCount() ? Optional.of(this.matchWindow(window)) : Optional.empty();
+    }
 
+    /**
+     * @param from, the start of the period.
+     * @param to,   the end of the period.
+     * @return the match windows that are (partly) in the given period, ordered.
+     */
+    public List<MatchWindow> matchWindowsBetween(Instant from, Instant to) {
+        List<MatchWindow> windows = new ArrayList<>();
+        for (int window = this.index.matchWindowAt(from); window < this.index.matchWindowCount() && this.index.matchWindowStart(window) < to.getEpochSecond(); window++) {
+            windows.add(this.matchWindow(window));
+        }
+        return windows;
+    }
+
+    private MatchWindow matchWindow(int window) {
+        return MatchWindow.of(Instant.ofEpochSecond(this.index.matchWindowStart(window)), Instant.ofEpochSecond(this.index.matchWindowEnd(window)));
+    }
+
+    @Override
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        SeasonConverter.toJson(this, json);
+        return json;
     }
 
     @Override
@@ -149,7 +197,9 @@ public class Season implements JsonDomainObject {
                 "name='" + name + '\'' +
                 ", country='" + country + '\'' +
                 ", lastUpdated=" + lastUpdated +
-                ", rounds=" + rounds +
+                ", rounds=" + columns.roundCount() +
+                ", matches=" + columns.matchCount() +
+                ", teams=" + columns.teamCount() +
                 '}';
     }
 }
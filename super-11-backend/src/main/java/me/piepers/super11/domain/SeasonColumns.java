@@ -0,0 +1,224 @@
+package me.piepers.super11.domain;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.TreeSet;
+
+/**
+ * The rounds and matches of a {@link Season} in columns of primitives instead of a graph of objects. The 18 teams are
+ * kept once in a dictionary and the matches refer to them by their position in it, kickoffs and the start and end of
+ * the rounds are kept as epoch seconds, and the matches of a round are the range between the offset of the round and
+ * that of the next round. A season takes a few kilobytes this way, instead of a couple of hundred objects per round.
+ * <p>
+ * The {@link Round}s and {@link Match}es of the season are views that are made when they are asked for, they are not
+ * kept. The teams of those matches are the ones in the dictionary, so they are shared.
+ * <p>
+ * All scheduled times in a season are on the second (see {@link SeasonIndex}).
+ *
+ * @author Bas Piepers
+ */
+final class SeasonColumns {
+    private final Team[] teams;
+    private final int[] roundNumbers;
+    private final long[] roundStarts;
+    private final long[] roundEnds;
+    // The matches of round r are at the positions from roundOffsets[r] up to roundOffsets[r + 1].
+    private final int[] roundOffsets;
+    private final long[] kickoffs;
+    private final int[] homeTeams;
+    private final int[] awayTeams;
+    // Shared by all views, it is immutable.
+    private final List<Round> rounds = new RoundList();
+
+    private SeasonColumns(Team[] teams, int[] roundNumbers, long[] roundStarts, long[] roundEnds, int[] roundOffsets, long[] kickoffs, int[] homeTeams, int[] awayTeams) {
+        this.teams = teams;
+        this.roundNumbers = roundNumbers;
+        this.roundStarts = roundStarts;
+        this.roundEnds = roundEnds;
+        this.roundOffsets = roundOffsets;
+        this.kickoffs = kickoffs;
+        this.homeTeams = homeTeams;
+        this.awayTeams = awayTeams;
+    }
+
+    /**
+     * @param rounds, the rounds of the season, in the order of the season.
+     * @return the columns with the given rounds. A team that is in more than one match (by its id) is kept once.
+     */
+    static SeasonColumns of(List<Round> rounds) {
+        int matchCount = 0;
+        for (Round round : rounds) {
+            matchCount += round.getMatches().size();
+        }
+        Map<String, Integer> teamPositions = new HashMap<>();
+        List<Team> teams = new ArrayList<>();
+        int[] roundNumbers = new int[rounds.size()];
+        long[] roundStarts = new long[rounds.size()];
+        long[] roundEnds = new long[rounds.size()];
+        int[] roundOffsets = new int[rounds.size() + 1];
+        long[] kickoffs = new long[matchCount];
+        int[] homeTeams = new int[matchCount];
+        int[] awayTeams = new int[matchCount];
+
+        int position = 0;
+        for (int r = 0; r < rounds.size(); r++) {
+            Round round = rounds.get(r);
+            roundNumbers[r] = round.getRound();
+            roundStarts[r] = round.getScheduledStartTime().getEpochSecond();
+            roundEnds[r] = round.getScheduledEndTime().getEpochSecond();
+            roundOffsets[r] = position;
+            for (Match match : round.getMatches()) {
+                kickoffs[position] = match.getScheduledStartTime().getEpochSecond();
+                homeTeams[position] = teamPositions.computeIfAbsent(match.getHome().getId(), id -> add(teams, match.getHome()));
+                awayTeams[position] = teamPositions.computeIfAbsent(match.getAway().getId(), id -> add(teams, match.getAway()));
+                position++;
+            }
+        }
+        roundOffsets[rounds.size()] = position;
+        return new SeasonColumns(teams.toArray(new Team[0]), roundNumbers, roundStarts, roundEnds, roundOffsets, kickoffs, homeTeams, awayTeams);
+    }
+
+    /**
+     * Compares the schedules of two seasons round by round, without making views of the rounds and matches. A round is
+     * the same if it starts and ends at the same time and has the same matches (by their teams and kickoff), in the
+     * same order.
+     *
+     * @param current, the columns of the season we have.
+     * @param fetched, the columns of the season that was fetched.
+     * @return the numbers of the rounds that are not the same in both seasons (including those that are only in one of
+     * them), ordered.
+     */
+    static List<Integer> changedRounds(SeasonColumns current, SeasonColumns fetched) {
+        Map<Integer, Integer> fetchedPositions = new HashMap<>();
+        for (int r = 0; r < fetched.roundNumbers.length; r++) {
+            fetchedPositions.put(fetched.roundNumbers[r], r);
+        }
+        TreeSet<Integer> changed = new TreeSet<>();
+        for (int r = 0; r < current.roundNumbers.length; r++) {
+            Integer fetchedRound = fetchedPositions.remove(current.roundNumbers[r]);
+            if (fetchedRound == null || !sameRound(current, r, fetched, fetchedRound)) {
+                changed.add(current.roundNumbers[r]);
+            }
+        }
+        changed.addAll(fetchedPositions.keySet());
+        return new ArrayList<>(changed);
+    }
+
+    private static boolean sameRound(SeasonColumns a, int roundOfA, SeasonColumns b, int roundOfB) {
+        int matchesOfA = a.roundOffsets[roundOfA + 1] - a.roundOffsets[roundOfA];
+        if (a.roundStarts[roundOfA] != b.roundStarts[roundOfB]
+                || a.roundEnds[roundOfA] != b.roundEnds[roundOfB]
+                || matchesOfA != b.roundOffsets[roundOfB + 1] - b.roundOffsets[roundOfB]) {
+            return false;
+        }
+        for (int i = 0; i < matchesOfA; i++) {
+            int matchOfA = a.roundOffsets[roundOfA] + i;
+            int matchOfB = b.roundOffsets[roundOfB] + i;
+            if (a.kickoffs[matchOfA] != b.kickoffs[matchOfB]
+                    || !a.teams[a.homeTeams[matchOfA]].getId().equals(b.teams[b.homeTeams[matchOfB]].getId())
+                    || !a.teams[a.awayTeams[matchOfA]].getId().equals(b.teams[b.awayTeams[matchOfB]].getId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int add(List<Team> teams, Team team) {
+        teams.add(team);
+        return teams.size() - 1;
+    }
+
+    /**
+     * @return the rounds of the season as views, in the order of the season.
+     */
+    List<Round> rounds() {
+        return rounds;
+    }
+
+    int roundCount() {
+        return roundNumbers.length;
+    }
+
+    long roundStart(int round) {
+        return roundStarts[round];
+    }
+
+    long roundEnd(int round) {
+        return roundEnds[round];
+    }
+
+    int firstMatch(int round) {
+        return roundOffsets[round];
+    }
+
+    int endOfMatches(int round) {
+        return roundOffsets[round + 1];
+    }
+
+    int matchCount() {
+        return kickoffs.length;
+    }
+
+    long kickoff(int match) {
+        return kickoffs[match];
+    }
+
+    int teamCount() {
+        return teams.length;
+    }
+
+    /**
+     * @param match, the position of the match in the season.
+     * @return a view of the match.
+     */
+    Match match(int match) {
+        return Match.of(teams[homeTeams[match]], teams[awayTeams[match]], Instant.ofEpochSecond(kickoffs[match]));
+    }
+
+    private Round round(int round) {
+        return Round.of(roundNumbers[round], Instant.ofEpochSecond(roundStarts[round]), Instant.ofEpochSecond(roundEnds[round]), new MatchList(roundOffsets[round], roundOffsets[round + 1]));
+    }
+
+    private class RoundList extends AbstractList<Round> implements RandomAccess {
+        @Override
+        public Round get(int index) {
+            if (index < 0 || index >= roundNumbers.length) {
+                throw new IndexOutOfBoundsException("Round " + index + " of " + roundNumbers.length);
+            }
+            return round(index);
+        }
+
+        @Override
+        public int size() {
+            return roundNumbers.length;
+        }
+    }
+
+    private class MatchList extends AbstractList<Match> implements RandomAccess {
+        private final int from;
+        private final int to;
+
+        private MatchList(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Match get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException("Match " + index + " of " + (to - from));
+            }
+            return match(from + index);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
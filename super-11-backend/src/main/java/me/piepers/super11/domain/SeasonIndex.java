@@ -0,0 +1,223 @@
+package me.piepers.super11.domain;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An index over the {@link SeasonColumns} of a {@link Season} that is built once when the season is created. Start and
+ * end times are kept as sorted arrays of epoch seconds so that the questions the pollers ask all the time (is a match
+ * active, which ones and when is the next kickoff) can be answered with a binary search and without allocating
+ * anything.
+ * <p>
+ * All scheduled times in a season are on the second, which is why only the seconds are stored. The instant that is
+ * asked for may have a fraction of a second, which is taken into account.
+ *
+ * @author Bas Piepers
+ */
+class SeasonIndex {
+    // Assumption: a match is probably ended after 110 minutes.
+    static final long MATCH_DURATION_SECONDS = 110 * 60;
+    static final long NONE = Long.MIN_VALUE;
+
+    // The rounds, ordered by their start time.
+    private final long[] roundStarts;
+    private final long[] roundEnds;
+    // The latest end time of the rounds up to and including the round at the same position, to know when to stop
+    // looking back for a round that is still active.
+    private final long[] latestRoundEnds;
+    // The position of the round in the season, the first round in the season wins if rounds overlap.
+    private final int[] roundPositions;
+    // The kickoffs and positions of the matches per round (in the same order as the rounds above), ordered by kickoff.
+    private final long[][] kickoffs;
+    private final int[][] matches;
+    // All kickoffs of the season, ordered.
+    private final long[] seasonKickoffs;
+    // The periods in which at least one match is active, ordered and without overlap.
+    private final long[] windowStarts;
+    private final long[] windowEnds;
+    private final SeasonColumns columns;
+
+    private SeasonIndex(long[] roundStarts, long[] roundEnds, long[] latestRoundEnds, int[] roundPositions, long[][] kickoffs, int[][] matches, long[] seasonKickoffs, long[] windowStarts, long[] windowEnds, SeasonColumns columns) {
+        this.roundStarts = roundStarts;
+        this.roundEnds = roundEnds;
+        this.latestRoundEnds = latestRoundEnds;
+        this.roundPositions = roundPositions;
+        this.kickoffs = kickoffs;
+        this.matches = matches;
+        this.seasonKickoffs = seasonKickoffs;
+        this.windowStarts = windowStarts;
+        this.windowEnds = windowEnds;
+        this.columns = columns;
+    }
+
+    static SeasonIndex of(SeasonColumns columns) {
+        Integer[] order = new Integer[columns.roundCount()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(columns::roundStart));
+
+        long[] roundStarts = new long[order.length];
+        long[] roundEnds = new long[order.length];
+        long[] latestRoundEnds = new long[order.length];
+        int[] roundPositions = new int[order.length];
+        long[][] kickoffs = new long[order.length][];
+        int[][] matches = new int[order.length][];
+        int matchCount = columns.matchCount();
+        for (int i = 0; i < order.length; i++) {
+            int round = order[i];
+            roundStarts[i] = columns.roundStart(round);
+            roundEnds[i] = columns.roundEnd(round);
+            latestRoundEnds[i] = i == 0 ? roundEnds[i] : Math.max(latestRoundEnds[i - 1], roundEnds[i]);
+            roundPositions[i] = round;
+
+            Integer[] roundMatches = new Integer[columns.endOfMatches(round) - columns.firstMatch(round)];
+            for (int j = 0; j < roundMatches.length; j++) {
+                roundMatches[j] = columns.firstMatch(round) + j;
+            }
+            Arrays.sort(roundMatches, Comparator.comparingLong(columns::kickoff));
+            long[] roundKickoffs = new long[roundMatches.length];
+            int[] roundMatchPositions = new int[roundMatches.length];
+            for (int j = 0; j < roundMatches.length; j++) {
+                roundKickoffs[j] = columns.kickoff(roundMatches[j]);
+                roundMatchPositions[j] = roundMatches[j];
+            }
+            kickoffs[i] = roundKickoffs;
+            matches[i] = roundMatchPositions;
+        }
+
+        long[] seasonKickoffs = new long[matchCount];
+        int offset = 0;
+        for (long[] roundKickoffs : kickoffs) {
+            System.arraycopy(roundKickoffs, 0, seasonKickoffs, offset, roundKickoffs.length);
+            offset += roundKickoffs.length;
+        }
+        Arrays.sort(seasonKickoffs);
+
+        // A match is active from its kickoff until it is assumed to be finished, but only within its round.
+        long[][] periods = new long[matchCount][];
+        int periodCount = 0;
+        for (int i = 0; i < kickoffs.length; i++) {
+            for (long kickoff : kickoffs[i]) {
+                long start = Math.max(kickoff, roundStarts[i]);
+                long end = Math.min(kickoff + MATCH_DURATION_SECONDS, roundEnds[i]);
+                if (start < end) {
+                    periods[periodCount++] = new long[]{start, end};
+                }
+            }
+        }
+        Arrays.sort(periods, 0, periodCount, Comparator.comparingLong(period -> period[0]));
+        long[] windowStarts = new long[periodCount];
+        long[] windowEnds = new long[periodCount];
+        int windowCount = 0;
+        for (int i = 0; i < periodCount; i++) {
+            if (windowCount > 0 && periods[i][0] <= windowEnds[windowCount - 1]) {
+                windowEnds[windowCount - 1] = Math.max(windowEnds[windowCount - 1], periods[i][1]);
+            } else {
+                windowStarts[windowCount] = periods[i][0];
+                windowEnds[windowCount] = periods[i][1];
+                windowCount++;
+            }
+        }
+
+        return new SeasonIndex(roundStarts, roundEnds, latestRoundEnds, roundPositions, kickoffs, matches, seasonKickoffs,
+                Arrays.copyOf(windowStarts, windowCount), Arrays.copyOf(windowEnds, windowCount), columns);
+    }
+
+    boolean isMatchActiveAt(Instant at) {
+        int round = this.activeRound(at);
+        return round >= 0 && this.firstActiveMatch(round, at) < this.endOfActiveMatches(round, at);
+    }
+
+    List<Match> whichMatchesAreActiveAt(Instant at) {
+        int round = this.activeRound(at);
+        if (round < 0) {
+            return Collections.emptyList();
+        }
+        int from = this.firstActiveMatch(round, at);
+        int to = this.endOfActiveMatches(round, at);
+        if (from >= to) {
+            return Collections.emptyList();
+        }
+        List<Match> active = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            active.add(columns.match(matches[round][i]));
+        }
+        return Collections.unmodifiableList(active);
+    }
+
+    /**
+     * @param at, the instant after which the kickoff must be.
+     * @return the epoch second of the first kickoff strictly after the given instant or {@link #NONE}.
+     */
+    long nextKickoffAfter(Instant at) {
+        // A kickoff at the same second is never after the instant.
+        int next = firstGreaterThan(seasonKickoffs, at.getEpochSecond());
+        return next < seasonKickoffs.length ? seasonKickoffs[next] : NONE;
+    }
+
+    /**
+     * @param at, the instant at which the window must be active or after which it must start.
+     * @return the position of the first match window that hasn't ended at the given instant or the amount of windows if
+     * there is none.
+     */
+    int matchWindowAt(Instant at) {
+        return firstGreaterThan(windowEnds, at.getEpochSecond());
+    }
+
+    int matchWindowCount() {
+        return windowStarts.length;
+    }
+
+    long matchWindowStart(int window) {
+        return windowStarts[window];
+    }
+
+    long matchWindowEnd(int window) {
+        return windowEnds[window];
+    }
+
+    // The position (in start time order) of the round that is active at the given instant or -1 if there is none.
+    private int activeRound(Instant at) {
+        long second = at.getEpochSecond();
+        // The rounds that started before the instant.
+        int started = at.getNano() > 0 ? firstGreaterThan(roundStarts, second) : firstGreaterThan(roundStarts, second - 1);
+        int active = -1;
+        for (int i = started - 1; i >= 0 && latestRoundEnds[i] > second; i--) {
+            if (roundEnds[i] > second && (active < 0 || roundPositions[i] < roundPositions[active])) {
+                active = i;
+            }
+        }
+        return active;
+    }
+
+    // The first match of the round that kicked off less than the duration of a match before the instant.
+    private int firstActiveMatch(int round, Instant at) {
+        return firstGreaterThan(kickoffs[round], at.getEpochSecond() - MATCH_DURATION_SECONDS);
+    }
+
+    // The first match of the round that didn't kick off before the instant yet.
+    private int endOfActiveMatches(int round, Instant at) {
+        long second = at.getEpochSecond();
+        return at.getNano() > 0 ? firstGreaterThan(kickoffs[round], second) : firstGreaterThan(kickoffs[round], second - 1);
+    }
+
+    // Binary search for the first position in the sorted values with a value greater than the given value.
+    private static int firstGreaterThan(long[] values, long value) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] > value) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+}
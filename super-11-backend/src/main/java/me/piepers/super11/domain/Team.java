@@ -11,7 +11,7 @@ import org.slf4j.LoggerFactory;
  *
  * @author Bas Piepers
  */
-@DataObject
+@DataObject(generateConverter = true)
 public class Team implements JsonDomainObject {
     private final String id;
     private final String name;
@@ -39,6 +39,13 @@ public class Team implements JsonDomainObject {
         return id;
     }
 
+    @Override
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        TeamConverter.toJson(this, json);
+        return json;
+    }
+
     @Override
     public String toString() {
         return "Team{" +
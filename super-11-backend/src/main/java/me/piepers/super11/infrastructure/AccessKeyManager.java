@@ -0,0 +1,220 @@
+package me.piepers.super11.infrastructure;
+
+import io.reactivex.Single;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Keeps track of the access key that is used for the Profcoach API and of when it expires, so that a new one can be
+ * requested in the background before it does instead of finding out with a 401 when the standings are needed.
+ * <p>
+ * The expiry is taken from the exp claim if the access key is a JWT. If it isn't, the lifetime is learned from the
+ * keys that were rejected: the age of a key at the moment it was rejected is an upper bound of how long keys live. A
+ * key that is rejected younger than {@link #LEARNED_LIFETIME_FLOOR} was most likely revoked, which teaches us nothing,
+ * and a learned lifetime is forgotten as soon as a key outlives it. A learned expiry only plans the refresh, the key is
+ * used until it is rejected.
+ * <p>
+ * Not thread safe: to be used from the event loop of the {@link CompetitionServiceImpl} that owns it.
+ *
+ * @author Bas Piepers
+ */
+class AccessKeyManager {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AccessKeyManager.class);
+    // How long before the expiry a new key is requested.
+    static final Duration REFRESH_MARGIN = Duration.ofMinutes(5);
+    // Keys that are rejected younger than this don't teach us how long keys live.
+    static final Duration LEARNED_LIFETIME_FLOOR = Duration.ofMinutes(5);
+    // The least time between two refreshes in the background.
+    static final Duration MIN_REFRESH_INTERVAL = Duration.ofMinutes(1);
+
+    private final Vertx rxVertx;
+    private final Supplier<Single<String>> accessKeyRequest;
+
+    private String accessKey;
+    private Instant obtainedAt;
+    private Instant expiresAt;
+    // Whether the expiry was derived from the learned lifetime instead of read from the key.
+    private boolean expiryLearned = false;
+    // The age at which the last key that lived long enough was rejected, if any.
+    private Duration learnedLifetime;
+    private Instant lastRefreshAt;
+    // Whether the last key we had was rejected, in which case we have none until a new one is accepted.
+    private boolean rejected = false;
+    private Long refreshTimerId;
+
+    /**
+     * @param rxVertx,          the Vert.x instance to arm the refresh timer with.
+     * @param accessKeyRequest, requests a new access key. The key it emits is expected to be handed to
+     *                          {@link #accept(String, Instant)}.
+     */
+    AccessKeyManager(Vertx rxVertx, Supplier<Single<String>> accessKeyRequest) {
+        this.rxVertx = rxVertx;
+        this.accessKeyRequest = accessKeyRequest;
+    }
+
+    /**
+     * Starts using the given access key and plans its refresh if we know (or have learned) when it expires.
+     *
+     * @param accessKey,  the access key to use from now on.
+     * @param obtainedAt, when the key was obtained, may be null if that is unknown.
+     */
+    void accept(String accessKey, Instant obtainedAt) {
+        this.accessKey = accessKey;
+        this.obtainedAt = obtainedAt;
+        this.rejected = false;
+        Optional<Instant> expiry = expiryOf(accessKey);
+        this.expiryLearned = expiry.isEmpty() && Objects.nonNull(obtainedAt) && Objects.nonNull(this.learnedLifetime);
+        this.expiresAt = expiry.orElseGet(() -> this.expiryLearned ? obtainedAt.plus(this.learnedLifetime) : null);
+        LOGGER.debug("Using an access key that expires at {}.", Objects.nonNull(this.expiresAt) ? this.expiresAt : "an unknown moment");
+        this.planRefresh();
+    }
+
+    /**
+     * Lets us know that the given access key was rejected by the API, which teaches us how long keys live if they
+     * don't tell us themselves.
+     *
+     * @param accessKey, the access key that was rejected.
+     */
+    void rejected(String accessKey) {
+        if (!Objects.equals(this.accessKey, accessKey)) {
+            // We already moved on to another key.
+            return;
+        }
+        if (Objects.nonNull(this.obtainedAt) && expiryOf(accessKey).isEmpty()) {
+            Duration age = Duration.between(this.obtainedAt, Instant.now());
+            if (age.compareTo(LEARNED_LIFETIME_FLOOR) < 0) {
+                LOGGER.debug("An access key was rejected after {}, assuming it was revoked.", age);
+            } else {
+                LOGGER.debug("An access key was rejected after {}, assuming that is how long access keys live.", age);
+                this.learnedLifetime = age;
+            }
+        }
+        this.accessKey = null;
+        this.obtainedAt = null;
+        this.expiresAt = null;
+        this.expiryLearned = false;
+        this.rejected = true;
+        this.cancelRefresh();
+    }
+
+    /**
+     * Lets us know that the given access key was accepted by the API. If it is older than the lifetime we learned, keys
+     * live longer than that and the learned lifetime is forgotten.
+     *
+     * @param accessKey, the access key that was accepted.
+     */
+    void used(String accessKey) {
+        if (!this.expiryLearned || !Objects.equals(this.accessKey, accessKey) || this.expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        LOGGER.debug("An access key outlived the learned lifetime of {}, forgetting it.", this.learnedLifetime);
+        this.learnedLifetime = null;
+        this.expiresAt = null;
+        this.expiryLearned = false;
+        this.cancelRefresh();
+    }
+
+    /**
+     * @return true if we don't have an access key because the last one was rejected.
+     */
+    boolean isRejected() {
+        return rejected;
+    }
+
+    /**
+     * @return the access key if we have one that isn't known to be expired. A key that is past its learned expiry is
+     * still handed out, it may live longer.
+     */
+    Optional<String> current() {
+        if (!this.expiryLearned && Objects.nonNull(this.expiresAt) && !this.expiresAt.isAfter(Instant.now())) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(this.accessKey);
+    }
+
+    /**
+     * @param duration, how long the access key needs to stay valid.
+     * @return true if we have an access key that is known to be valid for at least the given duration. A key of which
+     * we don't know when it expires is never known to be valid.
+     */
+    boolean isValidFor(Duration duration) {
+        return Objects.nonNull(this.accessKey)
+                && Objects.nonNull(this.expiresAt)
+                && this.expiresAt.isAfter(Instant.now().plus(duration));
+    }
+
+    Optional<Instant> expiresAt() {
+        return Optional.ofNullable(this.expiresAt);
+    }
+
+    /**
+     * @param accessKey, the access key to read the expiry of.
+     * @return the moment in the exp claim if the access key is a JWT that has one.
+     */
+    static Optional<Instant> expiryOf(String accessKey) {
+        if (Objects.isNull(accessKey)) {
+            return Optional.empty();
+        }
+        String[] parts = accessKey.split("\\.");
+        if (parts.length != 3) {
+            return Optional.empty();
+        }
+        try {
+            JsonObject claims = new JsonObject(new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8));
+            return Optional
+                    .ofNullable(claims.getValue("exp"))
+                    .filter(exp -> exp instanceof Number)
+                    .map(exp -> Instant.ofEpochSecond(((Number) exp).longValue()));
+        } catch (IllegalArgumentException | DecodeException e) {
+            LOGGER.debug("The access key looks like a JWT but its claims could not be read.");
+            return Optional.empty();
+        }
+    }
+
+    private void planRefresh() {
+        this.cancelRefresh();
+        if (Objects.isNull(this.expiresAt)) {
+            return;
+        }
+        Instant now = Instant.now();
+        // A key that lives shorter than the margin is refreshed halfway.
+        Duration margin = REFRESH_MARGIN;
+        if (Objects.nonNull(this.obtainedAt)) {
+            Duration half = Duration.between(this.obtainedAt, this.expiresAt).dividedBy(2);
+            margin = half.compareTo(margin) < 0 ? half : margin;
+        }
+        Instant refreshAt = this.expiresAt.minus(margin);
+        if (Objects.nonNull(this.lastRefreshAt) && refreshAt.isBefore(this.lastRefreshAt.plus(MIN_REFRESH_INTERVAL))) {
+            refreshAt = this.lastRefreshAt.plus(MIN_REFRESH_INTERVAL);
+        }
+        long delay = Math.max(1L, Duration.between(now, refreshAt).toMillis());
+        LOGGER.debug("Refreshing the access key in {} ms.", delay);
+        this.refreshTimerId = this.rxVertx.setTimer(delay, timerId -> {
+            this.refreshTimerId = null;
+            this.lastRefreshAt = Instant.now();
+            LOGGER.debug("The access key is about to expire, requesting a new one.");
+            this.accessKeyRequest
+                    .get()
+                    .subscribe(accessKey -> LOGGER.debug("Refreshed the access key in the background."),
+                            throwable -> LOGGER.warn("Unable to refresh the access key in the background, a new one will be requested when it is needed.", throwable));
+        });
+    }
+
+    private void cancelRefresh() {
+        if (Objects.nonNull(this.refreshTimerId)) {
+            this.rxVertx.cancelTimer(this.refreshTimerId);
+            this.refreshTimerId = null;
+        }
+    }
+}
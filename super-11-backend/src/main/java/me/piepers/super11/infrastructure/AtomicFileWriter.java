@@ -0,0 +1,126 @@
+package me.piepers.super11.infrastructure;
+
+import io.reactivex.Completable;
+import io.reactivex.subjects.CompletableSubject;
+import io.vertx.reactivex.core.Vertx;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Writes values to a file on a worker thread, replacing the file atomically so that a crash while writing never leaves
+ * a half written file behind. Writes that overlap are coalesced: while a value is being written, only the newest of the
+ * values that come in is written after it.
+ * <p>
+ * Not thread safe: to be used from the event loop of the verticle that owns it.
+ *
+ * @param <T> the type of value that is written.
+ * @author Bas Piepers
+ */
+class AtomicFileWriter<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AtomicFileWriter.class);
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+    @FunctionalInterface
+    interface Encoder<T> {
+        byte[] encode(T value) throws IOException;
+    }
+
+    private final Vertx rxVertx;
+    private final Path file;
+    private final Encoder<T> encoder;
+
+    // The value that is waiting to be written while another one is being written, with whoever waits for it.
+    private T pendingValue;
+    private CompletableSubject pendingWrite;
+    private boolean writing = false;
+    private long writes = 0;
+
+    AtomicFileWriter(Vertx rxVertx, Path file, Encoder<T> encoder) {
+        this.rxVertx = rxVertx;
+        this.file = file;
+        this.encoder = encoder;
+    }
+
+    /**
+     * @param value, the value to write.
+     * @return completes when the given value (or a newer one) is written.
+     */
+    Completable write(T value) {
+        this.pendingValue = value;
+        if (Objects.isNull(this.pendingWrite)) {
+            this.pendingWrite = CompletableSubject.create();
+        }
+        CompletableSubject write = this.pendingWrite;
+        if (!this.writing) {
+            this.writeNext();
+        }
+        return write;
+    }
+
+    // The amount of values that were actually written.
+    long writes() {
+        return writes;
+    }
+
+    private void writeNext() {
+        T value = this.pendingValue;
+        CompletableSubject write = this.pendingWrite;
+        this.pendingValue = null;
+        this.pendingWrite = null;
+        if (Objects.isNull(value)) {
+            this.writing = false;
+            return;
+        }
+        this.writing = true;
+        this.rxVertx
+                .<Void>rxExecuteBlocking(future -> {
+                    try {
+                        writeAtomically(this.encoder.encode(value), this.file);
+                        future.complete();
+                    } catch (IOException e) {
+                        future.fail(e);
+                    }
+                }, false)
+                .ignoreElement()
+                .subscribe(() -> {
+                            this.writes++;
+                            LOGGER.debug("Wrote {}.", this.file);
+                            write.onComplete();
+                            this.writeNext();
+                        },
+                        throwable -> {
+                            LOGGER.error("Unable to write {}.", this.file, throwable);
+                            write.onError(throwable);
+                            this.writeNext();
+                        });
+    }
+
+    /**
+     * Writes the given bytes to a temporary file next to the given file first, which then replaces the given file.
+     *
+     * @param bytes, the content of the file.
+     * @param file,  the file to write to.
+     * @throws IOException if the file can't be written.
+     */
+    static void writeAtomically(byte[] bytes, Path file) throws IOException {
+        Path temporaryFile = file.resolveSibling(file.getFileName() + TEMPORARY_FILE_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            // Make sure the content is on disk before the file takes the place of the previous one.
+            channel.force(true);
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
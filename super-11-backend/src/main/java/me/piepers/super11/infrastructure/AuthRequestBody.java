@@ -1,11 +1,11 @@
 package me.piepers.super11.infrastructure;
 
-import com.fasterxml.jackson.annotation.JsonProperty;
 import io.vertx.codegen.annotations.DataObject;
 import io.vertx.core.json.JsonObject;
 import me.piepers.super11.domain.JsonDomainObject;
 
 import java.util.Base64;
+import java.util.Objects;
 
 /**
  * Helper class that represents the body that is issued with the first request of the OAuth flow.
@@ -14,19 +14,12 @@ import java.util.Base64;
  */
 @DataObject
 public class AuthRequestBody implements JsonDomainObject {
-    @JsonProperty("Email")
     private final String email;
-    @JsonProperty("Password")
     private final String password;
-    @JsonProperty("Persist")
     private final Boolean persist;
-    @JsonProperty("Destination")
     private final String destination;
-    @JsonProperty("Af")
     private final String af;
-    @JsonProperty("GoogleRecaptchaResponse")
     private final String googleRecaptchaResponse;
-    @JsonProperty("UserType")
     private final Integer userType;
 
     public AuthRequestBody(JsonObject jsonObject) {
@@ -94,6 +87,29 @@ public class AuthRequestBody implements JsonDomainObject {
         return userType;
     }
 
+    /**
+     * Written by hand because the api expects capitalized names. Like before, values that are null or empty are left
+     * out.
+     */
+    @Override
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        putIfNotEmpty(json, "Email", email);
+        putIfNotEmpty(json, "Password", password);
+        putIfNotEmpty(json, "Persist", persist);
+        putIfNotEmpty(json, "Destination", destination);
+        putIfNotEmpty(json, "Af", af);
+        putIfNotEmpty(json, "GoogleRecaptchaResponse", googleRecaptchaResponse);
+        putIfNotEmpty(json, "UserType", userType);
+        return json;
+    }
+
+    private static void putIfNotEmpty(JsonObject json, String name, Object value) {
+        if (Objects.nonNull(value) && !"".equals(value)) {
+            json.put(name, value);
+        }
+    }
+
     @Override
     public String toString() {
         return "AuthRequestBody{" +
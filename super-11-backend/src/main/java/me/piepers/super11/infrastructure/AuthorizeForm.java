@@ -0,0 +1,59 @@
+package me.piepers.super11.infrastructure;
+
+import io.vertx.core.MultiMap;
+import io.vertx.serviceproxy.ServiceException;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.FormElement;
+import org.jsoup.select.Elements;
+
+/**
+ * The consent form on the page that the authorize request of the OAuth flow responds with. Submitting it (with consent)
+ * continues the flow.
+ *
+ * @author Bas Piepers
+ */
+public class AuthorizeForm {
+    private final String action;
+    private final MultiMap formData;
+
+    private AuthorizeForm(String action, MultiMap formData) {
+        this.action = action;
+        this.formData = formData;
+    }
+
+    /**
+     * Finds the consent form on the given page and fills in the consent.
+     *
+     * @param html, the page that was returned by the authorize request.
+     * @return the form that is to be submitted.
+     * @throws ServiceException if the page doesn't have exactly one form with the pure-form class name.
+     */
+    public static AuthorizeForm parse(String html) {
+        Document d = Jsoup.parse(html);
+        // There should only one form with this class
+        Elements forms = d.select(".pure-form");
+        if (forms.size() != 1) {
+            throw new ServiceException(424, "Found " + forms.size() + " forms with the pure-form class name instead of one.");
+        }
+        FormElement form = (FormElement) forms.get(0);
+        MultiMap formData = MultiMap.caseInsensitiveMultiMap();
+        // With the formData call I can create a MultiMap for the WebClient to send the data in the form to the action attribute
+        form.formData().forEach(fe -> {
+            // Set the value of "IsApproved" to true because it will set the consent value to true
+            if (fe.key().equals("IsApproved")) {
+                fe.value("true");
+            }
+            formData.add(fe.key(), fe.value());
+        });
+        return new AuthorizeForm(form.attr("action"), formData);
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public MultiMap getFormData() {
+        return formData;
+    }
+}
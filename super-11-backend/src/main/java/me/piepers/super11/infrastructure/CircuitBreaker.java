@@ -0,0 +1,200 @@
+package me.piepers.super11.infrastructure;
+
+import io.reactivex.Completable;
+import io.reactivex.Single;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.RxHelper;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.serviceproxy.ServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Protects us and an upstream host from each other when that host is having trouble. After a number of consecutive
+ * failures the circuit opens and requests fail right away, without touching the host, until a (jittered, exponentially
+ * growing) backoff has passed. Then a single request is let through to see whether the host recovered: if it did, the
+ * circuit closes again, otherwise it opens for a longer time.
+ * <p>
+ * Failed requests are retried a couple of times with a jittered exponential delay, but only while the circuit is closed
+ * and within the {@link RetryBudget} of the host.
+ * <p>
+ * Not thread safe: to be used from the event loop of the verticle (or service) that owns it.
+ *
+ * @author Bas Piepers
+ */
+public class CircuitBreaker {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private static final int DEFAULT_FAILURE_THRESHOLD = 3;
+    private static final long DEFAULT_OPEN_BASE_MILLIS = 30 * 1000L;
+    private static final long DEFAULT_OPEN_MAX_MILLIS = 30 * 60 * 1000L;
+    private static final int DEFAULT_MAX_RETRIES = 2;
+    private static final long DEFAULT_RETRY_BASE_MILLIS = 1000L;
+    private static final int DEFAULT_RETRY_BUDGET = 5;
+    private static final long DEFAULT_RETRY_BUDGET_WINDOW_MILLIS = 10 * 60 * 1000L;
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final Vertx rxVertx;
+    private final String host;
+    private final int failureThreshold;
+    private final long openBaseMillis;
+    private final long openMaxMillis;
+    private final int maxRetries;
+    private final long retryBaseMillis;
+    private final RetryBudget retryBudget;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    // How often the circuit opened since it was last closed, which determines how long it stays open.
+    private int timesOpened = 0;
+    private Instant openUntil;
+
+    private CircuitBreaker(Vertx rxVertx, String host, int failureThreshold, long openBaseMillis, long openMaxMillis, int maxRetries, long retryBaseMillis, RetryBudget retryBudget) {
+        this.rxVertx = rxVertx;
+        this.host = host;
+        this.failureThreshold = failureThreshold;
+        this.openBaseMillis = openBaseMillis;
+        this.openMaxMillis = openMaxMillis;
+        this.maxRetries = maxRetries;
+        this.retryBaseMillis = retryBaseMillis;
+        this.retryBudget = retryBudget;
+    }
+
+    /**
+     * @param rxVertx,       the Vert.x instance of which the timers are used to delay retries.
+     * @param host,          the upstream host this circuit breaker is for.
+     * @param configuration, the "upstream" configuration, may be null in which case the defaults are used.
+     * @return a closed circuit breaker.
+     */
+    public static CircuitBreaker create(Vertx rxVertx, String host, JsonObject configuration) {
+        JsonObject config = Objects.nonNull(configuration) ? configuration : new JsonObject();
+        return new CircuitBreaker(rxVertx, host,
+                config.getInteger("failure_threshold", DEFAULT_FAILURE_THRESHOLD),
+                config.getLong("open_base_millis", DEFAULT_OPEN_BASE_MILLIS),
+                config.getLong("open_max_millis", DEFAULT_OPEN_MAX_MILLIS),
+                config.getInteger("max_retries", DEFAULT_MAX_RETRIES),
+                config.getLong("retry_base_millis", DEFAULT_RETRY_BASE_MILLIS),
+                new RetryBudget(config.getInteger("retry_budget", DEFAULT_RETRY_BUDGET),
+                        Duration.ofMillis(config.getLong("retry_budget_window_millis", DEFAULT_RETRY_BUDGET_WINDOW_MILLIS))));
+    }
+
+    /**
+     * Does the given call if the circuit allows it and keeps track of whether it failed.
+     *
+     * @param call,      the (cold) call to the host, subscribed to again for every retry.
+     * @param isFailure, whether a result of the call means that the host failed (e.g. a 5xx response).
+     * @param retry,     whether a failed call may be retried, which should only be the case for idempotent calls.
+     * @param <T>,       the type of result of the call.
+     * @return the result of the (last) call, which may be a failed result, or a {@link ServiceException} with a 503
+     * if the circuit is open.
+     */
+    public <T> Single<T> execute(Single<T> call, Predicate<T> isFailure, boolean retry) {
+        return Single.defer(() -> this.attempt(call, isFailure, retry ? 0 : this.maxRetries));
+    }
+
+    /**
+     * Takes a retry from the budget, for retries that are done outside of {@link #execute(Single, Predicate, boolean)}
+     * (like requesting a new access key after a 401).
+     *
+     * @return true if the circuit is closed and the budget allows a retry.
+     */
+    public boolean tryRetry() {
+        return this.state == State.CLOSED && this.retryBudget.tryAcquire();
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    private <T> Single<T> attempt(Single<T> call, Predicate<T> isFailure, int retries) {
+        if (!this.allowRequest()) {
+            return Single.error(new ServiceException(503, "The circuit for " + this.host + " is open until " + this.openUntil + "."));
+        }
+        return call
+                .map(result -> new Outcome<>(result, null))
+                .onErrorReturn(throwable -> new Outcome<>(null, throwable))
+                .flatMap(outcome -> {
+                    boolean failed = Objects.nonNull(outcome.throwable) || isFailure.test(outcome.result);
+                    if (!failed) {
+                        this.onSuccess();
+                        return Single.just(outcome.result);
+                    }
+                    this.onFailure();
+                    if (retries < this.maxRetries && this.tryRetry()) {
+                        long delay = jittered(this.retryBaseMillis << retries);
+                        LOGGER.debug("A request to {} failed, retrying in {} ms.", this.host, delay);
+                        return Completable
+                                .timer(delay, TimeUnit.MILLISECONDS, RxHelper.scheduler(this.rxVertx))
+                                .andThen(Single.defer(() -> this.attempt(call, isFailure, retries + 1)));
+                    }
+                    return Objects.nonNull(outcome.throwable) ? Single.error(outcome.throwable) : Single.just(outcome.result);
+                });
+    }
+
+    private boolean allowRequest() {
+        switch (this.state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (Instant.now().isBefore(this.openUntil)) {
+                    return false;
+                }
+                LOGGER.info("Letting a request to {} through to see whether it recovered.", this.host);
+                this.state = State.HALF_OPEN;
+                return true;
+            default:
+                // Only a single request is let through while we don't know whether the host recovered.
+                return false;
+        }
+    }
+
+    private void onSuccess() {
+        if (this.state != State.CLOSED) {
+            LOGGER.info("Requests to {} succeed again, closing the circuit.", this.host);
+        }
+        this.state = State.CLOSED;
+        this.consecutiveFailures = 0;
+        this.timesOpened = 0;
+    }
+
+    private void onFailure() {
+        this.consecutiveFailures++;
+        if (this.state == State.HALF_OPEN || (this.state == State.CLOSED && this.consecutiveFailures >= this.failureThreshold)) {
+            long backoff = jittered(Math.min(this.openMaxMillis, this.openBaseMillis << Math.min(this.timesOpened, 20)));
+            this.openUntil = Instant.now().plusMillis(backoff);
+            this.timesOpened++;
+            this.state = State.OPEN;
+            LOGGER.warn("Requests to {} failed {} times in a row, opening the circuit until {}.", this.host, this.consecutiveFailures, this.openUntil);
+        }
+    }
+
+    // A random duration between half and all of the given duration, so that retries of several callers spread out.
+    private static long jittered(long millis) {
+        long half = millis / 2;
+        return half + ThreadLocalRandom.current().nextLong(millis - half + 1);
+    }
+
+    private static class Outcome<T> {
+        private final T result;
+        private final Throwable throwable;
+
+        private Outcome(T result, Throwable throwable) {
+            this.result = result;
+            this.throwable = throwable;
+        }
+    }
+}
@@ -16,16 +16,14 @@ import io.vertx.reactivex.ext.web.client.WebClient;
 import io.vertx.serviceproxy.ServiceException;
 import me.piepers.super11.domain.Competition;
 import me.piepers.super11.domain.CompetitionService;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.FormElement;
-import org.jsoup.select.Elements;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -43,13 +41,26 @@ public class CompetitionServiceImpl implements CompetitionService {
     // The default path the access key, obtained from the OAuth flow, is stored.
     private static final String DEFAULT_ACCESS_KEY_PATH = "/etc/super-11/";
     private static final String DEFAULT_ACCESS_KEY_FILE_NAME = "access_key";
+    private static final long DEFAULT_REQUEST_TIMEOUT_MILLIS = 10 * 1000L;
 
     private String accessKeyPath;
     private String accessKeyFileName;
-    private String cachedAccessKey;
-
-    // A temporary storage of cookies for the oauth flow.
-    private List<String> cookies = new ArrayList<>();
+    private final AccessKeyManager accessKeyManager;
+    // Completes when the access key file has been read (or couldn't be), so that we don't start an oauth flow before.
+    private final Completable accessKeyFileRead;
+    // The fetch and oauth flow that are currently running, shared by everyone that asks for them in the meantime.
+    private Single<Competition> inFlightCompetition;
+    private Single<String> inFlightAccessKey;
+
+    // The last competition that was received with its validators, to make the standings requests conditional.
+    private Competition lastCompetition;
+    private String lastCompetitionEtag;
+    private String lastCompetitionLastModified;
+
+    // A circuit breaker per upstream host, so that a host that is having trouble isn't hammered with (oauth) requests.
+    private final Map<String, CircuitBreaker> circuitBreakers = new HashMap<>();
+    private final JsonObject upstreamConfiguration;
+    private final long requestTimeoutMillis;
 
     // FIXME: don't store this on this instance.
     private JsonObject configuration;
@@ -57,6 +68,8 @@ public class CompetitionServiceImpl implements CompetitionService {
     public CompetitionServiceImpl(io.vertx.core.Vertx vertx, JsonObject configuration) {
         this.rxVertx = new Vertx(vertx);
         this.configuration = configuration;
+        this.upstreamConfiguration = configuration.getJsonObject("upstream", new JsonObject());
+        this.requestTimeoutMillis = this.upstreamConfiguration.getLong("request_timeout_millis", DEFAULT_REQUEST_TIMEOUT_MILLIS);
 
         JsonObject profcoachAuth = configuration.getJsonObject("profcoach-auth", new JsonObject());
         String path = Optional.ofNullable(profcoachAuth.getString("access_key_location_path")).orElse(DEFAULT_ACCESS_KEY_PATH);
@@ -64,11 +77,15 @@ public class CompetitionServiceImpl implements CompetitionService {
         this.accessKeyPath = path;
         this.accessKeyFileName = fileName;
 
+        this.accessKeyManager = new AccessKeyManager(rxVertx, this::requestAccessKey);
+
         LOGGER.debug("Trying to obtain the access key from: {}{}", path, fileName);
 
         String directory = path.lastIndexOf('/') == path.length() - 1 ? path.substring(0, path.length() - 1) : path;
-        // Read the contents of the file and store it in the cached access-key.
-        rxVertx
+        // Read the contents of the file and hand it to the access key manager. The file is written when a key is
+        // obtained, so its modification time tells when that was.
+        String accessKeyFile = directory + File.separator + fileName;
+        this.accessKeyFileRead = rxVertx
                 .fileSystem()
                 .rxExists(directory)
                 .flatMapCompletable(exists -> {
@@ -78,10 +95,17 @@ public class CompetitionServiceImpl implements CompetitionService {
                         return rxVertx.fileSystem().rxMkdirs(directory);
                     }
                 })
-                .andThen(rxVertx.fileSystem().rxReadFile(directory + File.separator + fileName))
-                .doOnSuccess(buffer -> LOGGER.trace("Read {} from file.", buffer.toString()))
-                .subscribe(buffer -> this.cachedAccessKey = buffer.toString(),
-                        throwable -> LOGGER.error("Unable to obtain access key from local file. No key will be cached!"));
+                .andThen(rxVertx.fileSystem().rxProps(accessKeyFile))
+                .flatMap(fileProps -> rxVertx
+                        .fileSystem()
+                        .rxReadFile(accessKeyFile)
+                        .doOnSuccess(buffer -> LOGGER.trace("Read {} from file.", buffer.toString()))
+                        .doOnSuccess(buffer -> this.accessKeyManager.accept(buffer.toString(), Instant.ofEpochMilli(fileProps.lastModifiedTime()))))
+                .doOnError(throwable -> LOGGER.error("Unable to obtain access key from local file. No key will be cached!"))
+                .ignoreElement()
+                .onErrorComplete()
+                .cache();
+        this.accessKeyFileRead.subscribe();
 
 
         // TODO: probably not necessary to create a pool because of the low amount of requests.
@@ -93,63 +117,151 @@ public class CompetitionServiceImpl implements CompetitionService {
 
     @Override
     public void fetchLatestCompetitionStandings(Handler<AsyncResult<Competition>> result) {
-        Single<String> accessKeyResult = null;
-        if (Objects.isNull(this.cachedAccessKey)) {
-            // First time we fetch the access key so start an access key flow
-            accessKeyResult = this.requestAccessKey();
+        // Callers that ask while a fetch is in flight share its result instead of sending a request of their own. The
+        // fetch is forgotten before its result is handed out, so that asking again from a result handler fetches again.
+        if (Objects.isNull(this.inFlightCompetition)) {
+            this.inFlightCompetition = this
+                    .fetchCompetition()
+                    .doOnEvent((value, throwable) -> this.inFlightCompetition = null)
+                    .cache();
         } else {
-            LOGGER.debug("We have an acceskey so use that.");
-            accessKeyResult = Single.just(this.cachedAccessKey);
+            LOGGER.debug("A fetch of the competition standings is already in flight, waiting for that one.");
         }
+        this.inFlightCompetition
+                .subscribe(competition -> result.handle(Future.succeededFuture(competition)),
+                        throwable -> result.handle(Future.failedFuture(throwable)));
+    }
 
+    private Single<Competition> fetchCompetition() {
         JsonObject profcoachConfig = configuration.getJsonObject("profcoach-auth", new JsonObject());
         String gameApiHost = profcoachConfig.getString("game_api_host", "");
         String gameApiUrl = profcoachConfig.getString("game_api_standings_url", "");
         Integer port = profcoachConfig.getInteger("game_api_port");
         String xClientGame = profcoachConfig.getString("x_client_game");
         String xGameGroup = profcoachConfig.getString("x_game_group");
+        boolean gameApiSsl = profcoachConfig.getBoolean("game_api_ssl", true);
+
+        return this.accessKey(gameApiHost)
+                .flatMap(accessKey -> this.sendRequestCompetitionStandings(gameApiHost, gameApiUrl, port, gameApiSsl, accessKey, xClientGame, xGameGroup)
+                        .doOnSuccess(httpResponse -> {
+                            if (httpResponse.statusCode() == 401) {
+                                this.accessKeyManager.rejected(accessKey);
+                            } else if (httpResponse.statusCode() == 200 || httpResponse.statusCode() == 304) {
+                                this.accessKeyManager.used(accessKey);
+                            }
+                        }))
+                .flatMap(httpResponse -> {
+                    if (httpResponse.statusCode() == 200 || httpResponse.statusCode() == 304) {
+                        return this.toCompetition(httpResponse);
+                    } else if (httpResponse.statusCode() == 401) {
+                        if (!this.circuitBreaker(gameApiHost).tryRetry()) {
+                            // Don't start an oauth flow for every poll while the access keys keep being rejected.
+                            LOGGER.warn("The access key was rejected but there is no budget left to request a new one and try again.");
+                            return Single.error(new ServiceException(401, "The access key was rejected and the retry budget is exhausted."));
+                        }
+                        LOGGER.debug("Unable to obtain competition standing due to invalid access code. Retrieving new one.");
+                        return this.requestAccessKey()
+                                .flatMap(accessKey -> this.sendRequestCompetitionStandings(gameApiHost, gameApiUrl, port, gameApiSsl, accessKey, xClientGame, xGameGroup))
+                                .flatMap(secondTryHttpResponse -> {
+                                    if (secondTryHttpResponse.statusCode() == 200 || secondTryHttpResponse.statusCode() == 304) {
+                                        LOGGER.debug("Retrieved competition after having fetched a new access key.");
+                                        return this.toCompetition(secondTryHttpResponse);
+                                    }
+                                    // We won't try to get another access key again since something else must be wrong if a second pass didn't give us the expected result.
+                                    LOGGER.error("After having retrieved another access key, we could not get the competition standings for our league.");
+                                    return Single.error(new ServiceException(secondTryHttpResponse.statusCode(), secondTryHttpResponse.statusMessage()));
+                                });
+                    }
+                    LOGGER.error("Unexpected access code received. Unable to retrieve competition standings. Code was: {}", httpResponse.statusCode());
+                    return Single.error(new ServiceException(httpResponse.statusCode(), httpResponse.statusMessage()));
+                });
+    }
 
-        accessKeyResult
-                .flatMap(accessKey -> this.sendRequestCompetitionStandings(gameApiHost, gameApiUrl, port, accessKey, xClientGame, xGameGroup))
-                .subscribe(httpResponse -> {
-                            if (httpResponse.statusCode() == 200) {
-                                Competition competition = new Competition(httpResponse.bodyAsJsonObject());
-                                result.handle(Future.succeededFuture(competition));
-                            } else if (httpResponse.statusCode() == 401) {
-                                LOGGER.debug("Unable to obtain competition standing due to invalid access code. Retrieving new one.");
-                                this.requestAccessKey()
-                                        .flatMap(accessKey -> this.sendRequestCompetitionStandings(gameApiHost, gameApiUrl, port, accessKey, xClientGame, xGameGroup))
-                                        .subscribe(secondTryHttpResponse -> {
-                                            if (secondTryHttpResponse.statusCode() == 200) {
-                                                LOGGER.debug("Retrieved competition after having fetched a new access key.");
-                                                Competition competition = new Competition(httpResponse.bodyAsJsonObject());
-                                                result.handle(Future.succeededFuture(competition));
-                                            } else {
-                                                // We won't try to get another access key again since something else must be wrong if a second pass didn't give us the expected result.
-                                                LOGGER.error("After having retrieved another access key, we could not get the competition standings for our league.");
-                                                result.handle(Future.failedFuture(new ServiceException(secondTryHttpResponse.statusCode(), secondTryHttpResponse.statusMessage())));
-                                            }
-
-                                        }, throwable -> result.handle(Future.failedFuture(throwable)));
-                            } else {
-                                LOGGER.error("Unexpected access code received. Unable to retrieve competition standings. Code was: {}", httpResponse.statusCode());
-                                result.handle(Future.failedFuture(new ServiceException(httpResponse.statusCode(), httpResponse.statusMessage())));
+    // The access key we have or, if we don't have one (yet), the one from the file or a new one from the oauth flow. If
+    // we don't have one because it was rejected, requesting a new one counts as a retry for the given host.
+    private Single<String> accessKey(String host) {
+        Optional<String> accessKey = this.accessKeyManager.current();
+        if (accessKey.isPresent()) {
+            LOGGER.debug("We have an acceskey so use that.");
+            return Single.just(accessKey.get());
+        }
+        return this.accessKeyFileRead
+                .andThen(Single.defer(() -> this.accessKeyManager
+                        .current()
+                        .map(Single::just)
+                        .orElseGet(() -> {
+                            if (this.accessKeyManager.isRejected() && !this.circuitBreaker(host).tryRetry()) {
+                                return Single.error(new ServiceException(401, "The access key was rejected and the retry budget is exhausted."));
                             }
-                        },
-                        throwable -> result.handle(Future.failedFuture(throwable)));
+                            return this.requestAccessKey();
+                        })));
+    }
 
+    @Override
+    public void prepareAccessKey(long validForMillis, Handler<AsyncResult<Void>> result) {
+        this.accessKeyFileRead
+                .andThen(Completable.defer(() -> {
+                    if (this.accessKeyManager.isValidFor(Duration.ofMillis(validForMillis))) {
+                        LOGGER.debug("The access key is valid until {}, no need to prepare a new one.", this.accessKeyManager.expiresAt().orElse(null));
+                        return Completable.complete();
+                    }
+                    LOGGER.debug("The access key may not be valid for the next {} ms, requesting a new one.", validForMillis);
+                    return this.requestAccessKey().ignoreElement();
+                }))
+                .subscribe(() -> result.handle(Future.succeededFuture()),
+                        throwable -> result.handle(Future.failedFuture(throwable)));
+    }
 
+    /**
+     * Maps a successful standings response to a competition. A 304 means that the standings didn't change since the
+     * last competition we received, so that one is returned again. The validators of a 200 are kept for the next
+     * (conditional) request.
+     */
+    private Single<Competition> toCompetition(HttpResponse<Buffer> httpResponse) {
+        if (httpResponse.statusCode() == 304) {
+            if (Objects.isNull(this.lastCompetition)) {
+                return Single.error(new ServiceException(500, "The standings were not modified but we don't have them."));
+            }
+            LOGGER.debug("The competition standings were not modified.");
+            return Single.just(this.lastCompetition);
+        }
+        Competition competition = new Competition(httpResponse.bodyAsJsonObject());
+        this.lastCompetition = competition;
+        this.lastCompetitionEtag = httpResponse.getHeader("ETag");
+        this.lastCompetitionLastModified = httpResponse.getHeader("Last-Modified");
+        return Single.just(competition);
     }
 
-    private Single<HttpResponse<Buffer>> sendRequestCompetitionStandings(final String gameApiHost, final String gameApiUrl, final Integer port, final String accessKey, final String xClientGame, final String xGameGroup) {
-        return webClient
+    private Single<HttpResponse<Buffer>> sendRequestCompetitionStandings(final String gameApiHost, final String gameApiUrl, final Integer port, final boolean gameApiSsl, final String accessKey, final String xClientGame, final String xGameGroup) {
+        HttpRequest<Buffer> request = webClient
                 .get(port, gameApiHost, gameApiUrl)
-                .ssl(true)
+                .ssl(gameApiSsl)
                 .bearerTokenAuthentication(accessKey)
                 .putHeader("Content-Type", "application/json")
                 .putHeader("X-Client-Game", xClientGame)
-                .putHeader("X-Game-Group", xGameGroup)
-                .rxSend();
+                .putHeader("X-Game-Group", xGameGroup);
+        // Only has an effect if the api supports conditional requests, otherwise we simply get a 200 every time.
+        if (Objects.nonNull(this.lastCompetitionEtag)) {
+            request.putHeader("If-None-Match", this.lastCompetitionEtag);
+        }
+        if (Objects.nonNull(this.lastCompetitionLastModified)) {
+            request.putHeader("If-Modified-Since", this.lastCompetitionLastModified);
+        }
+        return this.circuitBreaker(gameApiHost).execute(request.timeout(this.requestTimeoutMillis).rxSend(), CompetitionServiceImpl::isUpstreamFailure, true);
+    }
+
+    private CircuitBreaker circuitBreaker(String host) {
+        return this.circuitBreakers.computeIfAbsent(host, h -> CircuitBreaker.create(this.rxVertx, h, this.upstreamConfiguration));
+    }
+
+    // Whether a response means that the host is having trouble, as opposed to something being wrong with our request.
+    private static boolean isUpstreamFailure(HttpResponse<Buffer> httpResponse) {
+        return httpResponse.statusCode() >= 500 || httpResponse.statusCode() == 429;
+    }
+
+    // The requests of the oauth flow are not idempotent, so they're not retried.
+    private Single<HttpResponse<Buffer>> sendOAuthRequest(String host, Single<HttpResponse<Buffer>> request) {
+        return this.circuitBreaker(host).execute(request, CompetitionServiceImpl::isUpstreamFailure, false);
     }
 
     /**
@@ -166,8 +278,21 @@ public class CompetitionServiceImpl implements CompetitionService {
                         throwable -> LOGGER.error("Unable to store access key", throwable));
     }
 
-    // Returns an access key that will also be stored to a file so that it can be obtained from that file if the server restarts.
+    // Returns an access key that will also be stored to a file so that it can be obtained from that file if the server
+    // restarts. Only one oauth flow runs at a time, everyone that needs a new key while it runs gets the same one.
     private Single<String> requestAccessKey() {
+        if (Objects.isNull(this.inFlightAccessKey)) {
+            this.inFlightAccessKey = this
+                    .runOAuthFlow()
+                    .doOnEvent((value, throwable) -> this.inFlightAccessKey = null)
+                    .cache();
+        } else {
+            LOGGER.debug("An oauth flow is already in flight, waiting for that one.");
+        }
+        return this.inFlightAccessKey;
+    }
+
+    private Single<String> runOAuthFlow() {
         JsonObject authConfig = Optional
                 .ofNullable(configuration
                         .getJsonObject("profcoach-auth"))
@@ -179,21 +304,22 @@ public class CompetitionServiceImpl implements CompetitionService {
         LOGGER.debug("Requesting access key starting with host: {}, port: {} and url: {}", oAuthStartHost, oAuthStartPort, oAuthStartUrl);
 
         AuthRequestBody body = AuthRequestBody.fromConfiguration(authConfig);
+        // The cookies that are collected during (and only belong to) this flow.
+        List<String> cookies = new ArrayList<>();
 
-        return webClient
+        return this.sendOAuthRequest(oAuthStartHost, webClient
                 .post(oAuthStartPort, oAuthStartHost, oAuthStartUrl)
                 .ssl(true)
+                .timeout(this.requestTimeoutMillis)
                 .putHeader("Content-Type", "application/json")
-                .rxSendJsonObject(body.toJson())
-                .flatMap(response -> this.processInitialResponse(authConfig, response))
-                .flatMap(response -> this.processAuthorizeResponse(authConfig, response))
+                .rxSendJsonObject(body.toJson()))
+                .flatMap(response -> this.processInitialResponse(authConfig, cookies, response))
+                .flatMap(response -> this.processAuthorizeResponse(authConfig, cookies, response))
                 .flatMap(response -> this.processOAuthAccess(authConfig, response))
                 .flatMap(response -> this.processOAuthResponse(response))
                 .doOnSuccess(accessKey -> this.storeAccessKey(accessKey))
-                .doOnSuccess(accessKey -> this.cachedAccessKey = accessKey)
-                .doFinally(() -> this.cookies.clear())
-                .doOnError(throwable -> LOGGER.error("Something went wrong while processing the oauth flow", throwable))
-                .doOnError(throwable -> throwable.printStackTrace());
+                .doOnSuccess(accessKey -> this.accessKeyManager.accept(accessKey, Instant.now()))
+                .doOnError(throwable -> LOGGER.error("Something went wrong while processing the oauth flow", throwable));
 
     }
 
@@ -246,64 +372,52 @@ public class CompetitionServiceImpl implements CompetitionService {
             String gameApiUrl = authConfig.getString("game_api_url");
             Integer gameApiPort = authConfig.getInteger("game_api_port");
             // This token is now used as the authorization header in the client request
-            return webClient
+            return this.sendOAuthRequest(gameApiHost, webClient
                     .get(gameApiPort, gameApiHost, gameApiUrl)
                     .ssl(true)
+                    .timeout(this.requestTimeoutMillis)
                     // TODO: is the X-Game-Group a fixed value or can this be obtained from one of the response headers/cookies?
                     .putHeader("X-Game-Group", xGameGroup)
                     .putHeader("Content-Type", "application/json")
                     .putHeader("Authorization", accessToken)
-                    .rxSend();
+                    .rxSend());
         }
         return Single.error(() -> new ServiceException(424, "There was no access token in the response of the oAuth request."));
     }
 
-    private Single<HttpResponse<Buffer>> processAuthorizeResponse(JsonObject authConfig, HttpResponse<Buffer> response) {
+    private Single<HttpResponse<Buffer>> processAuthorizeResponse(JsonObject authConfig, List<String> cookies, HttpResponse<Buffer> response) {
         if (response.statusCode() == 200) {
             if (Objects.nonNull(response.cookies())) {
-                this.cookies.addAll(response.cookies());
+                cookies.addAll(response.cookies());
             }
-            String cookieValue = this.collectCookies(this.cookies);
-            Document d = Jsoup.parse(response.bodyAsString());
-            // There should only one form with this class
-            Elements forms = d.select(".pure-form");
-            String action = "";
-            MultiMap multiMap = MultiMap.caseInsensitiveMultiMap();
-            if (forms.size() != 1) {
-                LOGGER.error("Found more than one form with the pure-form class name.");
-                return Single.error(() -> new ServiceException(424, "Found more than one form with the pure-form class name."));
-            } else {
-                // Get the action from the form
-                FormElement form = (FormElement) forms.get(0);
-                action = form.attr("action");
-                LOGGER.debug("We will submit to: {}", action);
-                // With the formData call I can create a MultiMap for the WebClient to send the data in the form to the action attribute
-                form.formData().stream().forEach(fe -> {
-                    // Set the value of "IsApproved" to true because it will set the consent value to true
-                    if (fe.key().equals("IsApproved")) {
-                        fe.value("true");
-                    }
-                    multiMap.add(fe.key(), fe.value());
-                });
+            String cookieValue = this.collectCookies(cookies);
+            AuthorizeForm form;
+            try {
+                form = AuthorizeForm.parse(response.bodyAsString());
+            } catch (ServiceException e) {
+                LOGGER.error(e.getMessage());
+                return Single.error(e);
             }
+            LOGGER.debug("We will submit to: {}", form.getAction());
             String destination = authConfig.getString("destination_host", "");
             Integer port = authConfig.getInteger("destination_port", 443);
-            return webClient
-                    .post(port, destination, action)
+            return this.sendOAuthRequest(destination, webClient
+                    .post(port, destination, form.getAction())
                     .ssl(true)
+                    .timeout(this.requestTimeoutMillis)
                     .putHeader("Content-Type", "application/x-www-form-urlencoded")
                     .putHeader("Cookie", cookieValue)
-                    .rxSendForm(multiMap);
+                    .rxSendForm(MultiMap.newInstance(form.getFormData())));
 
         } else {
             return Single.error(() -> new ServiceException(424, "The authorize response did not respond with a successful http code."));
         }
     }
 
-    private Single<HttpResponse<Buffer>> processInitialResponse(JsonObject authConfig, HttpResponse<Buffer> response) {
+    private Single<HttpResponse<Buffer>> processInitialResponse(JsonObject authConfig, List<String> cookies, HttpResponse<Buffer> response) {
         if (response.statusCode() == 200) {
-            this.cookies.addAll(response.cookies());
-            String cookieValue = Objects.nonNull(this.cookies) ? this.collectCookies(this.cookies) : "";
+            cookies.addAll(response.cookies());
+            String cookieValue = this.collectCookies(cookies);
             JsonObject loginResponse = response.bodyAsJsonObject();
             LOGGER.debug("Login response: {}", loginResponse.encodePrettily());
             String gotoString = loginResponse.getString("Goto");
@@ -325,8 +439,9 @@ public class CompetitionServiceImpl implements CompetitionService {
             // TODO: determine whether we have enough like this: the list can contain more values since we get a list of items back from the params.
             params.entrySet().forEach(entry -> httpRequest.addQueryParam(entry.getKey(), entry.getValue().get(0)));
             httpRequest.ssl(true);
-            return httpRequest.putHeader("Cookie", cookieValue)
-                    .rxSend();
+            httpRequest.timeout(this.requestTimeoutMillis);
+            return this.sendOAuthRequest(host, httpRequest.putHeader("Cookie", cookieValue)
+                    .rxSend());
         } else {
             // TODO: make this something meaningful.
             return Single.error(() -> new ServiceException(424, "The initial request did not return with a successful error code but with: " + response.statusCode()));
@@ -0,0 +1,43 @@
+package me.piepers.super11.infrastructure;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.json.JsonObject;
+import me.piepers.super11.domain.Competition;
+import me.piepers.super11.domain.CompetitionService;
+import me.piepers.super11.domain.CompetitionServiceVertxEBProxy;
+
+/**
+ * The proxy of the {@link CompetitionService} that receives the competition as it was sent by the
+ * {@link CompetitionServiceProxyHandler}, instead of the json that the generated proxy expects. Within this application
+ * that is the competition that the service created. The other actions are sent by the generated proxy.
+ *
+ * @author Bas Piepers
+ */
+public class CompetitionServiceProxy extends CompetitionServiceVertxEBProxy {
+    private final Vertx vertx;
+    private final String address;
+
+    public CompetitionServiceProxy(Vertx vertx, String address) {
+        super(vertx, address);
+        this.vertx = vertx;
+        this.address = address;
+        DomainObjectMessageCodec.registerDefaultCodecs(vertx.eventBus());
+    }
+
+    @Override
+    public void fetchLatestCompetitionStandings(Handler<AsyncResult<Competition>> result) {
+        DeliveryOptions deliveryOptions = new DeliveryOptions()
+                .addHeader("action", CompetitionServiceProxyHandler.FETCH_LATEST_COMPETITION_STANDINGS);
+        vertx.eventBus().<Competition>send(address, new JsonObject(), deliveryOptions, reply -> {
+            if (reply.failed()) {
+                result.handle(Future.failedFuture(reply.cause()));
+            } else {
+                result.handle(Future.succeededFuture(reply.result().body()));
+            }
+        });
+    }
+}
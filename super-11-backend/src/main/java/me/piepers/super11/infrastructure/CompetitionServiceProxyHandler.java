@@ -0,0 +1,46 @@
+package me.piepers.super11.infrastructure;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
+import io.vertx.serviceproxy.ServiceException;
+import me.piepers.super11.domain.CompetitionService;
+import me.piepers.super11.domain.CompetitionServiceVertxProxyHandler;
+
+/**
+ * The generated proxy handler of the {@link CompetitionService} always replies with the json of the competition, which
+ * the proxy then turns into a competition again. This handler replies with the competition itself so that it is sent
+ * with its {@link DomainObjectMessageCodec}. The other actions are handled by the generated handler.
+ * <p>
+ * Only use it together with the {@link CompetitionServiceProxy}: the generated proxy expects json in the reply.
+ *
+ * @author Bas Piepers
+ */
+public class CompetitionServiceProxyHandler extends CompetitionServiceVertxProxyHandler {
+    static final String FETCH_LATEST_COMPETITION_STANDINGS = "fetchLatestCompetitionStandings";
+
+    private final CompetitionService service;
+
+    public CompetitionServiceProxyHandler(Vertx vertx, CompetitionService service) {
+        super(vertx, service);
+        this.service = service;
+        DomainObjectMessageCodec.registerDefaultCodecs(vertx.eventBus());
+    }
+
+    @Override
+    public void handle(Message<JsonObject> message) {
+        if (!FETCH_LATEST_COMPETITION_STANDINGS.equals(message.headers().get("action"))) {
+            super.handle(message);
+            return;
+        }
+        service.fetchLatestCompetitionStandings(result -> {
+            if (result.succeeded()) {
+                message.reply(result.result());
+            } else if (result.cause() instanceof ServiceException) {
+                message.reply(result.cause());
+            } else {
+                message.reply(new ServiceException(-1, result.cause().getMessage()));
+            }
+        });
+    }
+}
@@ -0,0 +1,111 @@
+package me.piepers.super11.infrastructure;
+
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import me.piepers.super11.domain.Competition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Keeps the last {@link Competition} that was fetched on disk, so that after a restart the standings can be served
+ * right away instead of only after the Profcoach API has been polled (which may take a while or may not work at all at
+ * that moment). The competition is stored in JSON together with the moment it was stored, which is when it was last
+ * known to be up to date. Like the {@link SeasonStore}, writes replace the file atomically and overlapping writes are
+ * coalesced.
+ * <p>
+ * The instance methods are not thread safe: they are to be used from the event loop of the verticle that owns the
+ * store. The file operations themselves are done on a worker thread.
+ *
+ * @author Bas Piepers
+ */
+public class CompetitionStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompetitionStore.class);
+
+    private final Vertx rxVertx;
+    private final Path file;
+    private final AtomicFileWriter<Competition> writer;
+
+    /**
+     * @param rxVertx, the Vert.x instance of which the worker threads are used to read and write.
+     * @param file,    the file the competition is stored in.
+     */
+    public CompetitionStore(Vertx rxVertx, Path file) {
+        this.rxVertx = rxVertx;
+        this.file = file;
+        this.writer = new AtomicFileWriter<>(rxVertx, file, competition -> new JsonObject()
+                .put("storedAt", Instant.now())
+                .put("competition", competition.toJson())
+                .encode()
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the stored competition or nothing if there is no stored competition or if it can't be read (in which case
+     * it is as good as not being there).
+     */
+    public Maybe<StoredCompetition> rxLoad() {
+        return this.rxVertx
+                .<StoredCompetition>rxExecuteBlocking(future -> {
+                    if (Files.notExists(this.file)) {
+                        future.complete();
+                        return;
+                    }
+                    try {
+                        JsonObject jsonObject = new JsonObject(new String(Files.readAllBytes(this.file), StandardCharsets.UTF_8));
+                        future.complete(new StoredCompetition(new Competition(jsonObject.getJsonObject("competition")), jsonObject.getInstant("storedAt")));
+                    } catch (IOException | RuntimeException e) {
+                        LOGGER.error("Unable to read the competition from {}, ignoring it.", this.file, e);
+                        future.complete();
+                    }
+                }, false);
+    }
+
+    /**
+     * Stores the given competition. If another competition is being written at the moment, the given competition is
+     * written after that, unless a newer competition comes along in the meantime: then only the newest is written.
+     *
+     * @param competition, the competition to store.
+     * @return completes when the given competition (or a newer one) is stored.
+     */
+    public Completable save(Competition competition) {
+        return this.writer.write(competition);
+    }
+
+    // The amount of competitions that were actually written.
+    long writes() {
+        return this.writer.writes();
+    }
+
+    /**
+     * A competition as it was read from the store.
+     */
+    public static class StoredCompetition {
+        private final Competition competition;
+        private final Instant storedAt;
+
+        StoredCompetition(Competition competition, Instant storedAt) {
+            this.competition = Objects.requireNonNull(competition);
+            this.storedAt = Objects.requireNonNull(storedAt);
+        }
+
+        public Competition getCompetition() {
+            return competition;
+        }
+
+        /**
+         * @return when the competition was stored, which is the last moment it was known to be up to date.
+         */
+        public Instant getStoredAt() {
+            return storedAt;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package me.piepers.super11.infrastructure;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.json.JsonObject;
+import me.piepers.super11.domain.Competition;
+import me.piepers.super11.domain.JsonDomainObject;
+import me.piepers.super11.domain.Season;
+
+import java.util.function.Function;
+
+/**
+ * Sends a domain object over the event bus without turning it into json and back. Within this application the object
+ * itself is delivered: the domain objects that are registered are immutable snapshots, so the sender and the receivers
+ * can share them. When the event bus is clustered, the object is sent as its json, prefixed by the length.
+ * <p>
+ * The codecs are registered as the default codec for their class, so sending or replying with a {@link Competition} or
+ * a {@link Season} uses them without further options.
+ *
+ * @param <T> the type of the domain object.
+ * @author Bas Piepers
+ */
+public class DomainObjectMessageCodec<T extends JsonDomainObject> implements MessageCodec<T, T> {
+    private final String name;
+    private final Function<JsonObject, T> fromJson;
+
+    DomainObjectMessageCodec(String name, Function<JsonObject, T> fromJson) {
+        this.name = name;
+        this.fromJson = fromJson;
+    }
+
+    /**
+     * Registers the codecs of the domain objects on the given event bus, unless that was done already.
+     *
+     * @param eventBus, the event bus to register the codecs on.
+     */
+    public static void registerDefaultCodecs(EventBus eventBus) {
+        registerDefaultCodec(eventBus, Competition.class, Competition::new);
+        registerDefaultCodec(eventBus, Season.class, Season::new);
+    }
+
+    private static <T extends JsonDomainObject> void registerDefaultCodec(EventBus eventBus, Class<T> type, Function<JsonObject, T> fromJson) {
+        try {
+            eventBus.registerDefaultCodec(type, new DomainObjectMessageCodec<>("super11." + type.getSimpleName(), fromJson));
+        } catch (IllegalStateException e) {
+            // Already registered by the service or its proxy.
+        }
+    }
+
+    @Override
+    public void encodeToWire(Buffer buffer, T domainObject) {
+        Buffer json = domainObject.toJson().toBuffer();
+        buffer.appendInt(json.length());
+        buffer.appendBuffer(json);
+    }
+
+    @Override
+    public T decodeFromWire(int pos, Buffer buffer) {
+        int length = buffer.getInt(pos);
+        pos += 4;
+        return fromJson.apply(new JsonObject(buffer.getBuffer(pos, pos + length)));
+    }
+
+    @Override
+    public T transform(T domainObject) {
+        return domainObject;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1;
+    }
+}
@@ -0,0 +1,350 @@
+package me.piepers.super11.infrastructure;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.web.codec.BodyCodec;
+import io.vertx.ext.web.codec.spi.BodyStream;
+import me.piepers.super11.domain.Match;
+import me.piepers.super11.domain.Round;
+import me.piepers.super11.domain.Season;
+import me.piepers.super11.domain.Team;
+import me.piepers.super11.infrastructure.model.EredivisieSeason;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Parses the rounds of the Eredivisie.nl API (GetAllRounds) into a {@link Season} while they come in, instead of
+ * buffering the whole response and building a {@link EredivisieSeason} with all its fields first. Only the fields
+ * that end up in the season are read (the number and end date of the rounds, the kickoff and teams of the matches),
+ * the others are skipped without being turned into strings. Teams are created once and shared by their matches.
+ * <p>
+ * The input can be fed in chunks of any size: the parser doesn't block and picks up where it was with the next chunk.
+ * Not thread safe, a parser is used for one response.
+ *
+ * @author Bas Piepers
+ */
+public class EredivisieSeasonParser {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private enum State {
+        // Before the array with the rounds.
+        START,
+        // In the array with the rounds.
+        ROUNDS,
+        ROUND,
+        // In the array with the matches of a round.
+        MATCHES,
+        MATCH,
+        // After the array with the rounds.
+        END
+    }
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final List<Round> rounds = new ArrayList<>(34);
+    private final Map<String, Team> teams = new HashMap<>();
+    private byte[] chunk = new byte[0];
+
+    private State state = State.START;
+    // The depth of the object or array that is being skipped, zero if nothing is being skipped.
+    private int skipDepth = 0;
+
+    private Integer round;
+    private String enddate;
+    private List<Match> matches;
+
+    private String date;
+    private String team1Id;
+    private String team1Name;
+    private String team2Id;
+    private String team2Name;
+
+    public EredivisieSeasonParser() {
+        try {
+            this.parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        this.feeder = (ByteArrayFeeder) this.parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * @param bytes, a complete response of the API.
+     * @return the season in the given response.
+     * @throws DecodeException if the response isn't what we expect.
+     */
+    public static Season parse(byte[] bytes) {
+        EredivisieSeasonParser parser = new EredivisieSeasonParser();
+        parser.feed(bytes, 0, bytes.length);
+        return parser.end();
+    }
+
+    /**
+     * @return a body codec that parses the response of the API into a season while it is received. The body is null if
+     * the response doesn't have one (like a 304 Not Modified).
+     */
+    public static BodyCodec<Season> bodyCodec() {
+        return handler -> handler.handle(Future.succeededFuture(new SeasonBodyStream()));
+    }
+
+    /**
+     * Parses the given part of the input as far as possible.
+     *
+     * @param bytes,  the input.
+     * @param offset, where the part starts.
+     * @param length, the length of the part.
+     * @throws DecodeException if the input isn't what we expect.
+     */
+    public void feed(byte[] bytes, int offset, int length) {
+        try {
+            this.feeder.feedInput(bytes, offset, offset + length);
+            this.parseAvailableInput();
+        } catch (IOException | RuntimeException e) {
+            throw new DecodeException("Unable to parse the rounds of the season: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses what is left of the input and ends it.
+     *
+     * @return the season in the input.
+     * @throws DecodeException if the input was incomplete or isn't what we expect.
+     */
+    public Season end() {
+        try {
+            this.feeder.endOfInput();
+            this.parseAvailableInput();
+            this.parser.close();
+        } catch (IOException | RuntimeException e) {
+            throw new DecodeException("Unable to parse the rounds of the season: " + e.getMessage());
+        }
+        if (this.state != State.END) {
+            throw new DecodeException("The rounds of the season are incomplete.");
+        }
+        return Season.eredivisie(this.rounds);
+    }
+
+    // Feeds the readable bytes of the buffer without copying them into a new array for every chunk.
+    private void feed(Buffer buffer) {
+        ByteBuf byteBuf = buffer.getByteBuf();
+        int length = byteBuf.readableBytes();
+        if (byteBuf.hasArray()) {
+            this.feed(byteBuf.array(), byteBuf.arrayOffset() + byteBuf.readerIndex(), length);
+            return;
+        }
+        // The parser is done with the previous chunk when feed returns, so its array can be reused.
+        if (this.chunk.length < length) {
+            this.chunk = new byte[length];
+        }
+        byteBuf.getBytes(byteBuf.readerIndex(), this.chunk, 0, length);
+        this.feed(this.chunk, 0, length);
+    }
+
+    private void parseAvailableInput() throws IOException {
+        JsonToken token;
+        while ((token = this.parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            this.handle(token);
+        }
+    }
+
+    private void handle(JsonToken token) throws IOException {
+        if (this.skipDepth > 0) {
+            if (token.isStructStart()) {
+                this.skipDepth++;
+            } else if (token.isStructEnd()) {
+                this.skipDepth--;
+            }
+            return;
+        }
+        switch (this.state) {
+            case START:
+                this.expect(token, JsonToken.START_ARRAY);
+                this.state = State.ROUNDS;
+                break;
+            case ROUNDS:
+                if (token == JsonToken.END_ARRAY) {
+                    this.state = State.END;
+                } else {
+                    this.expect(token, JsonToken.START_OBJECT);
+                    this.round = null;
+                    this.enddate = null;
+                    this.matches = new ArrayList<>(9);
+                    this.state = State.ROUND;
+                }
+                break;
+            case ROUND:
+                this.handleRoundToken(token);
+                break;
+            case MATCHES:
+                if (token == JsonToken.END_ARRAY) {
+                    this.state = State.ROUND;
+                } else {
+                    this.expect(token, JsonToken.START_OBJECT);
+                    this.date = null;
+                    this.team1Id = null;
+                    this.team1Name = null;
+                    this.team2Id = null;
+                    this.team2Name = null;
+                    this.state = State.MATCH;
+                }
+                break;
+            case MATCH:
+                this.handleMatchToken(token);
+                break;
+            case END:
+                throw new DecodeException("Unexpected " + token + " after the rounds of the season.");
+        }
+    }
+
+    private void handleRoundToken(JsonToken token) throws IOException {
+        if (token == JsonToken.FIELD_NAME) {
+            return;
+        }
+        if (token == JsonToken.END_OBJECT) {
+            if (Objects.isNull(this.round) || Objects.isNull(this.enddate)) {
+                throw new DecodeException("A round of the season doesn't have a number or an end date.");
+            }
+            this.rounds.add(Round.from(this.round, this.enddate, this.matches));
+            this.state = State.ROUNDS;
+            return;
+        }
+        // Field names are canonicalized by the parser, so this doesn't create a string.
+        String field = this.parser.getCurrentName();
+        if ("matches".equals(field)) {
+            this.expect(token, JsonToken.START_ARRAY);
+            this.state = State.MATCHES;
+        } else if ("round".equals(field)) {
+            this.round = token == JsonToken.VALUE_NUMBER_INT ? this.parser.getIntValue() : Integer.parseInt(this.text(token));
+        } else if ("enddate".equals(field)) {
+            this.enddate = this.text(token);
+        } else {
+            this.skip(token);
+        }
+    }
+
+    private void handleMatchToken(JsonToken token) throws IOException {
+        if (token == JsonToken.FIELD_NAME) {
+            return;
+        }
+        if (token == JsonToken.END_OBJECT) {
+            if (Objects.isNull(this.date) || Objects.isNull(this.team1Id) || Objects.isNull(this.team2Id)) {
+                throw new DecodeException("A match of the season doesn't have a date or teams.");
+            }
+            this.matches.add(Match.of(this.team(this.team1Id, this.team1Name), this.team(this.team2Id, this.team2Name), Round.convertEredivisieDateTimeToInstant(this.date)));
+            this.state = State.MATCHES;
+            return;
+        }
+        String field = this.parser.getCurrentName();
+        if ("date".equals(field)) {
+            this.date = this.text(token);
+        } else if ("team1ID".equals(field)) {
+            this.team1Id = this.text(token);
+        } else if ("team2ID".equals(field)) {
+            this.team2Id = this.text(token);
+        } else if ("team1Name".equals(field) && !this.teams.containsKey(this.team1Id)) {
+            // The name of a team we already know is not read again.
+            this.team1Name = this.text(token);
+        } else if ("team2Name".equals(field) && !this.teams.containsKey(this.team2Id)) {
+            this.team2Name = this.text(token);
+        } else {
+            this.skip(token);
+        }
+    }
+
+    private String text(JsonToken token) throws IOException {
+        return token == JsonToken.VALUE_NULL ? null : this.parser.getText();
+    }
+
+    private Team team(String id, String name) {
+        return this.teams.computeIfAbsent(id, teamId -> Team.of(teamId, name));
+    }
+
+    // Scalars are skipped by not reading them, objects and arrays by counting until they end.
+    private void skip(JsonToken token) {
+        if (token.isStructStart()) {
+            this.skipDepth = 1;
+        }
+    }
+
+    private void expect(JsonToken token, JsonToken expected) {
+        if (token != expected) {
+            throw new DecodeException("Expected " + expected + " but got " + token + " in the rounds of the season.");
+        }
+    }
+
+    // Parses the body of a response while it is received.
+    private static class SeasonBodyStream implements BodyStream<Season> {
+        private final EredivisieSeasonParser parser = new EredivisieSeasonParser();
+        private final Future<Season> result = Future.future();
+        private boolean received = false;
+
+        @Override
+        public Future<Season> result() {
+            return result;
+        }
+
+        @Override
+        public void handle(Throwable throwable) {
+            result.tryFail(throwable);
+        }
+
+        @Override
+        public WriteStream<Buffer> write(Buffer buffer) {
+            if (!result.isComplete() && buffer.length() > 0) {
+                received = true;
+                try {
+                    parser.feed(buffer);
+                } catch (DecodeException e) {
+                    result.tryFail(e);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public void end() {
+            if (!result.isComplete() && !received) {
+                result.tryComplete(null);
+            } else if (!result.isComplete()) {
+                try {
+                    result.tryComplete(parser.end());
+                } catch (DecodeException e) {
+                    result.tryFail(e);
+                }
+            }
+        }
+
+        @Override
+        public WriteStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+            return this;
+        }
+
+        @Override
+        public WriteStream<Buffer> setWriteQueueMaxSize(int maxSize) {
+            return this;
+        }
+
+        @Override
+        public boolean writeQueueFull() {
+            return false;
+        }
+
+        @Override
+        public WriteStream<Buffer> drainHandler(Handler<Void> handler) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package me.piepers.super11.infrastructure;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Limits how many retries may be done within a period, so that an upstream that keeps failing isn't hit with a retry
+ * for every request we do.
+ * <p>
+ * Not thread safe: to be used from a single event loop.
+ *
+ * @author Bas Piepers
+ */
+public class RetryBudget {
+    private final int retries;
+    private final long windowMillis;
+    // When the retries within the window were done, oldest first.
+    private final Deque<Long> spent = new ArrayDeque<>();
+
+    /**
+     * @param retries, the amount of retries that may be done within the window.
+     * @param window,  the period over which the retries are counted.
+     */
+    public RetryBudget(int retries, Duration window) {
+        this.retries = retries;
+        this.windowMillis = window.toMillis();
+    }
+
+    /**
+     * @return true if a retry may be done, in which case it is taken from the budget.
+     */
+    public boolean tryAcquire() {
+        long now = System.currentTimeMillis();
+        while (!this.spent.isEmpty() && this.spent.peekFirst() <= now - this.windowMillis) {
+            this.spent.pollFirst();
+        }
+        if (this.spent.size() >= this.retries) {
+            return false;
+        }
+        this.spent.addLast(now);
+        return true;
+    }
+}
@@ -0,0 +1,306 @@
+package me.piepers.super11.infrastructure;
+
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import me.piepers.super11.domain.Match;
+import me.piepers.super11.domain.Round;
+import me.piepers.super11.domain.Season;
+import me.piepers.super11.domain.Team;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Stores the {@link Season} on disk in a compact binary format, so that it doesn't have to be fetched from the
+ * Eredivisie API (or parsed from JSON) every time the application starts.
+ * <p>
+ * The file starts with a header with a magic number, the version of the format, the length of the content and a CRC32
+ * checksum of the content. The content has the teams once, after which the matches refer to them by their position.
+ * Instants are stored as the epoch second and the nanos. A file is written to a temporary file first, which then
+ * replaces the previous file with an atomic move, so a crash while writing never leaves a half written season behind.
+ * Files are read through a memory mapping.
+ * <p>
+ * JSON is still supported to import a season that was stored by an earlier version and to export a season to inspect
+ * it.
+ * <p>
+ * The instance methods are not thread safe: they are to be used from the event loop of the verticle that owns the
+ * store. The file operations themselves are done on a worker thread.
+ *
+ * @author Bas Piepers
+ */
+public class SeasonStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SeasonStore.class);
+    // "S11S"
+    static final int MAGIC = 0x53313153;
+    static final short FORMAT_VERSION = 1;
+    // Magic, version, reserved, length of the content and the checksum of the content.
+    static final int HEADER_LENGTH = 4 + 2 + 2 + 4 + 4;
+
+    private final Vertx rxVertx;
+    private final Path file;
+    private final AtomicFileWriter<Season> writer;
+
+    /**
+     * @param rxVertx, the Vert.x instance of which the worker threads are used to read and write.
+     * @param file,    the file the season is stored in.
+     */
+    public SeasonStore(Vertx rxVertx, Path file) {
+        this.rxVertx = rxVertx;
+        this.file = file;
+        this.writer = new AtomicFileWriter<>(rxVertx, file, SeasonStore::encode);
+    }
+
+    /**
+     * @return the stored season or nothing if there is no stored season or if it can't be read (in which case it is
+     * as good as not being there).
+     */
+    public Maybe<Season> rxLoad() {
+        return this.rxVertx
+                .<Season>rxExecuteBlocking(future -> {
+                    if (Files.notExists(this.file)) {
+                        future.complete();
+                        return;
+                    }
+                    try {
+                        future.complete(read(this.file));
+                    } catch (IOException e) {
+                        LOGGER.error("Unable to read the season from {}, ignoring it.", this.file, e);
+                        future.complete();
+                    }
+                }, false);
+    }
+
+    /**
+     * Stores the given season. If another season is being written at the moment, the given season is written after
+     * that, unless a newer season comes along in the meantime: then only the newest season is written.
+     *
+     * @param season, the season to store.
+     * @return completes when the given season (or a newer one) is stored.
+     */
+    public Completable save(Season season) {
+        return this.writer.write(season);
+    }
+
+    /**
+     * @param jsonFile, a file with a season in JSON.
+     * @return the season in the given file or nothing if the file doesn't exist.
+     */
+    public Maybe<Season> rxImportJson(Path jsonFile) {
+        return this.rxVertx
+                .<Season>rxExecuteBlocking(future -> {
+                    if (Files.notExists(jsonFile)) {
+                        future.complete();
+                        return;
+                    }
+                    try {
+                        future.complete(new Season(new JsonObject(new String(Files.readAllBytes(jsonFile), StandardCharsets.UTF_8))));
+                    } catch (IOException | RuntimeException e) {
+                        future.fail(e);
+                    }
+                }, false);
+    }
+
+    /**
+     * @param season,   the season to export.
+     * @param jsonFile, the file to write the season to in JSON, which is replaced atomically.
+     * @return completes when the season was exported.
+     */
+    public Completable rxExportJson(Season season, Path jsonFile) {
+        return this.rxVertx
+                .<Void>rxExecuteBlocking(future -> {
+                    try {
+                        AtomicFileWriter.writeAtomically(season.toJson().encode().getBytes(StandardCharsets.UTF_8), jsonFile);
+                        future.complete();
+                    } catch (IOException e) {
+                        future.fail(e);
+                    }
+                }, false)
+                .ignoreElement();
+    }
+
+    // The amount of seasons that were actually written.
+    long writes() {
+        return this.writer.writes();
+    }
+
+    /**
+     * Reads a season from a file in the binary format through a memory mapping.
+     *
+     * @param file, the file to read.
+     * @return the season in the file.
+     * @throws IOException if the file can't be read or isn't a season in a format we know (anymore), or if its
+     *                     checksum doesn't match.
+     */
+    public static Season read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return decode(mapped);
+        }
+    }
+
+    /**
+     * Writes a season to a file in the binary format. The season is written to a temporary file next to it first,
+     * which then replaces the file.
+     *
+     * @param season, the season to write.
+     * @param file,   the file to write to.
+     * @throws IOException if the season can't be written.
+     */
+    public static void write(Season season, Path file) throws IOException {
+        AtomicFileWriter.writeAtomically(encode(season), file);
+    }
+
+    static byte[] encode(Season season) throws IOException {
+        // The teams are stored once and referred to by their position.
+        Map<String, Integer> teamPositions = new HashMap<>();
+        List<Team> teams = new ArrayList<>();
+        for (Round round : season.getRounds()) {
+            for (Match match : round.getMatches()) {
+                for (Team team : List.of(match.getHome(), match.getAway())) {
+                    if (!teamPositions.containsKey(team.getId())) {
+                        teamPositions.put(team.getId(), teams.size());
+                        teams.add(team);
+                    }
+                }
+            }
+        }
+
+        ByteArrayOutputStream content = new ByteArrayOutputStream(4096);
+        DataOutputStream out = new DataOutputStream(content);
+        writeString(out, season.getName());
+        writeString(out, season.getCountry());
+        writeInstant(out, season.getLastUpdated());
+        out.writeInt(teams.size());
+        for (Team team : teams) {
+            writeString(out, team.getId());
+            writeString(out, team.getName());
+        }
+        out.writeInt(season.getRounds().size());
+        for (Round round : season.getRounds()) {
+            out.writeInt(round.getRound());
+            writeInstant(out, round.getScheduledStartTime());
+            writeInstant(out, round.getScheduledEndTime());
+            out.writeInt(round.getMatches().size());
+            for (Match match : round.getMatches()) {
+                out.writeInt(teamPositions.get(match.getHome().getId()));
+                out.writeInt(teamPositions.get(match.getAway().getId()));
+                writeInstant(out, match.getScheduledStartTime());
+            }
+        }
+        out.flush();
+        byte[] contentBytes = content.toByteArray();
+
+        CRC32 crc32 = new CRC32();
+        crc32.update(contentBytes);
+        return ByteBuffer
+                .allocate(HEADER_LENGTH + contentBytes.length)
+                .putInt(MAGIC)
+                .putShort(FORMAT_VERSION)
+                .putShort((short) 0)
+                .putInt(contentBytes.length)
+                .putInt((int) crc32.getValue())
+                .put(contentBytes)
+                .array();
+    }
+
+    static Season decode(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_LENGTH || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a stored season.");
+        }
+        short version = buffer.getShort();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported version of the season format: " + version);
+        }
+        buffer.getShort();
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (length < 0 || length != buffer.remaining()) {
+            throw new IOException("The stored season is " + buffer.remaining() + " bytes instead of " + length + ".");
+        }
+        ByteBuffer content = buffer.slice();
+        CRC32 crc32 = new CRC32();
+        crc32.update(content.duplicate());
+        if ((int) crc32.getValue() != checksum) {
+            throw new IOException("The checksum of the stored season doesn't match its content.");
+        }
+
+        try {
+            String name = readString(content);
+            String country = readString(content);
+            Instant lastUpdated = readInstant(content);
+            Team[] teams = new Team[content.getInt()];
+            for (int i = 0; i < teams.length; i++) {
+                teams[i] = Team.of(readString(content), readString(content));
+            }
+            int roundCount = content.getInt();
+            List<Round> rounds = new ArrayList<>(roundCount);
+            for (int i = 0; i < roundCount; i++) {
+                int round = content.getInt();
+                Instant scheduledStartTime = readInstant(content);
+                Instant scheduledEndTime = readInstant(content);
+                int matchCount = content.getInt();
+                List<Match> matches = new ArrayList<>(matchCount);
+                for (int j = 0; j < matchCount; j++) {
+                    Team home = teams[content.getInt()];
+                    Team away = teams[content.getInt()];
+                    matches.add(Match.of(home, away, readInstant(content)));
+                }
+                rounds.add(Round.of(round, scheduledStartTime, scheduledEndTime, matches));
+            }
+            return Season.of(name, country, lastUpdated, rounds);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("The stored season is incomplete.", e);
+        }
+    }
+
+    // Strings are written as the length of their UTF-8 bytes followed by those bytes, null as a length of -1.
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (Objects.isNull(value)) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant instant) throws IOException {
+        out.writeLong(instant.getEpochSecond());
+        out.writeInt(instant.getNano());
+    }
+
+    private static Instant readInstant(ByteBuffer buffer) {
+        long epochSecond = buffer.getLong();
+        return Instant.ofEpochSecond(epochSecond, buffer.getInt());
+    }
+}
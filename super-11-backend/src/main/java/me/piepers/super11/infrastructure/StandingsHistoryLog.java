@@ -0,0 +1,710 @@
+package me.piepers.super11.infrastructure;
+
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import me.piepers.super11.domain.Competition;
+import me.piepers.super11.domain.Draft;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps the history of the standings in an append-only log, so that the rank and points of a draft can be followed
+ * over time and the standings can be shown as they were at any moment (like the end of a round).
+ * <p>
+ * A record is appended whenever the standings change. Most records are deltas: they only have the drafts of which the
+ * rank, points or total points changed (as the difference with the previous values, in variable length integers) and
+ * the drafts that are gone. Every {@value #KEYFRAME_INTERVAL} records (or when most drafts changed) a keyframe with all
+ * drafts is written instead, so that a query only has to replay the records from the keyframe before the moment it is
+ * about, never the whole log. The ids and names of the drafts are written once (or again when the name changes) and
+ * are referred to by their position after that.
+ * <p>
+ * The file starts with a magic number and the version of the format. Every record has its length and a CRC32 checksum
+ * of its content, so a record that was only partly written (because of a crash) is detected when the log is opened and
+ * overwritten by the next record. The file is memory mapped and grows by doubling the mapping. The time and position
+ * of every record are kept in memory, to find the records of a moment with a binary search.
+ * <p>
+ * The log is opened with the first operation. The operations are done on a worker thread, in the order in which they
+ * are called.
+ *
+ * @author Bas Piepers
+ */
+public class StandingsHistoryLog {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StandingsHistoryLog.class);
+    // "S11H"
+    static final int MAGIC = 0x53313148;
+    static final short FORMAT_VERSION = 1;
+    static final int HEADER_LENGTH = 4 + 2 + 2;
+    // The length and the checksum of the content of a record.
+    static final int RECORD_HEADER_LENGTH = 4 + 4;
+    static final int KEYFRAME_INTERVAL = 32;
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+    private static final byte KEYFRAME = 1;
+    private static final byte DELTA = 2;
+
+    private final Vertx rxVertx;
+    private final Path file;
+
+    private FileChannel channel;
+    private MappedByteBuffer map;
+    // The position after the last record.
+    private int end;
+
+    // The time (epoch millis) and position of every record, in the order of the log.
+    private long[] times = new long[256];
+    private int[] positions = new int[256];
+    private int records = 0;
+    // The records that are keyframes, in the order of the log.
+    private int[] keyframes = new int[16];
+    private int keyframeCount = 0;
+
+    // The drafts by their position in the log.
+    private final List<String> ids = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> positionsOfIds = new HashMap<>();
+    // The standings after the last record.
+    private final State current = new State();
+
+    /**
+     * @param rxVertx, the Vert.x instance of which the worker threads are used to read and write.
+     * @param file,    the file of the log.
+     */
+    public StandingsHistoryLog(Vertx rxVertx, Path file) {
+        this.rxVertx = rxVertx;
+        this.file = file;
+    }
+
+    /**
+     * Appends the standings of the given competition if they differ from the last standings in the log.
+     *
+     * @param at,          the moment of the standings.
+     * @param competition, the competition with the standings.
+     * @return completes when the standings are appended (or weren't because they didn't change).
+     */
+    public Completable record(Instant at, Competition competition) {
+        return this.rxVertx
+                .<Boolean>rxExecuteBlocking(future -> {
+                    try {
+                        future.complete(this.append(at, competition.getData().getDrafts()));
+                    } catch (IOException | RuntimeException e) {
+                        future.fail(e);
+                    }
+                }, true)
+                .doOnSuccess(appended -> LOGGER.debug(appended ? "Standings of {} were appended to the history." : "Standings of {} didn't change, not appended to the history.", at))
+                .ignoreElement();
+    }
+
+    /**
+     * @param draftId, the id of the draft.
+     * @param from,    the start of the period.
+     * @param to,      the end of the period.
+     * @return the standing the draft had at the start of the period (with the moment it was recorded) followed by every
+     * change of it during the period, ordered. Empty if the draft doesn't have standings in the period.
+     */
+    public Single<List<DraftStanding>> rxHistoryOf(String draftId, Instant from, Instant to) {
+        return this.rxVertx
+                .<List<DraftStanding>>rxExecuteBlocking(future -> {
+                    try {
+                        future.complete(this.historyOf(draftId, from, to));
+                    } catch (IOException | RuntimeException e) {
+                        future.fail(e);
+                    }
+                }, true)
+                .toSingle(Collections.emptyList());
+    }
+
+    /**
+     * @param at, the moment.
+     * @return the standings as they were at the given moment, ordered by rank, or nothing if there were none yet.
+     */
+    public Maybe<StandingsAt> rxStandingsAt(Instant at) {
+        return this.rxVertx
+                .rxExecuteBlocking(future -> {
+                    try {
+                        future.complete(this.standingsAt(at));
+                    } catch (IOException | RuntimeException e) {
+                        future.fail(e);
+                    }
+                }, true);
+    }
+
+    /**
+     * @return completes when the log is closed. It is opened again by the next operation.
+     */
+    public Completable rxClose() {
+        return this.rxVertx
+                .<Void>rxExecuteBlocking(future -> {
+                    try {
+                        this.close();
+                        future.complete();
+                    } catch (IOException e) {
+                        future.fail(e);
+                    }
+                }, true)
+                .ignoreElement();
+    }
+
+    synchronized boolean append(Instant at, List<Draft> drafts) throws IOException {
+        this.open();
+        long millis = Math.max(at.toEpochMilli(), this.records > 0 ? this.times[this.records - 1] : Long.MIN_VALUE);
+        Output names = new Output();
+        int nameCount = 0;
+        int[] draftPositions = new int[drafts.size()];
+        for (int i = 0; i < drafts.size(); i++) {
+            Draft draft = drafts.get(i);
+            Integer position = this.positionsOfIds.get(draft.getId());
+            if (Objects.isNull(position) || !Objects.equals(this.names.get(position), draft.getDraftName())) {
+                int namePosition = Objects.isNull(position) ? this.ids.size() + countNew(drafts, draftPositions, i) : position;
+                names.writeVarint(namePosition).writeString(draft.getId()).writeString(draft.getDraftName());
+                nameCount++;
+                draftPositions[i] = namePosition;
+            } else {
+                draftPositions[i] = position;
+            }
+        }
+
+        Output entries = new Output();
+        int changed = 0;
+        boolean[] stillThere = new boolean[this.ids.size() + drafts.size()];
+        for (int i = 0; i < drafts.size(); i++) {
+            Draft draft = drafts.get(i);
+            int position = draftPositions[i];
+            stillThere[position] = true;
+            int rank = valueOf(draft.getRank());
+            int points = valueOf(draft.getPoints());
+            long totalPoints = Objects.isNull(draft.getTotalPoints()) ? 0L : draft.getTotalPoints();
+            if (!this.current.isPresent(position) || this.current.rank(position) != rank || this.current.points(position) != points || this.current.totalPoints(position) != totalPoints) {
+                entries.writeVarint(position)
+                        .writeZigzag(rank - (this.current.isPresent(position) ? this.current.rank(position) : 0))
+                        .writeZigzag(points - (this.current.isPresent(position) ? this.current.points(position) : 0))
+                        .writeZigzag(totalPoints - (this.current.isPresent(position) ? this.current.totalPoints(position) : 0L));
+                changed++;
+            }
+        }
+        Output removed = new Output();
+        int removedCount = 0;
+        for (int position = 0; position < this.ids.size(); position++) {
+            if (this.current.isPresent(position) && !stillThere[position]) {
+                removed.writeVarint(position);
+                removedCount++;
+            }
+        }
+        if (changed == 0 && removedCount == 0 && nameCount == 0 && this.records > 0) {
+            return false;
+        }
+
+        boolean keyframe = this.records == 0 || this.records - this.keyframes[this.keyframeCount - 1] >= KEYFRAME_INTERVAL || changed > drafts.size() / 2;
+        Output body = new Output()
+                .writeByte(keyframe ? KEYFRAME : DELTA)
+                .writeLong(millis)
+                .writeVarint(nameCount)
+                .write(names);
+        if (keyframe) {
+            body.writeVarint(drafts.size());
+            for (int i = 0; i < drafts.size(); i++) {
+                Draft draft = drafts.get(i);
+                body.writeVarint(draftPositions[i])
+                        .writeZigzag(valueOf(draft.getRank()))
+                        .writeZigzag(valueOf(draft.getPoints()))
+                        .writeZigzag(Objects.isNull(draft.getTotalPoints()) ? 0L : draft.getTotalPoints());
+            }
+        } else {
+            body.writeVarint(changed).write(entries).writeVarint(removedCount).write(removed);
+        }
+        this.write(millis, body, keyframe);
+        return true;
+    }
+
+    // The position a new draft gets: the amount of new drafts before it in the standings.
+    private int countNew(List<Draft> drafts, int[] draftPositions, int upTo) {
+        int count = 0;
+        for (int i = 0; i < upTo; i++) {
+            if (draftPositions[i] >= this.ids.size()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    synchronized List<DraftStanding> historyOf(String draftId, Instant from, Instant to) throws IOException {
+        this.open();
+        Integer position = this.positionsOfIds.get(draftId);
+        if (Objects.isNull(position) || this.records == 0) {
+            return Collections.emptyList();
+        }
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        // The record with the standings at the start of the period, or the first one if there were none yet.
+        int first = Math.max(0, this.lastRecordAtOrBefore(fromMillis));
+        State state = new State();
+        List<DraftStanding> history = new ArrayList<>();
+        DraftStanding last = null;
+        for (int record = this.keyframeAtOrBefore(first); record < this.records && this.times[record] <= toMillis; record++) {
+            this.replay(record, state, false);
+            if (record < first || !state.isPresent(position)) {
+                continue;
+            }
+            DraftStanding standing = new DraftStanding(Instant.ofEpochMilli(this.times[record]), draftId, this.names.get(position), state.rank(position), state.points(position), state.totalPoints(position));
+            if (Objects.isNull(last) || !last.sameAs(standing)) {
+                history.add(standing);
+                last = standing;
+            }
+        }
+        return history;
+    }
+
+    synchronized StandingsAt standingsAt(Instant at) throws IOException {
+        this.open();
+        int record = this.lastRecordAtOrBefore(at.toEpochMilli());
+        if (record < 0) {
+            return null;
+        }
+        State state = new State();
+        for (int replayed = this.keyframeAtOrBefore(record); replayed <= record; replayed++) {
+            this.replay(replayed, state, false);
+        }
+        Instant recordedAt = Instant.ofEpochMilli(this.times[record]);
+        List<DraftStanding> standings = new ArrayList<>();
+        for (int position = 0; position < this.ids.size(); position++) {
+            if (state.isPresent(position)) {
+                standings.add(new DraftStanding(recordedAt, this.ids.get(position), this.names.get(position), state.rank(position), state.points(position), state.totalPoints(position)));
+            }
+        }
+        standings.sort(Comparator.comparingInt(DraftStanding::getRank));
+        return new StandingsAt(recordedAt, standings);
+    }
+
+    synchronized int records() throws IOException {
+        this.open();
+        return this.records;
+    }
+
+    synchronized int keyframes() throws IOException {
+        this.open();
+        return this.keyframeCount;
+    }
+
+    synchronized void close() throws IOException {
+        if (Objects.nonNull(this.channel)) {
+            this.map.force();
+            this.channel.close();
+            this.channel = null;
+            this.map = null;
+            this.records = 0;
+            this.keyframeCount = 0;
+            this.ids.clear();
+            this.names.clear();
+            this.positionsOfIds.clear();
+            this.current.clear();
+        }
+    }
+
+    // Maps the file and reads the records that are in it, up to the first one that is incomplete or corrupt.
+    private void open() throws IOException {
+        if (Objects.nonNull(this.channel)) {
+            return;
+        }
+        if (Objects.nonNull(this.file.getParent())) {
+            Files.createDirectories(this.file.getParent());
+        }
+        this.channel = FileChannel.open(this.file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = this.channel.size();
+        this.map = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, INITIAL_CAPACITY));
+        if (size < HEADER_LENGTH || this.map.getInt(0) != MAGIC) {
+            if (size > 0) {
+                LOGGER.warn("{} is not a standings history log, starting a new one.", this.file);
+            }
+            this.map.putInt(0, MAGIC).putShort(4, FORMAT_VERSION).putShort(6, (short) 0);
+            this.end = HEADER_LENGTH;
+            return;
+        }
+        if (this.map.getShort(4) != FORMAT_VERSION) {
+            this.channel.close();
+            this.channel = null;
+            throw new IOException("Unsupported version " + this.map.getShort(4) + " of the standings history log " + this.file);
+        }
+        int position = HEADER_LENGTH;
+        CRC32 crc = new CRC32();
+        while (position + RECORD_HEADER_LENGTH <= this.map.capacity()) {
+            int length = this.map.getInt(position);
+            if (length <= 0 || position + RECORD_HEADER_LENGTH + length > this.map.capacity()) {
+                break;
+            }
+            ByteBuffer body = this.map.duplicate();
+            body.position(position + RECORD_HEADER_LENGTH).limit(position + RECORD_HEADER_LENGTH + length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != this.map.getInt(position + 4)) {
+                LOGGER.warn("The standings history log {} has an incomplete record at {}, it will be overwritten.", this.file, position);
+                break;
+            }
+            this.index(position, body.get(body.position()) == KEYFRAME, body.getLong(body.position() + 1));
+            this.replay(this.records - 1, this.current, true);
+            position += RECORD_HEADER_LENGTH + length;
+        }
+        this.end = position;
+        LOGGER.debug("Opened the standings history log {} with {} records.", this.file, this.records);
+    }
+
+    private void write(long millis, Output body, boolean keyframe) throws IOException {
+        int length = RECORD_HEADER_LENGTH + body.length();
+        if (this.end + length > this.map.capacity()) {
+            int capacity = this.map.capacity();
+            while (this.end + length > capacity) {
+                capacity *= 2;
+            }
+            this.map.force();
+            this.map = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(body.bytes, 0, body.length());
+        ByteBuffer record = this.map.duplicate();
+        record.position(this.end);
+        record.putInt(body.length()).putInt((int) crc.getValue()).put(body.bytes, 0, body.length());
+        this.map.force();
+        this.index(this.end, keyframe, millis);
+        this.replay(this.records - 1, this.current, true);
+        this.end += length;
+    }
+
+    private void index(int position, boolean keyframe, long millis) {
+        if (this.records == this.times.length) {
+            this.times = Arrays.copyOf(this.times, this.records * 2);
+            this.positions = Arrays.copyOf(this.positions, this.records * 2);
+        }
+        this.times[this.records] = millis;
+        this.positions[this.records] = position;
+        if (keyframe) {
+            if (this.keyframeCount == this.keyframes.length) {
+                this.keyframes = Arrays.copyOf(this.keyframes, this.keyframeCount * 2);
+            }
+            this.keyframes[this.keyframeCount++] = this.records;
+        }
+        this.records++;
+    }
+
+    // Applies the given record to the given state. The names of the drafts are only applied to the log itself when
+    // the record is new to it, a query replays older records and would bring back names that have changed since.
+    private void replay(int record, State state, boolean dictionary) {
+        ByteBuffer body = this.map.duplicate();
+        body.position(this.positions[record] + RECORD_HEADER_LENGTH);
+        boolean keyframe = body.get() == KEYFRAME;
+        // The time is in the index.
+        body.getLong();
+        int nameCount = (int) readVarint(body);
+        for (int i = 0; i < nameCount; i++) {
+            int position = (int) readVarint(body);
+            String id = readString(body);
+            String name = readString(body);
+            if (!dictionary) {
+                continue;
+            }
+            if (position == this.ids.size()) {
+                this.ids.add(id);
+                this.names.add(name);
+                this.positionsOfIds.put(id, position);
+            } else {
+                this.names.set(position, name);
+            }
+        }
+        if (keyframe) {
+            state.clear();
+            int count = (int) readVarint(body);
+            for (int i = 0; i < count; i++) {
+                state.set((int) readVarint(body), (int) readZigzag(body), (int) readZigzag(body), readZigzag(body));
+            }
+        } else {
+            int count = (int) readVarint(body);
+            for (int i = 0; i < count; i++) {
+                int position = (int) readVarint(body);
+                boolean present = state.isPresent(position);
+                state.set(position,
+                        (present ? state.rank(position) : 0) + (int) readZigzag(body),
+                        (present ? state.points(position) : 0) + (int) readZigzag(body),
+                        (present ? state.totalPoints(position) : 0L) + readZigzag(body));
+            }
+            int removed = (int) readVarint(body);
+            for (int i = 0; i < removed; i++) {
+                state.remove((int) readVarint(body));
+            }
+        }
+    }
+
+    // The last record at or before the given moment, or -1 if there is none.
+    private int lastRecordAtOrBefore(long millis) {
+        int low = 0;
+        int high = this.records;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.times[middle] > millis) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low - 1;
+    }
+
+    private int keyframeAtOrBefore(int record) {
+        int low = 0;
+        int high = this.keyframeCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.keyframes[middle] > record) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        // The first record is always a keyframe.
+        return this.keyframes[Math.max(0, low - 1)];
+    }
+
+    private static int valueOf(Integer value) {
+        return Objects.isNull(value) ? 0 : value;
+    }
+
+    private static long readVarint(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static long readZigzag(ByteBuffer buffer) {
+        long value = readVarint(buffer);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = (int) readVarint(buffer);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // The content of a record while it is written.
+    private static class Output {
+        private byte[] bytes = new byte[256];
+        private int length = 0;
+
+        private Output writeByte(int b) {
+            if (this.length == this.bytes.length) {
+                this.bytes = Arrays.copyOf(this.bytes, this.length * 2);
+            }
+            this.bytes[this.length++] = (byte) b;
+            return this;
+        }
+
+        private Output writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                this.writeByte((int) (value >>> shift));
+            }
+            return this;
+        }
+
+        private Output writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                this.writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            return this.writeByte((int) value);
+        }
+
+        private Output writeZigzag(long value) {
+            return this.writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        // The length is one more than the amount of bytes, so that zero means null.
+        private Output writeString(String value) {
+            if (Objects.isNull(value)) {
+                return this.writeVarint(0);
+            }
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            this.writeVarint(encoded.length + 1L);
+            for (byte b : encoded) {
+                this.writeByte(b);
+            }
+            return this;
+        }
+
+        private Output write(Output other) {
+            for (int i = 0; i < other.length; i++) {
+                this.writeByte(other.bytes[i]);
+            }
+            return this;
+        }
+
+        private int length() {
+            return this.length;
+        }
+    }
+
+    // The standings of the drafts by their position in the log.
+    private static class State {
+        private boolean[] present = new boolean[64];
+        private int[] ranks = new int[64];
+        private int[] points = new int[64];
+        private long[] totalPoints = new long[64];
+
+        private boolean isPresent(int position) {
+            return position < this.present.length && this.present[position];
+        }
+
+        private int rank(int position) {
+            return this.ranks[position];
+        }
+
+        private int points(int position) {
+            return this.points[position];
+        }
+
+        private long totalPoints(int position) {
+            return this.totalPoints[position];
+        }
+
+        private void set(int position, int rank, int points, long totalPoints) {
+            if (position >= this.present.length) {
+                int length = Math.max(position + 1, this.present.length * 2);
+                this.present = Arrays.copyOf(this.present, length);
+                this.ranks = Arrays.copyOf(this.ranks, length);
+                this.points = Arrays.copyOf(this.points, length);
+                this.totalPoints = Arrays.copyOf(this.totalPoints, length);
+            }
+            this.present[position] = true;
+            this.ranks[position] = rank;
+            this.points[position] = points;
+            this.totalPoints[position] = totalPoints;
+        }
+
+        private void remove(int position) {
+            if (position < this.present.length) {
+                this.present[position] = false;
+            }
+        }
+
+        private void clear() {
+            Arrays.fill(this.present, false);
+        }
+    }
+
+    /**
+     * The rank and points of a draft at a moment.
+     */
+    public static class DraftStanding {
+        private final Instant at;
+        private final String id;
+        private final String draftName;
+        private final int rank;
+        private final int points;
+        private final long totalPoints;
+
+        DraftStanding(Instant at, String id, String draftName, int rank, int points, long totalPoints) {
+            this.at = at;
+            this.id = id;
+            this.draftName = draftName;
+            this.rank = rank;
+            this.points = points;
+            this.totalPoints = totalPoints;
+        }
+
+        public Instant getAt() {
+            return at;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getDraftName() {
+            return draftName;
+        }
+
+        public int getRank() {
+            return rank;
+        }
+
+        public int getPoints() {
+            return points;
+        }
+
+        public long getTotalPoints() {
+            return totalPoints;
+        }
+
+        private boolean sameAs(DraftStanding other) {
+            return rank == other.rank && points == other.points && totalPoints == other.totalPoints;
+        }
+
+        public JsonObject toJson() {
+            return new JsonObject()
+                    .put("at", at)
+                    .put("id", id)
+                    .put("draftName", draftName)
+                    .put("rank", rank)
+                    .put("points", points)
+                    .put("totalPoints", totalPoints);
+        }
+
+        @Override
+        public String toString() {
+            return "DraftStanding{" +
+                    "at=" + at +
+                    ", id='" + id + '\'' +
+                    ", rank=" + rank +
+                    ", points=" + points +
+                    ", totalPoints=" + totalPoints +
+                    '}';
+        }
+    }
+
+    /**
+     * The standings as they were recorded at a moment.
+     */
+    public static class StandingsAt {
+        private final Instant recordedAt;
+        private final List<DraftStanding> standings;
+
+        StandingsAt(Instant recordedAt, List<DraftStanding> standings) {
+            this.recordedAt = recordedAt;
+            this.standings = Collections.unmodifiableList(standings);
+        }
+
+        public Instant getRecordedAt() {
+            return recordedAt;
+        }
+
+        public List<DraftStanding> getStandings() {
+            return standings;
+        }
+    }
+}
@@ -11,7 +11,7 @@ import java.util.Objects;
  *
  * @author Bas Piepers
  */
-@DataObject
+@DataObject(generateConverter = true)
 public class EredivisieMatch {
     private final String gameId;
     private String venue;
@@ -208,6 +208,8 @@ public class EredivisieMatch {
     }
 
     public JsonObject toJson() {
-        return JsonObject.mapFrom(this);
+        JsonObject json = new JsonObject();
+        EredivisieMatchConverter.toJson(this, json);
+        return json;
     }
 }
@@ -14,7 +14,7 @@ import java.util.stream.Collectors;
  *
  * @author Bas Piepers
  */
-@DataObject
+@DataObject(generateConverter = true)
 public class EredivisieRound {
     private final String round;
     private final String title;
@@ -88,6 +88,8 @@ public class EredivisieRound {
     }
 
     public JsonObject toJson() {
-        return JsonObject.mapFrom(this);
+        JsonObject json = new JsonObject();
+        EredivisieRoundConverter.toJson(this, json);
+        return json;
     }
 }
@@ -17,7 +17,7 @@ import java.util.stream.Collectors;
  *
  * @author Bas Piepers
  */
-@DataObject
+@DataObject(generateConverter = true)
 public class EredivisieSeason {
     private final List<EredivisieRound> rounds;
 
@@ -31,7 +31,9 @@ public class EredivisieSeason {
     }
 
     public JsonObject toJson() {
-        return JsonObject.mapFrom(this);
+        JsonObject json = new JsonObject();
+        EredivisieSeasonConverter.toJson(this, json);
+        return json;
     }
 
 }
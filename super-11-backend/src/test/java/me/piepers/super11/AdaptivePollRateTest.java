@@ -0,0 +1,58 @@
+package me.piepers.super11;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AdaptivePollRateTest {
+
+    @Test
+    public void test_that_the_interval_is_halved_on_changes_but_never_gets_below_the_floor() {
+        // Given
+        AdaptivePollRate adaptivePollRate = new AdaptivePollRate(60000L, 600000L, 180000L);
+
+        // When/Then
+        assertThat(adaptivePollRate.next(true)).isEqualTo(90000L);
+        assertThat(adaptivePollRate.next(true)).isEqualTo(60000L);
+        assertThat(adaptivePollRate.next(true)).isEqualTo(60000L);
+        assertThat(adaptivePollRate.current()).isEqualTo(60000L);
+    }
+
+    @Test
+    public void test_that_the_interval_is_doubled_without_changes_but_never_gets_above_the_ceiling() {
+        // Given
+        AdaptivePollRate adaptivePollRate = new AdaptivePollRate(60000L, 600000L, 180000L);
+
+        // When/Then
+        assertThat(adaptivePollRate.next(false)).isEqualTo(360000L);
+        assertThat(adaptivePollRate.next(false)).isEqualTo(600000L);
+        assertThat(adaptivePollRate.next(false)).isEqualTo(600000L);
+        assertThat(adaptivePollRate.current()).isEqualTo(600000L);
+    }
+
+    @Test
+    public void test_that_a_reset_starts_over_with_the_initial_interval_from_the_floor_and_the_ceiling() {
+        // Given
+        AdaptivePollRate adaptivePollRate = new AdaptivePollRate(60000L, 600000L, 180000L);
+        adaptivePollRate.next(true);
+        adaptivePollRate.next(true);
+
+        // When/Then
+        assertThat(adaptivePollRate.reset()).isEqualTo(180000L);
+        adaptivePollRate.next(false);
+        adaptivePollRate.next(false);
+        assertThat(adaptivePollRate.reset()).isEqualTo(180000L);
+        assertThat(adaptivePollRate.current()).isEqualTo(180000L);
+    }
+
+    @Test
+    public void test_that_the_initial_interval_is_kept_between_the_floor_and_the_ceiling() {
+        // When/Then
+        assertThat(new AdaptivePollRate(60000L, 600000L, 1000L).reset()).isEqualTo(60000L);
+        assertThat(new AdaptivePollRate(60000L, 600000L, 3600000L).reset()).isEqualTo(600000L);
+        assertThat(new AdaptivePollRate(60000L, 60000L, 180000L).next(false)).isEqualTo(60000L);
+        assertThatThrownBy(() -> new AdaptivePollRate(0L, 600000L, 180000L)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptivePollRate(60000L, 1000L, 180000L)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
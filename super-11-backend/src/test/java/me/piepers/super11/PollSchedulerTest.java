@@ -0,0 +1,158 @@
+package me.piepers.super11;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import me.piepers.super11.domain.Match;
+import me.piepers.super11.domain.MatchWindow;
+import me.piepers.super11.domain.Round;
+import me.piepers.super11.domain.Season;
+import me.piepers.super11.domain.Team;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(VertxExtension.class)
+public class PollSchedulerTest {
+    private static final Instant FIRST_KICKOFF = Instant.parse("2019-04-14T12:30:00Z");
+    private static final Instant SECOND_KICKOFF = FIRST_KICKOFF.plus(Duration.ofDays(7));
+    private static final Duration MATCH_DURATION = Duration.ofMinutes(110);
+    private static final MatchWindow FIRST_WINDOW = MatchWindow.of(FIRST_KICKOFF, FIRST_KICKOFF.plus(MATCH_DURATION));
+    private static final MatchWindow SECOND_WINDOW = MatchWindow.of(SECOND_KICKOFF, SECOND_KICKOFF.plus(MATCH_DURATION));
+
+    private final List<MatchWindow> approached = new ArrayList<>();
+    private final List<MatchWindow> opened = new ArrayList<>();
+    private final List<MatchWindow> closed = new ArrayList<>();
+
+    @Test
+    public void test_that_a_window_that_is_open_when_planning_is_opened_right_away(Vertx vertx, VertxTestContext testContext) {
+        // Given
+        PollScheduler pollScheduler = this.pollScheduler(vertx, FIRST_KICKOFF.plus(Duration.ofMinutes(10)), Duration.ofMinutes(30));
+
+        // When
+        pollScheduler.plan(season(FIRST_KICKOFF, SECOND_KICKOFF));
+
+        // Then it is closed at its end.
+        testContext.verify(() -> {
+            assertThat(pollScheduler.isWindowOpen()).isTrue();
+            assertThat(this.opened).containsExactly(FIRST_WINDOW);
+            assertThat(this.approached).isEmpty();
+            assertThat(this.closed).isEmpty();
+            JsonObject nextTransition = pollScheduler.timeline().getJsonObject("nextTransition");
+            assertThat(nextTransition.getInstant("at")).isEqualTo(FIRST_WINDOW.getEnd());
+            assertThat(nextTransition.getBoolean("opensWindow")).isFalse();
+            pollScheduler.cancel();
+            testContext.completeNow();
+        });
+    }
+
+    @Test
+    public void test_that_a_window_that_opens_later_is_planned_to_open_at_its_start(Vertx vertx, VertxTestContext testContext) {
+        // Given
+        PollScheduler pollScheduler = this.pollScheduler(vertx, FIRST_KICKOFF.minus(Duration.ofHours(2)), Duration.ofMinutes(30));
+
+        // When
+        pollScheduler.plan(season(FIRST_KICKOFF, SECOND_KICKOFF));
+
+        // Then
+        testContext.verify(() -> {
+            assertThat(pollScheduler.isWindowOpen()).isFalse();
+            assertThat(this.opened).isEmpty();
+            assertThat(this.approached).isEmpty();
+            JsonObject timeline = pollScheduler.timeline();
+            assertThat(timeline.getJsonObject("nextTransition").getInstant("at")).isEqualTo(FIRST_WINDOW.getStart());
+            assertThat(timeline.getJsonObject("nextTransition").getBoolean("opensWindow")).isTrue();
+            pollScheduler.cancel();
+            testContext.completeNow();
+        });
+    }
+
+    @Test
+    public void test_that_a_window_within_the_approach_lead_is_announced_once(Vertx vertx, VertxTestContext testContext) {
+        // Given
+        PollScheduler pollScheduler = this.pollScheduler(vertx, FIRST_KICKOFF.minus(Duration.ofMinutes(10)), Duration.ofMinutes(30));
+        Season season = season(FIRST_KICKOFF, SECOND_KICKOFF);
+
+        // When it is planned again, like when the season is refreshed.
+        pollScheduler.plan(season);
+        pollScheduler.plan(season);
+
+        // Then
+        testContext.verify(() -> {
+            assertThat(this.approached).containsExactly(FIRST_WINDOW);
+            assertThat(this.opened).isEmpty();
+            pollScheduler.cancel();
+            testContext.completeNow();
+        });
+    }
+
+    @Test
+    public void test_that_a_window_is_announced_the_approach_lead_before_it_opens(Vertx vertx, VertxTestContext testContext) {
+        // Given a second before the approach lead.
+        Duration approachLead = Duration.ofMinutes(30);
+        PollScheduler pollScheduler = this.pollScheduler(vertx, FIRST_KICKOFF.minus(approachLead).minusSeconds(1), approachLead, window -> testContext.verify(() -> {
+            // Then
+            assertThat(window).isEqualTo(FIRST_WINDOW);
+            assertThat(this.opened).isEmpty();
+            testContext.completeNow();
+        }));
+
+        // When
+        pollScheduler.plan(season(FIRST_KICKOFF, SECOND_KICKOFF));
+        testContext.verify(() -> assertThat(this.approached).isEmpty());
+    }
+
+    @Test
+    public void test_that_planning_again_cancels_the_timers_of_the_window_that_was_planned(Vertx vertx, VertxTestContext testContext) {
+        // Given the approach and the opening of the first window a second from now.
+        PollScheduler pollScheduler = this.pollScheduler(vertx, FIRST_KICKOFF.minusSeconds(1), Duration.ZERO);
+        pollScheduler.plan(season(FIRST_KICKOFF, SECOND_KICKOFF));
+
+        // When the first match is moved.
+        pollScheduler.plan(season(SECOND_KICKOFF));
+
+        // Then
+        vertx.setTimer(1500L, timerId -> testContext.verify(() -> {
+            assertThat(this.approached).isEmpty();
+            assertThat(this.opened).isEmpty();
+            assertThat(pollScheduler.isWindowOpen()).isFalse();
+            assertThat(pollScheduler.timeline().getJsonObject("nextTransition").getInstant("at")).isEqualTo(SECOND_WINDOW.getStart());
+            pollScheduler.cancel();
+            testContext.completeNow();
+        }));
+    }
+
+    private PollScheduler pollScheduler(Vertx vertx, Instant now, Duration approachLead) {
+        return this.pollScheduler(vertx, now, approachLead, window -> {
+        });
+    }
+
+    // A scheduler of which it is always the given time when it plans, which records the windows it handles.
+    private PollScheduler pollScheduler(Vertx vertx, Instant now, Duration approachLead, Handler<MatchWindow> approaching) {
+        return new PollScheduler(vertx, Clock.fixed(now, ZoneOffset.UTC), approachLead, window -> {
+            this.approached.add(window);
+            approaching.handle(window);
+        }, this.opened::add, this.closed::add);
+    }
+
+    // A season with a round of a day for every given kickoff, of one match.
+    private static Season season(Instant... kickoffs) {
+        Team home = Team.of("t1", "Ajax");
+        Team away = Team.of("t2", "PSV");
+        List<Round> rounds = new ArrayList<>();
+        for (Instant kickoff : kickoffs) {
+            rounds.add(Round.of(rounds.size() + 1, kickoff, kickoff.plus(Duration.ofDays(1)), List.of(Match.of(home, away, kickoff))));
+        }
+        return Season.of("Eredivisie", "NL", kickoffs[0], rounds);
+    }
+}
@@ -1,12 +1,19 @@
 package me.piepers.super11;
 
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import me.piepers.super11.domain.Competition;
+
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.util.function.IntUnaryOperator;
 import java.util.stream.Collectors;
 
 public class TestHelper {
+    public static final String COMPETITION_RESPONSE = "competition-response.json";
 
     public static String convertJsonFileToString(String fileName) throws IOException {
         ClassLoader classLoader = TestHelper.class.getClassLoader();
@@ -15,4 +22,42 @@ public class TestHelper {
             return br.lines().collect(Collectors.joining(System.lineSeparator()));
         }
     }
+
+    /**
+     * @return a new copy of the competition as the Profcoach API returns it, with two drafts: Team A (rank 1, 120
+     * points in total, the draft of the user) and Team B (rank 2, 100 points in total).
+     */
+    public static JsonObject competitionJson() {
+        try {
+            return new JsonObject(convertJsonFileToString(COMPETITION_RESPONSE));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param draftCount, the number of drafts.
+     * @param points,     the points of the draft with the given rank.
+     * @return the competition with the drafts "Draft 1" to "Draft n", ranked in that order.
+     */
+    public static Competition competition(int draftCount, IntUnaryOperator points) {
+        JsonObject competitionJson = competitionJson();
+        JsonObject data = competitionJson.getJsonObject("data");
+        JsonObject template = data.getJsonArray("drafts").getJsonObject(1);
+        JsonArray drafts = new JsonArray();
+        for (int rank = 1; rank <= draftCount; rank++) {
+            drafts.add(template
+                    .copy()
+                    .put("id", "d" + rank)
+                    .put("draftName", "Draft " + rank)
+                    .put("isUser", false)
+                    .put("rank", rank)
+                    .put("previousRank", rank)
+                    .put("points", points.applyAsInt(rank))
+                    .put("totalPoints", 100L - rank));
+        }
+        data.put("drafts", drafts);
+        data.getJsonObject("draftsMetadata").put("totalCount", draftCount);
+        return new Competition(competitionJson);
+    }
 }
@@ -0,0 +1,154 @@
+package me.piepers.super11.application;
+
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.WebSocket;
+import io.vertx.core.http.WebsocketVersion;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import me.piepers.super11.TestHelper;
+import me.piepers.super11.application.model.StandingsSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(VertxExtension.class)
+public class HttpServerVerticleStompTest {
+    private int port;
+    private Metrics metrics;
+    private StandingsSnapshot first;
+    private HttpClient httpClient;
+
+    @BeforeEach
+    public void setUp(Vertx vertx, VertxTestContext testContext) throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            this.port = serverSocket.getLocalPort();
+        }
+        this.metrics = Metrics.create(vertx);
+        this.first = StandingsSnapshot.from(TestHelper.competition(10, rank -> rank == 1 ? 10 : 5), null);
+        StandingsSnapshotHolder.create(vertx).publish(this.first);
+        this.httpClient = vertx.createHttpClient(new HttpClientOptions().setMaxWebsocketFrameSize(16 * 1024 * 1024));
+        vertx.deployVerticle(new HttpServerVerticle(), new DeploymentOptions().setConfig(new JsonObject()
+                .put("http_server", new JsonObject()
+                        .put("port", this.port)
+                        .put("web_root", "/nonexistent"))), testContext.succeeding(id -> testContext.completeNow()));
+    }
+
+    @Test
+    public void test_that_a_subscriber_gets_the_full_standings_before_the_updates(Vertx vertx, VertxTestContext testContext) {
+        // Given
+        StandingsSnapshot second = StandingsSnapshot.from(TestHelper.competition(10, rank -> rank == 1 ? 12 : 5), this.first);
+        List<StompFrame> messages = new ArrayList<>();
+
+        // When
+        this.connect(testContext, "SUBSCRIBE\nid:sub-0\ndestination:" + HttpServerVerticle.UPDATE_STOMP_DESTINATION + "\nreceipt:subscribed\n\n", frame -> {
+            if ("RECEIPT".equals(frame.command)) {
+                // The subscription is made, the next update is bridged to it.
+                vertx.eventBus().publish(HttpServerVerticle.UPDATE_STOMP_DESTINATION, second.getUpdate());
+            } else if ("MESSAGE".equals(frame.command)) {
+                messages.add(frame);
+            }
+            if (messages.size() == 2) {
+                testContext.verify(() -> {
+                    // Then
+                    StompFrame snapshot = messages.get(0);
+                    assertThat(snapshot.headers).containsEntry("subscription", "sub-0");
+                    JsonObject standings = new JsonObject(snapshot.body);
+                    assertThat(standings.getLong("version")).isEqualTo(1L);
+                    assertThat(standings.getJsonArray("drafts")).hasSize(10);
+                    StompFrame update = messages.get(1);
+                    assertThat(update.headers).containsEntry("subscription", "sub-0");
+                    assertThat(new JsonObject(update.body).getLong("version")).isEqualTo(2L);
+                    assertThat(this.metrics.get("stomp.snapshots")).isEqualTo(1L);
+                    testContext.completeNow();
+                });
+            }
+        });
+    }
+
+    @Test
+    public void test_that_a_subscription_without_an_id_gets_no_standings(Vertx vertx, VertxTestContext testContext) {
+        // Given
+        vertx.exceptionHandler(testContext::failNow);
+
+        // When
+        this.connect(testContext, "SUBSCRIBE\ndestination:" + HttpServerVerticle.UPDATE_STOMP_DESTINATION + "\n\n", frame -> testContext.verify(() -> {
+            // Then it is refused, without the snapshot.
+            assertThat(frame.command).isEqualTo("ERROR");
+            assertThat(this.metrics.get("stomp.snapshots")).isZero();
+            testContext.completeNow();
+        }));
+    }
+
+    // Connects a stomp client over a web socket that sends the given frame once it is connected and hands every other
+    // frame it receives to the given handler.
+    private void connect(VertxTestContext testContext, String frame, Consumer<StompFrame> frameHandler) {
+        this.httpClient.websocket(this.port, "localhost", "/stomp", MultiMap.caseInsensitiveMultiMap(), WebsocketVersion.V13, "v12.stomp", socket -> {
+            StringBuilder received = new StringBuilder();
+            socket.handler(buffer -> {
+                received.append(buffer.toString());
+                int end;
+                while ((end = received.indexOf("\0")) >= 0) {
+                    StompFrame stompFrame = StompFrame.parse(received.substring(0, end));
+                    received.delete(0, end + 1);
+                    if (stompFrame == null) {
+                        continue;
+                    }
+                    if ("CONNECTED".equals(stompFrame.command)) {
+                        send(socket, frame);
+                    } else {
+                        frameHandler.accept(stompFrame);
+                    }
+                }
+            });
+            send(socket, "CONNECT\naccept-version:1.2\nhost:localhost\n\n");
+        }, testContext::failNow);
+    }
+
+    private static void send(WebSocket socket, String frame) {
+        socket.writeTextMessage(frame + "\0");
+    }
+
+    // A frame as it is received, parsed by hand (it has no content with a NULL in it).
+    private static class StompFrame {
+        private final String command;
+        private final Map<String, String> headers;
+        private final String body;
+
+        private StompFrame(String command, Map<String, String> headers, String body) {
+            this.command = command;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        // Null if there are only heart beats.
+        private static StompFrame parse(String text) {
+            String frame = text.replaceFirst("^[\r\n]+", "");
+            if (frame.isEmpty()) {
+                return null;
+            }
+            int headersEnd = frame.indexOf("\n\n");
+            String[] lines = frame.substring(0, headersEnd).split("\n");
+            Map<String, String> headers = new HashMap<>();
+            for (int i = 1; i < lines.length; i++) {
+                int colon = lines[i].indexOf(':');
+                headers.putIfAbsent(lines[i].substring(0, colon), lines[i].substring(colon + 1));
+            }
+            return new StompFrame(lines[0], headers, frame.substring(headersEnd + 2));
+        }
+    }
+}
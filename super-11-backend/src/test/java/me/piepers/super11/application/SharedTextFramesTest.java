@@ -0,0 +1,30 @@
+package me.piepers.super11.application;
+
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.reactivex.core.http.WebSocketFrame;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SharedTextFramesTest {
+    @Test
+    public void test_that_every_frame_is_a_final_text_frame_with_the_bytes_of_the_buffer() {
+        // Given
+        byte[] text = "{\"version\":1}".getBytes(StandardCharsets.UTF_8);
+        Buffer buffer = Buffer.buffer(Unpooled.directBuffer(text.length).writeBytes(text));
+
+        // When
+        WebSocketFrame first = SharedTextFrames.of(buffer);
+        WebSocketFrame second = SharedTextFrames.of(buffer);
+
+        // Then
+        assertThat(first.isText()).isTrue();
+        assertThat(first.isFinal()).isTrue();
+        assertThat(first.textData()).isEqualTo("{\"version\":1}");
+        assertThat(second.textData()).isEqualTo("{\"version\":1}");
+        assertThat(buffer.length()).isEqualTo(text.length);
+    }
+}
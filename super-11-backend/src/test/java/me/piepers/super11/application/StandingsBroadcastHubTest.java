@@ -0,0 +1,243 @@
+package me.piepers.super11.application;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.WebSocket;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.Checkpoint;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.reactivex.core.http.ServerWebSocket;
+import me.piepers.super11.TestHelper;
+import me.piepers.super11.application.model.StandingsSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(VertxExtension.class)
+public class StandingsBroadcastHubTest {
+    // How many versions are published at most to get a client that doesn't read behind.
+    private static final int MAX_VERSIONS = 200;
+    // How many versions are published while a client is behind.
+    private static final int CONFLATED_VERSIONS = 5;
+
+    private Context context;
+    // The clients have an event loop of their own.
+    private Context clientContext;
+    private Metrics metrics;
+    private StandingsBroadcastHub standingsBroadcastHub;
+    private HttpClient httpClient;
+    private int port;
+    // The snapshot that is current for the clients that connect.
+    private StandingsSnapshot current;
+    // Completed when the hub connected the client that connects now.
+    private Future<Void> hubConnected;
+
+    @BeforeEach
+    public void setUp(Vertx vertx, VertxTestContext testContext) {
+        this.context = vertx.getOrCreateContext();
+        this.clientContext = vertx.getOrCreateContext();
+        this.metrics = Metrics.create(vertx);
+        this.standingsBroadcastHub = new StandingsBroadcastHub(this.metrics, 16 * 1024, 0L);
+        this.httpClient = vertx.createHttpClient(new HttpClientOptions()
+                .setMaxWebsocketFrameSize(16 * 1024 * 1024)
+                .setMaxWebsocketMessageSize(16 * 1024 * 1024));
+        this.context.runOnContext(v -> vertx
+                .createHttpServer()
+                .websocketHandler(socket -> {
+                    this.standingsBroadcastHub.connect(ServerWebSocket.newInstance(socket), this.current);
+                    this.hubConnected.complete();
+                })
+                .listen(0, testContext.succeeding(server -> {
+                    this.port = server.actualPort();
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    public void test_that_every_client_gets_every_update_in_order(VertxTestContext testContext) {
+        // Given
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+        Checkpoint received = testContext.checkpoint(6);
+        Handler<String> verify = text -> testContext.verify(() -> {
+            if (first.size() == 3 && second.size() == 3) {
+                // Then
+                assertThat(first).isEqualTo(second);
+                assertThat(new JsonObject(first.get(0)).getLong("version")).isEqualTo(1L);
+                assertThat(new JsonObject(first.get(2)).getString("type")).isEqualTo("delta");
+                assertThat(new JsonObject(first.get(2)).getLong("version")).isEqualTo(3L);
+                assertThat(this.metrics.get("ws.connections")).isEqualTo(2L);
+            }
+            received.flag();
+        });
+
+        this.connect(first, verify, testContext, firstSocket -> this.connect(second, verify, testContext, secondSocket -> this.context.runOnContext(v -> {
+            // When
+            StandingsSnapshot previous = null;
+            for (int version = 1; version <= 3; version++) {
+                int points = version;
+                previous = StandingsSnapshot.from(TestHelper.competition(10, rank -> rank == 1 ? points : 5), previous);
+                this.standingsBroadcastHub.publish(previous);
+            }
+        })));
+    }
+
+    @Test
+    public void test_that_a_new_client_gets_the_full_standings_right_away(VertxTestContext testContext) {
+        // Given
+        StandingsSnapshot first = StandingsSnapshot.from(TestHelper.competition(10, rank -> rank == 1 ? 1 : 5), null);
+        this.current = StandingsSnapshot.from(TestHelper.competition(10, rank -> rank == 1 ? 2 : 5), first);
+        List<String> received = new ArrayList<>();
+
+        // When
+        this.connect(received, text -> testContext.verify(() -> {
+            // Then
+            JsonObject standings = new JsonObject(text);
+            assertThat(standings.getLong("version")).isEqualTo(2L);
+            assertThat(standings.getJsonArray("drafts")).hasSize(10);
+            testContext.completeNow();
+        }), testContext, socket -> {
+        });
+    }
+
+    @Test
+    public void test_that_a_client_that_does_not_read_gets_only_the_latest_standings_when_it_caught_up(VertxTestContext testContext) {
+        // Given a client that stops reading and one that keeps up.
+        List<String> slow = new ArrayList<>();
+        List<String> fast = new ArrayList<>();
+        AtomicReference<StandingsSnapshot> published = new AtomicReference<>();
+        // The version that was published when the slow client got behind and when it started to read again.
+        AtomicLong behindAt = new AtomicLong();
+        AtomicLong resumedAt = new AtomicLong();
+        this.connect(slow, text -> testContext.verify(() -> {
+            // Then
+            if (new JsonObject(text).getLong("version") == resumedAt.get()) {
+                assertThat(slow.size()).isLessThan(fast.size());
+                assertThat(this.metrics.get("ws.conflated")).isPositive();
+                this.context.runOnContext(v -> testContext.verify(() -> {
+                    assertThat(this.standingsBroadcastHub.behind()).isZero();
+                    testContext.completeNow();
+                }));
+            }
+        }), testContext, slowSocket -> {
+            slowSocket.pause();
+            // When more is published than fits in the buffers of the slow client, the next version as soon as the fast
+            // client got the previous one, and a few more after that.
+            this.connect(fast, text -> {
+                int version = new JsonObject(text).getInteger("version");
+                this.context.runOnContext(v -> {
+                    if (this.standingsBroadcastHub.behind() == 1 && behindAt.get() == 0L) {
+                        behindAt.set(version);
+                    }
+                    if (behindAt.get() > 0L && version == behindAt.get() + CONFLATED_VERSIONS) {
+                        resumedAt.set(version);
+                        this.clientContext.runOnContext(resume -> slowSocket.resume());
+                    } else if (version == MAX_VERSIONS) {
+                        testContext.failNow(new AssertionError("The client that doesn't read never got behind."));
+                    } else {
+                        published.set(this.publish(version + 1, published.get()));
+                    }
+                });
+            }, testContext, fastSocket -> this.context.runOnContext(v -> published.set(this.publish(1, null))));
+        });
+    }
+
+    @Test
+    public void test_that_a_client_that_is_behind_for_too_long_is_closed(VertxTestContext testContext) {
+        // Given
+        this.connect(new ArrayList<>(), text -> {
+        }, testContext, slowSocket -> {
+            slowSocket.pause();
+            slowSocket.closeHandler(v -> this.context.runOnContext(closed -> testContext.verify(() -> {
+                // Then
+                assertThat(this.metrics.get("ws.closed_stalled")).isEqualTo(1L);
+                assertThat(this.metrics.get("ws.connections")).isZero();
+                assertThat(this.metrics.get("ws.behind")).isZero();
+                assertThat(this.standingsBroadcastHub.size()).isZero();
+                testContext.completeNow();
+            })));
+            // When it was behind for longer than it may be.
+            this.publishUntilBehind(1, null, testContext, () -> this.context.owner().setTimer(1L, timerId -> {
+                this.standingsBroadcastHub.closeStalledClients();
+                this.clientContext.runOnContext(v -> slowSocket.resume());
+            }));
+        });
+    }
+
+    @Test
+    public void test_that_a_stalled_client_that_drains_after_it_was_closed_is_left_alone(Vertx vertx, VertxTestContext testContext) {
+        // Given a client that is closed because it stalled, of which the buffers drain after it was closed.
+        vertx.exceptionHandler(testContext::failNow);
+        this.connect(new ArrayList<>(), text -> {
+        }, testContext, slowSocket -> {
+            slowSocket.pause();
+            slowSocket.closeHandler(v -> this.context.runOnContext(closed -> testContext.verify(() -> {
+                // Then the hub didn't touch the closed socket when it drained.
+                assertThat(this.metrics.get("ws.closed_stalled")).isEqualTo(1L);
+                assertThat(this.metrics.get("ws.behind")).isZero();
+                assertThat(this.standingsBroadcastHub.behind()).isZero();
+                testContext.completeNow();
+            })));
+            // When it was behind for longer than it may be.
+            this.publishUntilBehind(1, null, testContext, () -> this.context.owner().setTimer(1L, timerId -> {
+                this.standingsBroadcastHub.closeStalledClients();
+                this.clientContext.runOnContext(v -> slowSocket.resume());
+            }));
+        });
+    }
+
+    // Connects a client that adds what it receives to the given list, after which it is handed to the given handler on
+    // the context of the clients.
+    private void connect(List<String> received, Handler<String> receivedHandler, VertxTestContext testContext, Handler<WebSocket> connected) {
+        this.clientContext.runOnContext(v -> {
+            this.hubConnected = Future.future();
+            Future<WebSocket> clientConnected = Future.future();
+            this.httpClient.websocket(this.port, "localhost", "/api/standings/ws", socket -> {
+                socket.textMessageHandler(text -> {
+                    received.add(text);
+                    receivedHandler.handle(text);
+                });
+                clientConnected.complete(socket);
+            }, clientConnected::fail);
+            CompositeFuture.all(this.hubConnected, clientConnected).setHandler(testContext.succeeding(both ->
+                    this.clientContext.runOnContext(connectedBoth -> connected.handle(clientConnected.result()))));
+        });
+    }
+
+    // Publishes a version at a time, on the context of the hub, until the client that doesn't read is behind.
+    private void publishUntilBehind(int version, StandingsSnapshot previous, VertxTestContext testContext, Runnable behind) {
+        this.context.runOnContext(v -> {
+            StandingsSnapshot snapshot = this.publish(version, previous);
+            // The write queue of the client only fills up once the frames are flushed.
+            this.context.runOnContext(flushed -> {
+                if (this.standingsBroadcastHub.behind() == 1) {
+                    behind.run();
+                } else if (version == MAX_VERSIONS) {
+                    testContext.failNow(new AssertionError("The client that doesn't read never got behind."));
+                } else {
+                    this.publishUntilBehind(version + 1, snapshot, testContext, behind);
+                }
+            });
+        });
+    }
+
+    // Publishes the standings of 2000 drafts of which the points are the given version.
+    private StandingsSnapshot publish(int version, StandingsSnapshot previous) {
+        StandingsSnapshot snapshot = StandingsSnapshot.from(TestHelper.competition(2000, rank -> version), previous);
+        this.standingsBroadcastHub.publish(snapshot);
+        return snapshot;
+    }
+}
@@ -0,0 +1,173 @@
+package me.piepers.super11.application;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.web.client.HttpRequest;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.codec.BodyCodec;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import me.piepers.super11.TestHelper;
+import me.piepers.super11.application.model.StandingsSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(VertxExtension.class)
+public class StandingsEventStreamTest {
+    private Context context;
+    private StandingsEventStream standingsEventStream;
+    private WebClient webClient;
+    private int port;
+    // The snapshot that is current for the clients that connect.
+    private volatile StandingsSnapshot current;
+
+    @BeforeEach
+    public void setUp(Vertx vertx, VertxTestContext testContext) {
+        this.context = vertx.getOrCreateContext();
+        this.standingsEventStream = new StandingsEventStream(Metrics.create(vertx));
+        this.webClient = WebClient.create(vertx);
+        this.context.runOnContext(v -> io.vertx.reactivex.core.Vertx.newInstance(vertx)
+                .createHttpServer()
+                .requestHandler(request -> this.standingsEventStream.connect(request.response(), request.getHeader("Last-Event-ID"), this.current))
+                .rxListen(0)
+                .subscribe(server -> {
+                    this.port = server.actualPort();
+                    testContext.completeNow();
+                }, testContext::failNow));
+    }
+
+    @Test
+    public void test_that_a_new_client_gets_the_full_standings_and_then_the_updates(VertxTestContext testContext) {
+        // Given
+        this.current = StandingsSnapshot.from(TestHelper.competition(10, rank -> rank == 1 ? 10 : 5), null);
+        StandingsSnapshot second = StandingsSnapshot.from(TestHelper.competition(10, rank -> rank == 1 ? 12 : 5), this.current);
+        AtomicBoolean published = new AtomicBoolean();
+
+        this.connect(null, testContext, received -> {
+            if (received.contains("id: 2\n")) {
+                testContext.verify(() -> {
+                    // Then
+                    String[] events = received.split("\n\n");
+                    assertThat(events[0]).isEqualTo("retry: 5000");
+                    assertThat(events[1]).startsWith("id: 1\nevent: standings\ndata: {\"version\":1,\"drafts\":[");
+                    assertThat(new JsonObject(events[2].substring(events[2].indexOf("data: ") + 6)).getString("type")).isEqualTo("delta");
+                    testContext.completeNow();
+                });
+            } else if (received.contains("id: 1\n") && published.compareAndSet(false, true)) {
+                // When
+                this.context.runOnContext(v -> this.standingsEventStream.publish(second));
+            }
+        });
+    }
+
+    @Test
+    public void test_that_a_client_that_reconnects_only_gets_what_it_missed(VertxTestContext testContext) {
+        // Given
+        StandingsSnapshot first = StandingsSnapshot.from(TestHelper.competition(10, rank -> rank == 1 ? 10 : 5), null);
+        this.current = StandingsSnapshot.from(TestHelper.competition(10, rank -> rank == 1 ? 12 : 5), first);
+        AtomicReference<String> missedOne = new AtomicReference<>();
+        AtomicReference<String> missedMore = new AtomicReference<>();
+        Future<Void> missedOneConnected = Future.future();
+        Future<Void> missedNoneConnected = Future.future();
+        Future<Void> missedMoreConnected = Future.future();
+
+        // When
+        this.connect("1", testContext, received -> {
+            missedOne.set(received);
+            if (received.contains("id: 2\n")) {
+                missedOneConnected.tryComplete();
+            }
+        });
+        this.connect("2", testContext, received -> {
+            if (received.contains(": heartbeat")) {
+                testContext.verify(() -> {
+                    // Then
+                    assertThat(missedOne.get()).contains("\"type\":\"delta\"").doesNotContain("\"drafts\"");
+                    assertThat(received).doesNotContain("id: ");
+                    assertThat(missedMore.get()).contains("data: {\"version\":2,\"drafts\":[");
+                    this.context.runOnContext(v -> testContext.verify(() -> {
+                        assertThat(this.standingsEventStream.size()).isEqualTo(3);
+                        testContext.completeNow();
+                    }));
+                });
+            } else if (received.contains("retry")) {
+                missedNoneConnected.tryComplete();
+            }
+        });
+        this.connect("0", testContext, received -> {
+            missedMore.set(received);
+            if (received.contains("id: 2\n")) {
+                missedMoreConnected.tryComplete();
+            }
+        });
+        CompositeFuture
+                .all(missedOneConnected, missedNoneConnected, missedMoreConnected)
+                .setHandler(testContext.succeeding(connected -> this.context.runOnContext(v -> this.standingsEventStream.heartbeat())));
+    }
+
+    // Connects a client that hands everything it received so far to the given handler, every time it receives more.
+    private void connect(String lastEventId, VertxTestContext testContext, Handler<String> receivedHandler) {
+        HttpRequest<Buffer> request = this.webClient.get(this.port, "localhost", "/api/standings/stream");
+        if (Objects.nonNull(lastEventId)) {
+            request.putHeader("Last-Event-ID", lastEventId);
+        }
+        // The stream doesn't end, the response is never complete.
+        request
+                .as(BodyCodec.pipe(new Received(receivedHandler)))
+                .send(testContext.succeeding(response -> testContext.failNow(new AssertionError("The event stream ended."))));
+    }
+
+    // The events as they are received.
+    private static class Received implements WriteStream<Buffer> {
+        private final StringBuilder received = new StringBuilder();
+        private final Handler<String> receivedHandler;
+
+        private Received(Handler<String> receivedHandler) {
+            this.receivedHandler = receivedHandler;
+        }
+
+        @Override
+        public WriteStream<Buffer> write(Buffer buffer) {
+            this.received.append(buffer.toString());
+            this.receivedHandler.handle(this.received.toString());
+            return this;
+        }
+
+        @Override
+        public void end() {
+        }
+
+        @Override
+        public WriteStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+            return this;
+        }
+
+        @Override
+        public WriteStream<Buffer> setWriteQueueMaxSize(int maxSize) {
+            return this;
+        }
+
+        @Override
+        public boolean writeQueueFull() {
+            return false;
+        }
+
+        @Override
+        public WriteStream<Buffer> drainHandler(Handler<Void> handler) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package me.piepers.super11.application;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.junit5.Checkpoint;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.reactivex.ext.web.Router;
+import me.piepers.super11.TestHelper;
+import me.piepers.super11.application.model.StandingsSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(VertxExtension.class)
+public class StandingsLongPollTest {
+    private Context context;
+    private Metrics metrics;
+    private StandingsLongPoll standingsLongPoll;
+    private WebClient webClient;
+    private int port;
+    // The snapshot that is current for the requests that come in.
+    private volatile StandingsSnapshot current;
+    // Called on the context of the server when a request is parked.
+    private Handler<Void> parkedHandler = v -> {
+    };
+
+    @BeforeEach
+    public void setUp(Vertx vertx, VertxTestContext testContext) {
+        io.vertx.reactivex.core.Vertx rxVertx = io.vertx.reactivex.core.Vertx.newInstance(vertx);
+        this.context = vertx.getOrCreateContext();
+        this.metrics = Metrics.create(vertx);
+        // The standings are answered with their version only.
+        this.standingsLongPoll = new StandingsLongPoll(this.metrics, (routingContext, snapshot) -> routingContext
+                .response()
+                .end("v" + snapshot.getVersion()));
+        this.webClient = WebClient.create(vertx);
+        Router router = Router.router(rxVertx);
+        router.get("/api/standings").handler(routingContext -> {
+            this.standingsLongPoll.poll(routingContext,
+                    Long.parseLong(routingContext.request().getParam("sinceVersion")),
+                    StandingsLongPoll.parseWait(routingContext.request().getParam("wait")),
+                    this.current);
+            if (!routingContext.response().ended()) {
+                this.parkedHandler.handle(null);
+            }
+        });
+        this.context.runOnContext(v -> rxVertx
+                .createHttpServer()
+                .requestHandler(router)
+                .rxListen(0)
+                .subscribe(server -> {
+                    this.port = server.actualPort();
+                    testContext.completeNow();
+                }, testContext::failNow));
+    }
+
+    @Test
+    public void test_that_the_parked_requests_are_released_in_one_batch_when_there_is_a_newer_version(VertxTestContext testContext) {
+        // Given
+        this.current = StandingsSnapshot.from(TestHelper.competition(10, rank -> rank == 1 ? 10 : 5), null);
+        StandingsSnapshot second = StandingsSnapshot.from(TestHelper.competition(10, rank -> rank == 1 ? 12 : 5), this.current);
+        AtomicInteger parked = new AtomicInteger();
+        AtomicInteger answered = new AtomicInteger();
+        this.parkedHandler = v -> {
+            if (parked.incrementAndGet() == 3) {
+                // When
+                this.standingsLongPoll.publish(second);
+            }
+        };
+
+        for (int i = 0; i < 3; i++) {
+            this.get("/api/standings?sinceVersion=1&wait=30s", testContext, response -> testContext.verify(() -> {
+                // Then
+                assertThat(response).isEqualTo("200 v2");
+                if (answered.incrementAndGet() == 3) {
+                    this.context.runOnContext(v -> testContext.verify(() -> {
+                        assertThat(this.metrics.get("longpoll.released")).isEqualTo(3L);
+                        assertThat(this.metrics.get("longpoll.parked")).isZero();
+                        assertThat(this.standingsLongPoll.size()).isZero();
+                        testContext.completeNow();
+                    }));
+                }
+            }));
+        }
+    }
+
+    @Test
+    public void test_that_a_client_that_does_not_have_the_current_version_gets_it_right_away(VertxTestContext testContext) {
+        // Given
+        StandingsSnapshot first = StandingsSnapshot.from(TestHelper.competition(10, rank -> rank == 1 ? 10 : 5), null);
+        this.current = StandingsSnapshot.from(TestHelper.competition(10, rank -> rank == 1 ? 12 : 5), first);
+        this.parkedHandler = v -> testContext.failNow(new AssertionError("A request of a client without the current version was parked."));
+        Checkpoint answered = testContext.checkpoint(2);
+
+        // When
+        this.get("/api/standings?sinceVersion=1&wait=30s", testContext, behind -> testContext.verify(() -> {
+            // Then
+            assertThat(behind).isEqualTo("200 v2");
+            answered.flag();
+        }));
+        // Like after a restart of the backend.
+        this.get("/api/standings?sinceVersion=7&wait=30s", testContext, ahead -> testContext.verify(() -> {
+            // Then
+            assertThat(ahead).isEqualTo("200 v2");
+            answered.flag();
+        }));
+    }
+
+    @Test
+    public void test_that_a_request_of_which_the_wait_expired_gets_no_content_with_the_current_version(VertxTestContext testContext) {
+        // Given
+        this.current = StandingsSnapshot.from(TestHelper.competition(10, rank -> rank == 1 ? 10 : 5), null);
+        // When the requests are swept after the wait.
+        this.parkedHandler = v -> this.context.owner().setTimer(150L, timerId -> this.standingsLongPoll.expire());
+
+        this.get("/api/standings?sinceVersion=1&wait=100ms", testContext, response -> this.context.runOnContext(v -> testContext.verify(() -> {
+            // Then
+            assertThat(response).isEqualTo("204 version 1");
+            assertThat(this.metrics.get("longpoll.expired")).isEqualTo(1L);
+            assertThat(this.metrics.get("longpoll.parked")).isZero();
+            testContext.completeNow();
+        })));
+    }
+
+    @Test
+    public void test_that_the_wait_is_parsed_in_seconds_unless_it_has_another_unit() {
+        // When/Then
+        assertThat(StandingsLongPoll.parseWait("30s")).isEqualTo(30000L);
+        assertThat(StandingsLongPoll.parseWait("30")).isEqualTo(30000L);
+        assertThat(StandingsLongPoll.parseWait("250ms")).isEqualTo(250L);
+        assertThat(StandingsLongPoll.parseWait("1m")).isEqualTo(60000L);
+        assertThatThrownBy(() -> StandingsLongPoll.parseWait("-1s")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> StandingsLongPoll.parseWait("soon")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Hands the status code and the body, or the version header if there's no body, to the given handler.
+    private void get(String uri, VertxTestContext testContext, Handler<String> responseHandler) {
+        this.webClient
+                .get(this.port, "localhost", uri)
+                .send(testContext.succeeding(response -> responseHandler.handle(response.statusCode()
+                        + (Objects.nonNull(response.body()) && response.body().length() > 0 ? " " + response.bodyAsString() : " version " + response.getHeader(StandingsLongPoll.VERSION_HEADER)))));
+    }
+}
@@ -0,0 +1,91 @@
+package me.piepers.super11.application;
+
+import io.vertx.core.Vertx;
+import me.piepers.super11.TestHelper;
+import me.piepers.super11.application.model.StandingsSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StandingsSnapshotHolderTest {
+    private Vertx vertx;
+    private StandingsSnapshotHolder standingsSnapshotHolder;
+
+    @BeforeEach
+    public void setUp() {
+        this.vertx = Vertx.vertx();
+        this.standingsSnapshotHolder = StandingsSnapshotHolder.create(this.vertx);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.vertx.close();
+    }
+
+    @Test
+    public void test_that_an_older_snapshot_never_replaces_a_newer_one() {
+        // Given
+        List<StandingsSnapshot> snapshots = this.snapshots(3);
+        this.standingsSnapshotHolder.publish(snapshots.get(0));
+        this.standingsSnapshotHolder.publish(snapshots.get(2));
+
+        // When
+        boolean olderPublished = this.standingsSnapshotHolder.publish(snapshots.get(1));
+        boolean samePublished = this.standingsSnapshotHolder.publish(snapshots.get(2));
+
+        // Then
+        assertThat(olderPublished).isFalse();
+        assertThat(samePublished).isFalse();
+        assertThat(this.standingsSnapshotHolder.current()).isSameAs(snapshots.get(2));
+    }
+
+    @Test
+    public void test_that_the_newest_snapshot_wins_when_they_are_published_concurrently() throws Exception {
+        // Given
+        List<StandingsSnapshot> snapshots = this.snapshots(200);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> published = new ArrayList<>();
+
+        // When every version is published by a thread of its own, in reverse.
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            StandingsSnapshot snapshot = snapshots.get(i);
+            published.add(executorService.submit(() -> {
+                start.await();
+                return this.standingsSnapshotHolder.publish(snapshot);
+            }));
+        }
+        start.countDown();
+        long publishedCount = 0;
+        for (Future<Boolean> result : published) {
+            publishedCount += result.get(5, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        executorService.shutdown();
+
+        // Then
+        assertThat(this.standingsSnapshotHolder.current()).isSameAs(snapshots.get(snapshots.size() - 1));
+        assertThat(publishedCount).isBetween(1L, (long) snapshots.size());
+    }
+
+    // Consecutive versions of the standings.
+    private List<StandingsSnapshot> snapshots(int count) {
+        List<StandingsSnapshot> snapshots = new ArrayList<>();
+        StandingsSnapshot previous = null;
+        for (int version = 1; version <= count; version++) {
+            int points = version;
+            previous = StandingsSnapshot.from(TestHelper.competition(10, rank -> rank == 1 ? points : 0), previous);
+            snapshots.add(previous);
+        }
+        return snapshots;
+    }
+}
@@ -0,0 +1,69 @@
+package me.piepers.super11.application;
+
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StartupReportTest {
+    private Vertx vertx;
+
+    @BeforeEach
+    public void setUp() {
+        this.vertx = Vertx.vertx();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.vertx.close();
+    }
+
+    @Test
+    public void test_that_phases_are_reported_in_the_order_they_started() {
+        // Given
+        StartupReport startupReport = StartupReport.create(this.vertx);
+
+        // When
+        startupReport.time("first", Completable.timer(50, TimeUnit.MILLISECONDS)).blockingAwait();
+        startupReport.time("second", Single.error(new IllegalStateException("Failed"))).onErrorReturnItem(0).blockingGet();
+        startupReport.time("third", Maybe.empty()).blockingGet();
+
+        // Then
+        JsonArray phases = startupReport.toJson().getJsonArray("phases");
+        assertThat(phases).hasSize(3);
+        assertThat(phases.getJsonObject(0).getString("phase")).isEqualTo("first");
+        assertThat(phases.getJsonObject(0).getLong("durationMillis")).isGreaterThanOrEqualTo(50L);
+        assertThat(phases.getJsonObject(0).getBoolean("succeeded")).isTrue();
+        assertThat(phases.getJsonObject(1).getString("phase")).isEqualTo("second");
+        assertThat(phases.getJsonObject(1).getBoolean("succeeded")).isFalse();
+        assertThat(phases.getJsonObject(2).getString("phase")).isEqualTo("third");
+        assertThat(phases.getJsonObject(2).getBoolean("succeeded")).isTrue();
+    }
+
+    @Test
+    public void test_that_the_application_is_ready_once_it_is_marked_ready() {
+        // Given
+        StartupReport startupReport = StartupReport.create(this.vertx);
+        assertThat(startupReport.isReady()).isFalse();
+        assertThat(startupReport.toJson().getValue("readyAtMillis")).isNull();
+
+        // When
+        startupReport.markReady();
+        JsonObject first = startupReport.toJson();
+        startupReport.markReady();
+
+        // Then
+        assertThat(startupReport.isReady()).isTrue();
+        assertThat(first.getBoolean("ready")).isTrue();
+        assertThat(startupReport.toJson().getLong("readyAtMillis")).isEqualTo(first.getLong("readyAtMillis"));
+    }
+}
@@ -0,0 +1,208 @@
+package me.piepers.super11.application;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StaticAssetsTest {
+    private static final String PAGE = "<html><head><link rel=\"stylesheet\" href=\"css/style.css\"><link rel=\"manifest\" href=\"/site.webmanifest\">"
+            + "<script src=\"js/stomp.min.js\"></script><script src=\"https://example.org/other.js\"></script></head><body></body></html>";
+    private static final String STYLE = "body {\n    background-image: url(../images/background.jpg);\n}\n";
+
+    private Path directory;
+    private Path webRoot;
+    private Path cacheDirectory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("super-11");
+        this.webRoot = this.directory.resolve("standings");
+        this.cacheDirectory = this.directory.resolve("assets");
+        Files.createDirectories(this.webRoot.resolve("css"));
+        Files.createDirectories(this.webRoot.resolve("js"));
+        Files.createDirectories(this.webRoot.resolve("images"));
+        Files.writeString(this.webRoot.resolve("index.html"), PAGE);
+        Files.writeString(this.webRoot.resolve("css/style.css"), STYLE);
+        Files.writeString(this.webRoot.resolve("js/stomp.min.js"), "var a = 1;\n".repeat(200));
+        Files.writeString(this.webRoot.resolve("site.webmanifest"), "{\"name\": \"Super 11 Uden\"}");
+        byte[] image = new byte[4096];
+        new Random(11).nextBytes(image);
+        Files.write(this.webRoot.resolve("images/background.jpg"), image);
+        Files.writeString(this.webRoot.resolve("README.md"), "# super-11-standings");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(this.directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void test_that_the_page_refers_to_the_assets_by_their_hashed_names_which_are_immutable() throws IOException {
+        // When
+        StaticAssets staticAssets = StaticAssets.load(this.webRoot, this.cacheDirectory);
+
+        // Then
+        StaticAssets.Asset page = staticAssets.find("/");
+        assertThat(page).isSameAs(staticAssets.find("/index.html"));
+        assertThat(page.getCacheControl()).isEqualTo(StaticAssets.REVALIDATE);
+        assertThat(page.getContentType()).isEqualTo("text/html; charset=UTF-8");
+        String html = Files.readString(page.getFile(null));
+        assertThat(html)
+                .doesNotContain("css/style.css")
+                .containsPattern("href=\"css/style\\.[0-9a-f]{16}\\.css\"")
+                .containsPattern("href=\"/site\\.[0-9a-f]{16}\\.webmanifest\"")
+                .contains("https://example.org/other.js");
+        String styleReference = html.replaceAll("(?s).*href=\"(css/style\\.[0-9a-f]{16}\\.css)\".*", "$1");
+        StaticAssets.Asset style = staticAssets.find("/" + styleReference);
+        assertThat(style.getCacheControl()).isEqualTo(StaticAssets.IMMUTABLE);
+        assertThat(staticAssets.find("/css/style.css").getCacheControl()).isEqualTo(StaticAssets.REVALIDATE);
+        assertThat(Files.readString(style.getFile(null))).containsPattern("url\\(\\.\\./images/background\\.[0-9a-f]{16}\\.jpg\\)");
+        assertThat(staticAssets.find("/README.md")).isNull();
+    }
+
+    @Test
+    public void test_that_only_assets_that_are_worth_it_have_a_gzip_variant_with_the_same_content() throws IOException {
+        // When
+        StaticAssets staticAssets = StaticAssets.load(this.webRoot, this.cacheDirectory);
+
+        // Then
+        StaticAssets.Asset script = staticAssets.find("/js/stomp.min.js");
+        assertThat(script.getEncodings()).containsExactly(StaticAssets.GZIP);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(Files.readAllBytes(script.getFile(StaticAssets.GZIP))))) {
+            assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(Files.readString(this.webRoot.resolve("js/stomp.min.js")));
+        }
+        assertThat(script.getFile(null)).isEqualTo(this.webRoot.resolve("js/stomp.min.js"));
+        assertThat(staticAssets.find("/images/background.jpg").getEncodings()).isEmpty();
+    }
+
+    @Test
+    public void test_that_the_variants_that_were_packaged_are_served_as_they_are() throws IOException {
+        // Given
+        Path script = this.webRoot.resolve("js/stomp.min.js");
+        Files.write(script.resolveSibling("stomp.min.js.br"), new byte[]{1, 2, 3});
+        Files.write(script.resolveSibling("stomp.min.js.gz"), StaticAssets.gzip(Files.readAllBytes(script)));
+
+        // When
+        StaticAssets staticAssets = StaticAssets.load(this.webRoot, this.cacheDirectory);
+
+        // Then
+        StaticAssets.Asset asset = staticAssets.find("/js/stomp.min.js");
+        assertThat(asset.getEncodings()).containsExactly(StaticAssets.BROTLI, StaticAssets.GZIP);
+        assertThat(asset.getFile(StaticAssets.BROTLI)).isEqualTo(script.resolveSibling("stomp.min.js.br"));
+        assertThat(staticAssets.find("/js/stomp.min.js.br")).isNull();
+    }
+
+    @Test
+    public void test_that_the_packaged_variants_of_a_prepared_page_that_refers_to_other_assets_are_served_as_they_are() throws IOException {
+        // Given
+        StaticAssets.prepare(this.webRoot);
+        Path page = this.webRoot.resolve("index.html");
+        String prepared = Files.readString(page);
+        Files.write(page.resolveSibling("index.html.br"), new byte[]{1, 2, 3});
+        Files.write(page.resolveSibling("index.html.gz"), StaticAssets.gzip(Files.readAllBytes(page)));
+        Path style = this.webRoot.resolve("css/style.css");
+        Files.write(style.resolveSibling("style.css.br"), new byte[]{4, 5, 6});
+
+        // When
+        StaticAssets.prepare(this.webRoot);
+        StaticAssets staticAssets = StaticAssets.load(this.webRoot, this.cacheDirectory);
+
+        // Then
+        assertThat(prepared).containsPattern("href=\"css/style\\.[0-9a-f]{16}\\.css\"");
+        assertThat(Files.readString(page)).isEqualTo(prepared);
+        StaticAssets.Asset asset = staticAssets.find("/");
+        assertThat(asset.getFile(null)).isEqualTo(page);
+        assertThat(asset.getEncodings()).containsExactly(StaticAssets.BROTLI, StaticAssets.GZIP);
+        assertThat(asset.getFile(StaticAssets.BROTLI)).isEqualTo(page.resolveSibling("index.html.br"));
+        assertThat(asset.getFile(StaticAssets.GZIP)).isEqualTo(page.resolveSibling("index.html.gz"));
+        String styleReference = prepared.replaceAll("(?s).*href=\"(css/style\\.[0-9a-f]{16}\\.css)\".*", "$1");
+        StaticAssets.Asset styleAsset = staticAssets.find("/" + styleReference);
+        assertThat(styleAsset.getFile(null)).isEqualTo(style);
+        assertThat(styleAsset.getFile(StaticAssets.BROTLI)).isEqualTo(style.resolveSibling("style.css.br"));
+        assertThat(Files.readString(style)).containsPattern("url\\(\\.\\./images/background\\.[0-9a-f]{16}\\.jpg\\)");
+    }
+
+    @Test
+    public void test_that_the_packaged_variants_of_a_page_that_is_rewritten_when_it_is_loaded_are_not_served() throws IOException {
+        // Given
+        Path page = this.webRoot.resolve("index.html");
+        Files.write(page.resolveSibling("index.html.br"), new byte[]{1, 2, 3});
+
+        // When
+        StaticAssets staticAssets = StaticAssets.load(this.webRoot, this.cacheDirectory);
+
+        // Then
+        StaticAssets.Asset asset = staticAssets.find("/");
+        assertThat(asset.getEncodings()).containsExactly(StaticAssets.GZIP);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(Files.readAllBytes(asset.getFile(StaticAssets.GZIP))))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(Files.readAllBytes(asset.getFile(null)));
+        }
+    }
+
+    @Test
+    public void test_that_the_encoding_is_negotiated_by_quality_and_then_by_preference() {
+        // Given
+        List<String> available = List.of(StaticAssets.BROTLI, StaticAssets.GZIP);
+
+        // When/Then
+        assertThat(StaticAssets.negotiate("gzip, deflate, br", available)).isEqualTo(StaticAssets.BROTLI);
+        assertThat(StaticAssets.negotiate("gzip, deflate", available)).isEqualTo(StaticAssets.GZIP);
+        assertThat(StaticAssets.negotiate("br;q=0.5, gzip;q=0.8", available)).isEqualTo(StaticAssets.GZIP);
+        assertThat(StaticAssets.negotiate("br;q=0, *", available)).isEqualTo(StaticAssets.GZIP);
+        assertThat(StaticAssets.negotiate("identity", available)).isNull();
+        assertThat(StaticAssets.negotiate(null, available)).isNull();
+        assertThat(StaticAssets.negotiate("gzip", List.of())).isNull();
+    }
+
+    @Test
+    public void test_that_every_encoding_of_an_asset_has_an_etag_of_its_own_that_revalidates_any_of_them() throws IOException {
+        // Given
+        StaticAssets staticAssets = StaticAssets.load(this.webRoot, this.cacheDirectory);
+        StaticAssets.Asset script = staticAssets.find("/js/stomp.min.js");
+        String etag = script.getEtag(null);
+
+        // When
+        String gzipEtag = script.getEtag(StaticAssets.GZIP);
+
+        // Then
+        assertThat(etag).matches("\"[0-9a-f]{16}\"");
+        assertThat(gzipEtag).isEqualTo(etag.substring(0, etag.length() - 1) + "-gz\"");
+        assertThat(script.getEtag(StaticAssets.BROTLI)).isEqualTo(etag.substring(0, etag.length() - 1) + "-br\"");
+        assertThat(script.isNotModified(etag)).isTrue();
+        assertThat(script.isNotModified(gzipEtag)).isTrue();
+        assertThat(script.isNotModified("W/" + gzipEtag)).isTrue();
+        assertThat(script.isNotModified("\"0000-gz\", " + gzipEtag)).isTrue();
+        assertThat(script.isNotModified("\"0000-gz\"")).isFalse();
+        assertThat(script.isNotModified(etag.substring(0, etag.length() - 1) + "-xz\"")).isFalse();
+        assertThat(script.isNotModified(null)).isFalse();
+    }
+
+    @Test
+    public void test_that_the_content_type_is_that_of_the_extension() throws IOException {
+        // When
+        StaticAssets staticAssets = StaticAssets.load(this.webRoot, this.cacheDirectory);
+
+        // Then
+        assertThat(staticAssets.find("/css/style.css").getContentType()).isEqualTo("text/css; charset=UTF-8");
+        assertThat(staticAssets.find("/js/stomp.min.js").getContentType()).isEqualTo("application/javascript; charset=UTF-8");
+        assertThat(staticAssets.find("/site.webmanifest").getContentType()).isEqualTo("application/manifest+json; charset=UTF-8");
+        assertThat(staticAssets.find("/images/background.jpg").getContentType()).isEqualTo("image/jpeg");
+    }
+}
@@ -0,0 +1,85 @@
+package me.piepers.super11.application.model;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StandingsDeltaTest {
+    @Test
+    public void test_that_only_the_changed_fields_of_changed_drafts_are_part_of_the_delta() {
+        // Given
+        List<StandingsDto> previous = this.standings(10);
+        List<StandingsDto> current = this.standings(10);
+        // The drafts at position 1 and 2 swap places because the second one scored.
+        current.set(0, this.standingsDto("d1", 2, 10, 99L));
+        current.set(1, this.standingsDto("d2", 1, 25, 105L));
+
+        // When
+        Optional<JsonObject> delta = StandingsDelta.between(previous, 4L, current, 5L);
+
+        // Then
+        assertThat(delta).isPresent();
+        assertThat(delta.get().getString("type")).isEqualTo("delta");
+        assertThat(delta.get().getLong("version")).isEqualTo(5L);
+        assertThat(delta.get().getLong("baseVersion")).isEqualTo(4L);
+        assertThat(delta.get().containsKey("removed")).isFalse();
+        assertThat(delta.get().getJsonArray("changes")).containsExactly(
+                new JsonObject().put("rank", 2).put("id", "d1"),
+                new JsonObject().put("rank", 1).put("points", 25).put("totalPoints", 105L).put("id", "d2"));
+    }
+
+    @Test
+    public void test_that_new_and_removed_drafts_are_part_of_the_delta() {
+        // Given
+        List<StandingsDto> previous = this.standings(10);
+        List<StandingsDto> current = this.standings(9);
+        current.add(this.standingsDto("new", 10, 0, 0L));
+
+        // When
+        Optional<JsonObject> delta = StandingsDelta.between(previous, 1L, current, 2L);
+
+        // Then
+        assertThat(delta).isPresent();
+        assertThat(delta.get().getJsonArray("changes")).containsExactly(this.standingsDto("new", 10, 0, 0L).toJson());
+        assertThat(delta.get().getJsonArray("removed")).isEqualTo(new JsonArray().add("d10"));
+    }
+
+    @Test
+    public void test_that_no_delta_is_made_when_most_of_the_drafts_changed() {
+        // Given
+        List<StandingsDto> previous = this.standings(10);
+        List<StandingsDto> current = previous
+                .stream()
+                .map(standingsDto -> this.standingsDto(standingsDto.getId(), standingsDto.getRank(), standingsDto.getPoints() + 1, standingsDto.getTotalPoints() + 1))
+                .collect(Collectors.toList());
+
+        // When
+        Optional<JsonObject> delta = StandingsDelta.between(previous, 1L, current, 2L);
+
+        // Then
+        assertThat(delta).isEmpty();
+    }
+
+    private List<StandingsDto> standings(int size) {
+        return IntStream
+                .rangeClosed(1, size)
+                .mapToObj(i -> this.standingsDto("d" + i, i, 10, 100L - i))
+                .collect(Collectors.toList());
+    }
+
+    private StandingsDto standingsDto(String id, int rank, int points, long totalPoints) {
+        return new StandingsDto(new JsonObject()
+                .put("id", id)
+                .put("rank", rank)
+                .put("draftName", "Draft " + id)
+                .put("points", points)
+                .put("totalPoints", totalPoints));
+    }
+}
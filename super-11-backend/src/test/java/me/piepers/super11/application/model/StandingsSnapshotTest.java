@@ -0,0 +1,82 @@
+package me.piepers.super11.application.model;
+
+import me.piepers.super11.TestHelper;
+import me.piepers.super11.application.StaticAssets;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StandingsSnapshotTest {
+    private final StandingsSnapshot snapshot = StandingsSnapshot.from(TestHelper.competition(10, rank -> 5), null);
+
+    @Test
+    public void test_that_a_client_with_the_current_etag_has_not_modified_standings() {
+        // When/Then
+        assertThat(this.snapshot.isNotModified(this.snapshot.getEtag(), null)).isTrue();
+        assertThat(this.snapshot.isNotModified("\"0000\", " + this.snapshot.getEtag(), null)).isTrue();
+        assertThat(this.snapshot.isNotModified("*", null)).isTrue();
+        assertThat(this.snapshot.isNotModified("\"0000\"", null)).isFalse();
+    }
+
+    @Test
+    public void test_that_a_weak_etag_matches_the_same_standings() {
+        // When/Then
+        assertThat(this.snapshot.isNotModified("W/" + this.snapshot.getEtag(), null)).isTrue();
+    }
+
+    @Test
+    public void test_that_the_gzipped_standings_have_an_etag_of_their_own_that_revalidates_them() {
+        // Given
+        String etag = this.snapshot.getEtag();
+
+        // When
+        String gzipEtag = this.snapshot.getEtag(StaticAssets.GZIP);
+
+        // Then
+        assertThat(this.snapshot.getEtag(null)).isEqualTo(etag);
+        assertThat(gzipEtag).isEqualTo(etag.substring(0, etag.length() - 1) + "-gz\"");
+        assertThat(this.snapshot.isNotModified(gzipEtag, null)).isTrue();
+        assertThat(this.snapshot.isNotModified("W/" + gzipEtag, null)).isTrue();
+    }
+
+    @Test
+    public void test_that_if_none_match_takes_precedence_over_if_modified_since() {
+        // Given
+        String later = StandingsSnapshot.toHttpDate(this.snapshot.getLastModified().plus(Duration.ofHours(1)));
+
+        // When/Then
+        assertThat(this.snapshot.isNotModified("\"0000\"", later)).isFalse();
+    }
+
+    @Test
+    public void test_that_the_standings_are_not_modified_since_the_moment_they_were_last_modified() {
+        // Given
+        String lastModified = this.snapshot.getLastModifiedHttpDate();
+        String earlier = StandingsSnapshot.toHttpDate(this.snapshot.getLastModified().minus(Duration.ofMinutes(1)));
+
+        // When/Then
+        assertThat(this.snapshot.isNotModified(null, lastModified)).isTrue();
+        assertThat(this.snapshot.isNotModified(null, earlier)).isFalse();
+    }
+
+    @Test
+    public void test_that_an_unparseable_if_modified_since_is_treated_as_modified() {
+        // When/Then
+        assertThat(this.snapshot.isNotModified(null, "yesterday")).isFalse();
+        assertThat(this.snapshot.isNotModified(null, null)).isFalse();
+    }
+
+    @Test
+    public void test_that_the_same_standings_keep_their_version() {
+        // When
+        StandingsSnapshot same = StandingsSnapshot.from(TestHelper.competition(10, rank -> 5), this.snapshot);
+        StandingsSnapshot changed = StandingsSnapshot.from(TestHelper.competition(10, rank -> 6), this.snapshot);
+
+        // Then
+        assertThat(same).isSameAs(this.snapshot);
+        assertThat(changed.getVersion()).isEqualTo(2L);
+        assertThat(changed.getEtag()).isNotEqualTo(this.snapshot.getEtag());
+    }
+}
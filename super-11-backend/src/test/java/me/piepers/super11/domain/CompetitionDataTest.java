@@ -0,0 +1,60 @@
+package me.piepers.super11.domain;
+
+import io.vertx.core.json.JsonObject;
+import me.piepers.super11.TestHelper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompetitionDataTest {
+    @Test
+    public void test_that_a_poll_that_did_not_change_the_standings_has_the_same_fingerprint() {
+        // Given
+        JsonObject competitionJson = TestHelper.competitionJson();
+        long fingerprint = new Competition(competitionJson).getData().standingsFingerprint();
+        // What isn't shown in the standings changes from poll to poll.
+        competitionJson.getJsonObject("data").put("token", "an0th3r");
+        competitionJson.getJsonObject("data").getJsonArray("drafts").getJsonObject(0).put("previousRank", 2);
+
+        // When
+        long next = new Competition(competitionJson).getData().standingsFingerprint();
+
+        // Then
+        assertThat(next).isEqualTo(fingerprint);
+    }
+
+    @Test
+    public void test_that_a_poll_that_changed_the_standings_has_another_fingerprint() {
+        // Given
+        long fingerprint = TestHelper.competition(10, rank -> 5).getData().standingsFingerprint();
+        JsonObject renamed = TestHelper.competition(10, rank -> 5).toJson();
+        renamed.getJsonObject("data").getJsonArray("drafts").getJsonObject(3).put("draftName", "Renamed");
+
+        // When
+        long scored = TestHelper.competition(10, rank -> rank == 7 ? 6 : 5).getData().standingsFingerprint();
+        long fewer = TestHelper.competition(9, rank -> 5).getData().standingsFingerprint();
+        long renamedFingerprint = new Competition(renamed).getData().standingsFingerprint();
+
+        // Then
+        assertThat(scored).isNotEqualTo(fingerprint);
+        assertThat(fewer).isNotEqualTo(fingerprint);
+        assertThat(renamedFingerprint).isNotEqualTo(fingerprint);
+    }
+
+    @Test
+    public void test_that_changes_of_two_fields_of_a_draft_do_not_cancel_each_other_out() {
+        // Given
+        JsonObject competitionJson = TestHelper.competition(10, rank -> 5).toJson();
+        long fingerprint = new Competition(competitionJson).getData().standingsFingerprint();
+        JsonObject draft = competitionJson.getJsonObject("data").getJsonArray("drafts").getJsonObject(4);
+        // Would give the same sum of hash codes with a multiplier of 31.
+        draft.put("points", draft.getInteger("points") - 1);
+        draft.put("totalPoints", draft.getLong("totalPoints") + 31);
+
+        // When
+        long next = new Competition(competitionJson).getData().standingsFingerprint();
+
+        // Then
+        assertThat(next).isNotEqualTo(fingerprint);
+    }
+}
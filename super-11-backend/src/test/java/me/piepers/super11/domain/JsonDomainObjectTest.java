@@ -0,0 +1,73 @@
+package me.piepers.super11.domain;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import me.piepers.super11.TestHelper;
+import me.piepers.super11.infrastructure.model.EredivisieSeason;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsonDomainObjectTest {
+
+    @Test
+    public void test_that_a_competition_survives_a_round_trip_through_json() {
+        // Given
+        Competition competition = new Competition(TestHelper.competitionJson());
+
+        // When
+        JsonObject json = competition.toJson();
+        Competition read = new Competition(json);
+
+        // Then
+        assertThat(read.toJson()).isEqualTo(json);
+        assertThat(json.getString("status")).isEqualTo("OK");
+        JsonObject data = json.getJsonObject("data");
+        assertThat(data.getString("token")).isEqualTo("t0k3n");
+        assertThat(data.getJsonArray("periods").getJsonObject(0)).isEqualTo(new JsonObject().put("field", "1").put("value", "Speelronde 1"));
+        assertThat(data.getJsonObject("draftsMetadata").getInteger("totalCount")).isEqualTo(2);
+        Draft draft = read.getData().getDrafts().get(0);
+        assertThat(draft.getDraftName()).isEqualTo("Team A");
+        assertThat(draft.getTotalPoints()).isEqualTo(120L);
+        assertThat(draft.getUser()).isTrue();
+        assertThat(draft.getEmpty()).isFalse();
+        assertThat(read.getData().standingsFingerprint()).isEqualTo(competition.getData().standingsFingerprint());
+    }
+
+    @Test
+    public void test_that_a_season_survives_a_round_trip_through_json() throws IOException {
+        // Given
+        String json = TestHelper.convertJsonFileToString("matches-response.json");
+        Season season = Season.from(new EredivisieSeason(new JsonObject().put("rounds", new JsonArray(json))));
+
+        // When
+        JsonObject seasonJson = season.toJson();
+        Season read = new Season(seasonJson);
+
+        // Then
+        assertThat(read.getRounds()).isEqualTo(season.getRounds());
+        assertThat(read.getLastUpdated()).isEqualTo(season.getLastUpdated());
+        assertThat(read.toJson()).isEqualTo(seasonJson);
+        // What is derived from the season is not part of it.
+        assertThat(seasonJson.fieldNames()).containsExactlyInAnyOrder("name", "country", "lastUpdated", "rounds");
+        JsonObject match = seasonJson.getJsonArray("rounds").getJsonObject(0).getJsonArray("matches").getJsonObject(0);
+        assertThat(match.getString("scheduledStartTime")).isEqualTo("2018-08-10T18:00:00Z");
+        assertThat(match.getJsonObject("home")).isEqualTo(new JsonObject().put("id", "t424").put("name", "PEC Zwolle"));
+    }
+
+    @Test
+    public void test_that_a_match_window_survives_a_round_trip_through_json() {
+        // Given
+        MatchWindow matchWindow = MatchWindow.of(Instant.parse("2019-04-14T12:15:00Z"), Instant.parse("2019-04-14T16:45:00Z"));
+
+        // When
+        MatchWindow read = new MatchWindow(matchWindow.toJson());
+
+        // Then
+        assertThat(read.getStart()).isEqualTo(matchWindow.getStart());
+        assertThat(read.getEnd()).isEqualTo(matchWindow.getEnd());
+    }
+}
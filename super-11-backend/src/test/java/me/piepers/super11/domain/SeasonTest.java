@@ -10,7 +10,9 @@ import java.io.IOException;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -125,6 +127,107 @@ public class SeasonTest {
         assertThat(activeMatches.size()).isEqualTo(0);
     }
 
+    @Test
+    public void test_that_a_match_is_only_active_after_its_kickoff_and_before_it_is_assumed_to_be_finished() throws IOException {
+        // Given
+        Instant kickoff = Instant.parse("2019-04-14T14:45:00Z");
+        Season season = this.convertFileToSeason();
+
+        // When/Then
+        assertThat(season.isMatchActiveAt(kickoff)).isFalse();
+        assertThat(season.isMatchActiveAt(kickoff.plusNanos(1))).isTrue();
+        assertThat(season.isMatchActiveAt(kickoff.plusSeconds(110 * 60 - 1))).isTrue();
+        assertThat(season.isMatchActiveAt(kickoff.plusSeconds(110 * 60))).isFalse();
+    }
+
+    @Test
+    public void test_that_the_next_kickoff_after_a_time_is_the_first_kickoff_strictly_after_that_time() throws IOException {
+        // Given
+        Season season = this.convertFileToSeason();
+
+        // When/Then
+        assertThat(season.nextKickoffAfter(Instant.parse("2019-04-14T13:00:00Z"))).contains(Instant.parse("2019-04-14T14:45:00Z"));
+        assertThat(season.nextKickoffAfter(Instant.parse("2019-04-14T14:45:00Z"))).hasValueSatisfying(next -> assertThat(next).isAfter(Instant.parse("2019-04-14T14:45:00Z")));
+        assertThat(season.nextKickoffAfter(Instant.parse("2030-01-01T00:00:00Z"))).isEmpty();
+    }
+
+    @Test
+    public void test_that_matches_that_overlap_are_in_the_same_match_window_and_the_next_window_follows() throws IOException {
+        // Given
+        Season season = this.convertFileToSeason();
+        Instant before = Instant.parse("2019-04-14T12:10:00Z");
+
+        // When
+        Optional<MatchWindow> window = season.matchWindowAt(before);
+        List<MatchWindow> windows = season.matchWindowsBetween(before, Instant.parse("2019-04-14T23:00:00Z"));
+
+        // Then
+        MatchWindow afternoon = MatchWindow.of(Instant.parse("2019-04-14T12:30:00Z"), Instant.parse("2019-04-14T14:20:00Z"));
+        MatchWindow lateAfternoon = MatchWindow.of(Instant.parse("2019-04-14T14:45:00Z"), Instant.parse("2019-04-14T16:35:00Z"));
+        assertThat(window).contains(afternoon);
+        assertThat(windows).containsExactly(afternoon, lateAfternoon);
+        assertThat(season.matchWindowAt(Instant.parse("2019-04-14T13:00:00Z"))).contains(afternoon);
+        assertThat(afternoon.isActiveAt(Instant.parse("2019-04-14T13:00:00Z"))).isTrue();
+    }
+
+    @Test
+    public void test_that_a_season_read_from_its_json_answers_the_same_as_the_season_it_was_written_from() throws IOException {
+        // Given
+        Season season = this.convertFileToSeason();
+        Instant at = ZonedDateTime.of(2019, 4, 14, 16, 00, 00, 00, ZoneId.of("Europe/Amsterdam")).toInstant();
+
+        // When
+        Season fromJson = new Season(new JsonObject(season.toJson().encode()));
+
+        // Then
+        assertThat(fromJson.whichMatchesAreActiveAt(at)).containsExactlyInAnyOrderElementsOf(season.whichMatchesAreActiveAt(at));
+        assertThat(fromJson.nextKickoffAfter(at)).isEqualTo(season.nextKickoffAfter(at));
+    }
+
+    @Test
+    public void test_that_the_rounds_of_a_season_are_the_rounds_it_was_made_of_with_shared_teams() {
+        // Given
+        Team ajax = Team.of("t1", "Ajax");
+        Team psv = Team.of("t2", "PSV");
+        Instant kickoff = Instant.parse("2019-04-14T12:15:00Z");
+        List<Round> rounds = List.of(
+                Round.of(1, kickoff, kickoff.plusSeconds(86400), List.of(Match.of(Team.of("t1", "Ajax"), Team.of("t2", "PSV"), kickoff))),
+                Round.of(2, kickoff.plusSeconds(604800), kickoff.plusSeconds(691200), List.of(
+                        Match.of(psv, ajax, kickoff.plusSeconds(608400)),
+                        Match.of(ajax, psv, kickoff.plusSeconds(604800)))));
+
+        // When
+        Season season = Season.of("Eredivisie", "NL", kickoff, rounds);
+
+        // Then the matches are in the order they were given.
+        assertThat(season.getRounds()).isEqualTo(rounds);
+        assertThat(season.getRounds().get(1).getMatches().get(0).getHome().getName()).isEqualTo("PSV");
+        assertThat(season.getRounds().get(0).getMatches().get(0).getHome()).isSameAs(season.getRounds().get(1).getMatches().get(1).getHome());
+        assertThat(season.toString()).contains("rounds=2, matches=3, teams=2").doesNotContain("Ajax");
+    }
+
+    @Test
+    public void test_that_only_the_rounds_that_were_rescheduled_are_changed() throws IOException {
+        // Given a season in which a match of round 30 is moved, round 34 is gone and a round 35 was added.
+        Season season = this.convertFileToSeason();
+        List<Round> rounds = new ArrayList<>(season.getRounds());
+        Round round30 = rounds.stream().filter(round -> round.getRound() == 30).findFirst().orElseThrow();
+        List<Match> matches = new ArrayList<>(round30.getMatches());
+        Match moved = matches.get(0);
+        matches.set(0, Match.of(moved.getHome(), moved.getAway(), moved.getScheduledStartTime().plusSeconds(3600)));
+        rounds.set(rounds.indexOf(round30), Round.of(30, round30.getScheduledStartTime(), round30.getScheduledEndTime(), matches));
+        Round round34 = rounds.stream().filter(round -> round.getRound() == 34).findFirst().orElseThrow();
+        rounds.remove(round34);
+        rounds.add(Round.of(35, round34.getScheduledStartTime(), round34.getScheduledEndTime(), round34.getMatches()));
+
+        // When
+        List<Integer> changedRounds = season.roundsChangedIn(Season.of(season.getName(), season.getCountry(), Instant.now(), rounds));
+
+        // Then
+        assertThat(changedRounds).containsExactly(30, 34, 35);
+        assertThat(season.roundsChangedIn(this.convertFileToSeason())).isEmpty();
+    }
+
     private Season convertFileToSeason() throws IOException {
         String json = TestHelper.convertJsonFileToString("matches-response.json");
         JsonArray jsonArray = new JsonArray(json);
@@ -0,0 +1,177 @@
+package me.piepers.super11.infrastructure;
+
+import io.reactivex.Single;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The access key manager is only used on the event loop, as it is by the competition service, so is every test that
+// arms its timers.
+@ExtendWith(VertxExtension.class)
+public class AccessKeyManagerTest {
+    // Long enough for a refresh that was planned by mistake for (almost) right away to have been requested.
+    private static final long REFRESH_CHECK_MILLIS = 200;
+
+    @Test
+    public void test_that_the_expiry_of_a_jwt_is_read_from_its_exp_claim() {
+        // Given
+        Instant exp = Instant.now().plus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.SECONDS);
+        String accessKey = jwt(new JsonObject().put("sub", "super-11").put("exp", exp.getEpochSecond()));
+
+        // When
+        Optional<Instant> expiry = AccessKeyManager.expiryOf(accessKey);
+
+        // Then
+        assertThat(expiry).contains(exp);
+    }
+
+    @Test
+    public void test_that_an_access_key_that_is_not_a_jwt_has_no_known_expiry() {
+        assertThat(AccessKeyManager.expiryOf("an-opaque-access-key")).isEmpty();
+        assertThat(AccessKeyManager.expiryOf("not.a.jwt")).isEmpty();
+        assertThat(AccessKeyManager.expiryOf(jwt(new JsonObject().put("sub", "super-11")))).isEmpty();
+    }
+
+    @Test
+    public void test_that_a_jwt_is_only_valid_until_it_expires(Vertx vertx, VertxTestContext testContext) {
+        vertx.runOnContext(v -> testContext.verify(() -> {
+            // Given
+            AccessKeyManager accessKeyManager = accessKeyManager(vertx, () -> Single.never());
+            String accessKey = jwt(new JsonObject().put("exp", Instant.now().plus(1, ChronoUnit.HOURS).getEpochSecond()));
+
+            // When
+            accessKeyManager.accept(accessKey, Instant.now());
+
+            // Then
+            assertThat(accessKeyManager.current()).contains(accessKey);
+            assertThat(accessKeyManager.isValidFor(Duration.ofMinutes(30))).isTrue();
+            assertThat(accessKeyManager.isValidFor(Duration.ofHours(2))).isFalse();
+            testContext.completeNow();
+        }));
+    }
+
+    @Test
+    public void test_that_an_expired_jwt_is_not_used(Vertx vertx, VertxTestContext testContext) {
+        vertx.runOnContext(v -> testContext.verify(() -> {
+            // Given
+            AccessKeyManager accessKeyManager = accessKeyManager(vertx, () -> Single.never());
+
+            // When
+            accessKeyManager.accept(jwt(new JsonObject().put("exp", Instant.now().minus(1, ChronoUnit.MINUTES).getEpochSecond())), Instant.now().minus(1, ChronoUnit.HOURS));
+
+            // Then
+            assertThat(accessKeyManager.current()).isEmpty();
+            testContext.completeNow();
+        }));
+    }
+
+    @Test
+    public void test_that_the_lifetime_of_opaque_access_keys_is_learned_from_a_rejected_key(Vertx vertx, VertxTestContext testContext) {
+        vertx.runOnContext(v -> testContext.verify(() -> {
+            // Given
+            AccessKeyManager accessKeyManager = accessKeyManager(vertx, () -> Single.never());
+            accessKeyManager.accept("first-access-key", Instant.now().minus(2, ChronoUnit.HOURS));
+            assertThat(accessKeyManager.isValidFor(Duration.ZERO)).isFalse();
+
+            // When
+            accessKeyManager.rejected("first-access-key");
+            accessKeyManager.accept("second-access-key", Instant.now());
+
+            // Then
+            assertThat(accessKeyManager.current()).contains("second-access-key");
+            assertThat(accessKeyManager.expiresAt()).isPresent();
+            assertThat(accessKeyManager.isValidFor(Duration.ofMinutes(90))).isTrue();
+            assertThat(accessKeyManager.isValidFor(Duration.ofMinutes(150))).isFalse();
+            testContext.completeNow();
+        }));
+    }
+
+    @Test
+    public void test_that_an_access_key_that_is_rejected_early_does_not_teach_a_lifetime(Vertx vertx, VertxTestContext testContext) {
+        AtomicInteger refreshes = new AtomicInteger();
+        vertx.runOnContext(v -> {
+            // Given
+            AccessKeyManager accessKeyManager = accessKeyManager(vertx, () -> Single.fromCallable(refreshes::incrementAndGet).map(i -> "refreshed-access-key"));
+            accessKeyManager.accept("first-access-key", Instant.now().minus(10, ChronoUnit.SECONDS));
+
+            // When the key is revoked and the next keys are accepted.
+            accessKeyManager.rejected("first-access-key");
+            accessKeyManager.accept("second-access-key", Instant.now());
+            accessKeyManager.used("second-access-key");
+            accessKeyManager.accept("third-access-key", Instant.now());
+
+            // Then
+            vertx.setTimer(REFRESH_CHECK_MILLIS, timerId -> testContext.verify(() -> {
+                assertThat(accessKeyManager.current()).contains("third-access-key");
+                assertThat(accessKeyManager.expiresAt()).isEmpty();
+                assertThat(refreshes.get()).isZero();
+                testContext.completeNow();
+            }));
+        });
+    }
+
+    @Test
+    public void test_that_the_learned_lifetime_is_forgotten_when_an_access_key_outlives_it(Vertx vertx, VertxTestContext testContext) {
+        vertx.runOnContext(v -> testContext.verify(() -> {
+            // Given
+            AccessKeyManager accessKeyManager = accessKeyManager(vertx, () -> Single.never());
+            accessKeyManager.accept("first-access-key", Instant.now().minus(10, ChronoUnit.MINUTES));
+            accessKeyManager.rejected("first-access-key");
+            // Like a key from a file that was written before the learned lifetime.
+            accessKeyManager.accept("second-access-key", Instant.now().minus(20, ChronoUnit.MINUTES));
+            assertThat(accessKeyManager.expiresAt()).isPresent();
+
+            // When
+            Optional<String> accessKey = accessKeyManager.current();
+            accessKeyManager.used("second-access-key");
+            accessKeyManager.accept("third-access-key", Instant.now());
+
+            // Then
+            assertThat(accessKey).contains("second-access-key");
+            assertThat(accessKeyManager.expiresAt()).isEmpty();
+            testContext.completeNow();
+        }));
+    }
+
+    @Test
+    public void test_that_a_rejected_access_key_is_no_longer_used(Vertx vertx, VertxTestContext testContext) {
+        vertx.runOnContext(v -> testContext.verify(() -> {
+            // Given
+            AccessKeyManager accessKeyManager = accessKeyManager(vertx, () -> Single.never());
+            accessKeyManager.accept("access-key", null);
+
+            // When
+            accessKeyManager.rejected("access-key");
+
+            // Then
+            assertThat(accessKeyManager.current()).isEmpty();
+            assertThat(accessKeyManager.expiresAt()).isEmpty();
+            testContext.completeNow();
+        }));
+    }
+
+    private static AccessKeyManager accessKeyManager(Vertx vertx, Supplier<Single<String>> accessKeyRequest) {
+        return new AccessKeyManager(new io.vertx.reactivex.core.Vertx(vertx), accessKeyRequest);
+    }
+
+    private static String jwt(JsonObject claims) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString(claims.encode().getBytes(StandardCharsets.UTF_8))
+                + ".c2lnbmF0dXJl";
+    }
+}
@@ -0,0 +1,37 @@
+package me.piepers.super11.infrastructure;
+
+import io.vertx.serviceproxy.ServiceException;
+import me.piepers.super11.TestHelper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AuthorizeFormTest {
+
+    @Test
+    public void test_that_the_consent_form_is_found_and_approved() throws IOException {
+        // Given
+        String html = TestHelper.convertJsonFileToString("authorize-response.html");
+
+        // When
+        AuthorizeForm form = AuthorizeForm.parse(html);
+
+        // Then
+        assertThat(form.getAction()).isEqualTo("/oauth/authorize?client_id=profcoach&redirect_uri=https%3A%2F%2Fwww.profcoach.nl%2Fauth&response_type=token");
+        assertThat(form.getFormData().get("IsApproved")).isEqualTo("true");
+        assertThat(form.getFormData().get("RememberConsent")).isEqualTo("true");
+        assertThat(form.getFormData().get("State")).isEqualTo("8f14e45fceea167a5a36dedd4bea2543");
+        assertThat(form.getFormData().names()).hasSize(8);
+    }
+
+    @Test
+    public void test_that_a_page_without_a_consent_form_is_not_accepted() {
+        // When/then
+        assertThatThrownBy(() -> AuthorizeForm.parse("<html><body><form action=\"/login\"></form></body></html>"))
+                .isInstanceOf(ServiceException.class)
+                .hasMessageContaining("Found 0 forms");
+    }
+}
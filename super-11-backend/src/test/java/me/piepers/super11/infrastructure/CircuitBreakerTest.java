@@ -0,0 +1,94 @@
+package me.piepers.super11.infrastructure;
+
+import io.reactivex.Single;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.serviceproxy.ServiceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class CircuitBreakerTest {
+    private Vertx vertx;
+
+    @BeforeEach
+    public void setUp() {
+        this.vertx = Vertx.vertx();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.vertx.close();
+    }
+
+    @Test
+    public void test_that_the_circuit_closes_again_when_the_host_recovered() throws InterruptedException {
+        // Given
+        CircuitBreaker circuitBreaker = CircuitBreaker.create(vertx, "localhost", new JsonObject()
+                .put("failure_threshold", 1)
+                .put("max_retries", 0)
+                .put("open_base_millis", 50));
+        AtomicInteger calls = new AtomicInteger();
+        Single<Integer> call = Single.fromCallable(calls::incrementAndGet);
+        circuitBreaker.execute(call, result -> true, true).blockingGet();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // When
+        Throwable rejected = catchThrowable(() -> circuitBreaker.execute(call, result -> false, true).blockingGet());
+        Thread.sleep(100);
+        circuitBreaker.execute(call, result -> false, true).blockingGet();
+
+        // Then
+        assertThat(rejected).isInstanceOf(ServiceException.class);
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void test_that_the_circuit_opens_again_when_the_trial_request_fails() throws InterruptedException {
+        // Given
+        CircuitBreaker circuitBreaker = CircuitBreaker.create(vertx, "localhost", new JsonObject()
+                .put("failure_threshold", 3)
+                .put("max_retries", 0)
+                .put("open_base_millis", 50));
+        Single<String> call = Single.error(new IllegalStateException("Connection refused"));
+        for (int i = 0; i < 3; i++) {
+            catchThrowable(() -> circuitBreaker.execute(call, result -> false, true).blockingGet());
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // When
+        Thread.sleep(100);
+        Throwable failure = catchThrowable(() -> circuitBreaker.execute(call, result -> false, true).blockingGet());
+
+        // Then a single failure is enough to open the circuit again.
+        assertThat(failure).isInstanceOf(IllegalStateException.class);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void test_that_retries_stop_when_the_retry_budget_is_exhausted() {
+        // Given
+        CircuitBreaker circuitBreaker = CircuitBreaker.create(vertx, "localhost", new JsonObject()
+                .put("failure_threshold", 100)
+                .put("max_retries", 2)
+                .put("retry_base_millis", 1)
+                .put("retry_budget", 3)
+                .put("retry_budget_window_millis", 60000));
+        AtomicInteger calls = new AtomicInteger();
+        Single<Integer> call = Single.fromCallable(calls::incrementAndGet);
+
+        // When
+        circuitBreaker.execute(call, result -> true, true).blockingGet();
+        circuitBreaker.execute(call, result -> true, true).blockingGet();
+        circuitBreaker.execute(call, result -> true, true).blockingGet();
+
+        // Then the first call is retried twice, the second once and the third not at all.
+        assertThat(calls.get()).isEqualTo(6);
+    }
+}
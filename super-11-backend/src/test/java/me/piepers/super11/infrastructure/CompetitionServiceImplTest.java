@@ -0,0 +1,338 @@
+package me.piepers.super11.infrastructure;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.NetServer;
+import io.vertx.junit5.Checkpoint;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.serviceproxy.ServiceException;
+import me.piepers.super11.TestHelper;
+import me.piepers.super11.domain.CompetitionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(VertxExtension.class)
+public class CompetitionServiceImplTest {
+    private static final int CALLERS = 10;
+    private static final String STANDINGS_URL = "/v1/competitions/super-11/standings";
+    // Long enough for every caller to ask while the first request is still in flight.
+    private static final long RESPONSE_DELAY_MILLIS = 200;
+
+    @Test
+    public void test_that_concurrent_callers_share_one_upstream_request(Vertx vertx, VertxTestContext testContext) throws IOException {
+        // Given
+        AtomicInteger standingsRequests = new AtomicInteger();
+        JsonObject configuration = configuration(accessKeyLocation());
+        Checkpoint responses = testContext.checkpoint(CALLERS);
+
+        startStandInServer(vertx, standingsRequests).setHandler(testContext.succeeding(server -> vertx.runOnContext(v -> {
+            CompetitionService competitionService = CompetitionService.create(vertx, configuration.put("profcoach-auth", configuration.getJsonObject("profcoach-auth").put("game_api_port", server.actualPort())));
+
+            // When
+            for (int i = 0; i < CALLERS; i++) {
+                competitionService.fetchLatestCompetitionStandings(testContext.succeeding(competition -> testContext.verify(() -> {
+                    // Then
+                    assertThat(competition.getData().getDrafts()).hasSize(2);
+                    assertThat(standingsRequests.get()).isEqualTo(1);
+                    responses.flag();
+                })));
+            }
+        })));
+    }
+
+    @Test
+    public void test_that_a_fetch_after_the_shared_fetch_completed_sends_a_new_request(Vertx vertx, VertxTestContext testContext) throws IOException {
+        // Given
+        AtomicInteger standingsRequests = new AtomicInteger();
+        JsonObject configuration = configuration(accessKeyLocation());
+
+        startStandInServer(vertx, standingsRequests).setHandler(testContext.succeeding(server -> vertx.runOnContext(v -> {
+            CompetitionService competitionService = CompetitionService.create(vertx, configuration.put("profcoach-auth", configuration.getJsonObject("profcoach-auth").put("game_api_port", server.actualPort())));
+
+            // When
+            competitionService.fetchLatestCompetitionStandings(testContext.succeeding(first ->
+                    competitionService.fetchLatestCompetitionStandings(testContext.succeeding(second -> testContext.verify(() -> {
+                        // Then
+                        assertThat(standingsRequests.get()).isEqualTo(2);
+                        testContext.completeNow();
+                    })))));
+        })));
+    }
+
+    @Test
+    public void test_that_standings_that_were_not_modified_are_the_last_competition_again(Vertx vertx, VertxTestContext testContext) throws IOException {
+        // Given a server that only sends the standings if the client doesn't have them.
+        AtomicInteger standingsRequests = new AtomicInteger();
+        List<String> ifNoneMatch = new ArrayList<>();
+        JsonObject configuration = configuration(accessKeyLocation());
+
+        startStandInServer(vertx, request -> {
+            standingsRequests.incrementAndGet();
+            ifNoneMatch.add(request.getHeader("If-None-Match"));
+            if ("\"1\"".equals(request.getHeader("If-None-Match"))) {
+                request.response().setStatusCode(304).putHeader("ETag", "\"1\"").end();
+            } else {
+                request.response()
+                        .putHeader("Content-Type", "application/json")
+                        .putHeader("ETag", "\"1\"")
+                        .end(TestHelper.competitionJson().encode());
+            }
+        }).setHandler(testContext.succeeding(server -> vertx.runOnContext(v -> {
+            CompetitionService competitionService = CompetitionService.create(vertx, withPort(configuration, server.actualPort()));
+
+            // When
+            competitionService.fetchLatestCompetitionStandings(testContext.succeeding(first ->
+                    competitionService.fetchLatestCompetitionStandings(testContext.succeeding(second -> testContext.verify(() -> {
+                        // Then the second request was conditional and got the competition of the first.
+                        assertThat(standingsRequests.get()).isEqualTo(2);
+                        assertThat(ifNoneMatch).containsExactly(null, "\"1\"");
+                        assertThat(second).isSameAs(first);
+                        testContext.completeNow();
+                    })))));
+        })));
+    }
+
+    @Test
+    public void test_that_a_5xx_storm_opens_the_circuit_and_stops_hitting_the_upstream(Vertx vertx, VertxTestContext testContext) throws IOException {
+        // Given
+        AtomicInteger standingsRequests = new AtomicInteger();
+        JsonObject configuration = configuration(accessKeyLocation(), new JsonObject()
+                .put("failure_threshold", 2)
+                .put("max_retries", 1)
+                .put("retry_base_millis", 10)
+                .put("open_base_millis", 60000));
+
+        startStandInServer(vertx, request -> {
+            standingsRequests.incrementAndGet();
+            request.response().setStatusCode(503).end();
+        }).setHandler(testContext.succeeding(server -> vertx.runOnContext(v -> {
+            CompetitionService competitionService = CompetitionService.create(vertx, withPort(configuration, server.actualPort()));
+
+            // When
+            fetchInSequence(competitionService, 5).setHandler(testContext.succeeding(failures -> testContext.verify(() -> {
+                // Then the first fetch is retried once, after which the circuit is open and nothing is sent anymore.
+                assertThat(failures).hasSize(5);
+                assertThat(standingsRequests.get()).isEqualTo(2);
+                assertThat(failures.subList(1, 5)).allSatisfy(failure -> {
+                    assertThat(failure).isInstanceOf(ServiceException.class);
+                    assertThat(((ServiceException) failure).failureCode()).isEqualTo(503);
+                    assertThat(failure.getMessage()).contains("circuit");
+                });
+                testContext.completeNow();
+            })));
+        })));
+    }
+
+    @Test
+    public void test_that_a_slow_upstream_opens_the_circuit(Vertx vertx, VertxTestContext testContext) throws IOException {
+        // Given
+        AtomicInteger standingsRequests = new AtomicInteger();
+        JsonObject configuration = configuration(accessKeyLocation(), new JsonObject()
+                .put("request_timeout_millis", 100)
+                .put("failure_threshold", 1)
+                .put("max_retries", 0)
+                .put("open_base_millis", 60000));
+
+        startStandInServer(vertx, request -> {
+            standingsRequests.incrementAndGet();
+            vertx.setTimer(1000, timerId -> request.response().end(TestHelper.competitionJson().encode()));
+        }).setHandler(testContext.succeeding(server -> vertx.runOnContext(v -> {
+            CompetitionService competitionService = CompetitionService.create(vertx, withPort(configuration, server.actualPort()));
+
+            // When
+            fetchInSequence(competitionService, 3).setHandler(testContext.succeeding(failures -> testContext.verify(() -> {
+                // Then
+                assertThat(failures).hasSize(3);
+                assertThat(standingsRequests.get()).isEqualTo(1);
+                testContext.completeNow();
+            })));
+        })));
+    }
+
+    @Test
+    public void test_that_a_401_storm_only_starts_an_oauth_flow_within_the_retry_budget(Vertx vertx, VertxTestContext testContext) throws IOException {
+        // Given
+        AtomicInteger standingsRequests = new AtomicInteger();
+        AtomicInteger oAuthConnections = new AtomicInteger();
+        JsonObject configuration = configuration(accessKeyLocation(), new JsonObject()
+                .put("retry_budget", 1)
+                .put("retry_budget_window_millis", 60000));
+
+        Future<NetServer> oAuthServerFuture = Future.future();
+        // Every attempt to start an oauth flow is a connection to this server, which doesn't speak tls so it fails.
+        vertx
+                .createNetServer()
+                .connectHandler(socket -> {
+                    oAuthConnections.incrementAndGet();
+                    socket.close();
+                })
+                .listen(0, oAuthServerFuture);
+        Future<HttpServer> serverFuture = startStandInServer(vertx, request -> {
+            standingsRequests.incrementAndGet();
+            request.response().setStatusCode(401).end();
+        });
+
+        CompositeFuture.all(oAuthServerFuture, serverFuture).setHandler(testContext.succeeding(servers -> vertx.runOnContext(v -> {
+            JsonObject withOAuth = withPort(configuration, serverFuture.result().actualPort());
+            withOAuth.getJsonObject("profcoach-auth")
+                    .put("oauth_start_host", "localhost")
+                    .put("oauth_start_port", oAuthServerFuture.result().actualPort())
+                    .put("oauth_start_url", "/oauth/start")
+                    .put("password", "c2VjcmV0");
+            CompetitionService competitionService = CompetitionService.create(vertx, withOAuth);
+
+            // When
+            fetchInSequence(competitionService, 4).setHandler(testContext.succeeding(failures -> testContext.verify(() -> {
+                // Then only the first rejection is retried with a new access key, the others fail without a request.
+                assertThat(failures).hasSize(4);
+                assertThat(standingsRequests.get()).isEqualTo(1);
+                assertThat(oAuthConnections.get()).isEqualTo(1);
+                assertThat(failures.subList(1, 4)).allSatisfy(failure -> assertThat(((ServiceException) failure).failureCode()).isEqualTo(401));
+                testContext.completeNow();
+            })));
+        })));
+    }
+
+    @Test
+    public void test_that_concurrent_callers_that_get_a_401_share_one_oauth_flow(Vertx vertx, VertxTestContext testContext) throws IOException {
+        // Given
+        AtomicInteger standingsRequests = new AtomicInteger();
+        AtomicInteger oAuthConnections = new AtomicInteger();
+        List<Throwable> failures = new ArrayList<>();
+        JsonObject configuration = configuration(accessKeyLocation(), new JsonObject()
+                .put("retry_budget", CALLERS)
+                .put("retry_budget_window_millis", 60000));
+
+        Future<NetServer> oAuthServerFuture = Future.future();
+        // Every attempt to start an oauth flow is a connection to this server. It doesn't speak tls, so the flow fails,
+        // but not before everyone had the time to ask for a new access key.
+        vertx
+                .createNetServer()
+                .connectHandler(socket -> {
+                    oAuthConnections.incrementAndGet();
+                    vertx.setTimer(RESPONSE_DELAY_MILLIS, timerId -> socket.close());
+                })
+                .listen(0, oAuthServerFuture);
+        Future<HttpServer> serverFuture = startStandInServer(vertx, request -> {
+            standingsRequests.incrementAndGet();
+            request.response().setStatusCode(401).end();
+        });
+
+        CompositeFuture.all(oAuthServerFuture, serverFuture).setHandler(testContext.succeeding(servers -> vertx.runOnContext(v -> {
+            JsonObject withOAuth = withPort(configuration, serverFuture.result().actualPort());
+            withOAuth.getJsonObject("profcoach-auth")
+                    .put("oauth_start_host", "localhost")
+                    .put("oauth_start_port", oAuthServerFuture.result().actualPort())
+                    .put("oauth_start_url", "/oauth/start")
+                    .put("password", "c2VjcmV0");
+            CompetitionService competitionService = CompetitionService.create(vertx, withOAuth);
+            Handler<Throwable> failed = throwable -> testContext.verify(() -> {
+                failures.add(throwable);
+                if (failures.size() == CALLERS + 1) {
+                    // Then there was one oauth flow, of which everyone got the outcome.
+                    assertThat(standingsRequests.get()).isEqualTo(1);
+                    assertThat(oAuthConnections.get()).isEqualTo(1);
+                    assertThat(failures).allSatisfy(failure -> assertThat(failure).isSameAs(failures.get(0)));
+                    testContext.completeNow();
+                }
+            });
+
+            // When the callers get a 401 while a new access key is being prepared (like before a match window).
+            competitionService.prepareAccessKey(60000L, testContext.failing(failed));
+            for (int i = 0; i < CALLERS; i++) {
+                competitionService.fetchLatestCompetitionStandings(testContext.failing(failed));
+            }
+        })));
+    }
+
+    private static JsonObject withPort(JsonObject configuration, int port) {
+        configuration.getJsonObject("profcoach-auth").put("game_api_port", port);
+        return configuration;
+    }
+
+    // A stand-in for the standings endpoint of the Profcoach API that counts the requests it gets.
+    private static Future<HttpServer> startStandInServer(Vertx vertx, AtomicInteger standingsRequests) {
+        return startStandInServer(vertx, request -> {
+            if (!STANDINGS_URL.equals(request.path()) || !"Bearer access-key".equals(request.getHeader("Authorization"))) {
+                request.response().setStatusCode(401).end();
+                return;
+            }
+            standingsRequests.incrementAndGet();
+            vertx.setTimer(RESPONSE_DELAY_MILLIS, timerId -> request
+                    .response()
+                    .putHeader("Content-Type", "application/json")
+                    .end(TestHelper.competitionJson().encode()));
+        });
+    }
+
+    private static Future<HttpServer> startStandInServer(Vertx vertx, Handler<HttpServerRequest> requestHandler) {
+        Future<HttpServer> future = Future.future();
+        vertx
+                .createHttpServer()
+                .requestHandler(requestHandler)
+                .listen(0, future);
+        return future;
+    }
+
+    // Fetches the standings the given amount of times, one after the other, and completes with the failures.
+    private static Future<List<Throwable>> fetchInSequence(CompetitionService competitionService, int times) {
+        Future<List<Throwable>> future = Future.future();
+        List<Throwable> failures = new ArrayList<>();
+        fetchInSequence(competitionService, times, failures, future);
+        return future;
+    }
+
+    private static void fetchInSequence(CompetitionService competitionService, int times, List<Throwable> failures, Future<List<Throwable>> future) {
+        if (times == 0) {
+            future.complete(failures);
+            return;
+        }
+        competitionService.fetchLatestCompetitionStandings(result -> {
+            if (result.failed()) {
+                failures.add(result.cause());
+            }
+            fetchInSequence(competitionService, times - 1, failures, future);
+        });
+    }
+
+    private static Path accessKeyLocation() throws IOException {
+        Path directory = Files.createTempDirectory("super-11");
+        Files.write(directory.resolve("access_key"), "access-key".getBytes(StandardCharsets.UTF_8));
+        directory.toFile().deleteOnExit();
+        directory.resolve("access_key").toFile().deleteOnExit();
+        return directory;
+    }
+
+    private static JsonObject configuration(Path accessKeyLocation) {
+        return configuration(accessKeyLocation, new JsonObject());
+    }
+
+    private static JsonObject configuration(Path accessKeyLocation, JsonObject upstream) {
+        return new JsonObject()
+                .put("upstream", upstream)
+                .put("profcoach-auth", new JsonObject()
+                        .put("access_key_location_path", accessKeyLocation.toString() + "/")
+                        .put("access_key_location_file_name", "access_key")
+                        .put("game_api_host", "localhost")
+                        .put("game_api_ssl", false)
+                        .put("game_api_standings_url", STANDINGS_URL)
+                        .put("x_client_game", "super-11")
+                        .put("x_game_group", "super-11"));
+    }
+}
@@ -0,0 +1,110 @@
+package me.piepers.super11.infrastructure;
+
+import io.reactivex.Completable;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import me.piepers.super11.TestHelper;
+import me.piepers.super11.domain.Competition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompetitionStoreTest {
+    private Vertx vertx;
+    private Path directory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.vertx = Vertx.vertx();
+        this.directory = Files.createTempDirectory("super-11");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        this.vertx.close();
+        try (var files = Files.list(this.directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(this.directory);
+    }
+
+    @Test
+    public void test_that_a_saved_competition_is_loaded_back_the_same() throws IOException {
+        // Given
+        Path file = this.directory.resolve("competition.json");
+        CompetitionStore competitionStore = new CompetitionStore(this.vertx, file);
+        Competition competition = competition(120L);
+        Instant before = Instant.now();
+
+        // When
+        competitionStore.save(competition).blockingAwait();
+        CompetitionStore.StoredCompetition stored = new CompetitionStore(this.vertx, file).rxLoad().blockingGet();
+
+        // Then
+        assertThat(stored.getCompetition().toJson()).isEqualTo(competition.toJson());
+        assertThat(stored.getCompetition().getData().standingsFingerprint()).isEqualTo(competition.getData().standingsFingerprint());
+        assertThat(stored.getStoredAt()).isBetween(before, Instant.now());
+        // Only the file itself is left, not the temporary file it was written to.
+        try (var files = Files.list(this.directory)) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+
+    @Test
+    public void test_that_a_missing_or_unreadable_store_loads_nothing() throws IOException {
+        // Given
+        CompetitionStore missing = new CompetitionStore(this.vertx, this.directory.resolve("missing.json"));
+        Path truncatedFile = this.directory.resolve("truncated.json");
+        Files.write(truncatedFile, "{\"storedAt\":\"2019-04-01T00:00:00Z\",\"competition\":{\"vers".getBytes(StandardCharsets.UTF_8));
+        CompetitionStore truncated = new CompetitionStore(this.vertx, truncatedFile);
+        Path emptyFile = this.directory.resolve("empty.json");
+        Files.write(emptyFile, "{}".getBytes(StandardCharsets.UTF_8));
+        CompetitionStore empty = new CompetitionStore(this.vertx, emptyFile);
+
+        // When/then
+        assertThat(missing.rxLoad().blockingGet()).isNull();
+        assertThat(truncated.rxLoad().blockingGet()).isNull();
+        assertThat(empty.rxLoad().blockingGet()).isNull();
+    }
+
+    @Test
+    public void test_that_overlapping_saves_are_coalesced_to_the_newest_competition() throws Exception {
+        // Given
+        Path file = this.directory.resolve("competition.json");
+        CompetitionStore competitionStore = new CompetitionStore(this.vertx, file);
+        Competition first = competition(100L);
+        Competition second = competition(110L);
+        Competition third = competition(120L);
+
+        // When all saves are done while the first one is being written.
+        CompletableFuture<List<Completable>> saves = new CompletableFuture<>();
+        this.vertx.runOnContext(v -> saves.complete(List.of(competitionStore.save(first), competitionStore.save(second), competitionStore.save(third))));
+        for (Completable save : saves.get()) {
+            save.blockingAwait();
+        }
+
+        // Then
+        Competition stored = competitionStore.rxLoad().blockingGet().getCompetition();
+        assertThat(stored.getData().getDrafts().get(0).getTotalPoints()).isEqualTo(120L);
+        assertThat(competitionStore.writes()).isEqualTo(2);
+    }
+
+    // The competition of which the first draft has the given points in total.
+    private static Competition competition(long totalPoints) {
+        JsonObject competitionJson = TestHelper.competitionJson();
+        competitionJson.getJsonObject("data").getJsonArray("drafts").getJsonObject(0).put("totalPoints", totalPoints);
+        return new Competition(competitionJson);
+    }
+}
@@ -0,0 +1,99 @@
+package me.piepers.super11.infrastructure;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.serviceproxy.ServiceException;
+import me.piepers.super11.TestHelper;
+import me.piepers.super11.domain.Competition;
+import me.piepers.super11.domain.CompetitionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(VertxExtension.class)
+public class DomainObjectMessageCodecTest {
+
+    @Test
+    public void test_that_a_competition_is_delivered_locally_without_copying_it(Vertx vertx, VertxTestContext testContext) {
+        // Given
+        Competition competition = new Competition(TestHelper.competitionJson());
+        DomainObjectMessageCodec.registerDefaultCodecs(vertx.eventBus());
+        vertx.eventBus().<Competition>consumer("test.competition", message -> message.reply(message.body()));
+
+        // When
+        vertx.eventBus().<Competition>send("test.competition", competition, testContext.succeeding(reply -> testContext.verify(() -> {
+            // Then
+            assertThat(reply.body()).isSameAs(competition);
+            testContext.completeNow();
+        })));
+    }
+
+    @Test
+    public void test_that_a_competition_survives_the_wire() {
+        // Given
+        Competition competition = new Competition(TestHelper.competitionJson());
+        DomainObjectMessageCodec<Competition> codec = new DomainObjectMessageCodec<>("test.competition", Competition::new);
+        Buffer buffer = Buffer.buffer().appendString("header");
+
+        // When
+        codec.encodeToWire(buffer, competition);
+        Competition decoded = codec.decodeFromWire("header".length(), buffer);
+
+        // Then
+        assertThat(decoded).isNotSameAs(competition);
+        assertThat(decoded.toJson()).isEqualTo(competition.toJson());
+    }
+
+    @Test
+    public void test_that_the_service_proxy_receives_the_competition_of_the_service(Vertx vertx, VertxTestContext testContext) {
+        // Given
+        Competition competition = new Competition(TestHelper.competitionJson());
+        new CompetitionServiceProxyHandler(vertx, new StubCompetitionService(Future.succeededFuture(competition)))
+                .register(vertx.eventBus(), "test.service");
+
+        // When
+        new CompetitionServiceProxy(vertx, "test.service").fetchLatestCompetitionStandings(testContext.succeeding(result -> testContext.verify(() -> {
+            // Then
+            assertThat(result).isSameAs(competition);
+            testContext.completeNow();
+        })));
+    }
+
+    @Test
+    public void test_that_the_service_proxy_receives_the_failure_of_the_service(Vertx vertx, VertxTestContext testContext) {
+        // Given
+        new CompetitionServiceProxyHandler(vertx, new StubCompetitionService(Future.failedFuture(new IllegalStateException("Upstream is down."))))
+                .register(vertx.eventBus(), "test.service");
+
+        // When
+        new CompetitionServiceProxy(vertx, "test.service").fetchLatestCompetitionStandings(testContext.failing(throwable -> testContext.verify(() -> {
+            // Then
+            assertThat(throwable).isInstanceOf(ServiceException.class).hasMessage("Upstream is down.");
+            testContext.completeNow();
+        })));
+    }
+
+    private static class StubCompetitionService implements CompetitionService {
+        private final AsyncResult<Competition> competition;
+
+        private StubCompetitionService(AsyncResult<Competition> competition) {
+            this.competition = competition;
+        }
+
+        @Override
+        public void fetchLatestCompetitionStandings(Handler<AsyncResult<Competition>> result) {
+            result.handle(competition);
+        }
+
+        @Override
+        public void prepareAccessKey(long validForMillis, Handler<AsyncResult<Void>> result) {
+            result.handle(Future.succeededFuture());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package me.piepers.super11.infrastructure;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import me.piepers.super11.TestHelper;
+import me.piepers.super11.domain.Match;
+import me.piepers.super11.domain.Season;
+import me.piepers.super11.domain.Team;
+import me.piepers.super11.infrastructure.model.EredivisieSeason;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(VertxExtension.class)
+public class EredivisieSeasonParserTest {
+
+    @Test
+    public void test_that_the_parsed_season_is_the_same_as_the_mapped_season() throws IOException {
+        // Given
+        String json = TestHelper.convertJsonFileToString("matches-response.json");
+        Season expected = Season.from(new EredivisieSeason(new JsonObject().put("rounds", new JsonArray(json))));
+
+        // When
+        Season season = EredivisieSeasonParser.parse(json.getBytes(StandardCharsets.UTF_8));
+
+        // Then
+        assertThat(season.getName()).isEqualTo(expected.getName());
+        assertThat(season.getCountry()).isEqualTo(expected.getCountry());
+        assertThat(season.getRounds()).isEqualTo(expected.getRounds());
+        assertThat(season.toJson().getJsonArray("rounds")).isEqualTo(expected.toJson().getJsonArray("rounds"));
+    }
+
+    @Test
+    public void test_that_a_season_fed_in_small_chunks_is_parsed_the_same() throws IOException {
+        // Given
+        byte[] bytes = TestHelper.convertJsonFileToString("matches-response.json").getBytes(StandardCharsets.UTF_8);
+        EredivisieSeasonParser parser = new EredivisieSeasonParser();
+
+        // When
+        for (int offset = 0; offset < bytes.length; offset += 7) {
+            parser.feed(bytes, offset, Math.min(7, bytes.length - offset));
+        }
+        Season season = parser.end();
+
+        // Then
+        assertThat(season.getRounds()).isEqualTo(EredivisieSeasonParser.parse(bytes).getRounds());
+    }
+
+    @Test
+    public void test_that_teams_are_shared_by_their_matches() throws IOException {
+        // Given
+        byte[] bytes = TestHelper.convertJsonFileToString("matches-response.json").getBytes(StandardCharsets.UTF_8);
+
+        // When
+        Season season = EredivisieSeasonParser.parse(bytes);
+
+        // Then
+        Map<Team, Boolean> teams = new IdentityHashMap<>();
+        season.getRounds().stream().flatMap(round -> round.getMatches().stream()).forEach(match -> {
+            teams.put(match.getHome(), true);
+            teams.put(match.getAway(), true);
+        });
+        assertThat(teams).hasSize(18);
+    }
+
+    @Test
+    public void test_that_an_incomplete_or_unexpected_season_is_not_parsed() throws IOException {
+        // Given
+        byte[] bytes = TestHelper.convertJsonFileToString("matches-response.json").getBytes(StandardCharsets.UTF_8);
+
+        // When/then
+        assertThatThrownBy(() -> EredivisieSeasonParser.parse(Arrays.copyOf(bytes, bytes.length / 2)))
+                .isInstanceOf(DecodeException.class);
+        assertThatThrownBy(() -> EredivisieSeasonParser.parse("[".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(DecodeException.class);
+        assertThatThrownBy(() -> EredivisieSeasonParser.parse("{\"rounds\": []}".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(DecodeException.class);
+        assertThatThrownBy(() -> EredivisieSeasonParser.parse("<html></html>".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(DecodeException.class);
+    }
+
+    @Test
+    public void test_that_a_response_without_a_body_has_no_season(Vertx vertx, VertxTestContext testContext) {
+        // Given a server that responds that the season wasn't modified.
+        vertx.createHttpServer()
+                .requestHandler(request -> request.response().setStatusCode(304).end())
+                .listen(0, testContext.succeeding(server -> WebClient
+                        .create(vertx)
+                        .get(server.actualPort(), "localhost", "/")
+                        .putHeader("If-None-Match", "\"1\"")
+                        .as(EredivisieSeasonParser.bodyCodec())
+                        // When
+                        .send(testContext.succeeding(response -> testContext.verify(() -> {
+                            // Then
+                            assertThat(response.statusCode()).isEqualTo(304);
+                            assertThat(response.body()).isNull();
+                            testContext.completeNow();
+                        })))));
+    }
+
+    @Test
+    public void test_that_a_season_is_parsed_while_the_response_is_received(Vertx vertx, VertxTestContext testContext) throws IOException {
+        // Given a server that sends the season in chunks.
+        byte[] bytes = TestHelper.convertJsonFileToString("matches-response.json").getBytes(StandardCharsets.UTF_8);
+        Season expected = EredivisieSeasonParser.parse(bytes);
+
+        vertx.createHttpServer()
+                .requestHandler(request -> {
+                    request.response().setChunked(true);
+                    for (int offset = 0; offset < bytes.length; offset += 4096) {
+                        request.response().write(Buffer.buffer(Arrays.copyOfRange(bytes, offset, Math.min(offset + 4096, bytes.length))));
+                    }
+                    request.response().end();
+                })
+                .listen(0, testContext.succeeding(server -> WebClient
+                        .create(vertx)
+                        .get(server.actualPort(), "localhost", "/")
+                        .as(EredivisieSeasonParser.bodyCodec())
+                        // When
+                        .send(testContext.succeeding(response -> testContext.verify(() -> {
+                            // Then
+                            assertThat(response.body().getRounds()).isEqualTo(expected.getRounds());
+                            Match first = response.body().getRounds().get(0).getMatches().get(0);
+                            assertThat(first.getHome().getName()).isEqualTo("PEC Zwolle");
+                            testContext.completeNow();
+                        })))));
+    }
+}
@@ -0,0 +1,162 @@
+package me.piepers.super11.infrastructure;
+
+import io.reactivex.Completable;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import me.piepers.super11.TestHelper;
+import me.piepers.super11.domain.Season;
+import me.piepers.super11.infrastructure.model.EredivisieSeason;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SeasonStoreTest {
+    private Vertx vertx;
+    private Path directory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.vertx = Vertx.vertx();
+        this.directory = Files.createTempDirectory("super-11");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        this.vertx.close();
+        try (var files = Files.list(this.directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(this.directory);
+    }
+
+    @Test
+    public void test_that_a_written_season_is_read_back_the_same() throws IOException {
+        // Given
+        Season season = season();
+        Path file = this.directory.resolve("season.bin");
+
+        // When
+        SeasonStore.write(season, file);
+        Season read = SeasonStore.read(file);
+
+        // Then
+        assertThat(read.getName()).isEqualTo(season.getName());
+        assertThat(read.getCountry()).isEqualTo(season.getCountry());
+        assertThat(read.getLastUpdated()).isEqualTo(season.getLastUpdated());
+        assertThat(read.getRounds()).isEqualTo(season.getRounds());
+        assertThat(read.getRounds().get(0).getMatches().get(0).getHome().getName()).isEqualTo(season.getRounds().get(0).getMatches().get(0).getHome().getName());
+        assertThat(read.toJson()).isEqualTo(season.toJson());
+        // Only the file itself is left, not the temporary file it was written to.
+        try (var files = Files.list(this.directory)) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+
+    @Test
+    public void test_that_a_corrupted_season_is_not_read() throws IOException {
+        // Given
+        Path file = this.directory.resolve("season.bin");
+        SeasonStore.write(season(), file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(file, bytes);
+
+        // When/then
+        assertThatThrownBy(() -> SeasonStore.read(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("checksum");
+    }
+
+    @Test
+    public void test_that_a_truncated_season_is_not_read() throws IOException {
+        // Given
+        Path file = this.directory.resolve("season.bin");
+        SeasonStore.write(season(), file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 10));
+
+        // When/then
+        assertThatThrownBy(() -> SeasonStore.read(file)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void test_that_a_json_file_is_not_read_as_a_stored_season() throws IOException {
+        // Given
+        Path file = this.directory.resolve("season.json");
+        Files.write(file, season().toJson().encode().getBytes());
+
+        // When/then
+        assertThatThrownBy(() -> SeasonStore.read(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not a stored season");
+    }
+
+    @Test
+    public void test_that_a_missing_or_unreadable_store_loads_nothing() throws IOException {
+        // Given
+        SeasonStore missing = new SeasonStore(this.vertx, this.directory.resolve("missing.bin"));
+        Path corruptFile = this.directory.resolve("corrupt.bin");
+        Files.write(corruptFile, new byte[]{1, 2, 3});
+        SeasonStore corrupt = new SeasonStore(this.vertx, corruptFile);
+
+        // When/then
+        assertThat(missing.rxLoad().blockingGet()).isNull();
+        assertThat(corrupt.rxLoad().blockingGet()).isNull();
+    }
+
+    @Test
+    public void test_that_overlapping_saves_are_coalesced_to_the_newest_season() throws Exception {
+        // Given
+        Path file = this.directory.resolve("season.bin");
+        SeasonStore seasonStore = new SeasonStore(this.vertx, file);
+        Season first = Season.of("Eredivisie", "NL", Instant.parse("2019-04-01T00:00:00Z"), season().getRounds());
+        Season second = Season.of("Eredivisie", "NL", Instant.parse("2019-04-02T00:00:00Z"), season().getRounds());
+        Season third = Season.of("Eredivisie", "NL", Instant.parse("2019-04-03T00:00:00Z"), season().getRounds());
+
+        // When all saves are done while the first one is being written.
+        CompletableFuture<List<Completable>> saves = new CompletableFuture<>();
+        this.vertx.runOnContext(v -> saves.complete(List.of(seasonStore.save(first), seasonStore.save(second), seasonStore.save(third))));
+        for (Completable save : saves.get()) {
+            save.blockingAwait();
+        }
+
+        // Then
+        assertThat(SeasonStore.read(file).getLastUpdated()).isEqualTo(third.getLastUpdated());
+        assertThat(seasonStore.writes()).isEqualTo(2);
+    }
+
+    @Test
+    public void test_that_a_season_is_exported_to_and_imported_from_json() throws IOException {
+        // Given
+        Season season = season();
+        Path jsonFile = this.directory.resolve("season.json");
+        SeasonStore seasonStore = new SeasonStore(this.vertx, this.directory.resolve("season.bin"));
+
+        // When
+        seasonStore.rxExportJson(season, jsonFile).blockingAwait();
+        Season imported = seasonStore.rxImportJson(jsonFile).blockingGet();
+
+        // Then
+        assertThat(imported.getRounds()).isEqualTo(season.getRounds());
+        assertThat(seasonStore.rxImportJson(this.directory.resolve("missing.json")).blockingGet()).isNull();
+    }
+
+    private static Season season() throws IOException {
+        String json = TestHelper.convertJsonFileToString("matches-response.json");
+        return Season.from(new EredivisieSeason(new JsonObject().put("rounds", new JsonArray(json))));
+    }
+}
@@ -0,0 +1,191 @@
+package me.piepers.super11.infrastructure;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import me.piepers.super11.domain.Competition;
+import me.piepers.super11.domain.Draft;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StandingsHistoryLogTest {
+    private static final Instant START = Instant.parse("2019-04-14T12:30:00Z");
+
+    private Vertx vertx;
+    private Path directory;
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.vertx = Vertx.vertx();
+        this.directory = Files.createTempDirectory("super-11");
+        this.file = this.directory.resolve("standings-history.log");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        this.vertx.close();
+        try (var files = Files.list(this.directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(this.directory);
+    }
+
+    @Test
+    public void test_that_standings_that_did_not_change_are_not_appended() throws IOException {
+        // Given
+        StandingsHistoryLog log = new StandingsHistoryLog(this.vertx, this.file);
+
+        // When
+        boolean first = log.append(START, List.of(draft("d1", "Uden", 1, 10, 100L), draft("d2", "Volkel", 2, 8, 90L)));
+        boolean same = log.append(START.plusSeconds(60), List.of(draft("d1", "Uden", 1, 10, 100L), draft("d2", "Volkel", 2, 8, 90L)));
+        boolean changed = log.append(START.plusSeconds(120), List.of(draft("d2", "Volkel", 1, 12, 104L), draft("d1", "Uden", 2, 10, 100L)));
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(same).isFalse();
+        assertThat(changed).isTrue();
+        assertThat(log.records()).isEqualTo(2);
+        log.close();
+    }
+
+    @Test
+    public void test_that_the_history_of_a_draft_has_its_standing_at_the_start_and_every_change_in_the_period() throws IOException {
+        // Given a draft of which the points change every minute, and one that doesn't change at all.
+        StandingsHistoryLog log = new StandingsHistoryLog(this.vertx, this.file);
+        for (int minute = 0; minute < 100; minute++) {
+            log.append(START.plusSeconds(minute * 60L), List.of(draft("d1", "Uden", 1, minute, 100L + minute), draft("d2", "Volkel", 2, 0, 50L)));
+        }
+
+        // When
+        List<StandingsHistoryLog.DraftStanding> history = log.historyOf("d1", START.plusSeconds(50 * 60 + 30), START.plusSeconds(53 * 60));
+        List<StandingsHistoryLog.DraftStanding> unchanged = log.historyOf("d2", START.plusSeconds(50 * 60), START.plusSeconds(60 * 60));
+
+        // Then
+        assertThat(history.stream().map(StandingsHistoryLog.DraftStanding::getPoints).collect(Collectors.toList())).containsExactly(50, 51, 52, 53);
+        assertThat(history.get(0).getAt()).isEqualTo(START.plusSeconds(50 * 60));
+        assertThat(history.get(3).getTotalPoints()).isEqualTo(153L);
+        assertThat(unchanged).hasSize(1);
+        assertThat(unchanged.get(0).getDraftName()).isEqualTo("Volkel");
+        assertThat(log.historyOf("d3", START, START.plusSeconds(6000))).isEmpty();
+        assertThat(log.keyframes()).isGreaterThan(1).isLessThan(log.records());
+        log.close();
+    }
+
+    @Test
+    public void test_that_the_standings_at_a_moment_are_the_last_ones_recorded_before_it_ordered_by_rank() throws IOException {
+        // Given
+        StandingsHistoryLog log = new StandingsHistoryLog(this.vertx, this.file);
+        log.append(START, List.of(draft("d1", "Uden", 1, 10, 100L), draft("d2", "Volkel", 2, 8, 90L), draft("d3", "Boekel", 3, 2, 80L)));
+        log.append(START.plusSeconds(3600), List.of(draft("d2", "Volkel", 1, 14, 110L), draft("d1", "Uden", 2, 10, 100L)));
+
+        // When
+        StandingsHistoryLog.StandingsAt before = log.standingsAt(START.plusSeconds(1800));
+        StandingsHistoryLog.StandingsAt after = log.standingsAt(START.plusSeconds(7200));
+
+        // Then
+        assertThat(log.standingsAt(START.minusSeconds(1))).isNull();
+        assertThat(before.getRecordedAt()).isEqualTo(START);
+        assertThat(before.getStandings().stream().map(StandingsHistoryLog.DraftStanding::getId).collect(Collectors.toList())).containsExactly("d1", "d2", "d3");
+        assertThat(after.getRecordedAt()).isEqualTo(START.plusSeconds(3600));
+        assertThat(after.getStandings().stream().map(StandingsHistoryLog.DraftStanding::getId).collect(Collectors.toList())).containsExactly("d2", "d1");
+        assertThat(after.getStandings().get(0).getPoints()).isEqualTo(14);
+        log.close();
+    }
+
+    @Test
+    public void test_that_a_reopened_log_has_the_records_up_to_a_record_that_was_only_partly_written() throws IOException {
+        // Given a log of which the last record was only partly written.
+        StandingsHistoryLog log = new StandingsHistoryLog(this.vertx, this.file);
+        for (int minute = 0; minute < 40; minute++) {
+            log.append(START.plusSeconds(minute * 60L), List.of(draft("d1", "Uden", 1, minute, 100L + minute)));
+        }
+        log.append(START.plusSeconds(40 * 60L), List.of(draft("d1", "Uden Zuid", 1, 40, 140L)));
+        log.close();
+        try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long last = lastRecordPosition(channel);
+            channel.write(ByteBuffer.wrap(new byte[]{0x7F}), last + StandingsHistoryLog.RECORD_HEADER_LENGTH + 3);
+        }
+
+        // When
+        StandingsHistoryLog reopened = new StandingsHistoryLog(this.vertx, this.file);
+        int records = reopened.records();
+        boolean appended = reopened.append(START.plusSeconds(41 * 60L), List.of(draft("d1", "Uden", 1, 41, 141L)));
+
+        // Then
+        assertThat(records).isEqualTo(40);
+        assertThat(appended).isTrue();
+        assertThat(reopened.records()).isEqualTo(41);
+        assertThat(reopened.standingsAt(START.plusSeconds(39 * 60L)).getStandings().get(0).getPoints()).isEqualTo(39);
+        assertThat(reopened.standingsAt(START.plusSeconds(41 * 60L)).getStandings().get(0).getPoints()).isEqualTo(41);
+        reopened.close();
+    }
+
+    @Test
+    public void test_that_the_history_is_recorded_and_queried_on_a_worker() throws Exception {
+        // Given
+        StandingsHistoryLog log = new StandingsHistoryLog(this.vertx, this.file);
+        Competition competition = new Competition(new JsonObject()
+                .put("data", new JsonObject()
+                        .put("drafts", new JsonArray()
+                                .add(draftJson("d1", "Uden", 1, 10, 100L))
+                                .add(draftJson("d2", "Volkel", 2, 8, 90L)))
+                        .put("draftsMetadata", new JsonObject())));
+
+        // When
+        StandingsHistoryLog.StandingsAt standings = log
+                .record(START, competition)
+                .andThen(log.rxStandingsAt(START.plusSeconds(60)))
+                .blockingGet();
+        log.rxClose().blockingAwait();
+
+        // Then
+        assertThat(standings.getStandings()).hasSize(2);
+        assertThat(standings.getStandings().get(0).toJson().getString("draftName")).isEqualTo("Uden");
+    }
+
+    // The position of the last record, by following the lengths of the records from the header on.
+    private static long lastRecordPosition(FileChannel channel) throws IOException {
+        ByteBuffer length = ByteBuffer.allocate(4);
+        long position = StandingsHistoryLog.HEADER_LENGTH;
+        long last = position;
+        while (true) {
+            length.clear();
+            channel.read(length, position);
+            int recordLength = length.getInt(0);
+            if (recordLength <= 0) {
+                return last;
+            }
+            last = position;
+            position += StandingsHistoryLog.RECORD_HEADER_LENGTH + recordLength;
+        }
+    }
+
+    private static Draft draft(String id, String name, int rank, int points, long totalPoints) {
+        return new Draft(draftJson(id, name, rank, points, totalPoints));
+    }
+
+    private static JsonObject draftJson(String id, String name, int rank, int points, long totalPoints) {
+        return new JsonObject()
+                .put("id", id)
+                .put("draftName", name)
+                .put("rank", rank)
+                .put("points", points)
+                .put("totalPoints", totalPoints);
+    }
+}
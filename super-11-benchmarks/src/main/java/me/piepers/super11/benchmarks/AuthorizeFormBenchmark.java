@@ -0,0 +1,41 @@
+package me.piepers.super11.benchmarks;
+
+import me.piepers.super11.infrastructure.AuthorizeForm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures finding and filling in the consent form of the OAuth flow with Jsoup. This is done for every new access
+ * key, possibly while a poll of the standings waits for it. Run with -prof gc to see the allocations.
+ *
+ * @author Bas Piepers
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthorizeFormBenchmark {
+    private String authorizeResponse;
+
+    @Setup
+    public void setup() {
+        this.authorizeResponse = BenchmarkFixtures.resourceAsString(BenchmarkFixtures.AUTHORIZE_RESPONSE);
+    }
+
+    @Benchmark
+    public AuthorizeForm parseAuthorizeForm() {
+        return AuthorizeForm.parse(this.authorizeResponse);
+    }
+}
@@ -0,0 +1,90 @@
+package me.piepers.super11.benchmarks;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import me.piepers.super11.domain.Season;
+import me.piepers.super11.infrastructure.model.EredivisieSeason;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+
+/**
+ * Loads the fixtures that the benchmarks share with the tests of the backend.
+ *
+ * @author Bas Piepers
+ */
+public final class BenchmarkFixtures {
+    public static final String MATCHES_RESPONSE = "matches-response.json";
+    public static final String AUTHORIZE_RESPONSE = "authorize-response.html";
+
+    private BenchmarkFixtures() {
+        // Only static helpers.
+    }
+
+    public static String resourceAsString(String fileName) {
+        try (InputStream inputStream = BenchmarkFixtures.class.getClassLoader().getResourceAsStream(fileName);
+             BufferedReader br = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            return br.lines().collect(Collectors.joining(System.lineSeparator()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static EredivisieSeason eredivisieSeason() {
+        JsonArray rounds = new JsonArray(resourceAsString(MATCHES_RESPONSE));
+        return new EredivisieSeason(new JsonObject().put("rounds", rounds));
+    }
+
+    public static Season season() {
+        return Season.from(eredivisieSeason());
+    }
+
+    /**
+     * A synthetic response of the competitions API call, scaled to the given number of drafts.
+     *
+     * @param drafts, the number of drafts in the competition.
+     * @return the response as the API returns it.
+     */
+    public static JsonObject competitionJson(int drafts) {
+        JsonArray draftsJson = new JsonArray();
+        for (int rank = 1; rank <= drafts; rank++) {
+            draftsJson.add(new JsonObject()
+                    .put("id", "d" + rank)
+                    .put("draftName", "Draft " + rank)
+                    .put("totalPoints", 2000L - rank % 2000)
+                    .put("isUser", rank == 1)
+                    .put("rank", rank)
+                    .put("movement", rank % 3 - 1)
+                    .put("points", rank % 40)
+                    .put("previousPoints", rank % 35)
+                    .put("previousRank", rank + rank % 3 - 1)
+                    .put("isEmpty", false)
+                    .put("avatarUrl", "https://www.profcoach.nl/avatars/" + rank + ".png")
+                    .put("highLight", false));
+        }
+        return new JsonObject()
+                .put("version", "1")
+                .put("error", false)
+                .put("message", "")
+                .put("status", "OK")
+                .put("data", new JsonObject()
+                        .put("id", "c1")
+                        .put("name", "Super 11")
+                        .put("token", "t0k3n")
+                        .put("periods", new JsonArray().add(new JsonObject().put("field", "1").put("value", "Speelronde 1")))
+                        .put("keys", new JsonArray())
+                        .put("drafts", draftsJson)
+                        .put("draftsMetadata", new JsonObject()
+                                .put("pageIndex", 0)
+                                .put("pageSize", drafts)
+                                .put("totalCount", drafts)
+                                .put("totalPages", 1)
+                                .put("hasPreviousPage", false)
+                                .put("hasNextPage", false)));
+    }
+}
@@ -0,0 +1,80 @@
+package me.piepers.super11.benchmarks;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import me.piepers.super11.application.model.StandingsDto;
+import me.piepers.super11.application.model.StandingsSnapshot;
+import me.piepers.super11.domain.Competition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures what happens with every poll of the standings, for a league of our size and for (much) bigger leagues:
+ * reading the competition from the response, mapping the drafts to {@link StandingsDto}s, encoding them and making a
+ * {@link StandingsSnapshot} of them (which also hashes them for the ETag). Run with -prof gc to see the allocations.
+ *
+ * @author Bas Piepers
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompetitionBenchmark {
+    @Param({"10", "1000", "100000"})
+    private int drafts;
+
+    private JsonObject competitionJson;
+    private Competition competition;
+    private List<StandingsDto> standings;
+
+    @Setup
+    public void setup() {
+        this.competitionJson = BenchmarkFixtures.competitionJson(this.drafts);
+        this.competition = new Competition(this.competitionJson);
+        this.standings = this.mapStandings();
+    }
+
+    @Benchmark
+    public Competition competitionFromJson() {
+        return new Competition(this.competitionJson);
+    }
+
+    @Benchmark
+    public List<StandingsDto> mapStandings() {
+        return this.competition
+                .getData()
+                .getDrafts()
+                .stream()
+                .map(StandingsDto::from)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public String encodeStandings() {
+        return new JsonArray(this.standings
+                .stream()
+                .map(StandingsDto::toJson)
+                .collect(Collectors.toList()))
+                .encode();
+    }
+
+    @Benchmark
+    public StandingsSnapshot snapshotStandings() {
+        return StandingsSnapshot.from(this.competition, null);
+    }
+}
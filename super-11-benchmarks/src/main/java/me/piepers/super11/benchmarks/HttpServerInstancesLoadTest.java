@@ -0,0 +1,153 @@
+package me.piepers.super11.benchmarks;
+
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
+import me.piepers.super11.application.HttpServerVerticle;
+import me.piepers.super11.application.StandingsSnapshotHolder;
+import me.piepers.super11.application.StaticAssets;
+import me.piepers.super11.application.model.StandingsSnapshot;
+import me.piepers.super11.domain.Competition;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A load test of the number of {@link HttpServerVerticle} instances: deploys the http server with each of the given
+ * numbers of instances (which all serve the same standings, see {@link StandingsSnapshotHolder}) and has the given
+ * number of keep-alive connections ask for the standings as fast as they get them. Reports the requests per second
+ * and the latencies for every number of instances, so that one instance can be compared with one per core. Not a JMH
+ * benchmark, run it with:
+ * <pre>
+ * java -cp target/benchmarks.jar me.piepers.super11.benchmarks.HttpServerInstancesLoadTest [instances] [connections] [seconds] [drafts]
+ * </pre>
+ * The instances are a comma separated list, like 1,4 (the default is 1 and the number of cores). The clients run in
+ * the same process on event loops of their own and take cores from the server, so the comparison only means
+ * something on a machine with more cores than instances.
+ *
+ * @author Bas Piepers
+ */
+public class HttpServerInstancesLoadTest {
+    private static final String STANDINGS_PATH = "/api/standings";
+    private static final long WARM_UP_SECONDS = 5;
+    // The latencies are counted in buckets of 100 microseconds, the last one has everything from a second.
+    private static final long LATENCY_BUCKET_MICROS = 100;
+    private static final int LATENCY_BUCKETS = 10000;
+
+    public static void main(String[] args) throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int[] instances = args.length > 0 ? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray() : new int[]{1, cores};
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int drafts = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+
+        Vertx vertx = Vertx.vertx();
+        Vertx clientVertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(cores));
+        StandingsSnapshot snapshot = StandingsSnapshot.from(new Competition(BenchmarkFixtures.competitionJson(drafts)), null);
+        StandingsSnapshotHolder.create(vertx).publish(snapshot);
+        WebClient webClient = WebClient.create(clientVertx, new WebClientOptions()
+                .setMaxPoolSize(connections)
+                .setKeepAlive(true));
+        // The standings are only gzipped if that makes them smaller enough, which a few drafts don't.
+        String gzipped = snapshot.getEncodings().contains(StaticAssets.GZIP) ? String.valueOf(snapshot.getBody(StaticAssets.GZIP).length()) : "n/a";
+        System.out.printf("%d cores, %d connections asking for the standings of %d drafts (%d bytes, %s gzipped) for %d s after a warm-up of %d s.%n",
+                cores, connections, drafts, snapshot.getBody().length(), gzipped, seconds, WARM_UP_SECONDS);
+
+        for (int count : instances) {
+            int port = freePort();
+            String deploymentId = deploy(vertx, count, port);
+            load(clientVertx, webClient, port, connections, WARM_UP_SECONDS, new AtomicLongArray(LATENCY_BUCKETS), new AtomicLong());
+            AtomicLongArray latencies = new AtomicLongArray(LATENCY_BUCKETS);
+            AtomicLong failed = new AtomicLong();
+            long requests = load(clientVertx, webClient, port, connections, seconds, latencies, failed);
+            System.out.printf("%2d instances: %,.0f requests/s (%d failed), latency p50 %.1f ms, p99 %.1f ms, p99.9 %.1f ms.%n",
+                    count, requests / (double) seconds, failed.get(), percentile(latencies, requests, 0.5),
+                    percentile(latencies, requests, 0.99), percentile(latencies, requests, 0.999));
+            CompletableFuture<Void> undeployed = new CompletableFuture<>();
+            vertx.undeploy(deploymentId, result -> undeployed.complete(null));
+            undeployed.get(10, TimeUnit.SECONDS);
+        }
+        clientVertx.close();
+        vertx.close();
+    }
+
+    private static String deploy(Vertx vertx, int instances, int port) throws Exception {
+        CompletableFuture<String> deployed = new CompletableFuture<>();
+        vertx.deployVerticle(HttpServerVerticle.class.getName(), new DeploymentOptions()
+                .setInstances(instances)
+                .setConfig(new JsonObject().put("http_server", new JsonObject()
+                        .put("port", port)
+                        // Only the api is served.
+                        .put("web_root", "/nonexistent"))), result -> {
+            if (result.succeeded()) {
+                deployed.complete(result.result());
+            } else {
+                deployed.completeExceptionally(result.cause());
+            }
+        });
+        return deployed.get(30, TimeUnit.SECONDS);
+    }
+
+    // Every connection asks for the standings again as soon as it got them, until the given number of seconds passed.
+    // Returns how many requests were answered.
+    private static long load(Vertx clientVertx, WebClient webClient, int port, int connections, long seconds, AtomicLongArray latencies, AtomicLong failed) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong answered = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(connections);
+        for (int i = 0; i < connections; i++) {
+            // Every connection starts on the next event loop of the clients.
+            clientVertx.getOrCreateContext().runOnContext(v -> request(webClient, port, deadline, latencies, answered, failed, done));
+        }
+        done.await();
+        return answered.get();
+    }
+
+    private static void request(WebClient webClient, int port, long deadline, AtomicLongArray latencies, AtomicLong answered, AtomicLong failed, CountDownLatch done) {
+        long start = System.nanoTime();
+        if (start >= deadline) {
+            done.countDown();
+            return;
+        }
+        webClient
+                .get(port, "localhost", STANDINGS_PATH)
+                .putHeader("Accept-Encoding", "gzip")
+                .send(result -> {
+                    if (result.succeeded() && result.result().statusCode() == 200) {
+                        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+                        latencies.incrementAndGet((int) Math.min(LATENCY_BUCKETS - 1, micros / LATENCY_BUCKET_MICROS));
+                        answered.incrementAndGet();
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                    request(webClient, port, deadline, latencies, answered, failed, done);
+                });
+    }
+
+    // In milliseconds, the upper bound of the bucket the percentile is in.
+    private static double percentile(AtomicLongArray latencies, long count, double percentile) {
+        long rank = (long) Math.ceil(count * percentile);
+        long seen = 0;
+        for (int bucket = 0; bucket < latencies.length(); bucket++) {
+            seen += latencies.get(bucket);
+            if (seen >= rank) {
+                return (bucket + 1) * LATENCY_BUCKET_MICROS / 1000.0;
+            }
+        }
+        return LATENCY_BUCKETS * LATENCY_BUCKET_MICROS / 1000.0;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            return serverSocket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package me.piepers.super11.benchmarks;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import me.piepers.super11.application.model.StandingsDto;
+import me.piepers.super11.domain.Season;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares turning the season and the standings into json with Jackson's reflection (JsonObject.mapFrom, like it was
+ * done before) with the converters that are generated for the data objects. Run with -prof gc to compare the
+ * allocations.
+ *
+ * @author Bas Piepers
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonCodecBenchmark {
+    private static final int DRAFTS = 50;
+
+    private Season season;
+    private List<StandingsDto> standings;
+
+    @Setup
+    public void setup() {
+        this.season = BenchmarkFixtures.season();
+        this.standings = IntStream.rangeClosed(1, DRAFTS)
+                .mapToObj(rank -> new StandingsDto(new JsonObject()
+                        .put("id", "d" + rank)
+                        .put("rank", rank)
+                        .put("draftName", "Draft " + rank)
+                        .put("points", rank % 30)
+                        .put("totalPoints", 1000L - rank)))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public String seasonWithReflection() {
+        return JsonObject.mapFrom(this.season).encode();
+    }
+
+    @Benchmark
+    public String seasonWithConverter() {
+        return this.season.toJson().encode();
+    }
+
+    @Benchmark
+    public String standingsWithReflection() {
+        return new JsonArray(this.standings.stream().map(JsonObject::mapFrom).collect(Collectors.toList())).encode();
+    }
+
+    @Benchmark
+    public String standingsWithConverter() {
+        return new JsonArray(this.standings.stream().map(StandingsDto::toJson).collect(Collectors.toList())).encode();
+    }
+}
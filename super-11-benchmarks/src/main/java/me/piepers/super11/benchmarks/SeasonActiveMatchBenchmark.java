@@ -0,0 +1,133 @@
+package me.piepers.super11.benchmarks;
+
+import me.piepers.super11.domain.Match;
+import me.piepers.super11.domain.Round;
+import me.piepers.super11.domain.Season;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the indexed lookups of {@link Season} with the stream based lookups they replaced. The instants that are
+ * looked up are spread over the whole season, so most of them are outside of a match (like in reality).
+ *
+ * @author Bas Piepers
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeasonActiveMatchBenchmark {
+    private static final int PROBES = 1024;
+
+    private Season season;
+    private Instant[] probes;
+    private int next;
+
+    @Setup
+    public void setup() {
+        this.season = BenchmarkFixtures.season();
+        List<Round> rounds = season.getRounds();
+        Instant first = rounds.stream().map(Round::getScheduledStartTime).min(Comparator.naturalOrder()).orElseThrow();
+        Instant last = rounds.stream().map(Round::getScheduledEndTime).max(Comparator.naturalOrder()).orElseThrow();
+        long step = (last.getEpochSecond() - first.getEpochSecond()) / PROBES;
+        this.probes = new Instant[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            this.probes[i] = first.plusSeconds(i * step);
+        }
+    }
+
+    private Instant nextProbe() {
+        next = (next + 1) & (PROBES - 1);
+        return probes[next];
+    }
+
+    @Benchmark
+    public boolean isMatchActiveAtIndexed() {
+        return season.isMatchActiveAt(nextProbe());
+    }
+
+    @Benchmark
+    public boolean isMatchActiveAtStreams() {
+        return StreamLookups.isMatchActiveAt(season.getRounds(), nextProbe());
+    }
+
+    @Benchmark
+    public List<Match> whichMatchesAreActiveAtIndexed() {
+        return season.whichMatchesAreActiveAt(nextProbe());
+    }
+
+    @Benchmark
+    public List<Match> whichMatchesAreActiveAtStreams() {
+        return StreamLookups.whichMatchesAreActiveAt(season.getRounds(), nextProbe());
+    }
+
+    @Benchmark
+    public Optional<Instant> nextKickoffAfterIndexed() {
+        return season.nextKickoffAfter(nextProbe());
+    }
+
+    @Benchmark
+    public Optional<Instant> nextKickoffAfterStreams() {
+        return StreamLookups.nextKickoffAfter(season.getRounds(), nextProbe());
+    }
+
+    /**
+     * The lookups as they were done by {@link Season} before it had an index, without the debug logging.
+     */
+    static final class StreamLookups {
+        private StreamLookups() {
+        }
+
+        static boolean isMatchActiveAt(List<Round> rounds, Instant at) {
+            Optional<Round> round = rounds
+                    .stream()
+                    .filter(r -> at.isAfter(r.getScheduledStartTime()) && at.isBefore(r.getScheduledEndTime()))
+                    .findFirst();
+            return round.isPresent() && round.get()
+                    .getMatches()
+                    .stream()
+                    .anyMatch(match -> at.isAfter(match.getScheduledStartTime()) && at.isBefore(match.getScheduledStartTime().plus(110, ChronoUnit.MINUTES)));
+        }
+
+        static List<Match> whichMatchesAreActiveAt(List<Round> rounds, Instant at) {
+            return rounds
+                    .stream()
+                    .filter(round -> at.isAfter(round.getScheduledStartTime()) && at.isBefore(round.getScheduledEndTime()))
+                    .findFirst()
+                    .map(round -> round
+                            .getMatches()
+                            .stream()
+                            .filter(match -> at.isAfter(match.getScheduledStartTime()) && at.isBefore(match.getScheduledStartTime().plus(110, ChronoUnit.MINUTES)))
+                            .collect(Collectors.toList()))
+                    .orElse(Collections.emptyList());
+        }
+
+        static Optional<Instant> nextKickoffAfter(List<Round> rounds, Instant at) {
+            return rounds
+                    .stream()
+                    .flatMap(round -> round.getMatches().stream())
+                    .map(Match::getScheduledStartTime)
+                    .filter(kickoff -> kickoff.isAfter(at))
+                    .min(Comparator.naturalOrder());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package me.piepers.super11.benchmarks;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import me.piepers.super11.domain.Season;
+import me.piepers.super11.infrastructure.EredivisieSeasonParser;
+import me.piepers.super11.infrastructure.model.EredivisieSeason;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares ingesting the response of the GetAllRounds call of the Eredivisie.nl API by buffering it and mapping it
+ * through a {@link EredivisieSeason} (like it was done before) with parsing it while it comes in with the
+ * {@link EredivisieSeasonParser}. The response arrives in chunks like it would from the network. Run with -prof gc to
+ * compare the allocations.
+ *
+ * @author Bas Piepers
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeasonIngestBenchmark {
+    private static final int CHUNK_SIZE = 8192;
+
+    private byte[][] chunks;
+
+    @Setup
+    public void setup() {
+        byte[] response = BenchmarkFixtures.resourceAsString(BenchmarkFixtures.MATCHES_RESPONSE).getBytes(StandardCharsets.UTF_8);
+        this.chunks = new byte[(response.length + CHUNK_SIZE - 1) / CHUNK_SIZE][];
+        for (int i = 0; i < this.chunks.length; i++) {
+            this.chunks[i] = Arrays.copyOfRange(response, i * CHUNK_SIZE, Math.min((i + 1) * CHUNK_SIZE, response.length));
+        }
+    }
+
+    @Benchmark
+    public Season bufferAndMap() {
+        Buffer body = Buffer.buffer();
+        for (byte[] chunk : this.chunks) {
+            body.appendBytes(chunk);
+        }
+        JsonObject jsonObject = new JsonObject()
+                .put("lastChecked", Instant.now())
+                .put("rounds", new JsonArray(body.toString()));
+        return Season.from(new EredivisieSeason(jsonObject));
+    }
+
+    @Benchmark
+    public Season parseWhileReceiving() {
+        EredivisieSeasonParser parser = new EredivisieSeasonParser();
+        for (byte[] chunk : this.chunks) {
+            parser.feed(chunk, 0, chunk.length);
+        }
+        return parser.end();
+    }
+}
@@ -0,0 +1,61 @@
+package me.piepers.super11.benchmarks;
+
+import io.vertx.core.json.JsonObject;
+import me.piepers.super11.domain.Round;
+import me.piepers.super11.domain.Season;
+import me.piepers.super11.infrastructure.model.EredivisieRound;
+import me.piepers.super11.infrastructure.model.EredivisieSeason;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures mapping the season of the Eredivisie.nl API to our {@link Season} (which parses the dates and sorts the
+ * matches of every round) and reading a season from its json (like a season that was stored as json). Run with
+ * -prof gc to see the allocations.
+ *
+ * @author Bas Piepers
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeasonMappingBenchmark {
+    private EredivisieSeason eredivisieSeason;
+    private EredivisieRound eredivisieRound;
+    private JsonObject seasonJson;
+
+    @Setup
+    public void setup() {
+        this.eredivisieSeason = BenchmarkFixtures.eredivisieSeason();
+        this.eredivisieRound = this.eredivisieSeason.getRounds().get(0);
+        // A copy, so that no benchmark reads json that was cached by another.
+        this.seasonJson = new JsonObject(BenchmarkFixtures.season().toJson().encode());
+    }
+
+    @Benchmark
+    public Season seasonFrom() {
+        return Season.from(this.eredivisieSeason);
+    }
+
+    @Benchmark
+    public Round roundFrom() {
+        return Round.from(this.eredivisieRound);
+    }
+
+    @Benchmark
+    public Season seasonFromJson() {
+        return new Season(this.seasonJson);
+    }
+}
@@ -0,0 +1,67 @@
+package me.piepers.super11.benchmarks;
+
+import io.vertx.core.json.JsonObject;
+import me.piepers.super11.domain.Season;
+import me.piepers.super11.infrastructure.SeasonStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares loading the stored season at startup from the binary {@link SeasonStore} with loading it from the JSON file
+ * like it was done before. Run with -prof gc to compare the allocations.
+ *
+ * @author Bas Piepers
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeasonStoreBenchmark {
+    private Path directory;
+    private Path binaryFile;
+    private Path jsonFile;
+
+    @Setup
+    public void setup() throws IOException {
+        Season season = BenchmarkFixtures.season();
+        this.directory = Files.createTempDirectory("super-11-benchmark");
+        this.binaryFile = this.directory.resolve("season.bin");
+        this.jsonFile = this.directory.resolve("season.json");
+        SeasonStore.write(season, this.binaryFile);
+        Files.write(this.jsonFile, season.toJson().encode().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.binaryFile);
+        Files.deleteIfExists(this.jsonFile);
+        Files.deleteIfExists(this.directory);
+    }
+
+    @Benchmark
+    public Season loadFromBinaryStore() throws IOException {
+        return SeasonStore.read(this.binaryFile);
+    }
+
+    @Benchmark
+    public Season loadFromJsonFile() throws IOException {
+        return new Season(new JsonObject(new String(Files.readAllBytes(this.jsonFile), StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,141 @@
+package me.piepers.super11.benchmarks;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.http.ServerWebSocket;
+import me.piepers.super11.application.Metrics;
+import me.piepers.super11.application.StandingsBroadcastHub;
+import me.piepers.super11.application.model.StandingsSnapshot;
+import me.piepers.super11.domain.Competition;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A load test of the {@link StandingsBroadcastHub}: connects the given number of local web socket clients to one hub
+ * (which, like in the backend, runs on one event loop), of which a few stop reading, and publishes updates of the
+ * standings to them. Reports how long it takes until every client that reads got an update and what the slow clients
+ * cost. Not a JMH benchmark, run it with:
+ * <pre>
+ * java -cp target/benchmarks.jar me.piepers.super11.benchmarks.StandingsBroadcastLoadTest [clients] [updates] [drafts]
+ * </pre>
+ * Every client takes two file descriptors of this process (both ends of the connection), so raise the limit
+ * (ulimit -n) for tens of thousands of clients.
+ *
+ * @author Bas Piepers
+ */
+public class StandingsBroadcastLoadTest {
+    // One in so many clients stops reading.
+    private static final int SLOW_CLIENT_RATIO = 100;
+    private static final int CONCURRENT_CONNECTS = 256;
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int updates = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int drafts = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        Vertx vertx = Vertx.vertx();
+        // The clients have event loops of their own, so that the hub has its event loop to itself.
+        Vertx clientVertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(Runtime.getRuntime().availableProcessors()));
+        Context context = vertx.getOrCreateContext();
+        Metrics metrics = Metrics.create(vertx);
+        StandingsBroadcastHub standingsBroadcastHub = new StandingsBroadcastHub(metrics, 64 * 1024, TimeUnit.MINUTES.toMillis(1));
+        CompletableFuture<HttpServer> listening = new CompletableFuture<>();
+        context.runOnContext(v -> vertx
+                .createHttpServer(new HttpServerOptions().setAcceptBacklog(4096))
+                .websocketHandler(socket -> standingsBroadcastHub.connect(ServerWebSocket.newInstance(socket), null))
+                .listen(0, result -> {
+                    if (result.succeeded()) {
+                        listening.complete(result.result());
+                    } else {
+                        listening.completeExceptionally(result.cause());
+                    }
+                }));
+        int port = listening.get(10, TimeUnit.SECONDS).actualPort();
+
+        // Every update a client that reads gets counts down the latch of its version.
+        int slowClients = clients / SLOW_CLIENT_RATIO;
+        CountDownLatch[] received = new CountDownLatch[updates + 1];
+        for (int version = 1; version <= updates; version++) {
+            received[version] = new CountDownLatch(clients - slowClients);
+        }
+        AtomicInteger failed = new AtomicInteger();
+        // The web sockets of a client count as connections of its pool.
+        HttpClient httpClient = clientVertx.createHttpClient(new HttpClientOptions()
+                .setMaxPoolSize(clients)
+                .setMaxWebsocketFrameSize(16 * 1024 * 1024));
+        Semaphore connecting = new Semaphore(CONCURRENT_CONNECTS);
+        CountDownLatch connected = new CountDownLatch(clients);
+        long connectStart = System.nanoTime();
+        for (int i = 0; i < clients; i++) {
+            boolean slow = i % SLOW_CLIENT_RATIO == SLOW_CLIENT_RATIO - 1;
+            connecting.acquire();
+            httpClient.websocket(port, "localhost", "/api/standings/ws", socket -> {
+                if (slow) {
+                    socket.pause();
+                } else {
+                    socket.textMessageHandler(text -> {
+                        long version = new JsonObject(text).getLong("version");
+                        if (version <= updates) {
+                            received[(int) version].countDown();
+                        }
+                    });
+                }
+                connecting.release();
+                connected.countDown();
+            }, throwable -> {
+                failed.incrementAndGet();
+                connecting.release();
+                connected.countDown();
+            });
+        }
+        connected.await();
+        System.out.printf("Connected %d clients (%d failed) in %d ms, %d of them stop reading.%n", clients - failed.get(),
+                failed.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart), slowClients);
+        if (failed.get() > 0) {
+            System.out.println("Not all clients could connect, raise the limit of open files (ulimit -n).");
+            clientVertx.close();
+            vertx.close();
+            return;
+        }
+
+        // Every update changes the points of one draft, like most polls during a match do.
+        JsonObject competitionJson = BenchmarkFixtures.competitionJson(drafts);
+        long[] fanOutMicros = new long[updates];
+        long updateBytes = 0;
+        StandingsSnapshot previous = null;
+        for (int version = 1; version <= updates; version++) {
+            competitionJson.getJsonObject("data").getJsonArray("drafts").getJsonObject(version % drafts).put("points", 100 + version);
+            StandingsSnapshot snapshot = StandingsSnapshot.from(new Competition(competitionJson), previous);
+            long start = System.nanoTime();
+            context.runOnContext(v -> standingsBroadcastHub.publish(snapshot));
+            if (!received[version].await(30, TimeUnit.SECONDS)) {
+                System.out.printf("Version %d did not reach %d clients.%n", version, received[version].getCount());
+            }
+            fanOutMicros[version - 1] = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            updateBytes += snapshot.getUpdate().length();
+            previous = snapshot;
+        }
+        Arrays.sort(fanOutMicros);
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.out.printf("Fan-out of %d updates of %d bytes on average (the full standings are %d bytes) to %d clients: p50 %.1f ms, p90 %.1f ms, max %.1f ms.%n",
+                updates, updateBytes / updates, previous.getBody().length(), clients - slowClients,
+                fanOutMicros[updates / 2] / 1000.0, fanOutMicros[updates * 9 / 10] / 1000.0, fanOutMicros[updates - 1] / 1000.0);
+        System.out.printf("Heap used: %d MB.%n", (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024));
+        System.out.println("Metrics: " + metrics.toJson().encode());
+        clientVertx.close();
+        vertx.close();
+    }
+}